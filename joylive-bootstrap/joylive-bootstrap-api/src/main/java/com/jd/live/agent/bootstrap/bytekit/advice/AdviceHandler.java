@@ -24,8 +24,12 @@ import com.jd.live.agent.bootstrap.logger.Logger;
 import com.jd.live.agent.bootstrap.logger.LoggerFactory;
 import com.jd.live.agent.bootstrap.plugin.definition.Interceptor;
 
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Consumer;
 
 /**
@@ -41,6 +45,39 @@ public class AdviceHandler {
      */
     private static final Map<Object, AdviceInterceptor> advices = new ConcurrentHashMap<>(1000);
 
+    /**
+     * The low bits of an index address the slot, the high bits hold the generation of the slot.
+     */
+    private static final int SLOT_BITS = 20;
+
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+
+    private static final int GENERATION_MASK = (1 << (31 - SLOT_BITS)) - 1;
+
+    /**
+     * The slots are allocated in chunks, so registering an advice does not copy the allocated slots.
+     */
+    private static final int CHUNK_BITS = 10;
+
+    private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+
+    /**
+     * The advices indexed by their slots, a chunk is appended when the allocated chunks are used up.
+     */
+    @SuppressWarnings("unchecked")
+    private static volatile AtomicReferenceArray<AdviceInterceptor>[] chunks = new AtomicReferenceArray[]{
+            new AtomicReferenceArray<AdviceInterceptor>(1 << CHUNK_BITS)};
+
+    /**
+     * The indices released by the removed advices, guarded by the class lock.
+     */
+    private static final Deque<Integer> releases = new ArrayDeque<>();
+
+    /**
+     * The number of allocated slots, guarded by the class lock.
+     */
+    private static int size;
+
     public static Consumer<Throwable> onException;
 
     /**
@@ -56,7 +93,7 @@ public class AdviceHandler {
      * @throws Throwable if any exception occurs during interception
      */
     public static void onEnter(final ExecutableContext context) throws Throwable {
-        AdviceInterceptor adviceDesc = advices.get(context.getKey());
+        AdviceInterceptor adviceDesc = getAdvice(context);
         if (adviceDesc != null) {
             adviceDesc.onEnter(context, (AdviceInterceptor.SkippableCaller) AdviceHandler::onEnter);
         }
@@ -69,12 +106,42 @@ public class AdviceHandler {
      * @throws Throwable if any exception occurs during interception
      */
     public static void onExit(final ExecutableContext context) throws Throwable {
-        AdviceInterceptor adviceDesc = advices.get(context.getKey());
+        AdviceInterceptor adviceDesc = getAdvice(context);
         if (adviceDesc != null) {
             adviceDesc.onExit(context, AdviceHandler::onSuccess, AdviceHandler::onError, AdviceHandler::onExit);
         }
     }
 
+    /**
+     * Gets the advice of the context by its constant index, or by its key if the context has no index.
+     * The index woven before the advice was removed no longer matches the slot, so it is looked up by its key.
+     *
+     * @param context the execution context
+     * @return the advice, or null if it does not exist
+     */
+    private static AdviceInterceptor getAdvice(final ExecutableContext context) {
+        int index = context.getIndex();
+        if (index >= 0) {
+            AdviceInterceptor result = getSlot(index & SLOT_MASK);
+            if (result != null && result.getIndex() == index) {
+                return result;
+            }
+        }
+        return advices.get(context.getKey());
+    }
+
+    /**
+     * Gets the advice in the slot.
+     *
+     * @param slot the slot of the advice
+     * @return the advice, or null if the slot is empty or not allocated
+     */
+    private static AdviceInterceptor getSlot(final int slot) {
+        AtomicReferenceArray<AdviceInterceptor>[] values = chunks;
+        int chunk = slot >>> CHUNK_BITS;
+        return chunk < values.length ? values[chunk].get(slot & CHUNK_MASK) : null;
+    }
+
     /**
      * Handles the entry point of an executable context by invoking the onEnter method of the given interceptor.
      *
@@ -152,16 +219,66 @@ public class AdviceHandler {
      * @return the AdviceDesc instance
      */
     public static AdviceInterceptor getOrCreate(final Object adviceKey) {
-        return advices.computeIfAbsent(adviceKey, AdviceInterceptor::new);
+        return advices.computeIfAbsent(adviceKey, AdviceHandler::create);
     }
 
     /**
-     * Removes advice identified by its unique key.
+     * Removes advice identified by its unique key, and releases its slot.
      *
      * @param adviceKey the unique key of the advice to be removed
      */
     public static void remove(final Object adviceKey) {
-        advices.remove(adviceKey);
+        AdviceInterceptor result = advices.remove(adviceKey);
+        if (result != null) {
+            release(result);
+        }
+    }
+
+    /**
+     * Creates the advice and puts it into a free slot.
+     * A released slot is reused with the next generation, so the code woven with its previous index is
+     * not dispatched to the new advice.
+     *
+     * @param key the unique key of the advice
+     * @return the advice, whose index is -1 if there is no free slot
+     */
+    private static synchronized AdviceInterceptor create(final Object key) {
+        int index;
+        Integer released = releases.poll();
+        if (released != null) {
+            int generation = ((released >>> SLOT_BITS) + 1) & GENERATION_MASK;
+            index = (generation << SLOT_BITS) | (released & SLOT_MASK);
+        } else if (size <= SLOT_MASK) {
+            index = size++;
+        } else {
+            return new AdviceInterceptor(key);
+        }
+        AdviceInterceptor result = new AdviceInterceptor(key, index);
+        int slot = index & SLOT_MASK;
+        int chunk = slot >>> CHUNK_BITS;
+        AtomicReferenceArray<AdviceInterceptor>[] values = chunks;
+        if (chunk >= values.length) {
+            values = Arrays.copyOf(values, chunk + 1);
+            values[chunk] = new AtomicReferenceArray<>(1 << CHUNK_BITS);
+            chunks = values;
+        }
+        values[chunk].set(slot & CHUNK_MASK, result);
+        return result;
+    }
+
+    /**
+     * Clears the slot of the removed advice, so that it no longer references the advice
+     * and its class loader, and makes the slot reusable.
+     *
+     * @param advice the removed advice
+     */
+    private static synchronized void release(final AdviceInterceptor advice) {
+        int index = advice.getIndex();
+        int slot = index & SLOT_MASK;
+        if (index >= 0 && getSlot(slot) == advice) {
+            chunks[slot >>> CHUNK_BITS].set(slot & CHUNK_MASK, null);
+            releases.add(index);
+        }
     }
 
 }
@@ -21,6 +21,7 @@ import com.jd.live.agent.bootstrap.plugin.PluginListener;
 import com.jd.live.agent.bootstrap.plugin.PluginPublisher;
 import com.jd.live.agent.bootstrap.plugin.definition.Interceptor;
 import lombok.Getter;
+import lombok.Setter;
 
 import java.lang.reflect.Method;
 import java.util.Map;
@@ -39,6 +40,12 @@ public class AdviceInterceptor implements PluginListener {
     @Getter
     private final Object key;
 
+    /**
+     * Constant index of the advice, which is baked into the woven code.
+     */
+    @Getter
+    private final int index;
+
     private final AtomicReference<MethodInterceptor> interceptors = new AtomicReference<>();
 
     /**
@@ -51,13 +58,32 @@ public class AdviceInterceptor implements PluginListener {
      */
     private final AtomicReference<Object> reference = new AtomicReference<>();
 
+    /**
+     * Data attached by the bytekit implementation, such as the arguments bound by the woven code.
+     * It is released together with the advice.
+     */
+    @Getter
+    @Setter
+    private volatile Object attachment;
+
     /**
      * Creates advice descriptor with specified key.
      *
      * @param key unique advice identifier
      */
     public AdviceInterceptor(Object key) {
+        this(key, -1);
+    }
+
+    /**
+     * Creates advice descriptor with specified key and index.
+     *
+     * @param key   unique advice identifier
+     * @param index constant index of the advice
+     */
+    public AdviceInterceptor(Object key, int index) {
         this.key = key;
+        this.index = index;
     }
 
     /**
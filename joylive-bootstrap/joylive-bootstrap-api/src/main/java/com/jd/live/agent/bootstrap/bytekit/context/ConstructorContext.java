@@ -41,7 +41,20 @@ public class ConstructorContext extends ExecutableContext {
      * @param description A String providing a description of the constructor invocation context.
      */
     public ConstructorContext(Constructor<?> constructor, Object[] arguments, String description) {
-        super(constructor.getDeclaringClass(), arguments, description);
+        this(constructor, arguments, description, -1);
+    }
+
+    /**
+     * Constructor for the ConstructorContext class.
+     * Initializes the context with the given type, arguments, constructor, description and advice index.
+     *
+     * @param constructor The Constructor object representing the constructor being invoked.
+     * @param arguments   An array of Objects representing the arguments to be passed to the constructor.
+     * @param description A String providing a description of the constructor invocation context.
+     * @param index       The index of the advice assigned at weaving time.
+     */
+    public ConstructorContext(Constructor<?> constructor, Object[] arguments, String description, int index) {
+        super(constructor.getDeclaringClass(), arguments, description, index);
         this.constructor = constructor;
     }
 
@@ -62,7 +62,16 @@ public abstract class ExecutableContext extends AbstractAttributes {
     @Setter
     protected Throwable throwable;
 
-    @Getter
+    /**
+     * The index of the advice assigned at weaving time, or -1 if the advice is looked up by its key.
+     */
+    protected final int index;
+
+    /**
+     * The description of the advice key, which is suffixed for the dedicated advice of a plugin.
+     */
+    protected final String adviceDescription;
+
     protected AdviceKey key;
 
     private LockContext lock;
@@ -75,13 +84,55 @@ public abstract class ExecutableContext extends AbstractAttributes {
      * @param description a description of the executable context
      */
     public ExecutableContext(final Class<?> type, final Object[] arguments, final String description) {
+        this(type, arguments, description, -1);
+    }
+
+    /**
+     * Creates a new instance of ExecutableContext.
+     *
+     * @param type        the type of the executable
+     * @param arguments   the arguments passed to the executable
+     * @param description a description of the executable context
+     * @param index       the index of the advice assigned at weaving time
+     */
+    public ExecutableContext(final Class<?> type, final Object[] arguments, final String description, final int index) {
+        this(type, arguments, description, index, description);
+    }
+
+    /**
+     * Creates a new instance of ExecutableContext.
+     *
+     * @param type              the type of the executable
+     * @param arguments         the arguments passed to the executable
+     * @param description       a description of the executable context
+     * @param index             the index of the advice assigned at weaving time
+     * @param adviceDescription the description of the advice key assigned at weaving time
+     */
+    public ExecutableContext(final Class<?> type,
+                             final Object[] arguments,
+                             final String description,
+                             final int index,
+                             final String adviceDescription) {
         this.type = type;
         this.arguments = arguments;
         this.description = description;
-        this.key = type == null ? null : new AdviceKey(description, type.getClassLoader());
+        this.index = index;
+        this.adviceDescription = adviceDescription;
         this.id = COUNTER.incrementAndGet();
     }
 
+    /**
+     * Gets the advice key, which is created on demand.
+     *
+     * @return the advice key, or null if the type is unknown
+     */
+    public AdviceKey getKey() {
+        if (key == null && type != null) {
+            key = new AdviceKey(adviceDescription, type.getClassLoader());
+        }
+        return key;
+    }
+
     /**
      * Checks if the execution should be skipped.
      *
@@ -124,7 +175,7 @@ public abstract class ExecutableContext extends AbstractAttributes {
      * @return this context for method chaining
      */
     public ExecutableContext setArgument(final int index, final Object value) {
-        if (index >= 0 && index < arguments.length) {
+        if (arguments != null && index >= 0 && index < arguments.length) {
             arguments[index] = value;
         }
         return this;
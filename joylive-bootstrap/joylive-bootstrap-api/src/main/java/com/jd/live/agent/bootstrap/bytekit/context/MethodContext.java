@@ -75,8 +75,38 @@ public class MethodContext extends ExecutableContext {
      */
     public MethodContext(final Object target, final Method method,
                          final Object[] arguments, final String description) {
+        this(target, method, arguments, description, -1);
+    }
+
+    /**
+     * Constructs a new MethodContext with specified details of the method execution.
+     *
+     * @param target      The instance on which the method will be executed.
+     * @param method      The method to be executed.
+     * @param arguments   The arguments to be passed to the method.
+     * @param description A description of the execution context.
+     * @param index       The index of the advice assigned at weaving time.
+     */
+    public MethodContext(final Object target, final Method method,
+                         final Object[] arguments, final String description, final int index) {
+        this(target, method, arguments, description, index, description);
+    }
+
+    /**
+     * Constructs a new MethodContext with specified details of the method execution.
+     *
+     * @param target            The instance on which the method will be executed.
+     * @param method            The method to be executed.
+     * @param arguments         The arguments to be passed to the method.
+     * @param description       A description of the execution context.
+     * @param index             The index of the advice assigned at weaving time.
+     * @param adviceDescription The description of the advice key assigned at weaving time.
+     */
+    public MethodContext(final Object target, final Method method,
+                         final Object[] arguments, final String description, final int index,
+                         final String adviceDescription) {
         // target is null in static method
-        super(target != null ? target.getClass() : method.getDeclaringClass(), arguments, description);
+        super(target != null ? target.getClass() : method.getDeclaringClass(), arguments, description, index, adviceDescription);
         this.target = target;
         this.method = method;
     }
@@ -28,6 +28,7 @@ import java.util.*;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -43,6 +44,8 @@ public class LiveClassLoader extends URLClassLoader implements URLResourcer {
 
     private static final Map<ClassLoader, ClassResolver> resolvers = new ConcurrentHashMap<>();
 
+    private static final int MAX_MISSES = 4096;
+
     /**
      * The type of resources this class loader is concerned with.
      */
@@ -72,6 +75,22 @@ public class LiveClassLoader extends URLClassLoader implements URLResourcer {
     @Getter
     private final Set<String> packageNames = new HashSet<>();
 
+    /**
+     * The packages contained in the urls, built at the first class lookup.
+     */
+    private volatile PackageIndex index;
+
+    /**
+     * The classes of the indexed packages that are known to be missing.
+     */
+    private final Set<String> misses = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The generation of the urls, which is increased when the urls are added.
+     * The index and the misses found with the former urls are not recorded.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
     /**
      * Constructs a new LiveClassLoader with the specified URLs, parent class loader, type, and filter.
      *
@@ -115,6 +134,9 @@ public class LiveClassLoader extends URLClassLoader implements URLResourcer {
             for (URL url : urls) {
                 addURL(url);
             }
+            generation.incrementAndGet();
+            index = null;
+            misses.clear();
         }
     }
 
@@ -189,6 +211,7 @@ public class LiveClassLoader extends URLClassLoader implements URLResourcer {
     public void close() throws IOException {
         if (started.compareAndSet(true, false)) {
             caches.clear();
+            misses.clear();
             super.close();
         }
     }
@@ -348,6 +371,11 @@ public class LiveClassLoader extends URLClassLoader implements URLResourcer {
     private ClassCache findClassCache(String name, boolean resolve) {
         ClassCache cache = caches.get(name);
         if (cache == null) {
+            long version = generation.get();
+            if (!getIndex().contains(name) || misses.contains(name)) {
+                // the package is not in the urls, or the class is known to be missing
+                return null;
+            }
             Locker locker = new Locker(getClassLoadingLock(name));
             cache = locker.callQuietly(() -> {
                 ClassCache c = caches.get(name);
@@ -361,6 +389,9 @@ public class LiveClassLoader extends URLClassLoader implements URLResourcer {
                 }
                 return c;
             });
+            if (cache == null) {
+                addMiss(name, version);
+            }
         }
         if (cache != null && resolve) {
             cache.resolve(this::resolveClass);
@@ -368,6 +399,44 @@ public class LiveClassLoader extends URLClassLoader implements URLResourcer {
         return cache;
     }
 
+    /**
+     * Returns the package index of the urls, building it at the first call.
+     *
+     * @return the package index
+     */
+    private PackageIndex getIndex() {
+        PackageIndex result = index;
+        if (result == null) {
+            long version = generation.get();
+            result = PackageIndex.of(getURLs());
+            if (version == generation.get()) {
+                index = result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Records a missing class, the records are discarded when they exceed {@link #MAX_MISSES}.
+     * The miss is not recorded if the urls are added since the lookup began.
+     *
+     * @param name    the class name
+     * @param version the generation of the urls when the lookup began
+     */
+    private void addMiss(String name, long version) {
+        if (version != generation.get()) {
+            return;
+        }
+        if (misses.size() >= MAX_MISSES) {
+            misses.clear();
+        }
+        misses.add(name);
+        if (version != generation.get()) {
+            // the urls are added concurrently, the miss may survive the clear.
+            misses.remove(name);
+        }
+    }
+
     private URL getConfigFile(String name) {
         File file = new File(configPath, name);
         if (file.exists() && file.isFile()) {
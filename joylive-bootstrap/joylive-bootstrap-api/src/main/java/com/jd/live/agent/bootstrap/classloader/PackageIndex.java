@@ -0,0 +1,135 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.bootstrap.classloader;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+
+/**
+ * The packages of the classes contained in the urls of a class loader.
+ * <p>
+ * It is built once from the central directories of the jars, so that a class loader can reject the classes
+ * of the packages it does not contain without searching its urls.
+ */
+public class PackageIndex {
+
+    /**
+     * An index that contains every package, used when a url can not be indexed.
+     */
+    public static final PackageIndex ALL = new PackageIndex(null);
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    private static final String VERSIONS_PREFIX = "META-INF/versions/";
+
+    private final Set<String> packages;
+
+    private PackageIndex(Set<String> packages) {
+        this.packages = packages;
+    }
+
+    /**
+     * Checks if the package of the class is contained in the index.
+     *
+     * @param className the fully qualified class name
+     * @return {@code true} if the class may be found in the urls
+     */
+    public boolean contains(String className) {
+        if (packages == null) {
+            return true;
+        }
+        int pos = className.lastIndexOf('.');
+        return packages.contains(pos < 0 ? "" : className.substring(0, pos));
+    }
+
+    /**
+     * Builds the index of the specified urls.
+     *
+     * @param urls the urls of a class loader
+     * @return the index, or {@link #ALL} if one of the urls is not a local jar or directory,
+     * or if a jar declares a manifest class path
+     */
+    public static PackageIndex of(URL[] urls) {
+        if (urls == null || urls.length == 0) {
+            return new PackageIndex(Collections.emptySet());
+        }
+        Set<String> packages = new HashSet<>();
+        try {
+            for (URL url : urls) {
+                if (!"file".equals(url.getProtocol())) {
+                    return ALL;
+                }
+                File file = new File(url.toURI());
+                if (file.isDirectory()) {
+                    addDirectory(file, "", packages);
+                } else if (file.isFile() && !addJar(file, packages)) {
+                    return ALL;
+                }
+            }
+        } catch (IOException | URISyntaxException | SecurityException | IllegalArgumentException e) {
+            return ALL;
+        }
+        return new PackageIndex(packages);
+    }
+
+    private static boolean addJar(File file, Set<String> packages) throws IOException {
+        try (JarFile jarFile = new JarFile(file, false)) {
+            Manifest manifest = jarFile.getManifest();
+            if (manifest != null && manifest.getMainAttributes().getValue(Attributes.Name.CLASS_PATH) != null) {
+                // the class loader also searches the jars of the manifest class path
+                return false;
+            }
+            Enumeration<? extends ZipEntry> entries = jarFile.entries();
+            String name;
+            while (entries.hasMoreElements()) {
+                name = entries.nextElement().getName();
+                if (name.endsWith(CLASS_SUFFIX)) {
+                    if (name.startsWith(VERSIONS_PREFIX)) {
+                        // multi-release entry, META-INF/versions/{version}/{path}
+                        int pos = name.indexOf('/', VERSIONS_PREFIX.length());
+                        name = pos < 0 ? name : name.substring(pos + 1);
+                    }
+                    int pos = name.lastIndexOf('/');
+                    packages.add(pos < 0 ? "" : name.substring(0, pos).replace('/', '.'));
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void addDirectory(File directory, String packageName, Set<String> packages) {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.isDirectory()) {
+                    addDirectory(file, packageName.isEmpty() ? file.getName() : packageName + "." + file.getName(), packages);
+                } else if (file.getName().endsWith(CLASS_SUFFIX)) {
+                    packages.add(packageName);
+                }
+            }
+        }
+    }
+}
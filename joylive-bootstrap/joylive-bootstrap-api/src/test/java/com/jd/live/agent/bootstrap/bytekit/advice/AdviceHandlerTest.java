@@ -0,0 +1,80 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.bootstrap.bytekit.advice;
+
+import com.jd.live.agent.bootstrap.bytekit.context.ExecutableContext;
+import com.jd.live.agent.bootstrap.bytekit.context.MethodContext;
+import com.jd.live.agent.bootstrap.plugin.definition.Interceptor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AdviceHandlerTest {
+
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    @Test
+    void testIndexedDispatch() throws Throwable {
+        Method method = AdviceHandlerTest.class.getDeclaredMethod("testIndexedDispatch");
+        String description = AdviceHandlerTest.class.getName() + "#testIndexedDispatch()";
+        AdviceKey key = new AdviceKey(description, AdviceHandlerTest.class.getClassLoader());
+        AdviceInterceptor advice = AdviceHandler.getOrCreate(key);
+        advice.add(new CountInterceptor());
+        int index = advice.getIndex();
+        Assertions.assertTrue(index >= 0);
+        Assertions.assertSame(advice, AdviceHandler.getOrCreate(key));
+
+        COUNTER.set(0);
+        AdviceHandler.onEnter(new MethodContext(this, method, new Object[0], description, index));
+        Assertions.assertEquals(1, COUNTER.get());
+        // the contexts without index are dispatched by key.
+        AdviceHandler.onEnter(new MethodContext(this, method, new Object[0], description));
+        Assertions.assertEquals(2, COUNTER.get());
+
+        AdviceHandler.remove(key);
+        AdviceHandler.onEnter(new MethodContext(this, method, new Object[0], description, index));
+        Assertions.assertEquals(2, COUNTER.get());
+
+        // the slot is released and reused by another advice with a new generation.
+        AdviceKey otherKey = new AdviceKey(description + "@other", AdviceHandlerTest.class.getClassLoader());
+        AdviceInterceptor other = AdviceHandler.getOrCreate(otherKey);
+        other.add(new CountInterceptor());
+        Assertions.assertNotEquals(index, other.getIndex());
+        AdviceHandler.onEnter(new MethodContext(this, method, new Object[0], description, index));
+        Assertions.assertEquals(2, COUNTER.get());
+
+        // the code woven with the previous index falls back to the key of the recreated advice.
+        advice = AdviceHandler.getOrCreate(key);
+        advice.add(new CountInterceptor());
+        Assertions.assertNotEquals(index, advice.getIndex());
+        AdviceHandler.onEnter(new MethodContext(this, method, new Object[0], description, index));
+        Assertions.assertEquals(3, COUNTER.get());
+        AdviceHandler.onEnter(new MethodContext(this, method, new Object[0], description, advice.getIndex()));
+        Assertions.assertEquals(4, COUNTER.get());
+        AdviceHandler.remove(key);
+        AdviceHandler.remove(otherKey);
+    }
+
+    private static class CountInterceptor implements Interceptor {
+
+        @Override
+        public void onEnter(ExecutableContext ctx) {
+            COUNTER.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.bootstrap.classloader;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+public class PackageIndexTest {
+
+    @Test
+    void testJar() throws IOException {
+        File jar = createJar(null, "a/b/C.class", "a/b/C$D.class", "E.class", "META-INF/versions/11/f/G.class", "h/i.txt");
+        try {
+            PackageIndex index = PackageIndex.of(new URL[]{jar.toURI().toURL()});
+            Assertions.assertTrue(index.contains("a.b.C"));
+            Assertions.assertTrue(index.contains("a.b.C$D"));
+            Assertions.assertTrue(index.contains("a.b.X"));
+            Assertions.assertTrue(index.contains("E"));
+            Assertions.assertTrue(index.contains("f.G"));
+            Assertions.assertFalse(index.contains("a.C"));
+            Assertions.assertFalse(index.contains("h.I"));
+            Assertions.assertFalse(index.contains("java.lang.String"));
+        } finally {
+            Assertions.assertTrue(jar.delete());
+        }
+    }
+
+    @Test
+    void testDirectory() throws IOException {
+        File root = Files.createTempDirectory("index").toFile();
+        File dir = new File(root, "a/b");
+        Assertions.assertTrue(dir.mkdirs());
+        Assertions.assertTrue(new File(dir, "C.class").createNewFile());
+        try {
+            PackageIndex index = PackageIndex.of(new URL[]{root.toURI().toURL()});
+            Assertions.assertTrue(index.contains("a.b.C"));
+            Assertions.assertFalse(index.contains("a.C"));
+        } finally {
+            Assertions.assertTrue(new File(dir, "C.class").delete());
+            Assertions.assertTrue(dir.delete());
+            Assertions.assertTrue(dir.getParentFile().delete());
+            Assertions.assertTrue(root.delete());
+        }
+    }
+
+    @Test
+    void testUnindexed() throws IOException {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(Attributes.Name.CLASS_PATH, "other.jar");
+        File jar = createJar(manifest, "a/b/C.class");
+        try {
+            Assertions.assertSame(PackageIndex.ALL, PackageIndex.of(new URL[]{jar.toURI().toURL()}));
+            Assertions.assertSame(PackageIndex.ALL, PackageIndex.of(new URL[]{new URL("http://localhost/a.jar")}));
+            Assertions.assertTrue(PackageIndex.ALL.contains("x.Y"));
+        } finally {
+            Assertions.assertTrue(jar.delete());
+        }
+    }
+
+    private File createJar(Manifest manifest, String... entries) throws IOException {
+        File file = File.createTempFile("index", ".jar");
+        try (JarOutputStream out = manifest == null
+                ? new JarOutputStream(new FileOutputStream(file))
+                : new JarOutputStream(new FileOutputStream(file), manifest)) {
+            for (String entry : entries) {
+                out.putNextEntry(new JarEntry(entry));
+                out.closeEntry();
+            }
+        }
+        return file;
+    }
+}
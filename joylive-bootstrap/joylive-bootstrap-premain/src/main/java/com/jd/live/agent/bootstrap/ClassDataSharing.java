@@ -0,0 +1,233 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.bootstrap;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Inspects the class-data-sharing options of the running JVM.
+ * <p>
+ * The agent can not map an archive by itself, the archive is given to the JVM by
+ * {@code -XX:SharedArchiveFile} and dumped by {@code -XX:ArchiveClassesAtExit}. Classes defined by
+ * the agent class loaders are taken from a dynamic archive when their name and bytes match the archived
+ * ones, otherwise the JVM silently defines them from the jar files. This class reports which case
+ * applies, so that a stale or rejected archive can be noticed.
+ */
+public class ClassDataSharing {
+
+    public static final String OPTION_SHARED_ARCHIVE_FILE = "-XX:SharedArchiveFile=";
+
+    public static final String OPTION_ARCHIVE_CLASSES_AT_EXIT = "-XX:ArchiveClassesAtExit=";
+
+    public static final String OPTION_XSHARE = "-Xshare:";
+
+    public static final String OPTION_XSHARE_OFF = "-Xshare:off";
+
+    /**
+     * The memory mappings of the process, which list the mapped archive files on Linux.
+     */
+    private static final String PROC_SELF_MAPS = "/proc/self/maps";
+
+    /**
+     * The suffix of a mapped file which is replaced after mapping.
+     */
+    private static final String DELETED = " (deleted)";
+
+    private final String archive;
+
+    private final String dump;
+
+    private final boolean off;
+
+    /**
+     * Whether the archive is mapped by the JVM, or null if it can not be inspected on this platform.
+     */
+    private final Boolean mapped;
+
+    public ClassDataSharing(String archive, String dump, boolean off, Boolean mapped) {
+        this.archive = archive;
+        this.dump = dump;
+        this.off = off;
+        this.mapped = mapped;
+    }
+
+    public String getArchive() {
+        return archive;
+    }
+
+    public String getDump() {
+        return dump;
+    }
+
+    /**
+     * Checks if the JVM is asked to dump the loaded classes into an archive at exit.
+     *
+     * @return true if the JVM is dumping an archive.
+     */
+    public boolean isDumping() {
+        return dump != null;
+    }
+
+    /**
+     * Checks if the configured archive is mapped by the JVM.
+     * The default archive of the JDK does not count, because it does not contain the agent classes.
+     *
+     * @return true if the configured archive is in use.
+     */
+    public boolean isSharing() {
+        return archive != null && !off && Boolean.TRUE.equals(mapped);
+    }
+
+    /**
+     * Checks if an archive is configured but it is not mapped by the JVM.
+     *
+     * @return true if the configured archive is rejected.
+     */
+    public boolean isRejected() {
+        return archive != null && (off || Boolean.FALSE.equals(mapped));
+    }
+
+    /**
+     * Returns the newest jar file under the given directories which is modified after the archive.
+     *
+     * @param dirs the directories of agent libraries.
+     * @return the jar file, or null if the archive is up to date or missing.
+     */
+    public File getStale(File... dirs) {
+        File file = getArchiveFile(archive);
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+        long time = file.lastModified();
+        File result = null;
+        for (File dir : dirs) {
+            result = getStale(dir, time, result);
+        }
+        return result;
+    }
+
+    /**
+     * Parses the class-data-sharing options from the input arguments of the running JVM,
+     * which include the options of {@code JAVA_TOOL_OPTIONS} and {@code JDK_JAVA_OPTIONS}.
+     *
+     * @return the class-data-sharing options, or null if no archive is configured.
+     */
+    public static ClassDataSharing parse() {
+        return parse(ManagementFactory.getRuntimeMXBean().getInputArguments(), new File(PROC_SELF_MAPS));
+    }
+
+    /**
+     * Parses the class-data-sharing options from the given JVM arguments, the last option wins.
+     *
+     * @param arguments the JVM arguments.
+     * @param maps      the memory mappings of the process, which are used to check if the archive is mapped.
+     * @return the class-data-sharing options, or null if no archive is configured.
+     */
+    public static ClassDataSharing parse(List<String> arguments, File maps) {
+        String archive = null;
+        String dump = null;
+        boolean off = false;
+        if (arguments != null) {
+            for (String option : arguments) {
+                if (option == null) {
+                    continue;
+                }
+                option = option.trim();
+                if (option.startsWith(OPTION_SHARED_ARCHIVE_FILE)) {
+                    archive = option.substring(OPTION_SHARED_ARCHIVE_FILE.length());
+                } else if (option.startsWith(OPTION_ARCHIVE_CLASSES_AT_EXIT)) {
+                    dump = option.substring(OPTION_ARCHIVE_CLASSES_AT_EXIT.length());
+                } else if (option.startsWith(OPTION_XSHARE)) {
+                    off = option.equals(OPTION_XSHARE_OFF);
+                }
+            }
+        }
+        archive = archive == null || archive.isEmpty() ? null : archive;
+        dump = dump == null || dump.isEmpty() ? null : dump;
+        if (archive == null && dump == null) {
+            return null;
+        }
+        return new ClassDataSharing(archive, dump, off, archive == null || off ? Boolean.FALSE : isMapped(getArchiveFile(archive), maps));
+    }
+
+    /**
+     * Returns the archive file, which is the last one if a base and a top archive are given.
+     *
+     * @param archive the value of the archive option.
+     * @return the archive file.
+     */
+    private static File getArchiveFile(String archive) {
+        if (archive == null) {
+            return null;
+        }
+        int pos = archive.lastIndexOf(File.pathSeparatorChar);
+        return new File(pos < 0 ? archive : archive.substring(pos + 1));
+    }
+
+    /**
+     * Checks if the archive file is listed in the memory mappings of the process.
+     *
+     * @param file the archive file.
+     * @param maps the memory mappings of the process.
+     * @return true if the archive is mapped, or null if the mappings are not available.
+     */
+    private static Boolean isMapped(File file, File maps) {
+        if (maps == null || !maps.canRead()) {
+            return null;
+        }
+        String path;
+        try {
+            path = file.getCanonicalPath();
+        } catch (IOException e) {
+            path = file.getAbsolutePath();
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(maps), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.endsWith(path) || line.endsWith(path + DELETED)) {
+                    return Boolean.TRUE;
+                }
+            }
+            return Boolean.FALSE;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static File getStale(File dir, long time, File result) {
+        File[] files = dir == null ? null : dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.isDirectory()) {
+                    result = getStale(file, time, result);
+                } else if (file.getName().endsWith(".jar")) {
+                    long modified = file.lastModified();
+                    if (modified > time && (result == null || modified > result.lastModified())) {
+                        result = file;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+}
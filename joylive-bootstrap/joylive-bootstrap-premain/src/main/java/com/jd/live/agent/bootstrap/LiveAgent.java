@@ -156,6 +156,7 @@ public class LiveAgent {
             if (status.compareAndSet(STATUS_INITIAL, STATUS_SYSTEM_LIB)) {
                 ctx.addSystemPath();
                 ctx.configLogger();
+                ctx.checkSharing();
             }
             // Install the agent by setting up the class loader and lifecycle manager.
             if (status.compareAndSet(STATUS_SYSTEM_LIB, STATUS_INSTALLING)) {
@@ -349,6 +350,33 @@ public class LiveAgent {
             logger.addHandler(new LogHandler());
         }
 
+        /**
+         * Reports whether the agent classes are taken from a class-data-sharing archive.
+         * The JVM falls back to the jar files when the archive is rejected or does not match,
+         * so a mismatch only costs startup time and is logged as a warning.
+         */
+        public void checkSharing() {
+            ClassDataSharing cds = ClassDataSharing.parse();
+            if (cds == null) {
+                return;
+            }
+            if (cds.isDumping()) {
+                logger.info("[LiveAgent] Classes loaded in this run will be archived to " + cds.getDump() + " at exit.");
+            }
+            if (cds.isRejected()) {
+                logger.warning("[LiveAgent] Shared archive " + cds.getArchive()
+                        + " is not mapped by the JVM, agent classes are loaded from jar files.");
+            } else if (cds.isSharing()) {
+                File stale = cds.getStale(libDir, new File(root, LivePath.DIR_PLUGIN));
+                if (stale != null) {
+                    logger.warning("[LiveAgent] Shared archive " + cds.getArchive() + " is older than " + stale
+                            + ", changed classes are loaded from jar files. please regenerate the archive.");
+                } else {
+                    logger.info("[LiveAgent] Class data sharing is enabled with archive " + cds.getArchive());
+                }
+            }
+        }
+
         /**
          * Executes a command if the agent installation status allows it.
          */
@@ -0,0 +1,129 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.bootstrap;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class ClassDataSharingTest {
+
+    @TempDir
+    File dir;
+
+    @Test
+    void testWithoutArchive() throws IOException {
+        File maps = maps();
+        Assertions.assertNull(ClassDataSharing.parse(null, maps));
+        Assertions.assertNull(ClassDataSharing.parse(Collections.emptyList(), maps));
+        Assertions.assertNull(ClassDataSharing.parse(Arrays.asList("-Xmx1g", "-javaagent:live.jar", "-Xshare:off"), maps));
+        Assertions.assertNull(ClassDataSharing.parse(Collections.singletonList("-XX:SharedArchiveFile="), maps));
+    }
+
+    @Test
+    void testMappedArchive() throws IOException {
+        File archive = new File(dir, "joylive.jsa");
+        File maps = maps(archive.getCanonicalPath());
+        ClassDataSharing cds = ClassDataSharing.parse(Arrays.asList("-Xmx1g", "-XX:SharedArchiveFile=" + archive.getPath()), maps);
+        Assertions.assertNotNull(cds);
+        Assertions.assertEquals(archive.getPath(), cds.getArchive());
+        Assertions.assertFalse(cds.isDumping());
+        Assertions.assertTrue(cds.isSharing());
+        Assertions.assertFalse(cds.isRejected());
+    }
+
+    @Test
+    void testTopArchive() throws IOException {
+        File base = new File(dir, "base.jsa");
+        File top = new File(dir, "top.jsa");
+        String archive = base.getPath() + File.pathSeparator + top.getPath();
+        // only the base archive is mapped, the top archive holding the agent classes is rejected.
+        ClassDataSharing cds = ClassDataSharing.parse(Collections.singletonList("-XX:SharedArchiveFile=" + archive),
+                maps(base.getCanonicalPath()));
+        Assertions.assertNotNull(cds);
+        Assertions.assertFalse(cds.isSharing());
+        Assertions.assertTrue(cds.isRejected());
+
+        cds = ClassDataSharing.parse(Collections.singletonList("-XX:SharedArchiveFile=" + archive),
+                maps(base.getCanonicalPath(), top.getCanonicalPath() + " (deleted)"));
+        Assertions.assertNotNull(cds);
+        Assertions.assertTrue(cds.isSharing());
+    }
+
+    @Test
+    void testDefaultArchiveIsNotSharing() throws IOException {
+        File archive = new File(dir, "joylive.jsa");
+        // the default archive of the jdk is mapped, but not the configured one.
+        File maps = maps("/opt/jdk/lib/server/classes.jsa", archive.getCanonicalPath() + ".bak");
+        ClassDataSharing cds = ClassDataSharing.parse(Collections.singletonList("-XX:SharedArchiveFile=" + archive.getPath()), maps);
+        Assertions.assertNotNull(cds);
+        Assertions.assertFalse(cds.isSharing());
+        Assertions.assertTrue(cds.isRejected());
+    }
+
+    @Test
+    void testSharingOff() throws IOException {
+        File archive = new File(dir, "joylive.jsa");
+        File maps = maps(archive.getCanonicalPath());
+        ClassDataSharing cds = ClassDataSharing.parse(Arrays.asList("-XX:SharedArchiveFile=" + archive.getPath(), "-Xshare:off"), maps);
+        Assertions.assertNotNull(cds);
+        Assertions.assertFalse(cds.isSharing());
+        Assertions.assertTrue(cds.isRejected());
+
+        // the last option wins
+        cds = ClassDataSharing.parse(Arrays.asList("-Xshare:off", "-XX:SharedArchiveFile=" + archive.getPath(), "-Xshare:auto"), maps);
+        Assertions.assertNotNull(cds);
+        Assertions.assertTrue(cds.isSharing());
+    }
+
+    @Test
+    void testDumping() throws IOException {
+        ClassDataSharing cds = ClassDataSharing.parse(Collections.singletonList("-XX:ArchiveClassesAtExit=joylive.jsa"), maps());
+        Assertions.assertNotNull(cds);
+        Assertions.assertTrue(cds.isDumping());
+        Assertions.assertEquals("joylive.jsa", cds.getDump());
+        Assertions.assertNull(cds.getArchive());
+        Assertions.assertFalse(cds.isSharing());
+        Assertions.assertFalse(cds.isRejected());
+    }
+
+    @Test
+    void testMappingsUnavailable() {
+        ClassDataSharing cds = ClassDataSharing.parse(Collections.singletonList("-XX:SharedArchiveFile=joylive.jsa"),
+                new File(dir, "missing"));
+        Assertions.assertNotNull(cds);
+        Assertions.assertFalse(cds.isSharing());
+        Assertions.assertFalse(cds.isRejected());
+    }
+
+    private File maps(String... paths) throws IOException {
+        StringBuilder builder = new StringBuilder("00400000-00452000 r-xp 00000000 08:02 173521 /usr/bin/java\n");
+        for (String path : paths) {
+            builder.append("7f7564bc6000-7f7564e8d000 rw-p 00001000 fe:00 12042296                   ")
+                    .append(path).append('\n');
+        }
+        File file = new File(dir, "maps");
+        Files.write(file.toPath(), builder.toString().getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
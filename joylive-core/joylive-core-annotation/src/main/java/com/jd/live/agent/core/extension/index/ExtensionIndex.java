@@ -0,0 +1,269 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.core.extension.index;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * A build-time index of the extensions and injectable types declared by one module.
+ * <p>
+ * The index is generated by {@link ExtensionIndexProcessor} into {@link #RESOURCE} and read at startup, so that the
+ * extension loader does not have to parse the service files and reflect the {@code @Extension} annotations,
+ * and the injector can skip the types that declare no {@code @Inject} field.
+ * <p>
+ * The binary format is a sequence of self-contained blocks, so that the indexes of several modules can be
+ * concatenated into one resource when they are shaded together.
+ */
+public class ExtensionIndex {
+
+    /**
+     * The resource name of the index.
+     */
+    public static final String RESOURCE = "META-INF/joylive/extension.idx";
+
+    private static final int MAGIC = 0x4A4C4958;
+
+    private static final short VERSION = 1;
+
+    private static final int FLAG_ANNOTATED = 1;
+
+    private static final int FLAG_SINGLETON = 2;
+
+    private static final int FLAG_CONDITIONAL = 4;
+
+    private final Map<String, List<Entry>> extensions = new LinkedHashMap<>();
+
+    private final Map<String, Boolean> injectables = new HashMap<>();
+
+    /**
+     * Returns the indexed extensions of the specified extensible type.
+     *
+     * @param extensible the name of the extensible type
+     * @return the indexed extensions in service file order, or null if the service file is not indexed
+     */
+    public List<Entry> getExtensions(String extensible) {
+        return extensions.get(extensible);
+    }
+
+    /**
+     * Registers the extensions of an extensible type.
+     *
+     * @param extensible the name of the extensible type
+     * @param entries    the extensions in service file order
+     */
+    public void addExtensions(String extensible, List<Entry> entries) {
+        extensions.computeIfAbsent(extensible, k -> new ArrayList<>()).addAll(entries);
+    }
+
+    /**
+     * Returns whether the specified type declares or inherits a field annotated with {@code @Inject}.
+     *
+     * @param type the name of the type
+     * @return {@code true} or {@code false} if the type is indexed, otherwise null
+     */
+    public Boolean isInjectable(String type) {
+        return injectables.get(type);
+    }
+
+    /**
+     * Registers the injectable flag of a type.
+     *
+     * @param type       the name of the type
+     * @param injectable whether the type declares or inherits a field annotated with {@code @Inject}
+     */
+    public void addInjectable(String type, boolean injectable) {
+        injectables.put(type, injectable);
+    }
+
+    public boolean isEmpty() {
+        return extensions.isEmpty() && injectables.isEmpty();
+    }
+
+    /**
+     * Writes this index as one block.
+     *
+     * @param out the output stream
+     * @throws IOException if an I/O error occurs
+     */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream dos = new DataOutputStream(out);
+        dos.writeInt(MAGIC);
+        dos.writeShort(VERSION);
+        dos.writeInt(extensions.size());
+        for (Map.Entry<String, List<Entry>> extension : extensions.entrySet()) {
+            dos.writeUTF(extension.getKey());
+            dos.writeInt(extension.getValue().size());
+            for (Entry entry : extension.getValue()) {
+                entry.write(dos);
+            }
+        }
+        dos.writeInt(injectables.size());
+        for (Map.Entry<String, Boolean> injectable : injectables.entrySet()) {
+            dos.writeUTF(injectable.getKey());
+            dos.writeBoolean(injectable.getValue());
+        }
+        dos.flush();
+    }
+
+    /**
+     * Reads all the blocks of the stream into one index.
+     *
+     * @param in the input stream
+     * @return the index
+     * @throws IOException if an I/O error occurs or the stream is not an index
+     */
+    public static ExtensionIndex read(InputStream in) throws IOException {
+        ExtensionIndex result = new ExtensionIndex();
+        DataInputStream dis = new DataInputStream(in instanceof BufferedInputStream ? in : new BufferedInputStream(in));
+        int magic;
+        while ((magic = readMagic(dis)) != -1) {
+            if (magic != MAGIC) {
+                throw new IOException("Illegal extension index magic " + Integer.toHexString(magic));
+            }
+            short version = dis.readShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported extension index version " + version);
+            }
+            int extensibleSize = dis.readInt();
+            for (int i = 0; i < extensibleSize; i++) {
+                String extensible = dis.readUTF();
+                int size = dis.readInt();
+                List<Entry> entries = new ArrayList<>(size);
+                for (int j = 0; j < size; j++) {
+                    entries.add(Entry.read(dis));
+                }
+                result.addExtensions(extensible, entries);
+            }
+            int injectableSize = dis.readInt();
+            for (int i = 0; i < injectableSize; i++) {
+                result.addInjectable(dis.readUTF(), dis.readBoolean());
+            }
+        }
+        return result;
+    }
+
+    private static int readMagic(DataInputStream dis) throws IOException {
+        int b1 = dis.read();
+        // skip the line separators appended between the concatenated blocks
+        while (b1 == '\n' || b1 == '\r') {
+            b1 = dis.read();
+        }
+        if (b1 < 0) {
+            return -1;
+        }
+        int b2 = dis.read();
+        int b3 = dis.read();
+        int b4 = dis.read();
+        if ((b2 | b3 | b4) < 0) {
+            throw new EOFException();
+        }
+        return (b1 << 24) + (b2 << 16) + (b3 << 8) + b4;
+    }
+
+    /**
+     * The indexed metadata of an extension, as declared by its {@code @Extension} annotation.
+     */
+    public static class Entry {
+
+        private final String className;
+
+        private final String[] names;
+
+        private final String provider;
+
+        private final int order;
+
+        private final boolean singleton;
+
+        private final boolean annotated;
+
+        private final boolean conditional;
+
+        public Entry(String className, String[] names, String provider, int order,
+                     boolean singleton, boolean annotated, boolean conditional) {
+            this.className = className;
+            this.names = names == null ? new String[0] : names;
+            this.provider = provider == null ? "" : provider;
+            this.order = order;
+            this.singleton = singleton;
+            this.annotated = annotated;
+            this.conditional = conditional;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public String[] getNames() {
+            return names;
+        }
+
+        public String getProvider() {
+            return provider;
+        }
+
+        public int getOrder() {
+            return order;
+        }
+
+        public boolean isSingleton() {
+            return singleton;
+        }
+
+        /**
+         * Returns whether the extension is annotated with {@code @Extension}.
+         *
+         * @return {@code true} if the extension is annotated with {@code @Extension}
+         */
+        public boolean isAnnotated() {
+            return annotated;
+        }
+
+        /**
+         * Returns whether the extension carries conditional annotations that must be evaluated at runtime.
+         *
+         * @return {@code true} if the extension is conditional
+         */
+        public boolean isConditional() {
+            return conditional;
+        }
+
+        private void write(DataOutputStream dos) throws IOException {
+            dos.writeUTF(className);
+            dos.writeByte((annotated ? FLAG_ANNOTATED : 0) | (singleton ? FLAG_SINGLETON : 0) | (conditional ? FLAG_CONDITIONAL : 0));
+            dos.writeInt(order);
+            dos.writeUTF(provider);
+            dos.writeShort(names.length);
+            for (String name : names) {
+                dos.writeUTF(name);
+            }
+        }
+
+        private static Entry read(DataInputStream dis) throws IOException {
+            String className = dis.readUTF();
+            int flags = dis.readByte();
+            int order = dis.readInt();
+            String provider = dis.readUTF();
+            String[] names = new String[dis.readShort()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = dis.readUTF();
+            }
+            return new Entry(className, names, provider, order,
+                    (flags & FLAG_SINGLETON) != 0, (flags & FLAG_ANNOTATED) != 0, (flags & FLAG_CONDITIONAL) != 0);
+        }
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.core.extension.index;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.*;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * An annotation processor that generates the {@link ExtensionIndex} of the module being compiled.
+ * <p>
+ * It indexes the service files found in the class output directory together with the {@code @Extension} metadata of
+ * their providers, and records for every compiled type whether it declares or inherits an {@code @Inject} field.
+ * The processor never claims annotations and only reports a warning if the index can not be generated,
+ * in which case the runtime falls back to scanning.
+ */
+@SupportedAnnotationTypes("*")
+public class ExtensionIndexProcessor extends AbstractProcessor {
+
+    private static final String SERVICES = "META-INF/services";
+
+    private static final String EXTENSION = "com.jd.live.agent.core.extension.annotation.Extension";
+
+    private static final String CONDITIONAL = "com.jd.live.agent.core.extension.annotation.Conditional";
+
+    private static final String CONDITIONAL_COMPOSITE = "com.jd.live.agent.core.extension.annotation.ConditionalComposite";
+
+    private static final String INJECT = "com.jd.live.agent.core.inject.annotation.Inject";
+
+    private final Map<String, Boolean> injectables = new HashMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            generate();
+        } else {
+            for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+                addInjectable(type);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Records the injectable flag of the type and its nested types.
+     *
+     * @param type the type element
+     */
+    private void addInjectable(TypeElement type) {
+        if (type.getKind() == ElementKind.CLASS) {
+            injectables.put(processingEnv.getElementUtils().getBinaryName(type).toString(), isInjectable(type));
+        }
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            addInjectable(nested);
+        }
+    }
+
+    /**
+     * Writes the index into the class output directory.
+     */
+    private void generate() {
+        try {
+            FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ExtensionIndex.RESOURCE);
+            ExtensionIndex index = new ExtensionIndex();
+            for (Map.Entry<String, Boolean> entry : injectables.entrySet()) {
+                index.addInjectable(entry.getKey(), entry.getValue());
+            }
+            File services = getServices(resource.toUri());
+            File[] files = services == null ? null : services.listFiles(File::isFile);
+            if (files != null) {
+                for (File file : files) {
+                    List<ExtensionIndex.Entry> entries = getExtensions(file);
+                    if (entries != null) {
+                        index.addExtensions(file.getName(), entries);
+                    }
+                }
+            }
+            try (OutputStream out = resource.openOutputStream()) {
+                index.write(out);
+            }
+        } catch (IOException | RuntimeException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Failed to generate " + ExtensionIndex.RESOURCE + ", caused by " + e.getMessage());
+        }
+    }
+
+    /**
+     * Locates the service directory from the uri of the index resource.
+     *
+     * @param uri the uri of the index resource
+     * @return the service directory, or null if the class output is not a directory
+     */
+    private File getServices(URI uri) {
+        if (!"file".equals(uri.getScheme())) {
+            return null;
+        }
+        File root = new File(uri);
+        for (int i = ExtensionIndex.RESOURCE.split("/").length; i > 0 && root != null; i--) {
+            root = root.getParentFile();
+        }
+        return root == null ? null : new File(root, SERVICES);
+    }
+
+    /**
+     * Indexes the providers of a service file.
+     *
+     * @param file the service file
+     * @return the indexed extensions, or null if a provider can not be resolved
+     * @throws IOException if an I/O error occurs
+     */
+    private List<ExtensionIndex.Entry> getExtensions(File file) throws IOException {
+        List<ExtensionIndex.Entry> result = new ArrayList<>();
+        Set<String> classNames = new LinkedHashSet<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String ln;
+            int ci;
+            while ((ln = reader.readLine()) != null) {
+                ci = ln.indexOf('#');
+                if (ci >= 0) {
+                    ln = ln.substring(0, ci);
+                }
+                ln = ln.trim();
+                if (!ln.isEmpty()) {
+                    classNames.add(ln);
+                }
+            }
+        }
+        Elements elements = processingEnv.getElementUtils();
+        for (String className : classNames) {
+            TypeElement type = elements.getTypeElement(className.replace('$', '.'));
+            if (type == null) {
+                return null;
+            }
+            result.add(createEntry(className, type));
+        }
+        return result;
+    }
+
+    /**
+     * Creates the index entry of an extension from its {@code @Extension} annotation.
+     *
+     * @param className the binary name of the extension
+     * @param type      the type element of the extension
+     * @return the index entry
+     */
+    private ExtensionIndex.Entry createEntry(String className, TypeElement type) {
+        AnnotationMirror extension = getAnnotation(type, EXTENSION);
+        boolean conditional = isConditional(type);
+        if (extension == null) {
+            return new ExtensionIndex.Entry(className, null, null, Short.MAX_VALUE, true, false, conditional);
+        }
+        String[] names = null;
+        String provider = null;
+        int order = Short.MAX_VALUE;
+        boolean singleton = true;
+        Map<? extends ExecutableElement, ? extends AnnotationValue> values = processingEnv.getElementUtils().getElementValuesWithDefaults(extension);
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+            Object value = entry.getValue().getValue();
+            switch (entry.getKey().getSimpleName().toString()) {
+                case "value":
+                    names = getNames(value);
+                    break;
+                case "provider":
+                    provider = (String) value;
+                    break;
+                case "order":
+                    order = (Integer) value;
+                    break;
+                case "singleton":
+                    singleton = (Boolean) value;
+                    break;
+            }
+        }
+        return new ExtensionIndex.Entry(className, names, provider, order, singleton, true, conditional);
+    }
+
+    private String[] getNames(Object value) {
+        if (value instanceof List) {
+            List<?> values = (List<?>) value;
+            String[] result = new String[values.size()];
+            for (int i = 0; i < result.length; i++) {
+                Object item = values.get(i);
+                result[i] = String.valueOf(item instanceof AnnotationValue ? ((AnnotationValue) item).getValue() : item);
+            }
+            return result;
+        }
+        return value == null ? null : new String[]{value.toString()};
+    }
+
+    /**
+     * Checks if the type or one of its super classes carries an annotation meta-annotated with
+     * {@code @Conditional} or {@code @ConditionalComposite}.
+     *
+     * @param type the type element
+     * @return {@code true} if the type is conditional
+     */
+    private boolean isConditional(TypeElement type) {
+        TypeElement current = type;
+        while (current != null) {
+            for (AnnotationMirror mirror : current.getAnnotationMirrors()) {
+                Element annotationType = mirror.getAnnotationType().asElement();
+                if (getAnnotation(annotationType, CONDITIONAL) != null || getAnnotation(annotationType, CONDITIONAL_COMPOSITE) != null) {
+                    return true;
+                }
+            }
+            current = getSuperclass(current);
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the type or one of its super classes declares a field annotated with {@code @Inject}.
+     *
+     * @param type the type element
+     * @return {@code true} if the type is injectable
+     */
+    private boolean isInjectable(TypeElement type) {
+        TypeElement current = type;
+        while (current != null) {
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                if (getAnnotation(field, INJECT) != null) {
+                    return true;
+                }
+            }
+            current = getSuperclass(current);
+        }
+        return false;
+    }
+
+    private TypeElement getSuperclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement result = (TypeElement) ((DeclaredType) superclass).asElement();
+        return result.getQualifiedName().contentEquals(Object.class.getName()) ? null : result;
+    }
+
+    private AnnotationMirror getAnnotation(Element element, String annotation) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.core.extension.index;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class ExtensionIndexTest {
+
+    @Test
+    void testReadWrite() throws IOException {
+        ExtensionIndex index = new ExtensionIndex();
+        index.addExtensions("a.Service", Arrays.asList(
+                new ExtensionIndex.Entry("a.Impl1", new String[]{"x", "y"}, "jd", 10, false, true, true),
+                new ExtensionIndex.Entry("a.Impl2", null, null, Short.MAX_VALUE, true, false, false)));
+        index.addInjectable("a.Impl1", true);
+        index.addInjectable("a.Impl2", false);
+
+        ExtensionIndex result = ExtensionIndex.read(new ByteArrayInputStream(write(index)));
+        List<ExtensionIndex.Entry> entries = result.getExtensions("a.Service");
+        Assertions.assertEquals(2, entries.size());
+        ExtensionIndex.Entry entry = entries.get(0);
+        Assertions.assertEquals("a.Impl1", entry.getClassName());
+        Assertions.assertArrayEquals(new String[]{"x", "y"}, entry.getNames());
+        Assertions.assertEquals("jd", entry.getProvider());
+        Assertions.assertEquals(10, entry.getOrder());
+        Assertions.assertFalse(entry.isSingleton());
+        Assertions.assertTrue(entry.isAnnotated());
+        Assertions.assertTrue(entry.isConditional());
+        entry = entries.get(1);
+        Assertions.assertEquals(0, entry.getNames().length);
+        Assertions.assertEquals("", entry.getProvider());
+        Assertions.assertTrue(entry.isSingleton());
+        Assertions.assertFalse(entry.isAnnotated());
+        Assertions.assertFalse(entry.isConditional());
+        Assertions.assertEquals(Boolean.TRUE, result.isInjectable("a.Impl1"));
+        Assertions.assertEquals(Boolean.FALSE, result.isInjectable("a.Impl2"));
+        Assertions.assertNull(result.isInjectable("a.Other"));
+        Assertions.assertNull(result.getExtensions("a.Other"));
+    }
+
+    @Test
+    void testConcatenated() throws IOException {
+        ExtensionIndex index1 = new ExtensionIndex();
+        index1.addExtensions("a.Service", Collections.singletonList(
+                new ExtensionIndex.Entry("a.Impl1", null, null, 1, true, true, false)));
+        ExtensionIndex index2 = new ExtensionIndex();
+        index2.addExtensions("a.Service", Collections.singletonList(
+                new ExtensionIndex.Entry("b.Impl2", null, null, 2, true, true, false)));
+        index2.addInjectable("b.Impl2", true);
+
+        // the shade appending transformer adds a line separator after each block
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(write(index1));
+        out.write('\n');
+        out.write(write(index2));
+        out.write('\n');
+
+        ExtensionIndex result = ExtensionIndex.read(new ByteArrayInputStream(out.toByteArray()));
+        List<ExtensionIndex.Entry> entries = result.getExtensions("a.Service");
+        Assertions.assertEquals(2, entries.size());
+        Assertions.assertEquals("a.Impl1", entries.get(0).getClassName());
+        Assertions.assertEquals("b.Impl2", entries.get(1).getClassName());
+        Assertions.assertEquals(Boolean.TRUE, result.isInjectable("b.Impl2"));
+    }
+
+    @Test
+    void testIllegal() {
+        Assertions.assertThrows(IOException.class, () -> ExtensionIndex.read(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5})));
+    }
+
+    private byte[] write(ExtensionIndex index) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        index.write(out);
+        return out.toByteArray();
+    }
+}
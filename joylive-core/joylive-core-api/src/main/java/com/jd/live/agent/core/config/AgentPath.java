@@ -68,6 +68,8 @@ public class AgentPath {
 
     public static final String DIR_POLICY_LIVE_SERVICE = "policy/service/live/";
 
+    public static final String DIR_REGISTRY = "registry/";
+
     public static final String COMPONENT_AGENT_PATH = "agentPath";
 
     private final File root;
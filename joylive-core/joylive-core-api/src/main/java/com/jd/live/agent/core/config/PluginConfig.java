@@ -44,6 +44,8 @@ public class PluginConfig {
 
     private String profile;
 
+    private int parallelism = 4;
+
     public boolean isSystemActive(String name) {
         return isEnabled(name) && isSystem(name);
     }
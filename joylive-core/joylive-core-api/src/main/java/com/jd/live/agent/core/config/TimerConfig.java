@@ -25,6 +25,15 @@ import lombok.Setter;
 @Setter
 public class TimerConfig {
 
+    public static final String TYPE_SCHEDULER = "scheduler";
+
+    public static final String TYPE_WHEEL = "wheel";
+
+    /**
+     * The type of the timer, {@link #TYPE_SCHEDULER} or {@link #TYPE_WHEEL}.
+     */
+    private String type = TYPE_SCHEDULER;
+
     /**
      * The time interval for each tick in milliseconds.
      */
@@ -42,6 +42,11 @@ public interface EventBus extends AutoCloseable {
      */
     int ORDER_DISRUPTOR_BUS = 0;
 
+    /**
+     * Priority order for the ring bus instance.
+     */
+    int ORDER_RING_BUS = 50;
+
     /**
      * Priority order for the JEventBus instance.
      */
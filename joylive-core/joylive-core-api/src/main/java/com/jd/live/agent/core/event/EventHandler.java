@@ -33,6 +33,10 @@ public interface EventHandler<E> {
      * for processing the events provided in the list. Each event in the list is an
      * instance of {@link Event} parameterized by the type {@code <E>}, which represents
      * the data associated with the event.
+     * <p>
+     * The events and the list are only valid during this call, because the publisher may reuse them
+     * for the subsequent events. The data to be processed later should be copied out of them.
+     * </p>
      *
      * @param events A list of events to be handled. Each event contains data of type {@code <E>}.
      */
@@ -0,0 +1,38 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.core.event.config;
+
+/**
+ * The policy applied when the event buffer of a publisher is under pressure.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Rejects the new event when the buffer is full.
+     */
+    DROP_NEWEST,
+
+    /**
+     * Discards the oldest buffered event to make room for the new event.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Keeps only one of every {@code sampleRate} events once the buffer is half full,
+     * and rejects the new event when the buffer is full.
+     */
+    SAMPLE
+}
@@ -31,6 +31,8 @@ public class PublisherConfig {
 
     public static final int BATCH_SIZE = 100;
 
+    public static final int DEFAULT_SAMPLE_RATE = 10;
+
     // capacity of queue
     private int capacity = DEFAULT_CAPACITY;
 
@@ -40,6 +42,12 @@ public class PublisherConfig {
     // batch size
     private int batchSize = BATCH_SIZE;
 
+    // overflow policy, only supported by the ring publisher
+    private OverflowPolicy overflow = OverflowPolicy.DROP_NEWEST;
+
+    // keep one of every sample rate events when the overflow policy is sample
+    private int sampleRate = DEFAULT_SAMPLE_RATE;
+
     public PublisherConfig() {
     }
 
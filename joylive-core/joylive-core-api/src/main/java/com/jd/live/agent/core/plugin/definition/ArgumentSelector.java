@@ -0,0 +1,125 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.core.plugin.definition;
+
+import java.util.Arrays;
+
+/**
+ * Declares the arguments of the intercepted method which are read by an interceptor.
+ * <p>
+ * The arguments which are not selected are not bound to the executable context, so they are neither copied
+ * into an array nor boxed on each call. An interceptor which modifies or replaces the arguments, or invokes
+ * the origin method, must select all the arguments.
+ * </p>
+ */
+public final class ArgumentSelector {
+
+    /**
+     * Selects all the arguments, which can be modified by the interceptor.
+     */
+    public static final ArgumentSelector ALL = new ArgumentSelector(true, new int[0]);
+
+    /**
+     * Selects none of the arguments.
+     */
+    public static final ArgumentSelector NONE = new ArgumentSelector(false, new int[0]);
+
+    private final boolean all;
+
+    /**
+     * The sorted and distinct indices of the selected arguments.
+     */
+    private final int[] indices;
+
+    private ArgumentSelector(boolean all, int[] indices) {
+        this.all = all;
+        this.indices = indices;
+    }
+
+    public boolean isAll() {
+        return all;
+    }
+
+    public boolean isNone() {
+        return !all && indices.length == 0;
+    }
+
+    /**
+     * Checks whether the argument at the index is selected.
+     *
+     * @param index the index of the argument
+     * @return true if the argument is selected
+     */
+    public boolean isSelected(int index) {
+        return all || Arrays.binarySearch(indices, index) >= 0;
+    }
+
+    /**
+     * Checks whether all the arguments of the other selector are selected by this one.
+     *
+     * @param other the other selector
+     * @return true if this selector contains the other one
+     */
+    public boolean contains(ArgumentSelector other) {
+        if (all || other == null) {
+            return true;
+        } else if (other.all) {
+            return false;
+        }
+        for (int index : other.indices) {
+            if (Arrays.binarySearch(indices, index) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Merges the other selector into a selector of the arguments selected by either.
+     *
+     * @param other the other selector
+     * @return the merged selector
+     */
+    public ArgumentSelector merge(ArgumentSelector other) {
+        if (other == null || contains(other)) {
+            return this;
+        } else if (other.contains(this)) {
+            return other;
+        }
+        int[] values = Arrays.copyOf(indices, indices.length + other.indices.length);
+        System.arraycopy(other.indices, 0, values, indices.length, other.indices.length);
+        return of(values);
+    }
+
+    /**
+     * Creates a selector of the arguments at the indices.
+     *
+     * @param indices the indices of the arguments
+     * @return the selector
+     */
+    public static ArgumentSelector of(int... indices) {
+        if (indices == null || indices.length == 0) {
+            return NONE;
+        }
+        int[] values = Arrays.stream(indices).filter(i -> i >= 0).sorted().distinct().toArray();
+        return values.length == 0 ? NONE : new ArgumentSelector(false, values);
+    }
+
+    @Override
+    public String toString() {
+        return all ? "all" : Arrays.toString(indices);
+    }
+}
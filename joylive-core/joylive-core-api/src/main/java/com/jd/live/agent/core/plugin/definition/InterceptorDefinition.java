@@ -43,4 +43,14 @@ public interface InterceptorDefinition {
      * @return An instance of {@link Interceptor} that encapsulates the interception logic.
      */
     Interceptor getInterceptor();
+
+    /**
+     * Returns the arguments read by the interceptor. The arguments which are not selected are not bound
+     * to the executable context.
+     *
+     * @return the argument selector, {@link ArgumentSelector#ALL} by default.
+     */
+    default ArgumentSelector getArguments() {
+        return ArgumentSelector.ALL;
+    }
 }
@@ -39,6 +39,11 @@ public class InterceptorDefinitionAdapter implements InterceptorDefinition {
      */
     private final Supplier<Interceptor> interceptorSupplier;
 
+    /**
+     * The arguments read by the interceptors.
+     */
+    private final ArgumentSelector arguments;
+
     /**
      * Constructs an adapter with a specified method name and a static interceptor.
      *
@@ -76,7 +81,21 @@ public class InterceptorDefinitionAdapter implements InterceptorDefinition {
      * @param interceptorSupplier A supplier that provides interceptors.
      */
     public InterceptorDefinitionAdapter(ElementMatcher<MethodDesc> matcher, Supplier<Interceptor> interceptorSupplier) {
+        this(matcher, ArgumentSelector.ALL, interceptorSupplier);
+    }
+
+    /**
+     * Constructs an adapter with a specified matcher, the arguments read by the interceptors and a supplier for interceptors.
+     *
+     * @param matcher             The matcher to use for determining applicable methods.
+     * @param arguments           The arguments read by the interceptors.
+     * @param interceptorSupplier A supplier that provides interceptors.
+     */
+    public InterceptorDefinitionAdapter(ElementMatcher<MethodDesc> matcher,
+                                        ArgumentSelector arguments,
+                                        Supplier<Interceptor> interceptorSupplier) {
         this.matcher = matcher;
+        this.arguments = arguments == null ? ArgumentSelector.ALL : arguments;
         this.interceptorSupplier = interceptorSupplier;
     }
 
@@ -99,5 +118,10 @@ public class InterceptorDefinitionAdapter implements InterceptorDefinition {
     public Interceptor getInterceptor() {
         return interceptorSupplier.get();
     }
+
+    @Override
+    public ArgumentSelector getArguments() {
+        return arguments;
+    }
 }
 
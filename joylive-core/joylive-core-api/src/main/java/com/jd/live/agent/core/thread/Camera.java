@@ -26,6 +26,16 @@ import com.jd.live.agent.core.extension.annotation.Extensible;
 @Extensible("Camera")
 public interface Camera {
 
+    /**
+     * Checks whether there is any state in the current thread to take a snapshot of.
+     * It is called before {@link #snapshot()}, so that the callers can skip the snapshot and the task wrapping.
+     *
+     * @return true if there is state to be propagated.
+     */
+    default boolean hasState() {
+        return true;
+    }
+
     /**
      * Takes a snapshot of the current state of the camera.
      *
@@ -0,0 +1,77 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.core.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A non-negative sequence generator whose state is striped over cache line padded cells.
+ * <p>
+ * Each thread is mapped to a stripe and increments only that stripe, so concurrent callers on different
+ * cores do not contend on the same cache line. Every stripe starts at a different offset and advances
+ * one by one, which keeps the round-robin order for a single thread and a balanced distribution for
+ * all the threads.
+ * </p>
+ */
+public class StripedSequence {
+
+    /**
+     * Number of longs between two cells, 128 bytes covers the adjacent cache line prefetch.
+     */
+    private static final int PADDING = 16;
+
+    private static final int MAX_STRIPES = 64;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final AtomicLongArray cells;
+
+    private final int mask;
+
+    public StripedSequence() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public StripedSequence(int concurrency) {
+        int stripes = 1;
+        int max = Math.min(Math.max(concurrency, 1), MAX_STRIPES);
+        while (stripes < max) {
+            stripes <<= 1;
+        }
+        this.mask = stripes - 1;
+        this.cells = new AtomicLongArray((stripes + 1) * PADDING);
+        for (int i = 0; i < stripes; i++) {
+            // spread the start offsets of the stripes
+            cells.set(index(i), (i * GOLDEN_GAMMA) >>> 33);
+        }
+    }
+
+    /**
+     * Gets the next value of the stripe of the current thread.
+     *
+     * @return the non-negative value
+     */
+    public long next() {
+        long id = Thread.currentThread().getId();
+        int stripe = (int) ((id * GOLDEN_GAMMA) >>> 32) & mask;
+        return cells.getAndIncrement(index(stripe)) & Long.MAX_VALUE;
+    }
+
+    private static int index(int stripe) {
+        // skip the first padding to avoid false sharing with the array header
+        return (stripe + 1) * PADDING;
+    }
+}
@@ -95,6 +95,28 @@ public class MapCache<K, T> implements Cache<K, T> {
         return cache;
     }
 
+    /**
+     * Shares the built map of the specified cache if this cache is not built yet.
+     * <p>
+     * The built map is never modified, so it can be shared by the caches which are built from the same source.
+     * </p>
+     *
+     * @param other the cache whose built map is shared.
+     * @return true if the map is shared, false otherwise.
+     */
+    public boolean share(MapCache<K, T> other) {
+        Map<K, T> map = other == null ? null : other.cache;
+        if (map != null && cache == null) {
+            synchronized (this) {
+                if (cache == null) {
+                    cache = map;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     /**
      * Converts the key using the key conversion function provided by the cache builder, if any.
      *
@@ -17,6 +17,9 @@ package com.jd.live.agent.core.util.http;
 
 import lombok.Getter;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * Represents an HTTP response with a status code, an optional message, and optional data of a generic type.
  *
@@ -40,6 +43,11 @@ public class HttpResponse<T> implements HttpState {
      */
     private final T data;
 
+    /**
+     * The headers of the response, which may be null.
+     */
+    private final Map<String, List<String>> headers;
+
     /**
      * Constructs a new HttpResponse with the specified status code and data, but without a message.
      *
@@ -68,9 +76,40 @@ public class HttpResponse<T> implements HttpState {
      * @param data    The data of the response.
      */
     public HttpResponse(HttpStatus status, String message, T data) {
+        this(status, message, data, null);
+    }
+
+    /**
+     * Constructs a new HttpResponse with the specified status code, message, data and headers.
+     *
+     * @param status  The HTTP status code.
+     * @param message The message associated with the response.
+     * @param data    The data of the response.
+     * @param headers The headers of the response.
+     */
+    public HttpResponse(HttpStatus status, String message, T data, Map<String, List<String>> headers) {
         this.status = status;
         this.message = message;
         this.data = data;
+        this.headers = headers;
+    }
+
+    /**
+     * Returns the first value of the specified header, the name is case-insensitive.
+     *
+     * @param name The header name.
+     * @return The header value, or null if it does not exist.
+     */
+    public String getHeader(String name) {
+        if (headers != null && name != null) {
+            for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+                if (name.equalsIgnoreCase(entry.getKey())) {
+                    List<String> values = entry.getValue();
+                    return values == null || values.isEmpty() ? null : values.get(0);
+                }
+            }
+        }
+        return null;
     }
 
     @Override
@@ -124,6 +124,73 @@ public abstract class HttpUtils {
         }
     }
 
+    /**
+     * Performs an HTTP POST request with the specified body. Unlike {@link #get(String, Consumer, ObjectReader)},
+     * the connection is not disconnected after the response is fully read, so that it is kept alive and
+     * reused by the following requests to the same server.
+     *
+     * @param uri       The URI to send the POST request to.
+     * @param configure A Consumer that accepts an HttpURLConnection which can be used to set up headers,
+     *                  timeouts, or other connection configurations.
+     * @param body      The request body.
+     * @param reader    An HttpReader functional interface that defines how to read the response body.
+     * @param <T>       The type of the body expected in the HttpResponse.
+     * @return An HttpResponse object containing the status code, the body and the headers of the response.
+     * @throws IOException If an I/O error occurs while sending the request or reading the response.
+     */
+    public static <T> HttpResponse<T> post(String uri, Consumer<HttpURLConnection> configure, byte[] body, ObjectReader<Reader, T> reader) throws IOException {
+        if (!uri.contains("://")) {
+            uri = "http://" + uri;
+        }
+        URL url = new URL(uri);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        try {
+            connection.setRequestProperty(HttpHeader.CONNECTION, CONNECTION_KEEP_ALIVE);
+            connection.setRequestProperty(HttpHeader.ACCEPT_ENCODING, ACCEPT_ENCODING_GZIP_DEFLATE);
+            connection.setRequestProperty(HttpHeader.ACCEPT_CHARSET, StandardCharsets.UTF_8.name());
+            connection.setRequestMethod(HttpMethod.POST.name());
+            connection.setDoOutput(true);
+            connection.setDoInput(true);
+            connection.setFixedLengthStreamingMode(body.length);
+            configure.accept(connection);
+            try (OutputStream os = connection.getOutputStream()) {
+                os.write(body);
+            }
+            HttpStatus status = HttpStatus.resolve(connection.getResponseCode());
+            Map<String, List<String>> headers = connection.getHeaderFields();
+            if (status == HttpStatus.OK) {
+                return new HttpResponse<>(status, null, getResponse(connection, reader), headers);
+            } else if (status == HttpStatus.NOT_MODIFIED || status == HttpStatus.NOT_FOUND) {
+                drain(status == HttpStatus.NOT_MODIFIED ? connection.getInputStream() : connection.getErrorStream());
+                return new HttpResponse<>(status, null, null, headers);
+            } else if (status != null && !status.isError()) {
+                drain(connection.getInputStream());
+                return new HttpResponse<>(status, null, null, headers);
+            }
+            return new HttpResponse<>(status, getErrorMessage(connection), null, headers);
+        } catch (IOException e) {
+            connection.disconnect();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads and closes the stream, so that the underlying connection can be reused.
+     *
+     * @param stream The stream to drain.
+     * @throws IOException If an I/O error occurs while reading the stream.
+     */
+    private static void drain(InputStream stream) throws IOException {
+        if (stream != null) {
+            try (InputStream is = stream) {
+                byte[] buffer = new byte[1024];
+                while (is.read(buffer) >= 0) {
+                    // discard
+                }
+            }
+        }
+    }
+
     /**
      * Reads the response from the given HttpURLConnection and processes it using the provided reader.
      *
@@ -0,0 +1,526 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.core.util.time;
+
+import com.jd.live.agent.bootstrap.logger.Logger;
+import com.jd.live.agent.bootstrap.logger.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import static com.jd.live.agent.core.util.time.Timer.getRetryInterval;
+
+/**
+ * A hashed timing wheel timer.
+ * <p>
+ * The producers push the tasks onto a lock-free pending stack, and the tick thread moves them into the buckets
+ * of the wheel. The tasks are the nodes of the buckets and the stacks, so adding a task does not allocate any
+ * other object. Cancelling a task only changes its state and pushes it onto the cancel stack, the tick thread then
+ * unlinks it from its bucket in constant time. The expired tasks of a tick are split into at most one chain per
+ * worker, and each chain is handed to the workers as a whole.
+ * </p>
+ */
+public class HashedWheelTimer implements Timer {
+
+    private static final Logger logger = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    /**
+     * The prefix used for naming threads created by this timer.
+     */
+    private final String prefix;
+
+    /**
+     * The time in milliseconds that each tick represents.
+     */
+    private final long tickTime;
+
+    /**
+     * The buckets of the wheel, the length is a power of two.
+     */
+    private final Bucket[] buckets;
+
+    private final int mask;
+
+    /**
+     * The number of worker threads that execute expired tasks.
+     */
+    private final int workerThreads;
+
+    /**
+     * The maximum number of pending tasks, zero means unlimited.
+     */
+    private final long maxTasks;
+
+    /**
+     * The stack of tasks that are pending to be put into the wheel.
+     */
+    private final AtomicReference<WheelTimeout> pending = new AtomicReference<>();
+
+    /**
+     * The stack of tasks that are cancelled and need to be removed from the wheel.
+     */
+    private final AtomicReference<WheelTimeout> cancels = new AtomicReference<>();
+
+    /**
+     * The chains of the expired tasks.
+     */
+    private final BlockingQueue<WheelTimeout> working = new LinkedBlockingQueue<>();
+
+    /**
+     * A count of the tasks that are currently pending execution, only maintained when the maximum is set.
+     */
+    private final AtomicLong tasks = new AtomicLong(0);
+
+    /**
+     * A flag indicating whether the timer has been started.
+     */
+    private final AtomicBoolean started = new AtomicBoolean(false);
+
+    /**
+     * The start time of the wheel, which is aligned to the tick time.
+     */
+    private final long startTime;
+
+    /**
+     * The worker threads that execute expired tasks.
+     */
+    private List<Thread> workers;
+
+    /**
+     * The tick thread that advances the wheel.
+     */
+    private Thread boss;
+
+    /**
+     * Constructs a new timer.
+     *
+     * @param name          The name prefix for threads created by this timer.
+     * @param tickTime      The time in milliseconds that each tick represents.
+     * @param ticks         The number of ticks in the wheel, which is rounded up to a power of two.
+     * @param workerThreads The number of worker threads to execute tasks.
+     * @param maxTasks      The maximum number of tasks that can be pending before being rejected.
+     */
+    public HashedWheelTimer(String name, long tickTime, int ticks, int workerThreads, long maxTasks) {
+        if (tickTime <= 0) {
+            throw new IllegalArgumentException("tickTime must be greater than 0");
+        } else if (ticks <= 0) {
+            throw new IllegalArgumentException("ticks must be greater than 0");
+        } else if (workerThreads <= 0) {
+            throw new IllegalArgumentException("workerThreads must be greater than 0");
+        }
+        int length = 1;
+        while (length < ticks) {
+            length <<= 1;
+        }
+        this.prefix = name == null || name.isEmpty() ? "timer" : name;
+        this.tickTime = tickTime;
+        this.buckets = new Bucket[length];
+        this.mask = length - 1;
+        this.workerThreads = workerThreads;
+        this.maxTasks = maxTasks;
+        for (int i = 0; i < length; i++) {
+            buckets[i] = new Bucket();
+        }
+        long now = System.currentTimeMillis();
+        this.startTime = now - (now % tickTime);
+    }
+
+    /**
+     * Starts the tick thread and the worker threads.
+     */
+    public void start() {
+        if (started.compareAndSet(false, true)) {
+            this.workers = new ArrayList<>(workerThreads);
+            // Use thread to avoid block by another apm agent which maybe enhance the thread pool.
+            for (int i = 0; i < workerThreads; i++) {
+                workers.add(startThread(prefix + "-worker-" + i, this::processWorking));
+            }
+            boss = startThread(prefix + "-boss", this::processWheel);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (started.compareAndSet(true, false)) {
+            if (workers != null) {
+                workers.forEach(Thread::interrupt);
+            }
+            if (boss != null) {
+                boss.interrupt();
+            }
+        }
+    }
+
+    @Override
+    public Timeout add(final String name, final long time, final Runnable runnable) {
+        return runnable == null ? null : submit(name, Math.max(time, System.currentTimeMillis() + tickTime), runnable);
+    }
+
+    @Override
+    public Timeout delay(final String name, final long delay, final Runnable runnable) {
+        return runnable == null ? null : submit(name, System.currentTimeMillis() + Math.max(delay, tickTime), runnable);
+    }
+
+    @Override
+    public Timeout add(final TimeTask task) {
+        if (task == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        long time = task instanceof DelayTask ? now + Math.max(task.getTime(), tickTime) : Math.max(task.getTime(), now + tickTime);
+        return submit(task.getName(), time, task);
+    }
+
+    @Override
+    public void schedule(String name, long interval, long random, Runnable runnable, Supplier<Boolean> condition) {
+        if (runnable == null) {
+            return;
+        }
+        delay(name, getRetryInterval(interval, random), () -> {
+            if (condition == null || condition.get()) {
+                try {
+                    runnable.run();
+                } finally {
+                    if (started.get()) {
+                        schedule(name, interval, random, runnable);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Starts and returns a new daemon thread with the given name.
+     *
+     * @param name     the name to assign to the new thread (used for identification)
+     * @param runnable the task to be executed by the new thread
+     * @return the started daemon thread instance
+     */
+    protected Thread startThread(String name, Runnable runnable) {
+        Thread thread = new Thread(runnable);
+        thread.setName(name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Creates a task and pushes it onto the pending stack.
+     *
+     * @param name     the task name
+     * @param deadline the absolute execution time
+     * @param runnable the task to run
+     * @return the timeout of the task
+     */
+    private Timeout submit(String name, long deadline, Runnable runnable) {
+        if (maxTasks > 0 && tasks.incrementAndGet() > maxTasks) {
+            tasks.decrementAndGet();
+            throw new RejectedExecutionException("the maximum of pending tasks is " + maxTasks);
+        }
+        WheelTimeout timeout = new WheelTimeout(this, name, deadline, runnable);
+        WheelTimeout head;
+        do {
+            head = pending.get();
+            timeout.link = head;
+        } while (!pending.compareAndSet(head, timeout));
+        return timeout;
+    }
+
+    /**
+     * Called by the task after it is cancelled.
+     *
+     * @param timeout the cancelled task
+     */
+    private void onCancel(WheelTimeout timeout) {
+        if (maxTasks > 0) {
+            tasks.decrementAndGet();
+        }
+        WheelTimeout head;
+        do {
+            head = cancels.get();
+            timeout.cancelLink = head;
+        } while (!cancels.compareAndSet(head, timeout));
+    }
+
+    /**
+     * Called by the task after it is executed.
+     */
+    private void onRun() {
+        if (maxTasks > 0) {
+            tasks.decrementAndGet();
+        }
+    }
+
+    /**
+     * Advances the wheel tick by tick while active.
+     */
+    protected void processWheel() {
+        WheelTimeout[] chains = new WheelTimeout[workerThreads];
+        long tick = (System.currentTimeMillis() - startTime) / tickTime;
+        long deadline;
+        long sleep;
+        while (started.get()) {
+            deadline = startTime + (tick + 1) * tickTime;
+            sleep = deadline - System.currentTimeMillis();
+            if (sleep > 0) {
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(sleep));
+                if (Thread.interrupted()) {
+                    break;
+                }
+                continue;
+            }
+            // the pending tasks are supplied before the cancels, so a task cancelled while pending is never linked.
+            supply(tick);
+            cancel();
+            expire(buckets[(int) (tick & mask)], chains);
+            for (int i = 0; i < chains.length; i++) {
+                if (chains[i] != null) {
+                    working.add(chains[i]);
+                    chains[i] = null;
+                }
+            }
+            tick++;
+        }
+    }
+
+    /**
+     * Moves the pending tasks into the buckets.
+     *
+     * @param tick the current tick
+     */
+    private void supply(long tick) {
+        WheelTimeout timeout = pending.getAndSet(null);
+        WheelTimeout next;
+        long ticks;
+        while (timeout != null) {
+            next = timeout.link;
+            timeout.link = null;
+            if (timeout.state == WheelTimeout.INIT) {
+                ticks = (timeout.deadline - startTime) / tickTime;
+                // the tasks whose deadline is already passed are expired at the current tick
+                timeout.rounds = Math.max(ticks - tick, 0) / buckets.length;
+                buckets[(int) (Math.max(ticks, tick) & mask)].add(timeout);
+            }
+            timeout = next;
+        }
+    }
+
+    /**
+     * Removes the cancelled tasks from their buckets.
+     */
+    private void cancel() {
+        WheelTimeout timeout = cancels.getAndSet(null);
+        WheelTimeout next;
+        while (timeout != null) {
+            next = timeout.cancelLink;
+            timeout.cancelLink = null;
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+            timeout = next;
+        }
+    }
+
+    /**
+     * Removes the expired tasks of the bucket and distributes them to the chains.
+     *
+     * @param bucket the bucket of the current tick
+     * @param chains the chains, one for each worker
+     */
+    private void expire(Bucket bucket, WheelTimeout[] chains) {
+        WheelTimeout timeout = bucket.head;
+        WheelTimeout next;
+        int index = 0;
+        while (timeout != null) {
+            next = timeout.next;
+            if (timeout.rounds <= 0) {
+                bucket.remove(timeout);
+                timeout.link = chains[index];
+                chains[index] = timeout;
+                if (++index == chains.length) {
+                    index = 0;
+                }
+            } else {
+                timeout.rounds--;
+            }
+            timeout = next;
+        }
+    }
+
+    /**
+     * Runs the chains of the expired tasks while active.
+     */
+    protected void processWorking() {
+        WheelTimeout timeout;
+        WheelTimeout next;
+        while (started.get()) {
+            try {
+                timeout = working.poll(1000L, TimeUnit.MILLISECONDS);
+                while (timeout != null && started.get()) {
+                    next = timeout.link;
+                    timeout.link = null;
+                    try {
+                        timeout.run();
+                    } catch (Throwable e) {
+                        logger.error("Failed to run timer task " + timeout, e);
+                    }
+                    timeout = next;
+                }
+            } catch (InterruptedException e) {
+                // Handle interruption gracefully by exiting the loop.
+                break;
+            }
+        }
+    }
+
+    /**
+     * A doubly linked list of the tasks, which is only accessed by the tick thread.
+     */
+    private static final class Bucket {
+
+        private WheelTimeout head;
+
+        private WheelTimeout tail;
+
+        void add(WheelTimeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void remove(WheelTimeout timeout) {
+            WheelTimeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+
+    /**
+     * A task of the wheel, which is also the node of the bucket and the stacks.
+     */
+    private static final class WheelTimeout implements Timeout, Runnable {
+
+        private static final int INIT = 0;
+
+        private static final int CANCELLED = 1;
+
+        private static final int EXPIRED = 2;
+
+        private static final AtomicIntegerFieldUpdater<WheelTimeout> STATE_UPDATER =
+                AtomicIntegerFieldUpdater.newUpdater(WheelTimeout.class, "state");
+
+        private final HashedWheelTimer timer;
+
+        private final String name;
+
+        private final long deadline;
+
+        private final Runnable runnable;
+
+        private volatile int state = INIT;
+
+        /**
+         * The remaining rounds of the wheel, only accessed by the tick thread.
+         */
+        private long rounds;
+
+        private Bucket bucket;
+
+        private WheelTimeout prev;
+
+        private WheelTimeout next;
+
+        /**
+         * The link of the pending stack or the expired chain.
+         */
+        private WheelTimeout link;
+
+        /**
+         * The link of the cancel stack.
+         */
+        private WheelTimeout cancelLink;
+
+        WheelTimeout(HashedWheelTimer timer, String name, long deadline, Runnable runnable) {
+            this.timer = timer;
+            this.name = name;
+            this.deadline = deadline;
+            this.runnable = runnable;
+        }
+
+        @Override
+        public void run() {
+            if (STATE_UPDATER.compareAndSet(this, INIT, EXPIRED)) {
+                try {
+                    runnable.run();
+                } finally {
+                    timer.onRun();
+                }
+            }
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (STATE_UPDATER.compareAndSet(this, INIT, CANCELLED)) {
+                timer.onCancel(this);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return name == null || name.isEmpty() ? super.toString() : name;
+        }
+    }
+}
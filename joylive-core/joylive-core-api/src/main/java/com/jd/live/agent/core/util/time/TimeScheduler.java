@@ -32,7 +32,7 @@ import static com.jd.live.agent.core.util.time.Timer.getRetryInterval;
  * of tasks, including their execution, cancellation, and any actions to be taken before or after running tasks.
  * It implements {@link AutoCloseable} to provide a mechanism to release resources when the timer is no longer needed.
  */
-public class TimeScheduler implements AutoCloseable, Timer {
+public class TimeScheduler implements Timer {
 
     /**
      * The prefix used for naming threads created by this timer.
@@ -21,9 +21,10 @@ import java.util.function.Supplier;
 /**
  * The Timer interface defines the contract for a timing mechanism that can schedule tasks
  * for future execution in a background thread. The tasks can be scheduled for one-time
- * execution, or for repeated execution at regular intervals.
+ * execution, or for repeated execution at regular intervals. The timer is closed to stop
+ * its threads and discard the pending tasks.
  */
-public interface Timer {
+public interface Timer extends AutoCloseable {
 
     String COMPONENT_TIMER = "timer";
 
@@ -99,4 +100,10 @@ public interface Timer {
     static long getRetryInterval(long interval, long random) {
         return random <= 0 ? interval : (interval + ThreadLocalRandom.current().nextLong(random));
     }
+
+    /**
+     * Stops the timer and discards the pending tasks.
+     */
+    @Override
+    void close();
 }
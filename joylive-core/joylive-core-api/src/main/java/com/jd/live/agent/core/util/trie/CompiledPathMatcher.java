@@ -0,0 +1,343 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.core.util.trie;
+
+import java.util.Arrays;
+
+/**
+ * An immutable path matcher compiled from a {@link PathMatcher}.
+ * <p>
+ * It follows the same matching rules as {@link PathMatcher}, but walks the request path by char offsets
+ * instead of splitting it into substrings. The static children of a node are kept in an array sorted by
+ * length and content, and are looked up by a binary search against the region of the path. The nodes with
+ * many children also have an open addressing hash table, which is probed by the hash of the region. It only resolves
+ * the matched value and match type, the backtracking state is reused by the thread, so a match does not
+ * allocate any object.
+ * </p>
+ *
+ * @param <T> The type of the value associated with each path.
+ */
+public class CompiledPathMatcher<T> {
+
+    private static final ThreadLocal<Alternatives> ALTERNATIVES = ThreadLocal.withInitial(Alternatives::new);
+
+    private final Node<T> root;
+
+    private final char delimiter;
+
+    CompiledPathMatcher(Node<T> root, char delimiter) {
+        this.root = root;
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Matches a given path and returns the value if the match type is accepted.
+     *
+     * @param path The path to match.
+     * @param type The accepted match type, null or {@link PathMatchType#PREFIX} accepts both the prefix and equal match.
+     * @return The matched value, or null if no match is found.
+     */
+    public T match(String path, PathMatchType type) {
+        if (path == null || path.isEmpty()) {
+            return null;
+        }
+        int length = path.length();
+        Node<T> candidate = null;
+        int count = 0;
+        if (length == 1 && path.charAt(0) == delimiter) {
+            Node<T> next = root.next(path, 0, 0);
+            if (next != null && next.end) {
+                candidate = next;
+            }
+        } else {
+            Node<T> current = root;
+            Node<T> child;
+            Alternatives alternatives = null;
+            int max = length - 1;
+            int start = 0;
+            int end;
+            int segment;
+            try {
+                while (true) {
+                    end = path.indexOf(delimiter, start);
+                    if (end == start) {
+                        start = end + 1;
+                        continue;
+                    }
+                    segment = end == -1 ? length : end;
+                    count++;
+                    child = current.size == 0 ? null : current.find(path, start, segment);
+                    if (child != null) {
+                        if (current.variable != null) {
+                            // the variable child is another candidate path
+                            if (alternatives == null) {
+                                alternatives = ALTERNATIVES.get();
+                            }
+                            alternatives.offer(current.variable, segment + 1);
+                        }
+                    } else if (current.variable != null) {
+                        child = current.variable;
+                    }
+                    if (child != null) {
+                        current = child;
+                        if (child.end) {
+                            candidate = child;
+                        }
+                        if (end == -1 || end == max) {
+                            break;
+                        }
+                        start = end + 1;
+                    } else if (candidate == null && alternatives != null && !alternatives.isEmpty()) {
+                        start = alternatives.start();
+                        current = alternatives.poll();
+                        count = current.level;
+                    } else {
+                        break;
+                    }
+                }
+            } finally {
+                if (alternatives != null) {
+                    alternatives.clear();
+                }
+            }
+        }
+        PathMatchType matchType;
+        T value;
+        if (candidate == null) {
+            if (!root.end) {
+                return null;
+            }
+            matchType = count == 0 ? PathMatchType.EQUAL : PathMatchType.PREFIX;
+            value = root.value;
+        } else {
+            matchType = count == candidate.level ? PathMatchType.EQUAL : PathMatchType.PREFIX;
+            value = candidate.value;
+        }
+        return type == null || type == PathMatchType.PREFIX || matchType == PathMatchType.EQUAL ? value : null;
+    }
+
+    /**
+     * A compiled node of the trie.
+     *
+     * @param <T> The type of the value associated with each path.
+     */
+    static final class Node<T> {
+
+        /**
+         * The minimum number of children to build the hash table.
+         */
+        private static final int HASH_THRESHOLD = 8;
+
+        private final int level;
+
+        private final boolean end;
+
+        private final T value;
+
+        /**
+         * The names of the children, sorted by length and content.
+         */
+        private final String[] names;
+
+        private final Node<T>[] children;
+
+        /**
+         * The variable child, which is also contained in the children.
+         */
+        private final Node<T> variable;
+
+        private final int size;
+
+        /**
+         * The indices of the children in the hash table, -1 means the slot is empty.
+         */
+        private final int[] slots;
+
+        private final int mask;
+
+        Node(int level, boolean end, T value, String[] names, Node<T>[] children, Node<T> variable) {
+            this.level = level;
+            this.end = end;
+            this.value = value;
+            this.names = names;
+            this.children = children;
+            this.variable = variable;
+            this.size = names.length;
+            if (size < HASH_THRESHOLD) {
+                this.slots = null;
+                this.mask = 0;
+            } else {
+                int capacity = Integer.highestOneBit(size) << 2;
+                this.slots = new int[capacity];
+                this.mask = capacity - 1;
+                Arrays.fill(slots, -1);
+                int slot;
+                for (int i = 0; i < size; i++) {
+                    slot = names[i].hashCode() & mask;
+                    while (slots[slot] >= 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    slots[slot] = i;
+                }
+            }
+        }
+
+        /**
+         * Gets the next node of the segment, the static child takes precedence over the variable child.
+         *
+         * @param path  the path
+         * @param start the start offset of the segment, inclusive
+         * @param end   the end offset of the segment, exclusive
+         * @return the next node, or null if no match is found
+         */
+        Node<T> next(String path, int start, int end) {
+            Node<T> result = size == 0 ? null : find(path, start, end);
+            return result != null ? result : variable;
+        }
+
+        /**
+         * Finds the static child of the segment. If the only child is the variable child, it is not looked up.
+         *
+         * @param path  the path
+         * @param start the start offset of the segment, inclusive
+         * @param end   the end offset of the segment, exclusive
+         * @return the child, or null if no match is found
+         */
+        Node<T> find(String path, int start, int end) {
+            if (size == 1 && variable != null) {
+                return null;
+            } else if (slots != null) {
+                return lookup(path, start, end);
+            }
+            int low = 0;
+            int high = size - 1;
+            int mid;
+            int cmp;
+            while (low <= high) {
+                mid = (low + high) >>> 1;
+                cmp = compare(names[mid], path, start, end);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return children[mid];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Looks up the static child of the segment in the hash table.
+         *
+         * @param path  the path
+         * @param start the start offset of the segment, inclusive
+         * @param end   the end offset of the segment, exclusive
+         * @return the child, or null if no match is found
+         */
+        private Node<T> lookup(String path, int start, int end) {
+            // same as String.hashCode
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + path.charAt(i);
+            }
+            int slot = hash & mask;
+            int index;
+            while ((index = slots[slot]) >= 0) {
+                if (compare(names[index], path, start, end) == 0) {
+                    return children[index];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        /**
+         * Compares the name with the region of the path, the shorter one is less.
+         *
+         * @param name  the name
+         * @param path  the path
+         * @param start the start offset of the region, inclusive
+         * @param end   the end offset of the region, exclusive
+         * @return the comparison result
+         */
+        static int compare(String name, String path, int start, int end) {
+            int length = end - start;
+            if (name.length() != length) {
+                return name.length() - length;
+            }
+            int cmp;
+            for (int i = 0; i < length; i++) {
+                cmp = name.charAt(i) - path.charAt(start + i);
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * A reusable FIFO queue of the alternative nodes and their start offsets.
+     */
+    private static final class Alternatives {
+
+        private Node<?>[] nodes = new Node[8];
+
+        private int[] starts = new int[8];
+
+        private int head;
+
+        private int tail;
+
+        void offer(Node<?> node, int start) {
+            if (tail == nodes.length) {
+                int capacity = nodes.length << 1;
+                Node<?>[] newNodes = new Node[capacity];
+                int[] newStarts = new int[capacity];
+                System.arraycopy(nodes, 0, newNodes, 0, tail);
+                System.arraycopy(starts, 0, newStarts, 0, tail);
+                nodes = newNodes;
+                starts = newStarts;
+            }
+            nodes[tail] = node;
+            starts[tail++] = start;
+        }
+
+        boolean isEmpty() {
+            return head == tail;
+        }
+
+        int start() {
+            return starts[head];
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> Node<T> poll() {
+            Node<T> result = (Node<T>) nodes[head];
+            nodes[head++] = null;
+            return result;
+        }
+
+        void clear() {
+            for (int i = head; i < tail; i++) {
+                nodes[i] = null;
+            }
+            head = 0;
+            tail = 0;
+        }
+    }
+}
@@ -87,6 +87,46 @@ public class PathMatcher<T> {
         return state.getResult(count);
     }
 
+    /**
+     * Compiles the added paths into an immutable matcher, which resolves the value and match type
+     * without allocating substrings.
+     *
+     * @return the compiled matcher
+     */
+    public CompiledPathMatcher<T> compile() {
+        return new CompiledPathMatcher<>(compile(root), delimiter);
+    }
+
+    /**
+     * Compiles the node and its children recursively.
+     *
+     * @param node the node
+     * @return the compiled node
+     */
+    @SuppressWarnings("unchecked")
+    private CompiledPathMatcher.Node<T> compile(TrieNode<T> node) {
+        List<TrieNode<T>> nodes;
+        if (node.children != null) {
+            nodes = new ArrayList<>(node.children.values());
+        } else if (node.child != null) {
+            nodes = Collections.singletonList(node.child);
+        } else {
+            nodes = Collections.emptyList();
+        }
+        nodes.sort((a, b) -> a.name.length() != b.name.length() ? a.name.length() - b.name.length() : a.name.compareTo(b.name));
+        String[] names = new String[nodes.size()];
+        CompiledPathMatcher.Node<T>[] children = new CompiledPathMatcher.Node[nodes.size()];
+        CompiledPathMatcher.Node<T> variable = null;
+        for (int i = 0; i < names.length; i++) {
+            names[i] = nodes.get(i).name;
+            children[i] = compile(nodes.get(i));
+            if (node.variableChild && VARIABLE.equals(names[i])) {
+                variable = children[i];
+            }
+        }
+        return new CompiledPathMatcher.Node<>(node.level, node.end, node.value, names, children, variable);
+    }
+
     /**
      * Splits a path and processes segments via callback.
      *
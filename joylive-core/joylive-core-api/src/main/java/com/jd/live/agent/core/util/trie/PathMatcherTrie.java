@@ -65,14 +65,7 @@ public class PathMatcherTrie<T extends Path> implements PathTrie<T> {
 
     @Override
     public T match(String path, PathMatchType type) {
-        PathMatcher.MatchResult<T> result = getCache().match(path);
-        if (result == null) {
-            return null;
-        } else if (type == null || type == PathMatchType.PREFIX) {
-            return result.getValue();
-        } else {
-            return result.getType() == PathMatchType.EQUAL ? result.getValue() : null;
-        }
+        return getCache().match(path, type);
     }
 
     @Override
@@ -112,7 +105,7 @@ public class PathMatcherTrie<T extends Path> implements PathTrie<T> {
 
         private final Map<String, T> paths;
 
-        private final PathMatcher<T> matcher;
+        private final CompiledPathMatcher<T> matcher;
 
         Cache(Supplier<List<T>> supplier, Character delimiter) {
             paths = createPaths(supplier);
@@ -123,8 +116,8 @@ public class PathMatcherTrie<T extends Path> implements PathTrie<T> {
             return path == null ? null : paths.get(path);
         }
 
-        public PathMatcher.MatchResult<T> match(String path) {
-            return path == null ? null : matcher.match(path);
+        public T match(String path, PathMatchType type) {
+            return path == null ? null : matcher.match(path, type);
         }
 
         private Map<String, T> createPaths(Supplier<List<T>> supplier) {
@@ -140,7 +133,7 @@ public class PathMatcherTrie<T extends Path> implements PathTrie<T> {
             return result;
         }
 
-        private PathMatcher<T> createMatcher(Supplier<List<T>> supplier, Character delimiter) {
+        private CompiledPathMatcher<T> createMatcher(Supplier<List<T>> supplier, Character delimiter) {
             PathMatcher<T> result = new PathMatcher<>(delimiter);
             if (supplier != null) {
                 List<T> paths = supplier.get();
@@ -150,7 +143,7 @@ public class PathMatcherTrie<T extends Path> implements PathTrie<T> {
                     }
                 }
             }
-            return result;
+            return result.compile();
         }
     }
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.core.plugin.definition;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ArgumentSelectorTest {
+
+    @Test
+    void testSelect() {
+        ArgumentSelector selector = ArgumentSelector.of(2, 0, 2);
+        Assertions.assertTrue(selector.isSelected(0));
+        Assertions.assertFalse(selector.isSelected(1));
+        Assertions.assertTrue(selector.isSelected(2));
+        Assertions.assertFalse(selector.isAll());
+        Assertions.assertFalse(selector.isNone());
+        Assertions.assertSame(ArgumentSelector.NONE, ArgumentSelector.of());
+        Assertions.assertTrue(ArgumentSelector.ALL.isSelected(10));
+    }
+
+    @Test
+    void testMerge() {
+        ArgumentSelector first = ArgumentSelector.of(0);
+        ArgumentSelector second = ArgumentSelector.of(1);
+        ArgumentSelector merged = first.merge(second);
+        Assertions.assertTrue(merged.contains(first));
+        Assertions.assertTrue(merged.contains(second));
+        Assertions.assertFalse(first.contains(merged));
+        Assertions.assertSame(first, first.merge(ArgumentSelector.NONE));
+        Assertions.assertSame(ArgumentSelector.ALL, first.merge(ArgumentSelector.ALL));
+        Assertions.assertTrue(ArgumentSelector.ALL.contains(merged));
+        Assertions.assertFalse(merged.contains(ArgumentSelector.ALL));
+    }
+}
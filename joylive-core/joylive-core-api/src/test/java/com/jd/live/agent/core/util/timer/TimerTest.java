@@ -15,12 +15,15 @@
  */
 package com.jd.live.agent.core.util.timer;
 
+import com.jd.live.agent.core.util.time.HashedWheelTimer;
 import com.jd.live.agent.core.util.time.TimeScheduler;
+import com.jd.live.agent.core.util.time.Timeout;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 public class TimerTest {
@@ -46,6 +49,40 @@ public class TimerTest {
         Assertions.assertTrue(avgTime >= 200.0);
     }
 
+    @Test
+    public void wheelScheduleAndCancel() throws InterruptedException {
+        HashedWheelTimer timer = new HashedWheelTimer("LiveAgent-timer", 20, 8, 2, 0);
+        timer.start();
+        try {
+            int size = 1000;
+            AtomicInteger fired = new AtomicInteger();
+            AtomicInteger early = new AtomicInteger();
+            CountDownLatch latch = new CountDownLatch(size / 2);
+            for (int i = 0; i < size; i++) {
+                // some delays are longer than one round of the wheel
+                long delay = 20 + (i % 20) * 20;
+                long due = System.currentTimeMillis() + delay;
+                Timeout timeout = timer.delay("test", delay, () -> {
+                    if (System.currentTimeMillis() < due) {
+                        early.incrementAndGet();
+                    }
+                    fired.incrementAndGet();
+                    latch.countDown();
+                });
+                if (i % 2 == 0) {
+                    Assertions.assertTrue(timeout.cancel());
+                    Assertions.assertTrue(timeout.isCancelled());
+                }
+            }
+            Assertions.assertTrue(latch.await(2000, TimeUnit.MILLISECONDS));
+            Thread.sleep(100);
+            Assertions.assertEquals(size / 2, fired.get());
+            Assertions.assertEquals(0, early.get());
+        } finally {
+            timer.close();
+        }
+    }
+
     private static class Counter {
         long elapseTime;
         long count;
@@ -71,4 +71,34 @@ public class PathMatcherTest {
         Assertions.assertEquals(PathMatchType.EQUAL, match.getType());
         Assertions.assertEquals("RootHandler", matcher.match("/test/order/1/add").getValue());
     }
+
+    @Test
+    public void testCompile() {
+        PathMatcher<String> matcher = new PathMatcher<>();
+        matcher.addPath("/", "RootHandler");
+        matcher.addPath("/user", "UserHandler");
+        matcher.addPath("/order/{orderId}/create", "OrderCreateHandler");
+        matcher.addPath("/order/{orderId}", "OrderHandler");
+        matcher.addPath("/space/{spaceId}/service/{service}", "ServiceCreateHandler");
+        matcher.addPath("/space/{spaceId}/service/{service}/route/{route}", "RouteCreateHandler");
+        matcher.addPath("/product/*/create", "ProductCreateHandler");
+        matcher.addPath("/product/{name}/add", "ProductAddHandler");
+        matcher.addPath("/org/", "OrgHandler");
+        matcher.addPath("/test/{a}/add", "TestAddHandler");
+        matcher.addPath("/test/{a}/{b}/delete", "TestDeleteHandler");
+        matcher.addPath("/test/order/update", "TestUpdateHandler");
+        CompiledPathMatcher<String> compiled = matcher.compile();
+
+        String[] paths = new String[]{"/", "/user", "/user/500", "/order/1/create", "/order/2", "/order/2/update", "/test",
+                "/space/1/service/service-provider/route/abc", "/space/1/service/service-provider/lb/abc",
+                "/product/123/create", "/product/123/add", "/org", "org//", "/test/order/add", "/test/order/update",
+                "/test/order/1/delete", "/test/order/1/add", "//"};
+        MatchResult<String> result;
+        for (String path : paths) {
+            result = matcher.match(path);
+            Assertions.assertEquals(result == null ? null : result.getValue(), compiled.match(path, PathMatchType.PREFIX), path);
+            Assertions.assertEquals(result == null || result.getType() != PathMatchType.EQUAL ? null : result.getValue(),
+                    compiled.match(path, PathMatchType.EQUAL), path);
+        }
+    }
 }
@@ -60,10 +60,12 @@ import com.jd.live.agent.core.service.ServiceSupervisor;
 import com.jd.live.agent.core.service.ServiceSupervisorAware;
 import com.jd.live.agent.core.util.Close;
 import com.jd.live.agent.core.util.option.CascadeOption;
+import com.jd.live.agent.core.util.option.Converts;
 import com.jd.live.agent.core.util.option.MapOption;
 import com.jd.live.agent.core.util.option.Option;
 import com.jd.live.agent.core.util.shutdown.Shutdown;
 import com.jd.live.agent.core.util.shutdown.ShutdownHookAdapter;
+import com.jd.live.agent.core.util.time.HashedWheelTimer;
 import com.jd.live.agent.core.util.time.TimeScheduler;
 import com.jd.live.agent.core.util.time.Timer;
 import com.jd.live.agent.core.util.version.JVM;
@@ -177,7 +179,7 @@ public class Bootstrap implements AgentLifecycle {
      */
     private Publisher<AgentEvent> publisher;
 
-    private TimeScheduler timer;
+    private Timer timer;
 
     /**
      * Manages services within the agent.
@@ -274,7 +276,6 @@ public class Bootstrap implements AgentLifecycle {
             option = loadConfig(); // load config.yaml and merge bootstrap.properties.
             agentConfig = createAgentConfig(); //depend on option & injector
             timer = createTimer();
-            timer.start();
             eventBus = createEventBus(); //depend on extensionManager & option
             publisher = eventBus.getPublisher(Publisher.SYSTEM);
             publisher.addHandler((EventProcessor<AgentEvent>) this::onAgentEvent);
@@ -600,12 +601,19 @@ public class Bootstrap implements AgentLifecycle {
     }
 
     private JExtensionManager createExtensionManager() {
-        return new JExtensionManager(conditionMatcher);
+        return new JExtensionManager(conditionMatcher, Converts.getBoolean(env.get(JExtensionManager.KEY_EXTENSION_INDEX), Boolean.TRUE));
     }
 
-    private TimeScheduler createTimer() {
+    private Timer createTimer() {
         TimerConfig config = agentConfig.getTimerConfig();
-        return new TimeScheduler("LiveAgent-timer", config.getTickTime(), config.getTicks(), config.getWorkerThreads(), config.getMaxTasks());
+        if (TimerConfig.TYPE_WHEEL.equalsIgnoreCase(config.getType())) {
+            HashedWheelTimer result = new HashedWheelTimer("LiveAgent-timer", config.getTickTime(), config.getTicks(), config.getWorkerThreads(), config.getMaxTasks());
+            result.start();
+            return result;
+        }
+        TimeScheduler result = new TimeScheduler("LiveAgent-timer", config.getTickTime(), config.getTicks(), config.getWorkerThreads(), config.getMaxTasks());
+        result.start();
+        return result;
     }
 
     private EventBus createEventBus() {
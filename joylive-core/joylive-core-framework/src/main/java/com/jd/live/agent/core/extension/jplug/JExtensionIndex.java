@@ -0,0 +1,133 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.core.extension.jplug;
+
+import com.jd.live.agent.core.extension.index.ExtensionIndex;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.*;
+
+/**
+ * The build-time extension indexes visible to a class loader, keyed by the root of the jar or directory
+ * that contains them.
+ * <p>
+ * A service file is only served from the index of its own root, so roots built without the index processor
+ * are still scanned.
+ */
+public class JExtensionIndex {
+
+    private static final Map<ClassLoader, JExtensionIndex> INDEXES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final JExtensionIndex EMPTY = new JExtensionIndex(Collections.emptyMap());
+
+    private final Map<String, ExtensionIndex> indexes;
+
+    private JExtensionIndex(Map<String, ExtensionIndex> indexes) {
+        this.indexes = indexes;
+    }
+
+    /**
+     * Returns the index of the root that contains the specified resource.
+     *
+     * @param url      the url of the resource
+     * @param resource the resource name
+     * @return the index, or null if the root is not indexed
+     */
+    public ExtensionIndex getIndex(URL url, String resource) {
+        if (indexes.isEmpty()) {
+            return null;
+        }
+        String root = getRoot(url.toString(), resource);
+        return root == null ? null : indexes.get(root);
+    }
+
+    /**
+     * Returns whether the specified type declares or inherits a field annotated with {@code @Inject}.
+     *
+     * @param type the type name
+     * @return {@code true} or {@code false} if the type is indexed, otherwise null
+     */
+    public Boolean isInjectable(String type) {
+        Boolean result;
+        for (ExtensionIndex index : indexes.values()) {
+            result = index.isInjectable(type);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the indexes already read for the specified class loader by an indexed extension loader.
+     * <p>
+     * Nothing is read here, so the indexes are only consulted when the extension manager enables them.
+     *
+     * @param classLoader the class loader
+     * @return the indexes, never null
+     */
+    public static JExtensionIndex get(ClassLoader classLoader) {
+        JExtensionIndex result = classLoader == null ? null : INDEXES.get(classLoader);
+        return result == null ? EMPTY : result;
+    }
+
+    /**
+     * Returns the indexes visible to the specified class loader.
+     *
+     * @param classLoader the class loader
+     * @return the indexes, never null
+     */
+    public static JExtensionIndex of(ClassLoader classLoader) {
+        if (classLoader == null) {
+            return EMPTY;
+        }
+        JExtensionIndex result = INDEXES.get(classLoader);
+        if (result == null) {
+            result = load(classLoader);
+            INDEXES.put(classLoader, result);
+        }
+        return result;
+    }
+
+    private static JExtensionIndex load(ClassLoader classLoader) {
+        Map<String, ExtensionIndex> indexes = new HashMap<>();
+        try {
+            Enumeration<URL> urls = classLoader.getResources(ExtensionIndex.RESOURCE);
+            URL url;
+            String root;
+            while (urls.hasMoreElements()) {
+                url = urls.nextElement();
+                root = getRoot(url.toString(), ExtensionIndex.RESOURCE);
+                if (root != null && !indexes.containsKey(root)) {
+                    try (InputStream in = url.openStream()) {
+                        indexes.put(root, ExtensionIndex.read(in));
+                    } catch (IOException ignored) {
+                        // the root is scanned
+                    }
+                }
+            }
+        } catch (IOException ignored) {
+            // all roots are scanned
+        }
+        return indexes.isEmpty() ? EMPTY : new JExtensionIndex(indexes);
+    }
+
+    private static String getRoot(String url, String resource) {
+        return url.endsWith(resource) ? url.substring(0, url.length() - resource.length()) : null;
+    }
+}
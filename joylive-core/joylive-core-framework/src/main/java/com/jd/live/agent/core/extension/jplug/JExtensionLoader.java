@@ -23,6 +23,7 @@ import com.jd.live.agent.core.extension.Name;
 import com.jd.live.agent.core.extension.annotation.Extensible;
 import com.jd.live.agent.core.extension.annotation.Extension;
 import com.jd.live.agent.core.extension.condition.ConditionMatcher;
+import com.jd.live.agent.core.extension.index.ExtensionIndex;
 
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -62,6 +63,11 @@ public class JExtensionLoader implements ExtensionLoader {
      */
     private final Instantiation instantiation;
 
+    /**
+     * Whether to read the build-time extension indexes instead of scanning the service files.
+     */
+    private final boolean indexed;
+
     /**
      * Constructs a new JExtensionLoader with the specified class loader, condition matcher, listener, and instantiation strategy.
      *
@@ -70,10 +76,24 @@ public class JExtensionLoader implements ExtensionLoader {
      * @param listener    The listener to notify of extension loading events.
      */
     public JExtensionLoader(ClassLoader classLoader, ConditionMatcher matcher, ExtensionListener listener) {
+        this(classLoader, matcher, listener, false);
+    }
+
+    /**
+     * Constructs a new JExtensionLoader with the specified class loader, condition matcher, listener and index switch.
+     *
+     * @param classLoader The class loader to use for finding service provider configurations.
+     * @param matcher     The condition matcher for filtering service providers.
+     * @param listener    The listener to notify of extension loading events.
+     * @param indexed     Whether to read the build-time extension indexes generated by
+     *                    {@link com.jd.live.agent.core.extension.index.ExtensionIndexProcessor}.
+     */
+    public JExtensionLoader(ClassLoader classLoader, ConditionMatcher matcher, ExtensionListener listener, boolean indexed) {
         this.classLoader = classLoader;
         this.matcher = matcher;
         this.listener = listener;
         this.instantiation = ClassInstantiation.INSTANCE;
+        this.indexed = indexed;
     }
 
     @Override
@@ -97,16 +117,20 @@ public class JExtensionLoader implements ExtensionLoader {
                     if (loader != contextClassLoader) {
                         Thread.currentThread().setContextClassLoader(loader);
                     }
-                    // Load plugin names
-                    Collection<String> classNames = loadPluginName(extensible, loader, resource);
+                    // Load plugin names, with the indexed metadata if any
+                    Map<String, ExtensionIndex.Entry> classNames = loadPluginName(extensible, loader, resource);
                     if (!classNames.isEmpty()) {
                         Class<T> clazz;
+                        ExtensionIndex.Entry entry;
                         // Iterate through plugins
-                        for (String className : classNames) {
+                        for (Map.Entry<String, ExtensionIndex.Entry> className : classNames.entrySet()) {
+                            entry = className.getValue();
                             // Load class, filtering out those that don't meet the conditions
-                            clazz = loadPluginClass(extensible, loader, className);
+                            clazz = loadPluginClass(extensible, loader, className.getKey(), entry == null || entry.isConditional());
                             if (clazz != null) {
-                                result.addAll(createExtension(extensible, clazz, loader));
+                                result.addAll(entry == null
+                                        ? createExtension(extensible, clazz, loader)
+                                        : createExtension(extensible, clazz, loader, entry));
                             }
                         }
                         break;
@@ -162,6 +186,45 @@ public class JExtensionLoader implements ExtensionLoader {
         return result;
     }
 
+    /**
+     * Creates an extension descriptor for the given extension type from its indexed metadata.
+     *
+     * @param <T>        The type of the extension.
+     * @param extensible The class object representing the extensible type.
+     * @param type       The class object representing the extension implementation.
+     * @param loader     The class loader to use for loading the extension.
+     * @param entry      The indexed metadata of the extension.
+     * @return An {@link ExtensionDesc} object representing the created extension.
+     */
+    private <T> List<ExtensionDesc<T>> createExtension(final Class<T> extensible,
+                                                       final Class<T> type,
+                                                       final ClassLoader loader,
+                                                       final ExtensionIndex.Entry entry) {
+        Extensible extensibleAnno = extensible.getAnnotation(Extensible.class);
+        String extensibleName = extensibleAnno == null || isEmpty(extensibleAnno.value()) ? extensible.getSimpleName() : extensibleAnno.value();
+        String[] values = entry.getNames();
+        values = values.length == 0 ? new String[]{extensible.getSimpleName()} : values;
+        Set<String> names = new HashSet<>();
+        for (String value : values) {
+            names.add(isEmpty(value) ? extensible.getSimpleName() : value);
+        }
+
+        List<ExtensionDesc<T>> result = new LinkedList<>();
+        for (String name : names) {
+            JExtension<T> ext = new JExtension<>(
+                    new Name<>(extensible, extensibleName),
+                    new Name<>(type, name),
+                    isEmpty(entry.getProvider()) ? extensible.getName() : entry.getProvider(),
+                    entry.getOrder(),
+                    entry.isSingleton(),
+                    loader,
+                    instantiation,
+                    listener);
+            result.add(ext);
+        }
+        return result;
+    }
+
     protected boolean isEmpty(final String value) {
         return value == null || value.isEmpty();
     }
@@ -189,22 +252,43 @@ public class JExtensionLoader implements ExtensionLoader {
 
     /**
      * Loads plugin names from the specified resource.
+     * <p>
+     * When indexing is enabled, the service files contained in an indexed root are served from its index
+     * and are not read.
      *
      * @param extensible The extensible interface class.
      * @param loader     The class loader to use for loading the resource.
      * @param resource   The resource name.
-     * @return A collection of plugin names.
+     * @return The plugin names mapped to their indexed metadata, or to null if they are not indexed.
      * @throws IOException If an I/O error occurs.
      */
-    protected Collection<String> loadPluginName(final Class<?> extensible, final ClassLoader loader, final String resource) throws IOException {
+    protected Map<String, ExtensionIndex.Entry> loadPluginName(final Class<?> extensible, final ClassLoader loader, final String resource) throws IOException {
+        Map<String, ExtensionIndex.Entry> result = new LinkedHashMap<>();
+        JExtensionIndex index = indexed ? JExtensionIndex.of(loader) : null;
         Set<String> names = new LinkedHashSet<>();
         Enumeration<URL> resources = loader.getResources(resource);
+        URL url;
+        ExtensionIndex extensionIndex;
+        List<ExtensionIndex.Entry> entries;
         while (resources.hasMoreElements()) {
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(resources.nextElement().openStream(), StandardCharsets.UTF_8))) {
-                loadPluginName(extensible, reader, names);
+            url = resources.nextElement();
+            extensionIndex = index == null ? null : index.getIndex(url, resource);
+            entries = extensionIndex == null ? null : extensionIndex.getExtensions(extensible.getName());
+            if (entries != null) {
+                for (ExtensionIndex.Entry entry : entries) {
+                    result.putIfAbsent(entry.getClassName(), entry);
+                }
+            } else {
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+                    loadPluginName(extensible, reader, names);
+                }
+                for (String name : names) {
+                    result.putIfAbsent(name, null);
+                }
+                names.clear();
             }
         }
-        return names;
+        return result;
     }
 
     /**
@@ -250,10 +334,11 @@ public class JExtensionLoader implements ExtensionLoader {
      * @param extensible The class object representing the plugin interface.
      * @param loader     The class loader to use for loading the plugin class.
      * @param className  The name of the plugin class to load.
+     * @param conditional Whether the conditions of the plugin class need to be matched.
      * @return The loaded plugin class.
      */
     @SuppressWarnings("unchecked")
-    protected <T> Class<T> loadPluginClass(final Class<T> extensible, final ClassLoader loader, final String className) {
+    protected <T> Class<T> loadPluginClass(final Class<T> extensible, final ClassLoader loader, final String className, final boolean conditional) {
         Class<?> result;
         try {
             result = loader.loadClass(className);
@@ -267,7 +352,7 @@ public class JExtensionLoader implements ExtensionLoader {
             // Invalid Java class
             throw new PluginException("Extension " + className + " is not an implement of " + extensible.getName());
         }
-        return matcher == null || matcher.match(result, loader) ? (Class<T>) result : null;
+        return !conditional || matcher == null || matcher.match(result, loader) ? (Class<T>) result : null;
     }
 
 }
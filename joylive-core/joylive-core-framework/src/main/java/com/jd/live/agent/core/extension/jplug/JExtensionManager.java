@@ -35,8 +35,15 @@ import java.util.function.Consumer;
  */
 public class JExtensionManager implements ExtensionManager {
 
+    /**
+     * The key of the switch that enables the build-time extension indexes, enabled by default.
+     */
+    public static final String KEY_EXTENSION_INDEX = "LIVE_EXTENSION_INDEX";
+
     private final ConditionMatcher matcher;
 
+    private final boolean indexed;
+
     private final Map<Class<?>, ExtensibleDesc<?>> extensibles = new ConcurrentHashMap<>();
 
     private final Map<String, ExtensibleDesc<?>> names = new ConcurrentHashMap<>();
@@ -46,7 +53,18 @@ public class JExtensionManager implements ExtensionManager {
     private final ExtensionListener listener;
 
     public JExtensionManager(ConditionMatcher matcher) {
+        this(matcher, true);
+    }
+
+    /**
+     * Creates an extension manager.
+     *
+     * @param matcher the condition matcher used to filter the extensions
+     * @param indexed whether to read the build-time extension indexes, otherwise the service files are scanned
+     */
+    public JExtensionManager(ConditionMatcher matcher, boolean indexed) {
         this.matcher = matcher;
+        this.indexed = indexed;
         listener = (event) -> {
             listeners.forEach(l -> l.onEvent(event));
             if (event.getType() == EventType.CREATED && event.getInstance() instanceof ExtensionInitializer) {
@@ -111,7 +129,7 @@ public class JExtensionManager implements ExtensionManager {
 
     @Override
     public <T> ExtensibleDesc<T> getOrLoadExtensible(Class<T> extensible, ClassLoader classLoader) {
-        return getOrLoadExtensible(extensible, new JExtensionLoader(classLoader, matcher, listener));
+        return getOrLoadExtensible(extensible, new JExtensionLoader(classLoader, matcher, listener, indexed));
     }
 
     @SuppressWarnings("unchecked")
@@ -140,7 +158,7 @@ public class JExtensionManager implements ExtensionManager {
 
     @Override
     public <T> ExtensibleDesc<T> loadExtensible(Class<T> extensible, ClassLoader classLoader) {
-        return loadExtensible(extensible, new JExtensionLoader(classLoader, matcher, listener));
+        return loadExtensible(extensible, new JExtensionLoader(classLoader, matcher, listener, indexed));
     }
 
     @Override
@@ -40,6 +40,9 @@ public abstract class AbstractAnnotationSupplier implements InjectionSupplier {
         }
         Map<Class<?>, CacheObject<Injection>> injections = getCache(type, context);
         return injections.computeIfAbsent(type, t -> {
+            if (!isCandidate(type, context)) {
+                return CacheObject.of(null);
+            }
             InjectType injectType = createType(type, context);
             FieldList fieldList = describe(type).getFieldList();
             for (FieldDesc fieldDesc : fieldList.getFields()) {
@@ -58,6 +61,17 @@ public abstract class AbstractAnnotationSupplier implements InjectionSupplier {
 
     protected abstract Map<Class<?>, CacheObject<Injection>> getCache(Class<?> type, InjectionContext context);
 
+    /**
+     * Checks if the fields of the type need to be described, called once per type.
+     *
+     * @param type    the type
+     * @param context the injection context
+     * @return {@code true} if the fields of the type need to be described
+     */
+    protected boolean isCandidate(Class<?> type, InjectionContext context) {
+        return true;
+    }
+
     protected InjectType createType(Class<?> type, InjectionContext context) {
         return new InjectType(type);
     }
@@ -20,6 +20,7 @@ import com.jd.live.agent.core.event.Publisher;
 import com.jd.live.agent.core.extension.ExtensibleDesc;
 import com.jd.live.agent.core.extension.annotation.Extensible;
 import com.jd.live.agent.core.extension.annotation.Extension;
+import com.jd.live.agent.core.extension.jplug.JExtensionIndex;
 import com.jd.live.agent.core.inject.Injection;
 import com.jd.live.agent.core.inject.annotation.Inject;
 import com.jd.live.agent.core.inject.jbind.*;
@@ -49,6 +50,14 @@ public class JInjectAnnotationSupplier extends AbstractAnnotationSupplier {
         return types;
     }
 
+    @Override
+    protected boolean isCandidate(Class<?> type, InjectionContext context) {
+        // Types indexed at build time without any @Inject field are not described.
+        // Only the indexes read by the extension manager are consulted, so nothing is read when they are disabled.
+        ClassLoader classLoader = type.getClassLoader();
+        return classLoader == null || !Boolean.FALSE.equals(JExtensionIndex.get(classLoader).isInjectable(type.getName()));
+    }
+
     @Override
     protected InjectField createField(InjectType injectType, FieldDesc fieldDesc, InjectionContext context) {
         Inject inject = fieldDesc.getAnnotation(Inject.class);
@@ -20,6 +20,10 @@ import com.jd.live.agent.bootstrap.logger.LoggerFactory;
 import com.jd.live.agent.bootstrap.plugin.PluginEvent;
 import com.jd.live.agent.bootstrap.plugin.PluginEvent.EventType;
 import com.jd.live.agent.bootstrap.plugin.PluginListener;
+import com.jd.live.agent.core.bytekit.matcher.ElementMatcher;
+import com.jd.live.agent.core.bytekit.matcher.NameMatcher;
+import com.jd.live.agent.core.bytekit.matcher.OneOfMatcher;
+import com.jd.live.agent.core.bytekit.matcher.StringMatcher;
 import com.jd.live.agent.core.bytekit.type.TypeDesc;
 import com.jd.live.agent.core.extension.annotation.Extension;
 import com.jd.live.agent.core.extension.condition.ConditionMatcher;
@@ -27,15 +31,14 @@ import com.jd.live.agent.core.plugin.definition.PluginDefinition;
 import com.jd.live.agent.core.util.Executors;
 import lombok.Getter;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 import static com.jd.live.agent.core.extension.condition.ConditionMatcher.DEPEND_ON_LOADER;
+import static com.jd.live.agent.core.util.CollectionUtils.add;
 
 /**
  * Represents a composite plugin that contains multiple plugins and manages their lifecycle and matching.
@@ -71,6 +74,16 @@ public abstract class AbstractPluginDescriptor implements PluginDescriptor {
     @Getter
     protected List<PluginDefinition> definitions = new ArrayList<>(0);
 
+    /**
+     * The definitions whose matcher only accepts known type names, indexed by those names.
+     */
+    protected Map<String, List<PluginDefinition>> namedDefinitions = new HashMap<>(0);
+
+    /**
+     * The definitions that have to be matched against every type.
+     */
+    protected List<PluginDefinition> otherDefinitions = new ArrayList<>(0);
+
     /**
      * Constructs a new instance of {@link AbstractPluginDescriptor} with the specified parameters.
      *
@@ -98,11 +111,26 @@ public abstract class AbstractPluginDescriptor implements PluginDescriptor {
         }
     }
 
+    @Override
+    public List<PluginDefinition> match(TypeDesc typeDesc, ClassLoader classLoader) {
+        List<PluginDefinition> result = new ArrayList<>(4);
+        if (typeDesc != null) {
+            add(namedDefinitions.get(typeDesc.getActualName()), result, p -> isEnabled(p, classLoader));
+            add(otherDefinitions, result, p -> match(typeDesc, p, classLoader));
+        }
+        return result;
+    }
+
     @Override
     public boolean load() {
         return load(e -> fail("failed to load plugin " + name, e));
     }
 
+    @Override
+    public boolean loadAsync(Executor executor) {
+        return load(e -> fail("failed to load plugin " + name, e), executor);
+    }
+
     /**
      * Loads the plugin by performing the actual loading logic defined in {@link #doLoad()}.
      *
@@ -110,9 +138,20 @@ public abstract class AbstractPluginDescriptor implements PluginDescriptor {
      * @return {@code true} if the plugin is successfully loaded, otherwise {@code false}
      */
     protected boolean load(Consumer<Throwable> errorHandler) {
+        return load(errorHandler, null);
+    }
+
+    /**
+     * Loads the plugin by performing the actual loading logic defined in {@link #doLoad(Executor)}.
+     *
+     * @param errorHandler a consumer that can be used to handle exceptions during the loading process (can be null)
+     * @param executor     the executor used to load the independent parts concurrently (can be null)
+     * @return {@code true} if the plugin is successfully loaded, otherwise {@code false}
+     */
+    protected boolean load(Consumer<Throwable> errorHandler, Executor executor) {
         if (status == PluginStatus.CREATED) {
             try {
-                status = doLoad() ? PluginStatus.LOADED : PluginStatus.FAILED;
+                status = doLoad(executor) ? PluginStatus.LOADED : PluginStatus.FAILED;
             } catch (Throwable e) {
                 status = PluginStatus.FAILED;
                 if (errorHandler != null) {
@@ -210,6 +249,48 @@ public abstract class AbstractPluginDescriptor implements PluginDescriptor {
         return true;
     }
 
+    /**
+     * Performs the actual loading logic for the plugin, using the executor to load its independent parts concurrently.
+     *
+     * @param executor the executor, or null to load sequentially
+     * @return {@code true} if the loading is successful, otherwise {@code false}
+     * @throws Exception if an error occurs during the loading process
+     */
+    protected boolean doLoad(Executor executor) throws Exception {
+        return doLoad();
+    }
+
+    /**
+     * Indexes the loaded definitions by the type names their matcher accepts.
+     * Definitions that use a fully equal string matcher or a one of matcher are stored in a map,
+     * while other definitions are stored in a separate list.
+     */
+    protected void index() {
+        Map<String, List<PluginDefinition>> named = new HashMap<>();
+        List<PluginDefinition> others = new ArrayList<>();
+        for (PluginDefinition definition : definitions) {
+            ElementMatcher<?> matcher = definition.getMatcher();
+            if (matcher instanceof NameMatcher) {
+                matcher = ((NameMatcher<?>) matcher).getMatcher();
+                if (matcher instanceof StringMatcher) {
+                    StringMatcher stringMatcher = (StringMatcher) matcher;
+                    if (stringMatcher.getMode() == StringMatcher.OperationMode.EQUALS_FULLY) {
+                        named.computeIfAbsent(stringMatcher.getValue(), k -> new ArrayList<>()).add(definition);
+                        continue;
+                    }
+                } else if (matcher instanceof OneOfMatcher) {
+                    OneOfMatcher oneOfMatcher = (OneOfMatcher) matcher;
+                    oneOfMatcher.getValues().forEach(value ->
+                            named.computeIfAbsent(value, k -> new ArrayList<>()).add(definition));
+                    continue;
+                }
+            }
+            others.add(definition);
+        }
+        this.namedDefinitions = named;
+        this.otherDefinitions = others;
+    }
+
     /**
      * Performs the actual uninstall logic for the plugin.
      */
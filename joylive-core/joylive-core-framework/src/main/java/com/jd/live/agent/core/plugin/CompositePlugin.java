@@ -16,22 +16,16 @@
 package com.jd.live.agent.core.plugin;
 
 import com.jd.live.agent.bootstrap.plugin.PluginListener;
-import com.jd.live.agent.core.bytekit.matcher.ElementMatcher;
-import com.jd.live.agent.core.bytekit.matcher.NameMatcher;
-import com.jd.live.agent.core.bytekit.matcher.OneOfMatcher;
-import com.jd.live.agent.core.bytekit.matcher.StringMatcher;
-import com.jd.live.agent.core.bytekit.type.TypeDesc;
 import com.jd.live.agent.core.extension.condition.ConditionMatcher;
 import com.jd.live.agent.core.plugin.definition.PluginDefinition;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
-import static com.jd.live.agent.core.util.CollectionUtils.add;
-
 /**
  * Represents a composite plugin that contains multiple plugins and manages their lifecycle and matching.
  */
@@ -39,10 +33,6 @@ public class CompositePlugin extends AbstractPluginDescriptor {
 
     private final List<Plugin> plugins;
 
-    private final Map<String, List<PluginDefinition>> namedDefinitions = new ConcurrentHashMap<>();
-
-    private final List<PluginDefinition> otherDefinitions = new ArrayList<>();
-
     /**
      * Constructs a new instance of {@link CompositePlugin} with the specified parameters.
      *
@@ -62,18 +52,13 @@ public class CompositePlugin extends AbstractPluginDescriptor {
     }
 
     @Override
-    public List<PluginDefinition> match(TypeDesc typeDesc, ClassLoader classLoader) {
-        List<PluginDefinition> result = new ArrayList<>(4);
-        if (typeDesc != null) {
-            add(namedDefinitions.get(typeDesc.getActualName()), result, p -> isEnabled(p, classLoader));
-            add(otherDefinitions, result, p -> match(typeDesc, p, classLoader));
-        }
-        return result;
+    public boolean load() {
+        return load(e -> fail("failed to load plugin " + getName(), e));
     }
 
     @Override
-    public boolean load() {
-        return load(e -> fail("failed to load plugin " + getName(), e));
+    public boolean loadAsync(Executor executor) {
+        return load(e -> fail("failed to load plugin " + getName(), e), executor);
     }
 
     @Override
@@ -89,36 +74,50 @@ public class CompositePlugin extends AbstractPluginDescriptor {
             }
         }
         this.definitions = definitions;
-        sort();
+        index();
         return true;
     }
 
-
     /**
-     * Sorts the plugin definitions into named and other definitions based on the type of matcher.
-     * Named definitions that use a fully equal string matcher are stored in a map, while other definitions
-     * are stored in a separate list.
+     * Loads the plugins concurrently, as each of them reads its definitions through its own class loader.
+     * The definitions are still merged in the configured order of the plugins.
+     * After a plugin fails, the plugins which are not started yet are skipped, as the sequential loading stops there.
+     *
+     * @param executor the executor, or null to load sequentially
+     * @return {@code true} if all the plugins are loaded, otherwise {@code false}
      */
-    private void sort() {
-        for (PluginDefinition definition : definitions) {
-            ElementMatcher<?> matcher = definition.getMatcher();
-            if (matcher instanceof NameMatcher) {
-                matcher = ((NameMatcher<?>) matcher).getMatcher();
-                if (matcher instanceof StringMatcher) {
-                    StringMatcher stringMatcher = (StringMatcher) matcher;
-                    if (stringMatcher.getMode() == StringMatcher.OperationMode.EQUALS_FULLY) {
-                        namedDefinitions.computeIfAbsent(stringMatcher.getValue(), k -> new ArrayList<>()).add(definition);
-                        continue;
-                    }
-                } else if (matcher instanceof OneOfMatcher) {
-                    OneOfMatcher oneOfMatcher = (OneOfMatcher) matcher;
-                    oneOfMatcher.getValues().forEach(value ->
-                            namedDefinitions.computeIfAbsent(value, k -> new ArrayList<>()).add(definition));
-                    continue;
+    @Override
+    protected boolean doLoad(Executor executor) {
+        if (executor == null || plugins.size() <= 1) {
+            return doLoad();
+        }
+        AtomicBoolean failed = new AtomicBoolean(false);
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>(plugins.size());
+        for (Plugin plugin : plugins) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                if (failed.get()) {
+                    return false;
                 }
+                boolean loaded = plugin.load(e -> fail("failed to load plugin " + plugin.getName(), e));
+                if (!loaded) {
+                    failed.set(true);
+                }
+                return loaded;
+            }, executor));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        if (failed.get()) {
+            return false;
+        }
+        List<PluginDefinition> definitions = new ArrayList<>();
+        for (Plugin plugin : plugins) {
+            if (!plugin.isEmpty()) {
+                definitions.addAll(plugin.getDefinitions());
             }
-            otherDefinitions.add(definition);
         }
+        this.definitions = definitions;
+        index();
+        return true;
     }
 
     @Override
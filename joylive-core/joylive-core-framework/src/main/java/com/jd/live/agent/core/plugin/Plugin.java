@@ -25,11 +25,10 @@ import lombok.Getter;
 
 import java.io.File;
 import java.net.URL;
-import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.function.Consumer;
 
-import static com.jd.live.agent.core.util.CollectionUtils.add;
 import static com.jd.live.agent.core.util.StringUtils.getPackage;
 
 /**
@@ -83,9 +82,10 @@ public class Plugin extends AbstractPluginDescriptor {
 
     @Override
     public List<PluginDefinition> match(TypeDesc typeDesc, ClassLoader classLoader) {
-        List<PluginDefinition> result = new ArrayList<>(4);
-        if (typeDesc != null) {
-            add(definitions, result, p -> match(typeDesc, p, classLoader));
+        List<PluginDefinition> result = super.match(typeDesc, classLoader);
+        if (result.size() > 1) {
+            // the named definitions are looked up first, keep the declared order of a dynamic plugin
+            result.sort(Comparator.comparingInt(definitions::indexOf));
         }
         return result;
     }
@@ -98,6 +98,7 @@ public class Plugin extends AbstractPluginDescriptor {
             // add package to class loader to faster class loading
             ((LiveClassLoader) classLoader).addPackage(getPackage(definitions.get(0).getClass().getPackage().getName()));
         }
+        index();
         return true;
     }
 
@@ -17,6 +17,7 @@ package com.jd.live.agent.core.plugin;
 
 import com.jd.live.agent.core.plugin.definition.PluginDeclare;
 
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 /**
@@ -46,6 +47,18 @@ public interface PluginDescriptor extends PluginDeclare {
      */
     boolean load();
 
+    /**
+     * Loads the plugin, using the executor to load its independent parts concurrently.
+     * It returns when the loading completes. The definitions are still loaded eagerly,
+     * because their target types are only known once they are created.
+     *
+     * @param executor the executor, or null to load sequentially
+     * @return {@code true} if the plugin is loaded
+     */
+    default boolean loadAsync(Executor executor) {
+        return load();
+    }
+
     /**
      * Uninstalls the plugin. This method should handle any necessary cleanup or removal of the plugin.
      */
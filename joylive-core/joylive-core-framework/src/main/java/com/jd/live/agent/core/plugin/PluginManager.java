@@ -31,6 +31,7 @@ import com.jd.live.agent.core.extension.ExtensibleLoader;
 import com.jd.live.agent.core.extension.ExtensionManager;
 import com.jd.live.agent.core.extension.condition.ConditionMatcher;
 import com.jd.live.agent.core.plugin.definition.PluginDefinition;
+import com.jd.live.agent.core.thread.NamedThreadFactory;
 import com.jd.live.agent.core.util.Close;
 
 import java.io.File;
@@ -38,6 +39,8 @@ import java.lang.instrument.Instrumentation;
 import java.net.URL;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -259,7 +262,15 @@ public class PluginManager implements PluginSupervisor {
             return true;
         }
         // a transaction
-        boolean success = loadPlugins(plugins);
+        boolean success;
+        ExecutorService executor = createExecutor();
+        try {
+            success = loadPlugins(plugins, executor);
+        } finally {
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
         List<PluginDescriptor> enhances = plugins;
         if (success) {
             enhances = plugins.stream().filter(p -> p.getStatus() == PluginStatus.LOADED && !p.isEmpty()).collect(Collectors.toList());
@@ -357,16 +368,29 @@ public class PluginManager implements PluginSupervisor {
         return plugin;
     }
 
+    /**
+     * Creates a bounded executor to load the plugins concurrently at startup.
+     *
+     * @return the executor, or null if the plugins are loaded sequentially
+     */
+    private ExecutorService createExecutor() {
+        int parallelism = Math.min(pluginConfig.getParallelism(), Runtime.getRuntime().availableProcessors());
+        return parallelism <= 1 ? null : Executors.newFixedThreadPool(parallelism, new NamedThreadFactory("LiveAgent-plugin-loader", true));
+    }
+
     /**
      * Loads a list of plugins by invoking their load method.
      * If any plugin fails to load, the process is halted and false is returned.
+     * <p>
+     * The plugins are loaded one by one, a composite plugin loads its own plugins concurrently on the executor.
      *
-     * @param plugins The list of plugins to be loaded.
+     * @param plugins  The list of plugins to be loaded.
+     * @param executor The executor used by a plugin to load its parts concurrently, or null to load them sequentially.
      * @return true if all plugins are loaded successfully, false if any plugin fails to load.
      */
-    private boolean loadPlugins(List<PluginDescriptor> plugins) {
+    private boolean loadPlugins(List<PluginDescriptor> plugins, ExecutorService executor) {
         for (PluginDescriptor plugin : plugins) {
-            plugin.load();
+            plugin.loadAsync(executor);
             if (plugin.getStatus() == PluginStatus.FAILED) {
                 return false;
             }
@@ -0,0 +1,43 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.config;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Counter configuration.
+ */
+@Getter
+@Setter
+public class CounterConfig {
+
+    /**
+     * Counter backed by atomic fields.
+     */
+    public static final String TYPE_ATOMIC = "atomic";
+
+    /**
+     * Counter backed by striped cells with latency histogram.
+     */
+    public static final String TYPE_STRIPED = "striped";
+
+    private String type = TYPE_ATOMIC;
+
+    public boolean isStriped() {
+        return TYPE_STRIPED.equalsIgnoreCase(type);
+    }
+}
@@ -86,6 +86,7 @@ public class GovernanceConfig {
 
     public static final String CONFIG_TRANSMISSION_ENABLED = CONFIG_SWITCH_TRANSMISSION + ENABLED;
     public static final String CONFIG_TRANSMISSION_THREADPOOL_ENABLED = CONFIG_SWITCH_TRANSMISSION + ".threadpool";
+    public static final String CONFIG_TRANSMISSION_VIRTUAL_THREAD_ENABLED = CONFIG_SWITCH_TRANSMISSION + ".virtualthread";
 
     public static final String CONFIG_FLOW_CONTROL_ENABLED = CONFIG_SWITCH_FLOW_CONTROL + ENABLED;
     public static final String CONFIG_LOCALHOST_ENABLED = CONFIG_SWITCH_FLOW_CONTROL + ".localhost";
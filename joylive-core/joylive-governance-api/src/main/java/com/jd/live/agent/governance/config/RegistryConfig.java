@@ -40,6 +40,31 @@ public class RegistryConfig {
 
     private SubscribeMode subscribeMode = AUTO;
 
+    /**
+     * The window in milliseconds to coalesce the endpoint changes of a subscription before notifying the consumers.
+     */
+    private long notifyDelay = 1000L;
+
+    /**
+     * The delay in milliseconds to notify a change which arrives after a quiet period longer than the window.
+     */
+    private long notifyMinDelay = 50L;
+
+    /**
+     * Whether to save the subscribed endpoints to a local snapshot, which is served on restart until the live data arrives.
+     */
+    private boolean snapshotEnabled = true;
+
+    /**
+     * The delay in milliseconds to batch the endpoint changes before writing the snapshot.
+     */
+    private long snapshotDelay = 5000L;
+
+    /**
+     * The max age in milliseconds of a snapshot to be served on restart.
+     */
+    private long snapshotExpireTime = 24 * 3600 * 1000L;
+
     private List<RegistryClusterConfig> clusters;
 
     @Config("host")
@@ -125,6 +125,13 @@ public class ServiceConfig {
     @Setter
     private MonitorConfig monitor;
 
+    /**
+     * The config of request counter
+     */
+    @Getter
+    @Setter
+    private CounterConfig counter = new CounterConfig();
+
     /**
      * The config of system http inbound paths
      */
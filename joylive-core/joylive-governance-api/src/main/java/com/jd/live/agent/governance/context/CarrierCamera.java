@@ -27,6 +27,11 @@ import com.jd.live.agent.governance.context.bag.Carrier;
 @Extension("CarrierCamera")
 public class CarrierCamera implements Camera {
 
+    @Override
+    public boolean hasState() {
+        return RequestContext.get() != null;
+    }
+
     @Override
     public Object snapshot() {
         return RequestContext.get();
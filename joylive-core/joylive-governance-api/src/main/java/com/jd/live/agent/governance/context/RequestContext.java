@@ -15,6 +15,7 @@
  */
 package com.jd.live.agent.governance.context;
 
+import com.jd.live.agent.core.util.option.Converts;
 import com.jd.live.agent.governance.context.bag.Cargo;
 import com.jd.live.agent.governance.context.bag.Carrier;
 import com.jd.live.agent.governance.context.bag.Courier;
@@ -35,10 +36,23 @@ import java.util.function.Supplier;
  */
 public class RequestContext {
 
+    /**
+     * The environment variable or system property to disable inheriting the carrier by the child threads.
+     */
+    public static final String CONFIG_INHERITABLE = "CONFIG_TRANSMISSION_THREAD_INHERITABLE";
+
     /**
      * Thread-local storage for {@link Carrier} instances, allowing data to be inherited by child threads.
+     * <p>
+     * The inheritable storage copies the carrier reference into every new thread, including the virtual threads.
+     * When it is disabled by {@link #CONFIG_INHERITABLE}, the carrier is only propagated by the instrumented executors
+     * and virtual thread builders. It's decided once when the class is initialized.
+     * </p>
      */
-    private static final ThreadLocal<Carrier> CARRIER = new InheritableThreadLocal<>();
+    private static final ThreadLocal<Carrier> CARRIER =
+            Converts.getBoolean(System.getProperty(CONFIG_INHERITABLE, System.getenv(CONFIG_INHERITABLE)), Boolean.TRUE)
+                    ? new InheritableThreadLocal<>()
+                    : new ThreadLocal<>();
 
     /**
      * Private constructor to prevent instantiation.
@@ -46,6 +60,15 @@ public class RequestContext {
     private RequestContext() {
     }
 
+    /**
+     * Checks whether the carrier is inherited by the child threads.
+     *
+     * @return true if the carrier is inherited by the child threads
+     */
+    public static boolean isInheritable() {
+        return CARRIER instanceof InheritableThreadLocal;
+    }
+
     /**
      * Retrieves the current {@link Carrier} instance associated with the current thread, if any.
      *
@@ -261,4 +284,3 @@ public class RequestContext {
         }
     }
 }
-
@@ -143,6 +143,17 @@ public interface Counter {
      */
     long getSucceededMaxElapsed();
 
+    /**
+     * Returns the peak exponentially weighted moving average of the elapsed time.
+     * The average jumps to the peak on a slow operation and decays over time, so it reacts quickly to
+     * the latency spikes and slowly recovers.
+     *
+     * @return the peak EWMA of the elapsed time in milliseconds (or other relevant unit)
+     */
+    default double getPeakEwma() {
+        return getAverageElapsed();
+    }
+
     /**
      * Returns the average throughput (operations per second) based on the recorded data.
      *
@@ -0,0 +1,55 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.counter;
+
+import com.jd.live.agent.governance.instance.Endpoint;
+import lombok.Getter;
+
+/**
+ * The counters of a service request, which are resolved once per request.
+ * <p>
+ * It holds the {@link ServiceCounter} of the service and the index of the uri counter, so that the counter of
+ * each endpoint is reached by the index instead of building keys and looking up maps for every endpoint.
+ * </p>
+ */
+@Getter
+public class CounterIndex {
+
+    /**
+     * The index without uri counter.
+     */
+    public static final int NONE = -1;
+
+    private final ServiceCounter serviceCounter;
+
+    private final int index;
+
+    public CounterIndex(ServiceCounter serviceCounter, int index) {
+        this.serviceCounter = serviceCounter;
+        this.index = index;
+    }
+
+    /**
+     * Gets the counter of the endpoint.
+     *
+     * @param endpoint the endpoint
+     * @param time     the access time
+     * @return the counter, or {@code null} if the service counter or uri is absent
+     */
+    public Counter getCounter(Endpoint endpoint, long time) {
+        return serviceCounter == null || index < 0 ? null : endpoint.getCounter(serviceCounter, index, time);
+    }
+}
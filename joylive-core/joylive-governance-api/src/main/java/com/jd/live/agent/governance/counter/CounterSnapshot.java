@@ -52,6 +52,36 @@ public interface CounterSnapshot {
      */
     long getEstimateResponse();
 
+    /**
+     * Returns the median of the elapsed time in the last snapshot period.
+     * The average elapsed time is returned if the counter does not record the latency distribution.
+     *
+     * @return the 50th percentile of the elapsed time in milliseconds (or other relevant unit)
+     */
+    default long getP50() {
+        return getSucceededAverageElapsed();
+    }
+
+    /**
+     * Returns the 99th percentile of the elapsed time in the last snapshot period.
+     * The average elapsed time is returned if the counter does not record the latency distribution.
+     *
+     * @return the 99th percentile of the elapsed time in milliseconds (or other relevant unit)
+     */
+    default long getP99() {
+        return getSucceededAverageElapsed();
+    }
+
+    /**
+     * Returns the 99.9th percentile of the elapsed time in the last snapshot period.
+     * The average elapsed time is returned if the counter does not record the latency distribution.
+     *
+     * @return the 99.9th percentile of the elapsed time in milliseconds (or other relevant unit)
+     */
+    default long getP999() {
+        return getSucceededAverageElapsed();
+    }
+
     /**
      * Returns the underlying {@link Counter} instance associated with this snapshot.
      *
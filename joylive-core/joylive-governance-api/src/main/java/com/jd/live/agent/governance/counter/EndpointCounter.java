@@ -34,6 +34,15 @@ public interface EndpointCounter {
      */
     Counter getOrCreateCounter(URI uri);
 
+    /**
+     * Returns the {@link Counter} instance associated with the specified index, creating a new one
+     * if it doesn't already exist.
+     *
+     * @param index The index of the uri counter, see {@link ServiceCounter#getIndex(URI)}.
+     * @return The {@link Counter} instance, never {@code null}.
+     */
+    Counter getOrCreateCounter(int index);
+
     /**
      * Sets the access time for the associated resource or object. The access time typically represents
      * the last time the resource was accessed or modified.
@@ -49,6 +58,13 @@ public interface EndpointCounter {
      * @return the parent {@link ServiceCounter} instance
      */
     ServiceCounter getParent();
+
+    /**
+     * Checks if this counter is removed from its parent, the holders of the counter should resolve it again.
+     *
+     * @return true if this counter is recycled
+     */
+    boolean isRecycled();
 }
 
 
@@ -15,6 +15,7 @@
  */
 package com.jd.live.agent.governance.counter;
 
+import com.jd.live.agent.core.util.URI;
 import com.jd.live.agent.governance.instance.Endpoint;
 
 import java.util.List;
@@ -36,6 +37,27 @@ public interface ServiceCounter {
      */
     EndpointCounter getOrCreateCounter(String id);
 
+    /**
+     * Gets the index of the uri counter, which is shared by all the endpoint counters of this service.
+     * The index is allocated when the uri is first seen and is stable afterward.
+     *
+     * @param uri the uri
+     * @return the index of the uri counter
+     * @see EndpointCounter#getOrCreateCounter(int)
+     */
+    int getIndex(URI uri);
+
+    /**
+     * Gets the index of the uri counter by the path and method of the request.
+     * The number of the indexes is limited, the apis beyond the limit share one index.
+     *
+     * @param path   the api path
+     * @param method the api method
+     * @return the index of the uri counter
+     * @see #getIndex(URI)
+     */
+    int getIndex(String path, String method);
+
     /**
      * Schedules a task to clean up counters for endpoints that are no longer in use, using the provided list of
      * current endpoints. The task will not be scheduled if one is already running.
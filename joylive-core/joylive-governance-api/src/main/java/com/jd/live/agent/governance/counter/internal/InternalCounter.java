@@ -69,6 +69,10 @@ public class InternalCounter implements Counter {
      * The current snapshot of the counter's state.
      */
     private final AtomicReference<InternalCounterSnapshot> snapshot = new AtomicReference<>(new InternalCounterSnapshot(this));
+    /**
+     * The peak EWMA of the elapsed time.
+     */
+    private final PeakEwma ewma = new PeakEwma();
 
     @Getter
     private final EndpointCounter parent;
@@ -107,6 +111,7 @@ public class InternalCounter implements Counter {
             failedElapsed.addAndGet(elapsed);
             AtomicUtils.update(failedMaxElapsed, elapsed, (older, newer) -> older < newer);
         }
+        ewma.observe(elapsed);
     }
 
     @Override
@@ -186,6 +191,11 @@ public class InternalCounter implements Counter {
         return succeededMaxElapsed.get();
     }
 
+    @Override
+    public double getPeakEwma() {
+        return ewma.get();
+    }
+
     @Override
     public long getAverageTps() {
         if (getTotalElapsed() >= 1000L) {
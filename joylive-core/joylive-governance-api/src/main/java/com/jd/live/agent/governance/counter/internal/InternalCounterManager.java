@@ -16,13 +16,17 @@
 package com.jd.live.agent.governance.counter.internal;
 
 import com.jd.live.agent.core.util.time.Timer;
+import com.jd.live.agent.governance.config.CounterConfig;
+import com.jd.live.agent.governance.counter.Counter;
 import com.jd.live.agent.governance.counter.CounterManager;
+import com.jd.live.agent.governance.counter.EndpointCounter;
 import com.jd.live.agent.governance.counter.FlyingCounter;
 import com.jd.live.agent.governance.counter.ServiceCounter;
 import lombok.Getter;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * A class that manages a collection of Counter instances.
@@ -31,23 +35,41 @@ public class InternalCounterManager implements CounterManager {
 
     private final Timer timer;
 
+    private final Function<EndpointCounter, Counter> counterFactory;
+
     @Getter
     private final FlyingCounter flyingCounter = new InternalFlyingCounter();
 
-    private final Map<String, ServiceCounter> counter = new ConcurrentHashMap<>();
+    // service -> group -> counter, avoids building the composite key on every request
+    private final Map<String, Map<String, ServiceCounter>> counters = new ConcurrentHashMap<>();
 
     public InternalCounterManager(Timer timer) {
+        this(timer, null);
+    }
+
+    public InternalCounterManager(Timer timer, CounterConfig config) {
         this.timer = timer;
+        this.counterFactory = config != null && config.isStriped() ? StripedCounter::new : InternalCounter::new;
     }
 
     @Override
     public ServiceCounter getOrCreateCounter(String service, String group) {
-        return counter.computeIfAbsent(getKey(service, group), n -> new InternalServiceCounter(n, timer));
+        String g = group == null ? "" : group;
+        Map<String, ServiceCounter> groups = counters.get(service);
+        if (groups == null) {
+            groups = counters.computeIfAbsent(service, s -> new ConcurrentHashMap<>());
+        }
+        ServiceCounter result = groups.get(g);
+        if (result == null) {
+            result = groups.computeIfAbsent(g, n -> new InternalServiceCounter(getKey(service, n), timer, counterFactory));
+        }
+        return result;
     }
 
     @Override
     public ServiceCounter getCounter(String service, String group) {
-        return counter.get(getKey(service, group));
+        Map<String, ServiceCounter> groups = counters.get(service);
+        return groups == null ? null : groups.get(group == null ? "" : group);
     }
 
     private String getKey(String service, String group) {
@@ -17,6 +17,7 @@ package com.jd.live.agent.governance.counter.internal;
 
 import com.jd.live.agent.governance.counter.Counter;
 import com.jd.live.agent.governance.counter.CounterSnapshot;
+import com.jd.live.agent.governance.counter.internal.LatencyHistogram.Percentiles;
 import lombok.Getter;
 
 /**
@@ -41,16 +42,25 @@ public class InternalCounterSnapshot implements CounterSnapshot {
     private final long succeededElapsedOffset;
 
     private final long lastSucceededAverageElapsed;
+    /**
+     * The percentiles of the elapsed time in the last period, maybe null.
+     */
+    private final Percentiles percentiles;
 
     public InternalCounterSnapshot(Counter counter) {
         this(counter, 0);
     }
 
     public InternalCounterSnapshot(final Counter counter, final long lastSucceededAverageElapsed) {
+        this(counter, lastSucceededAverageElapsed, null);
+    }
+
+    public InternalCounterSnapshot(final Counter counter, final long lastSucceededAverageElapsed, final Percentiles percentiles) {
         this.counter = counter;
         this.succeededOffset = counter.getSucceeded();
         this.succeededElapsedOffset = counter.getSucceededElapsed();
         this.lastSucceededAverageElapsed = lastSucceededAverageElapsed;
+        this.percentiles = percentiles;
     }
 
     @Override
@@ -75,6 +85,25 @@ public class InternalCounterSnapshot implements CounterSnapshot {
         return counter.getSucceeded() - succeededOffset;
     }
 
+    Percentiles getPercentiles() {
+        return percentiles;
+    }
+
+    @Override
+    public long getP50() {
+        return percentiles == null ? getSucceededAverageElapsed() : percentiles.getP50();
+    }
+
+    @Override
+    public long getP99() {
+        return percentiles == null ? getSucceededAverageElapsed() : percentiles.getP99();
+    }
+
+    @Override
+    public long getP999() {
+        return percentiles == null ? getSucceededAverageElapsed() : percentiles.getP999();
+    }
+
     @Override
     public long getEstimateResponse() {
         int active = this.counter.getActive() + 1;
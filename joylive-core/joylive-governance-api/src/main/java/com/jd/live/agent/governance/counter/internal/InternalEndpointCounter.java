@@ -19,39 +19,76 @@ import com.jd.live.agent.core.util.URI;
 import com.jd.live.agent.governance.counter.Counter;
 import com.jd.live.agent.governance.counter.EndpointCounter;
 import com.jd.live.agent.governance.counter.ServiceCounter;
-import com.jd.live.agent.governance.policy.PolicyId;
 import lombok.Getter;
-import lombok.Setter;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * A class that represents a counter for a specific endpoint.
+ * <p>
+ * The uri counters are keyed by {@link ServiceCounter#getIndex(URI)}, so that the load balancers reach the
+ * counter without building keys once the index is resolved. Only the apis called on this endpoint hold a counter.
+ * </p>
  */
 public class InternalEndpointCounter implements EndpointCounter {
 
+    /**
+     * The resolution of the access time, which avoids writing the shared field on every request.
+     */
+    private static final long ACCESS_RESOLUTION = 1000L;
+
     @Getter
     private final String name;
 
     @Getter
     private final ServiceCounter parent;
 
-    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<Integer, Counter> counters = new ConcurrentHashMap<>();
+
+    private final Function<EndpointCounter, Counter> counterFactory;
+
+    @Getter
+    private volatile long accessTime;
 
     @Getter
-    @Setter
-    private long accessTime;
+    private volatile boolean recycled;
 
     public InternalEndpointCounter(String name, ServiceCounter parent) {
+        this(name, parent, InternalCounter::new);
+    }
+
+    public InternalEndpointCounter(String name, ServiceCounter parent, Function<EndpointCounter, Counter> counterFactory) {
         this.name = name;
         this.parent = parent;
+        this.counterFactory = counterFactory;
         this.accessTime = System.currentTimeMillis();
     }
 
     @Override
     public Counter getOrCreateCounter(URI uri) {
-        return counters.computeIfAbsent(getKey(uri), n -> new InternalCounter(this));
+        return getOrCreateCounter(parent.getIndex(uri));
+    }
+
+    @Override
+    public Counter getOrCreateCounter(int index) {
+        Counter result = counters.get(index);
+        return result != null ? result : counters.computeIfAbsent(index, i -> counterFactory.apply(this));
+    }
+
+    @Override
+    public void setAccessTime(long accessTime) {
+        if (accessTime - this.accessTime >= ACCESS_RESOLUTION) {
+            this.accessTime = accessTime;
+        }
+    }
+
+    /**
+     * Marks this counter as removed from its service counter.
+     */
+    protected void recycle() {
+        recycled = true;
     }
 
     /**
@@ -63,19 +100,4 @@ public class InternalEndpointCounter implements EndpointCounter {
         }
     }
 
-    private String getKey(URI uri) {
-        String method = uri.getParameter(PolicyId.KEY_SERVICE_METHOD);
-        String path = uri.getPath();
-        if (path == null || path.isEmpty()) {
-            path = "";
-        } else {
-            int pos = path.length() - 1;
-            while (pos >= 0 && path.charAt(pos) == '/') {
-                pos--;
-            }
-            path = pos < 0 ? "" : path.substring(0, pos + 1);
-        }
-        return method == null || method.isEmpty() ? path : path + "?method=" + method;
-    }
-
 }
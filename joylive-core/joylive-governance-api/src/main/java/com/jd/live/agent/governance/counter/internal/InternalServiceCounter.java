@@ -15,10 +15,13 @@
  */
 package com.jd.live.agent.governance.counter.internal;
 
+import com.jd.live.agent.core.util.URI;
 import com.jd.live.agent.core.util.time.Timer;
+import com.jd.live.agent.governance.counter.Counter;
 import com.jd.live.agent.governance.counter.EndpointCounter;
 import com.jd.live.agent.governance.counter.ServiceCounter;
 import com.jd.live.agent.governance.instance.Endpoint;
+import com.jd.live.agent.governance.policy.PolicyId;
 import lombok.Getter;
 
 import java.util.HashSet;
@@ -27,6 +30,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 /**
  * A class that represents a counter for a specific service, tracking the number of active, total, failed, and
@@ -46,27 +51,79 @@ public class InternalServiceCounter implements ServiceCounter {
 
     private static final int SNAPSHOT_SPAN = 5000;
 
+    /**
+     * The max number of the uri counters of a service, which keeps a high cardinality rest path from leaking.
+     */
+    private static final int MAX_INDEXES = 1024;
+
+    /**
+     * The index shared by the apis beyond {@link #MAX_INDEXES}.
+     */
+    private static final int OVERFLOW_INDEX = 0;
+
     @Getter
     private final String name;
 
     private final Timer timer;
 
+    private final Function<EndpointCounter, Counter> counterFactory;
+
     private long cleanTime;
 
     private final Map<String, InternalEndpointCounter> counters = new ConcurrentHashMap<>();
 
+    // raw path -> method -> index, avoids building the normalized key on every lookup
+    private final Map<String, Map<String, Integer>> indexes = new ConcurrentHashMap<>();
+
+    private final AtomicInteger indexCount = new AtomicInteger();
+
+    // normalized key -> index
+    private final Map<String, Integer> keys = new ConcurrentHashMap<>();
+
+    private final AtomicInteger indexSequence = new AtomicInteger(OVERFLOW_INDEX + 1);
+
     private final AtomicBoolean clean = new AtomicBoolean(false);
 
     public InternalServiceCounter(String name, Timer timer) {
+        this(name, timer, InternalCounter::new);
+    }
+
+    public InternalServiceCounter(String name, Timer timer, Function<EndpointCounter, Counter> counterFactory) {
         this.name = name;
         this.timer = timer;
+        this.counterFactory = counterFactory;
         this.cleanTime = System.currentTimeMillis();
         timer.schedule("counter-snapshot-" + name, SNAPSHOT_INTERVAL, SNAPSHOT_SPAN, this::snapshot);
     }
 
     @Override
     public EndpointCounter getOrCreateCounter(String id) {
-        return counters.computeIfAbsent(id, e -> new InternalEndpointCounter(e, this));
+        return counters.computeIfAbsent(id, e -> new InternalEndpointCounter(e, this, counterFactory));
+    }
+
+    @Override
+    public int getIndex(URI uri) {
+        return getIndex(uri.getPath(), uri.getParameter(PolicyId.KEY_SERVICE_METHOD));
+    }
+
+    @Override
+    public int getIndex(String path, String method) {
+        path = path == null ? "" : path;
+        method = method == null ? "" : method;
+        Map<String, Integer> methods = indexes.get(path);
+        Integer index = methods == null ? null : methods.get(method);
+        if (index == null) {
+            index = getIndex(getKey(path, method));
+            if (indexCount.get() < MAX_INDEXES) {
+                if (methods == null) {
+                    methods = indexes.computeIfAbsent(path, p -> new ConcurrentHashMap<>());
+                }
+                if (methods.putIfAbsent(method, index) == null) {
+                    indexCount.incrementAndGet();
+                }
+            }
+        }
+        return index;
     }
 
     /**
@@ -103,8 +160,9 @@ public class InternalServiceCounter implements ServiceCounter {
         long time = System.currentTimeMillis();
         for (Map.Entry<String, InternalEndpointCounter> entry : counters.entrySet()) {
             InternalEndpointCounter counter = entry.getValue();
-            if (!exists.contains(entry.getKey()) && time - counter.getAccessTime() > KEEP_TIME) {
-                counters.remove(entry.getKey());
+            if (!exists.contains(entry.getKey()) && time - counter.getAccessTime() > KEEP_TIME
+                    && counters.remove(entry.getKey(), counter)) {
+                counter.recycle();
             }
         }
     }
@@ -117,4 +175,37 @@ public class InternalServiceCounter implements ServiceCounter {
             counter.snapshot();
         }
     }
+
+    /**
+     * Gets the index of the normalized key, or the overflow index if the indexes are exhausted.
+     *
+     * @param key the normalized key
+     * @return the index
+     */
+    private int getIndex(String key) {
+        Integer index = keys.get(key);
+        if (index == null) {
+            if (keys.size() >= MAX_INDEXES) {
+                return OVERFLOW_INDEX;
+            }
+            index = keys.computeIfAbsent(key, k -> indexSequence.getAndIncrement());
+        }
+        return index;
+    }
+
+    /**
+     * Gets the key of the uri counter, which is composed of the path without trailing slashes and the method.
+     *
+     * @param path   the api path
+     * @param method the api method
+     * @return the key
+     */
+    private String getKey(String path, String method) {
+        int pos = path.length() - 1;
+        while (pos >= 0 && path.charAt(pos) == '/') {
+            pos--;
+        }
+        path = pos < 0 ? "" : path.substring(0, pos + 1);
+        return method.isEmpty() ? path : path + "?method=" + method;
+    }
 }
@@ -0,0 +1,186 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.counter.internal;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A lock-free log-linear histogram of the elapsed time in milliseconds.
+ * <p>
+ * Each power of two range is divided into 8 linear sub buckets, so the relative error of a percentile is
+ * at most 12.5%. The values above {@link #MAX_VALUE} (about 35 minutes) fall into the last bucket.
+ * The buckets are striped by thread to reduce the contention on the hot buckets, and a stripe is only
+ * allocated when a thread mapped to it records the first value.
+ * The histogram is drained by {@link #percentiles()}, which returns the percentiles of the values recorded
+ * since the last drain.
+ * </p>
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 3;
+
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+
+    private static final int MAX_EXPONENT = 20;
+
+    static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 2) * SUB_COUNT;
+
+    private static final int MAX_STRIPES = 8;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes;
+
+    private final int mask;
+
+    /**
+     * The buffer of the merged counts, which is reused by the drains.
+     */
+    private final long[] counts = new long[BUCKETS];
+
+    public LatencyHistogram() {
+        int count = 1;
+        int max = Math.min(Runtime.getRuntime().availableProcessors(), MAX_STRIPES);
+        while (count < max) {
+            count <<= 1;
+        }
+        this.mask = count - 1;
+        this.stripes = new AtomicReferenceArray<>(count);
+    }
+
+    /**
+     * Records the elapsed time.
+     *
+     * @param value the elapsed time, negative value is treated as zero
+     */
+    public void record(long value) {
+        int slot = (int) ((Thread.currentThread().getId() * GOLDEN_GAMMA) >>> 32) & mask;
+        AtomicLongArray stripe = stripes.get(slot);
+        if (stripe == null) {
+            stripes.compareAndSet(slot, null, new AtomicLongArray(BUCKETS));
+            stripe = stripes.get(slot);
+        }
+        stripe.incrementAndGet(index(value));
+    }
+
+    /**
+     * Drains the recorded values and calculates the percentiles.
+     *
+     * @return the percentiles, or null if there is no value recorded since the last drain
+     */
+    public synchronized Percentiles percentiles() {
+        Arrays.fill(counts, 0);
+        long total = 0;
+        long count;
+        AtomicLongArray stripe;
+        for (int s = 0; s < stripes.length(); s++) {
+            stripe = stripes.get(s);
+            if (stripe == null) {
+                continue;
+            }
+            for (int i = 0; i < BUCKETS; i++) {
+                count = stripe.get(i);
+                if (count > 0) {
+                    // subtract instead of reset to keep the concurrent increments
+                    stripe.addAndGet(i, -count);
+                    counts[i] += count;
+                    total += count;
+                }
+            }
+        }
+        if (total == 0) {
+            return null;
+        }
+        return new Percentiles(total, value(counts, total, 0.5), value(counts, total, 0.9),
+                value(counts, total, 0.99), value(counts, total, 0.999));
+    }
+
+    /**
+     * Gets the bucket index of the value.
+     *
+     * @param value the value
+     * @return the bucket index
+     */
+    static int index(long value) {
+        if (value < SUB_COUNT) {
+            return value <= 0 ? 0 : (int) value;
+        } else if (value > MAX_VALUE) {
+            value = MAX_VALUE;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+        return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+    }
+
+    /**
+     * Gets the upper bound of the bucket.
+     *
+     * @param index the bucket index
+     * @return the upper bound
+     */
+    static long upper(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int exponent = index / SUB_COUNT + SUB_BITS - 1;
+        int sub = index % SUB_COUNT;
+        long width = 1L << (exponent - SUB_BITS);
+        return ((SUB_COUNT + sub) * width) + width - 1;
+    }
+
+    private static long value(long[] counts, long total, double percentile) {
+        long rank = (long) Math.ceil(total * percentile);
+        long sum = 0;
+        for (int i = 0; i < counts.length; i++) {
+            sum += counts[i];
+            if (sum >= rank) {
+                return upper(i);
+            }
+        }
+        return upper(counts.length - 1);
+    }
+
+    /**
+     * The percentiles of the elapsed time in a period.
+     */
+    @Getter
+    public static class Percentiles {
+
+        private final long count;
+
+        private final long p50;
+
+        private final long p90;
+
+        private final long p99;
+
+        private final long p999;
+
+        public Percentiles(long count, long p50, long p90, long p99, long p999) {
+            this.count = count;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+            this.p999 = p999;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.counter.internal;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The peak exponentially weighted moving average of the elapsed time.
+ * <p>
+ * The average jumps to the peak on a slow operation, otherwise it decays to the new value with the time
+ * since the last update. It's approximately updated without lock, a lost update is acceptable for the statistic.
+ * </p>
+ * It is from Finagle's PeakEwma.
+ */
+class PeakEwma {
+
+    /**
+     * The decay time of the average.
+     */
+    private static final double DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private volatile double value;
+
+    private volatile long time = System.nanoTime();
+
+    /**
+     * Updates the average with the elapsed time.
+     *
+     * @param elapsed the elapsed time
+     */
+    public void observe(long elapsed) {
+        observe(elapsed, System.nanoTime());
+    }
+
+    /**
+     * Updates the average with the elapsed time at the specified time.
+     *
+     * @param elapsed the elapsed time
+     * @param now     the current time in nanoseconds
+     */
+    void observe(long elapsed, long now) {
+        double result = value;
+        if (elapsed > result) {
+            result = elapsed;
+        } else {
+            long span = now - time;
+            double w = span <= 0 ? 1 : Math.exp(-span / DECAY_NANOS);
+            result = result * w + elapsed * (1 - w);
+        }
+        // first set value, then time
+        value = result;
+        time = now;
+    }
+
+    /**
+     * Gets the average, which decays towards zero while idle, so that a slow endpoint gets chance to be probed again.
+     *
+     * @return the average
+     */
+    public double get() {
+        return get(System.nanoTime());
+    }
+
+    /**
+     * Gets the average at the specified time.
+     *
+     * @param now the current time in nanoseconds
+     * @return the average
+     */
+    double get(long now) {
+        double result = value;
+        long span = now - time;
+        return span <= 0 ? result : result * Math.exp(-span / DECAY_NANOS);
+    }
+}
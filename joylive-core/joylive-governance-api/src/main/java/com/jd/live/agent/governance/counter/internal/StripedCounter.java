@@ -0,0 +1,231 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.counter.internal;
+
+import com.jd.live.agent.core.util.AtomicUtils;
+import com.jd.live.agent.governance.counter.Counter;
+import com.jd.live.agent.governance.counter.EndpointCounter;
+import com.jd.live.agent.governance.counter.internal.LatencyHistogram.Percentiles;
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A counter whose statistics are recorded in striped cells.
+ * <p>
+ * The totals are kept in {@link LongAdder} and the maximums in {@link LongAccumulator}, whose cells are padded
+ * to avoid false sharing, so that the concurrent {@link #end(long, boolean)} calls do not contend on the same
+ * cache line and do not spin in CAS loops. It also records the latency distribution into a {@link LatencyHistogram},
+ * and the percentiles of each snapshot period are available through {@link InternalCounterSnapshot}.
+ * </p>
+ * Only the number of active requests is still an atomic integer, because it must be exactly limited.
+ */
+public class StripedCounter implements Counter {
+
+    /**
+     * The number of active requests.
+     */
+    private final AtomicInteger active = new AtomicInteger();
+    /**
+     * The total number of requests.
+     */
+    private final LongAdder total = new LongAdder();
+    /**
+     * The number of failed requests.
+     */
+    private final LongAdder failed = new LongAdder();
+    /**
+     * The total elapsed time for all requests.
+     */
+    private final LongAdder totalElapsed = new LongAdder();
+    /**
+     * The total elapsed time for failed requests.
+     */
+    private final LongAdder failedElapsed = new LongAdder();
+    /**
+     * The maximum elapsed time for any request.
+     */
+    private final LongAccumulator maxElapsed = new LongAccumulator(Math::max, 0);
+    /**
+     * The maximum elapsed time for any failed request.
+     */
+    private final LongAccumulator failedMaxElapsed = new LongAccumulator(Math::max, 0);
+    /**
+     * The maximum elapsed time for any successful request.
+     */
+    private final LongAccumulator succeededMaxElapsed = new LongAccumulator(Math::max, 0);
+    /**
+     * The latency distribution of the successful requests.
+     */
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    /**
+     * The peak EWMA of the elapsed time.
+     */
+    private final PeakEwma ewma = new PeakEwma();
+    /**
+     * The current snapshot of the counter's state.
+     */
+    private final AtomicReference<InternalCounterSnapshot> snapshot = new AtomicReference<>(new InternalCounterSnapshot(this));
+
+    @Getter
+    private final EndpointCounter parent;
+
+    public StripedCounter(EndpointCounter parent) {
+        this.parent = parent;
+    }
+
+    @Override
+    public boolean begin(int max) {
+        int maxValue = (max <= 0) ? Integer.MAX_VALUE : max;
+        return AtomicUtils.increment(active, (older, newer) -> older != Integer.MAX_VALUE && newer <= maxValue);
+    }
+
+    @Override
+    public void success(long elapsed) {
+        end(elapsed, true);
+    }
+
+    @Override
+    public void fail(long elapsed) {
+        end(elapsed, false);
+    }
+
+    @Override
+    public void end(long elapsed, boolean succeeded) {
+        active.decrementAndGet();
+        total.increment();
+        totalElapsed.add(elapsed);
+        maxElapsed.accumulate(elapsed);
+        if (succeeded) {
+            succeededMaxElapsed.accumulate(elapsed);
+            histogram.record(elapsed);
+        } else {
+            failed.increment();
+            failedElapsed.add(elapsed);
+            failedMaxElapsed.accumulate(elapsed);
+        }
+        ewma.observe(elapsed);
+    }
+
+    @Override
+    public int getActive() {
+        return active.get();
+    }
+
+    @Override
+    public long getTotal() {
+        return total.sum();
+    }
+
+    @Override
+    public long getTotalElapsed() {
+        return totalElapsed.sum();
+    }
+
+    @Override
+    public long getAverageElapsed() {
+        long total = getTotal();
+        if (total == 0) {
+            return 0;
+        }
+        return getTotalElapsed() / total;
+    }
+
+    @Override
+    public long getMaxElapsed() {
+        return maxElapsed.get();
+    }
+
+    @Override
+    public int getFailed() {
+        return (int) failed.sum();
+    }
+
+    @Override
+    public long getFailedElapsed() {
+        return failedElapsed.sum();
+    }
+
+    @Override
+    public long getFailedAverageElapsed() {
+        long failed = getFailed();
+        if (failed == 0) {
+            return 0;
+        }
+        return getFailedElapsed() / failed;
+    }
+
+    @Override
+    public long getFailedMaxElapsed() {
+        return failedMaxElapsed.get();
+    }
+
+    @Override
+    public long getSucceeded() {
+        return getTotal() - getFailed();
+    }
+
+    @Override
+    public long getSucceededElapsed() {
+        return getTotalElapsed() - getFailedElapsed();
+    }
+
+    @Override
+    public long getSucceededAverageElapsed() {
+        long succeeded = getSucceeded();
+        if (succeeded == 0) {
+            return 0;
+        }
+        return getSucceededElapsed() / succeeded;
+    }
+
+    @Override
+    public long getSucceededMaxElapsed() {
+        return succeededMaxElapsed.get();
+    }
+
+    @Override
+    public double getPeakEwma() {
+        return ewma.get();
+    }
+
+    @Override
+    public long getAverageTps() {
+        if (getTotalElapsed() >= 1000L) {
+            return getTotal() / (getTotalElapsed() / 1000L);
+        }
+        return getTotal();
+    }
+
+    @Override
+    public InternalCounterSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    @Override
+    public void snapshot() {
+        InternalCounterSnapshot last = snapshot.get();
+        long succeeded = last.getSucceeded();
+        long succeededAverageElapsed = succeeded < 10 ? 0 : last.getSucceededAverageElapsed(succeeded);
+        Percentiles percentiles = histogram.percentiles();
+        // keep the last percentiles if there is no request in this period
+        percentiles = percentiles == null ? last.getPercentiles() : percentiles;
+        snapshot.set(new InternalCounterSnapshot(this, succeededAverageElapsed, percentiles));
+    }
+}
@@ -16,33 +16,25 @@
 package com.jd.live.agent.governance.instance;
 
 import com.jd.live.agent.bootstrap.util.AbstractAttributes;
-import com.jd.live.agent.core.util.cache.UnsafeLazyObject;
+import com.jd.live.agent.governance.counter.EndpointCounter;
+import com.jd.live.agent.governance.counter.ServiceCounter;
 import com.jd.live.agent.governance.request.ServiceRequest;
 
-import static com.jd.live.agent.core.util.StringUtils.emptyIfNull;
-
 /**
  * An abstract implementation of the {@link Endpoint} interface that provides caching for
- * various properties. This class uses {@link UnsafeLazyObject} to lazily cache the values
- * of the properties obtained from the {@link Endpoint} interface.
+ * various properties. The routing related labels are parsed once into an immutable
+ * {@link EndpointProfile}, which is lazily created and shared by all the property getters.
  */
 public abstract class AbstractEndpoint extends AbstractAttributes implements Endpoint {
 
+    // explicit service group, which takes precedence over the group label
     protected volatile String group;
 
-    protected volatile String liveSpaceId;
-
-    protected volatile String unit;
-
-    protected volatile String cell;
-
-    protected volatile String laneSpaceId;
-
-    protected volatile String lane;
+    // parsed labels
+    protected volatile EndpointProfile profile;
 
-    protected volatile String region;
-
-    protected volatile String zone;
+    // resolved counter, avoids looking up the endpoint id on every request
+    protected volatile EndpointCounter counter;
 
     // adjusted weight
     protected volatile Reweight reweight;
@@ -57,83 +49,117 @@ public abstract class AbstractEndpoint extends AbstractAttributes implements End
     }
 
     @Override
-    public String getLiveSpaceId() {
-        String result = liveSpaceId;
+    public EndpointProfile getProfile() {
+        EndpointProfile result = profile;
         if (result == null) {
-            result = emptyIfNull(Endpoint.super.getLiveSpaceId());
-            liveSpaceId = result;
+            result = EndpointProfile.of(this, group);
+            profile = result;
         }
         return result;
     }
 
     @Override
-    public String getUnit() {
-        String result = unit;
-        if (result == null) {
-            result = emptyIfNull(Endpoint.super.getUnit());
-            unit = result;
+    public EndpointCounter getCounter(ServiceCounter serviceCounter) {
+        EndpointCounter result = counter;
+        if (result == null || result.getParent() != serviceCounter || result.isRecycled()) {
+            result = serviceCounter.getOrCreateCounter(getId());
+            counter = result;
         }
         return result;
     }
 
     @Override
-    public String getCell() {
-        String result = cell;
-        if (result == null) {
-            result = emptyIfNull(Endpoint.super.getCell());
-            cell = result;
-        }
-        return result;
+    public long getTimestamp() {
+        return getProfile().getTimestamp();
     }
 
     @Override
-    public String getLaneSpaceId() {
-        String result = laneSpaceId;
-        if (result == null) {
-            result = emptyIfNull(Endpoint.super.getLaneSpaceId());
-            laneSpaceId = result;
-        }
-        return result;
+    public int getWarmup() {
+        return getProfile().getWarmup();
     }
 
     @Override
-    public String getLane() {
-        String result = lane;
-        if (result == null) {
-            result = emptyIfNull(Endpoint.super.getLane());
-            lane = result;
-        }
-        return result;
+    public Integer getWeight(ServiceRequest request) {
+        return getProfile().getWeight();
+    }
+
+    @Override
+    public String getLiveSpaceId() {
+        return getProfile().getLiveSpaceId();
+    }
+
+    @Override
+    public String getUnit() {
+        return getProfile().getUnit();
+    }
+
+    @Override
+    public String getCell() {
+        return getProfile().getCell();
+    }
+
+    @Override
+    public String getCloud() {
+        return getProfile().getCloud();
     }
 
     @Override
     public String getRegion() {
-        String result = region;
-        if (result == null) {
-            result = emptyIfNull(Endpoint.super.getRegion());
-            region = result;
-        }
-        return result;
+        return getProfile().getRegion();
     }
 
     @Override
     public String getZone() {
-        String result = zone;
-        if (result == null) {
-            result = emptyIfNull(Endpoint.super.getZone());
-            zone = result;
-        }
-        return result;
+        return getProfile().getZone();
+    }
+
+    @Override
+    public String getLaneSpaceId() {
+        return getProfile().getLaneSpaceId();
+    }
+
+    @Override
+    public String getLaneSpaceId(String defaultValue) {
+        return getProfile().getLaneSpaceId(defaultValue);
+    }
+
+    @Override
+    public String getLane() {
+        return getProfile().getLane();
+    }
+
+    @Override
+    public String getLane(String defaultValue) {
+        return getProfile().getLane(defaultValue);
     }
 
     @Override
     public String getGroup() {
-        String result = group;
-        if (result == null) {
-            result = emptyIfNull(Endpoint.super.getGroup());
-            group = result;
-        }
-        return result;
+        return getProfile().getGroup();
+    }
+
+    @Override
+    public boolean isRegion(String region) {
+        String labelRegion = getProfile().getRegion();
+        return labelRegion.isEmpty() || (region != null && region.equals(labelRegion));
+    }
+
+    @Override
+    public boolean isZone(String zone) {
+        String labelZone = getProfile().getZone();
+        return labelZone.isEmpty() || (zone != null && zone.equals(labelZone));
+    }
+
+    @Override
+    public boolean isCloud(String cloud) {
+        String labelCloud = getProfile().getCloud();
+        return labelCloud.isEmpty() || (cloud != null && cloud.equals(labelCloud));
+    }
+
+    @Override
+    public boolean isCluster(String cluster) {
+        String labelCluster = getProfile().getCluster();
+        return labelCluster.isEmpty() || (cluster != null && cluster.equals(labelCluster));
     }
 
     @Override
@@ -109,6 +109,16 @@ public interface Endpoint extends Matcher<TagCondition>, Attributes {
      */
     int getPort();
 
+    /**
+     * Gets the immutable profile of the routing related labels.
+     * Implementations are encouraged to cache the profile, because the labels don't change during the lifetime.
+     *
+     * @return the profile of the endpoint
+     */
+    default EndpointProfile getProfile() {
+        return EndpointProfile.of(this);
+    }
+
     /**
      * Gets the timestamp associated with the endpoint.
      * This can be used for various purposes, such as versioning or timing.
@@ -580,9 +590,31 @@ public interface Endpoint extends Matcher<TagCondition>, Attributes {
         if (serviceCounter == null || uri == null) {
             return null;
         }
-        EndpointCounter endpointCounter = serviceCounter.getOrCreateCounter(getId());
+        return getCounter(serviceCounter, serviceCounter.getIndex(uri), time);
+    }
+
+    /**
+     * Retrieves a {@link Counter} instance associated with the specified {@link ServiceCounter}, uri counter index, and access time.
+     *
+     * @param serviceCounter the {@link ServiceCounter} instance used to manage counters for services
+     * @param index          the index of the uri counter, see {@link ServiceCounter#getIndex(URI)}
+     * @param time           the access time to set, typically in milliseconds since the epoch (January 1, 1970, 00:00:00 GMT)
+     * @return the {@link Counter} instance associated with the specified index
+     */
+    default Counter getCounter(ServiceCounter serviceCounter, int index, long time) {
+        EndpointCounter endpointCounter = getCounter(serviceCounter);
         endpointCounter.setAccessTime(time);
-        return endpointCounter.getOrCreateCounter(uri);
+        return endpointCounter.getOrCreateCounter(index);
+    }
+
+    /**
+     * Retrieves the {@link EndpointCounter} of this endpoint in the specified {@link ServiceCounter}.
+     *
+     * @param serviceCounter the {@link ServiceCounter} instance used to manage counters for services
+     * @return the {@link EndpointCounter} instance, never {@code null}
+     */
+    default EndpointCounter getCounter(ServiceCounter serviceCounter) {
+        return serviceCounter.getOrCreateCounter(getId());
     }
 
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.instance;
+
+import com.jd.live.agent.core.Constants;
+import com.jd.live.agent.core.util.option.Converts;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.jd.live.agent.core.util.StringUtils.choose;
+
+/**
+ * Immutable view of the routing related labels of an endpoint.
+ * <p>
+ * The labels are parsed only once when the profile is created, so that the route filters and
+ * load balancers can read the unit, cell, lane, weight, warmup and timestamp as plain fields
+ * instead of looking up and converting label strings on every request.
+ * The label values are interned, because they have a very low cardinality across the instances.
+ */
+@Getter
+public final class EndpointProfile {
+
+    private static final int MAX_INTERNS = 4096;
+
+    private static final Map<String, String> INTERNS = new ConcurrentHashMap<>(256);
+
+    private final String group;
+
+    private final String liveSpaceId;
+
+    private final String unit;
+
+    private final String cell;
+
+    private final String laneSpaceId;
+
+    private final String lane;
+
+    private final String cloud;
+
+    private final String region;
+
+    private final String zone;
+
+    private final String cluster;
+
+    private final int weight;
+
+    private final int warmup;
+
+    private final long timestamp;
+
+    private EndpointProfile(Endpoint endpoint, String group) {
+        this.group = intern(choose(group, () -> endpoint.getLabel(Constants.LABEL_SERVICE_GROUP, Constants.DEFAULT_GROUP)));
+        this.liveSpaceId = intern(endpoint.getLabel(Constants.LABEL_LIVE_SPACE_ID));
+        this.unit = intern(endpoint.getLabel(Constants.LABEL_UNIT));
+        this.cell = intern(endpoint.getLabel(Constants.LABEL_CELL));
+        this.laneSpaceId = intern(endpoint.getLabel(Constants.LABEL_LANE_SPACE_ID));
+        this.lane = intern(endpoint.getLabel(Constants.LABEL_LANE));
+        this.cloud = intern(endpoint.getLabel(Constants.LABEL_CLOUD));
+        this.region = intern(endpoint.getLabel(Constants.LABEL_REGION));
+        this.zone = intern(endpoint.getLabel(Constants.LABEL_ZONE));
+        this.cluster = intern(endpoint.getLabel(Constants.LABEL_CLUSTER));
+        // compatible with the dubbo
+        this.weight = endpoint.getWeight(Converts.getDouble(endpoint.getLabel(Constants.LABEL_WEIGHT), Endpoint.DEFAULT_WEIGHT * 1.0));
+        this.warmup = Converts.getInteger(endpoint.getLabel(Constants.LABEL_WARMUP), Endpoint.DEFAULT_WARMUP);
+        this.timestamp = Converts.getLong(endpoint.getLabel(Constants.LABEL_TIMESTAMP), 0L);
+    }
+
+    /**
+     * Gets the lane space ID, or the default value if it's not specified.
+     *
+     * @param defaultValue the default value
+     * @return the lane space ID
+     */
+    public String getLaneSpaceId(String defaultValue) {
+        return choose(laneSpaceId, defaultValue);
+    }
+
+    /**
+     * Gets the lane, or the default value if it's not specified.
+     *
+     * @param defaultValue the default value
+     * @return the lane
+     */
+    public String getLane(String defaultValue) {
+        return choose(lane, defaultValue);
+    }
+
+    /**
+     * Parses the labels of the endpoint into a profile.
+     *
+     * @param endpoint the endpoint
+     * @return the profile of the endpoint
+     */
+    public static EndpointProfile of(Endpoint endpoint) {
+        return new EndpointProfile(endpoint, null);
+    }
+
+    /**
+     * Parses the labels of the endpoint into a profile.
+     *
+     * @param endpoint the endpoint
+     * @param group    the service group, which takes precedence over the group label
+     * @return the profile of the endpoint
+     */
+    public static EndpointProfile of(Endpoint endpoint, String group) {
+        return new EndpointProfile(endpoint, group);
+    }
+
+    /**
+     * Interns the label value, the result is never null.
+     *
+     * @param value the label value
+     * @return the interned value
+     */
+    private static String intern(String value) {
+        if (value == null || value.isEmpty()) {
+            return Constants.DEFAULT_VALUE;
+        }
+        String result = INTERNS.get(value);
+        if (result == null) {
+            if (INTERNS.size() >= MAX_INTERNS) {
+                return value;
+            }
+            result = INTERNS.putIfAbsent(value, value);
+            result = result == null ? value : result;
+        }
+        return result;
+    }
+}
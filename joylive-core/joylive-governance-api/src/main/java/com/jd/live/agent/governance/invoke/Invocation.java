@@ -20,6 +20,7 @@ import com.jd.live.agent.bootstrap.exception.RejectException.*;
 import com.jd.live.agent.core.instance.GatewayRole;
 import com.jd.live.agent.core.instance.Location;
 import com.jd.live.agent.core.util.matcher.Matcher;
+import com.jd.live.agent.governance.counter.CounterIndex;
 import com.jd.live.agent.governance.event.TrafficEvent;
 import com.jd.live.agent.governance.event.TrafficEvent.ActionType;
 import com.jd.live.agent.governance.event.TrafficEvent.RejectType;
@@ -155,6 +156,15 @@ public abstract class Invocation<T extends ServiceRequest> implements Matcher<Ta
         return request.getRandom();
     }
 
+    /**
+     * Gets the counters of the request, which are resolved once and cached on the service metadata.
+     *
+     * @return the counter index
+     */
+    public CounterIndex getCounterIndex() {
+        return serviceMetadata.getCounterIndex(context.getCounterManager(), request.getService(), request.getGroup());
+    }
+
     /**
      * Resets the state of the instance.
      * This method is typically used to restore the instance to its initial state.
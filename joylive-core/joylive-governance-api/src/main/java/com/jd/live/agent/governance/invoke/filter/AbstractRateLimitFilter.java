@@ -28,6 +28,8 @@ import com.jd.live.agent.governance.request.ServiceRequest;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 /**
  * RateLimitFilter
@@ -75,6 +77,51 @@ public class AbstractRateLimitFilter implements ExtensionInitializer {
         return Permission.success();
     }
 
+    /**
+     * Attempts to acquire rate limit permits for the service invocation without blocking the caller thread.
+     * It's used by the reactive invocations, whose event loop threads must not sleep while waiting for permits.
+     *
+     * @param <R>        the type of service request
+     * @param invocation the service invocation context
+     * @return a stage completed with the permission
+     */
+    protected <R extends ServiceRequest> CompletionStage<Permission> acquireAsync(Invocation<R> invocation) {
+        ServicePolicy servicePolicy = invocation.getServiceMetadata().getServicePolicy();
+        List<RateLimitPolicy> policies = servicePolicy == null ? null : servicePolicy.getRateLimitPolicies();
+        return policies == null || policies.isEmpty()
+                ? CompletableFuture.completedFuture(Permission.success())
+                : acquireAsync(invocation, policies, 0);
+    }
+
+    /**
+     * Acquires the permits of the matched policies one by one.
+     *
+     * @param <R>        the type of service request
+     * @param invocation the service invocation context
+     * @param policies   the rate limit policies
+     * @param index      the index of the policy to acquire
+     * @return a stage completed with the permission
+     */
+    private <R extends ServiceRequest> CompletionStage<Permission> acquireAsync(Invocation<R> invocation,
+                                                                                List<RateLimitPolicy> policies,
+                                                                                int index) {
+        RateLimitPolicy policy;
+        RateLimiter rateLimiter;
+        for (int i = index; i < policies.size(); i++) {
+            policy = policies.get(i);
+            // match logic
+            rateLimiter = policy.match(invocation) ? getRateLimiter(policy) : null;
+            if (null != rateLimiter) {
+                int next = i + 1;
+                RateLimiter limiter = rateLimiter;
+                return rateLimiter.acquireAsync().thenCompose(acquired -> acquired
+                        ? acquireAsync(invocation, policies, next)
+                        : CompletableFuture.completedFuture(Permission.failure("The request is rejected by " + limiter.getClass().getSimpleName())));
+            }
+        }
+        return CompletableFuture.completedFuture(Permission.success());
+    }
+
     /**
      * Retrieves a rate limiter based on the given policy.
      * If the policy's realize type is not specified, it falls back to the default type
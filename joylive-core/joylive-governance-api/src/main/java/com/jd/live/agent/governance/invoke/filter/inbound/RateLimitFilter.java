@@ -27,7 +27,9 @@ import com.jd.live.agent.governance.invoke.filter.InboundFilterChain;
 import com.jd.live.agent.governance.policy.live.FaultType;
 import com.jd.live.agent.governance.request.ServiceRequest.InboundRequest;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 
 /**
  * RateLimitFilter
@@ -39,9 +41,35 @@ public class RateLimitFilter extends AbstractRateLimitFilter implements InboundF
 
     @Override
     public <T extends InboundRequest> CompletionStage<Object> filter(InboundInvocation<T> invocation, InboundFilterChain chain) {
-        Permission result = acquire(invocation);
-        if (result != null && !result.isSuccess()) {
-            return Futures.future(FaultType.LIMIT.reject(result.getMessage()));
+        T request = invocation.getRequest();
+        if (request.isAsync()) {
+            // the reactive event loop must not sleep while waiting for permits.
+            CompletableFuture<Permission> future = acquireAsync(invocation).toCompletableFuture();
+            if (future.isDone()) {
+                return permit(invocation, future.join(), chain);
+            }
+            // resume the filter chain on the executor of the request instead of the thread waking up the permits.
+            Executor executor = request.getExecutor();
+            return executor == null
+                    ? future.thenComposeAsync(permission -> permit(invocation, permission, chain))
+                    : future.thenComposeAsync(permission -> permit(invocation, permission, chain), executor);
+        }
+        return permit(invocation, acquire(invocation), chain);
+    }
+
+    /**
+     * Continues the filter chain if the permission is granted, otherwise rejects the request.
+     *
+     * @param invocation the inbound invocation
+     * @param permission the permission of the rate limiters
+     * @param chain      the filter chain
+     * @return the result of the filter chain, or the rejected future
+     */
+    private <T extends InboundRequest> CompletionStage<Object> permit(InboundInvocation<T> invocation,
+                                                                      Permission permission,
+                                                                      InboundFilterChain chain) {
+        if (permission != null && !permission.isSuccess()) {
+            return Futures.future(FaultType.LIMIT.reject(permission.getMessage()));
         }
         return chain.filter(invocation);
     }
@@ -45,8 +45,10 @@ import com.jd.live.agent.governance.request.ServiceRequest.OutboundRequest;
 import com.jd.live.agent.governance.response.ServiceResponse;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -77,6 +79,11 @@ public class CircuitBreakerFilter implements RouteFilter, ExtensionInitializer {
 
     private String defaultType;
 
+    /**
+     * The listeners of the service level circuit breakers, keyed by the id of the service policy.
+     */
+    private final Map<Long, CircuitBreakerListener> listeners = new ConcurrentHashMap<>();
+
     @Override
     public void initialize() {
         defaultType = governanceConfig.getServiceConfig().getCircuitBreaker().getType();
@@ -88,33 +95,96 @@ public class CircuitBreakerFilter implements RouteFilter, ExtensionInitializer {
         ServicePolicy servicePolicy = metadata.getServicePolicy();
         List<CircuitBreakPolicy> policies = servicePolicy == null ? null : servicePolicy.getCircuitBreakPolicies();
         if (null != policies && !policies.isEmpty()) {
-            List<CircuitBreakPolicy> instancePolicies = null;
-            List<CircuitBreaker> breakers = new ArrayList<>(policies.size());
             T request = invocation.getRequest();
             for (CircuitBreakPolicy policy : policies) {
                 request.addErrorPolicy(policy);
-                switch (policy.getLevel()) {
-                    case SERVICE:
-                        addCircuitBreaker(breakers, policy, policy.getUri());
-                        break;
-                    case API:
-                        URI api = policy.getUri().path(metadata.getPath()).parameter(PolicyId.KEY_SERVICE_METHOD, metadata.getMethod());
-                        addCircuitBreaker(breakers, policy, api);
-                        break;
-                    default:
-                        instancePolicies = addPolicy(policy, instancePolicies);
-                }
             }
+            CircuitBreakerListener listener = getListener(servicePolicy, policies, metadata);
             // add listener before acquire permit
-            invocation.addListener(new CircuitBreakerListener(this::getCircuitBreaker, errorParsers, breakers, instancePolicies));
+            invocation.addListener(listener);
             // acquire service permit
-            acquire(breakers, Licensee::acquire, invocation);
+            acquire(listener.circuitBreakers, Licensee::acquire, invocation);
             // filter broken instance
-            filterHealthy(invocation, instancePolicies);
+            filterHealthy(invocation, listener.policies);
         }
         chain.filter(invocation);
     }
 
+    /**
+     * Returns the listener of the circuit breakers for the invocation.
+     * The listener of the service level circuit breakers holds no state of the invocation, so it is cached by
+     * the id of the service policy and only rebuilt when any of its circuit breakers is recycled or exchanged.
+     *
+     * @param servicePolicy the service policy
+     * @param policies      the circuit breaker policies of the service policy
+     * @param metadata      the service metadata
+     * @return the listener of the circuit breakers
+     */
+    private CircuitBreakerListener getListener(ServicePolicy servicePolicy,
+                                               List<CircuitBreakPolicy> policies,
+                                               ServiceMetadata metadata) {
+        Long id = servicePolicy.getId();
+        CircuitBreakerListener cached = id == null ? null : listeners.get(id);
+        if (cached != null && isAvailable(cached, policies)) {
+            return cached;
+        }
+        boolean cacheable = true;
+        List<CircuitBreakPolicy> instancePolicies = null;
+        CircuitBreaker[] breakers = new CircuitBreaker[policies.size()];
+        int size = 0;
+        CircuitBreaker breaker;
+        for (CircuitBreakPolicy policy : policies) {
+            switch (policy.getLevel()) {
+                case SERVICE:
+                    breaker = getServiceCircuitBreaker(policy);
+                    break;
+                case API:
+                    cacheable = false;
+                    breaker = getApiCircuitBreaker(policy, metadata.getPath(), metadata.getMethod());
+                    break;
+                default:
+                    cacheable = false;
+                    breaker = null;
+                    instancePolicies = addPolicy(policy, instancePolicies);
+            }
+            if (breaker != null) {
+                breakers[size++] = breaker;
+            }
+        }
+        breakers = size == breakers.length ? breakers : Arrays.copyOf(breakers, size);
+        CircuitBreakerListener result = new CircuitBreakerListener(this::getCircuitBreaker, errorParsers, breakers, instancePolicies);
+        if (id != null) {
+            if (cacheable) {
+                // the breakers of the removed policies are recycled, drop their listeners as well
+                listeners.values().removeIf(CircuitBreakerListener::isClosed);
+                listeners.put(id, result);
+            } else if (cached != null) {
+                listeners.remove(id, cached);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks if the cached listener still holds the service level circuit breakers of the policies.
+     *
+     * @param listener the cached listener
+     * @param policies the circuit breaker policies of the service policy
+     * @return true if every policy resolves to the same circuit breaker as the listener
+     */
+    private boolean isAvailable(CircuitBreakerListener listener, List<CircuitBreakPolicy> policies) {
+        CircuitBreaker[] breakers = listener.circuitBreakers;
+        int index = 0;
+        CircuitBreaker breaker;
+        for (CircuitBreakPolicy policy : policies) {
+            breaker = getServiceCircuitBreaker(policy);
+            if (breaker != null && (index >= breakers.length || breakers[index++] != breaker)) {
+                return false;
+            }
+        }
+        return index == breakers.length;
+    }
+
     /**
      * Adds a circuit breaker policy to the list of policies.
      *
@@ -193,17 +263,40 @@ public class CircuitBreakerFilter implements RouteFilter, ExtensionInitializer {
     }
 
     /**
-     * Adds a circuit breaker to the list of breakers based on the given policy and URI.
+     * Retrieves the service level circuit breaker for the given policy.
+     * The breaker is cached by the policy, so the factory is only consulted when the cached one
+     * is missing, recycled or bound to another policy version.
      *
-     * @param breakers the list of circuit breakers
-     * @param policy   the circuit breaker policy
-     * @param uri      the URI for which the circuit breaker is created
+     * @param policy the circuit breaker policy
+     * @return the circuit breaker, or null if no factory is found for the policy type
      */
-    private void addCircuitBreaker(List<CircuitBreaker> breakers, CircuitBreakPolicy policy, URI uri) {
-        CircuitBreaker breaker = getCircuitBreaker(policy, uri);
-        if (null != breaker) {
-            breakers.add(breaker);
+    private CircuitBreaker getServiceCircuitBreaker(CircuitBreakPolicy policy) {
+        CircuitBreaker result = policy.getBreaker();
+        if (result == null) {
+            result = getCircuitBreaker(policy, policy.getUri());
+            policy.putBreaker(result);
         }
+        return result;
+    }
+
+    /**
+     * Retrieves the api level circuit breaker for the given policy, path and method.
+     * The breaker is cached by the policy, so the api URI is only built when the cached one
+     * is missing, recycled or bound to another policy version.
+     *
+     * @param policy the circuit breaker policy
+     * @param path   the api path
+     * @param method the api method
+     * @return the circuit breaker, or null if no factory is found for the policy type
+     */
+    private CircuitBreaker getApiCircuitBreaker(CircuitBreakPolicy policy, String path, String method) {
+        CircuitBreaker result = policy.getBreaker(path, method);
+        if (result == null) {
+            URI api = policy.getUri().path(path).parameter(PolicyId.KEY_SERVICE_METHOD, method);
+            result = getCircuitBreaker(policy, api);
+            policy.putBreaker(path, method, result);
+        }
+        return result;
     }
 
     /**
@@ -224,13 +317,13 @@ public class CircuitBreakerFilter implements RouteFilter, ExtensionInitializer {
     }
 
     /**
-     * Acquires permits from the list of circuit breakers for the given invocation.
+     * Acquires permits from the circuit breakers for the given invocation.
      *
      * @param invocation      the outbound invocation.
-     * @param circuitBreakers the list of circuit breakers.
+     * @param circuitBreakers the circuit breakers.
      */
-    private static void acquire(List<CircuitBreaker> circuitBreakers, Predicate<CircuitBreaker> predicate, OutboundInvocation<?> invocation) {
-        acquire(invocation.getRequest(), circuitBreakers, predicate, breaker -> {
+    private static void acquire(CircuitBreaker[] circuitBreakers, Predicate<CircuitBreaker> predicate, OutboundInvocation<?> invocation) {
+        acquire(invocation.getRequest(), circuitBreakers, circuitBreakers.length, predicate, breaker -> {
             DegradeConfig config = breaker.getPolicy().getDegradeConfig();
             if (config == null) {
                 throw FaultType.CIRCUIT_BREAK.reject("The traffic circuit break policy rejected the request.");
@@ -243,60 +336,52 @@ public class CircuitBreakerFilter implements RouteFilter, ExtensionInitializer {
     }
 
     /**
-     * Acquires permits from the list of circuit breakers using the provided predicate.
-     * This method iterates through the list of circuit breakers and attempts to acquire a permit
+     * Acquires permits from the circuit breakers using the provided predicate.
+     * This method iterates through the circuit breakers and attempts to acquire a permit
      * for each one using the specified predicate. If acquiring a permit from any circuit breaker fails,
      * it rolls back all previously acquired permits and executes the provided fallback action.
      *
      * @param <T>             The type of the outbound request, extending {@link OutboundRequest}.
      * @param request         The outbound request containing context information for the operation.
-     * @param circuitBreakers The list of circuit breakers from which to acquire permits. Must not be {@code null}.
+     * @param circuitBreakers The circuit breakers from which to acquire permits. Must not be {@code null}.
+     * @param size            The number of circuit breakers in the array.
      * @param predicate       The predicate used to test whether a permit can be acquired from a circuit breaker. Must not be {@code null}.
      * @param fallback        The fallback action to execute if acquiring a permit fails. May be {@code null}.
      * @return                {@code true} if permits were successfully acquired from all circuit breakers, {@code false} otherwise.
      * @throws NullPointerException If {@code circuitBreakers} or {@code predicate} is {@code null}.
      */
     private static <T extends OutboundRequest> boolean acquire(T request,
-                                                               List<CircuitBreaker> circuitBreakers,
+                                                               CircuitBreaker[] circuitBreakers,
+                                                               int size,
                                                                Predicate<CircuitBreaker> predicate,
                                                                Consumer<CircuitBreaker> fallback) {
-        if (!recover(request, circuitBreakers, fallback)) {
+        if (!recover(request, circuitBreakers, size, fallback)) {
             // not acquire permits
             return false;
         }
-        int acquires = 0;
-        for (CircuitBreaker circuitBreaker : circuitBreakers) {
-            if (!predicate.test(circuitBreaker)) {
+        for (int i = 0; i < size; i++) {
+            if (!predicate.test(circuitBreakers[i])) {
                 // failed to acquire permits
-                rollback(circuitBreakers, acquires);
+                rollback(circuitBreakers, i);
                 if (fallback != null) {
-                    fallback.accept(circuitBreaker);
+                    fallback.accept(circuitBreakers[i]);
                 }
                 return false;
             }
-            acquires++;
         }
         return true;
     }
 
     /**
-     * Rolls back the specified number of acquires for the given list of circuit breakers.
+     * Rolls back the specified number of acquires for the given circuit breakers.
      *
-     * @param circuitBreakers the list of circuit breakers to roll back
+     * @param circuitBreakers the circuit breakers to roll back
      * @param acquires        the number of acquires to roll back
      */
-    private static void rollback(List<CircuitBreaker> circuitBreakers, int acquires) {
-        if (acquires <= 0) {
-            return;
-        }
+    private static void rollback(CircuitBreaker[] circuitBreakers, int acquires) {
         // rollback
-        int rollbacks = 0;
-        for (CircuitBreaker breaker : circuitBreakers) {
-            if (rollbacks++ < acquires) {
-                breaker.release();
-            } else {
-                return;
-            }
+        for (int i = 0; i < acquires; i++) {
+            circuitBreakers[i].release();
         }
     }
 
@@ -307,19 +392,23 @@ public class CircuitBreakerFilter implements RouteFilter, ExtensionInitializer {
      *
      * @param <T>             The type of the outbound request, extending {@link OutboundRequest}.
      * @param request         The outbound request containing context information, including a random number generator.
-     * @param circuitBreakers The list of circuit breakers to evaluate for recovery.
+     * @param circuitBreakers The circuit breakers to evaluate for recovery.
+     * @param size            The number of circuit breakers in the array.
      * @param fallback        The fallback action to execute if recovery is not allowed. May be {@code null}.
      * @return {@code true} if recovery is allowed and no fallback is executed, {@code false} otherwise.
      */
     private static <T extends OutboundRequest> boolean recover(T request,
-                                                               List<CircuitBreaker> circuitBreakers,
+                                                               CircuitBreaker[] circuitBreakers,
+                                                               int size,
                                                                Consumer<CircuitBreaker> fallback) {
         CircuitBreaker minBreaker = null;
         Double ratio;
         Double minRatio = null;
         long now = System.currentTimeMillis();
         CircuitBreakInfo status;
-        for (CircuitBreaker breaker : circuitBreakers) {
+        CircuitBreaker breaker;
+        for (int i = 0; i < size; i++) {
+            breaker = circuitBreakers[i];
             status = breaker.getInfo(now);
             if (status != null && status.getPhase() == CircuitBreakPhase.RECOVER) {
                 ratio = status.getRecoverRatio();
@@ -350,45 +439,72 @@ public class CircuitBreakerFilter implements RouteFilter, ExtensionInitializer {
 
         private final Map<String, ErrorParser> errorParsers;
 
-        private final List<CircuitBreaker> circuitBreakers;
+        /**
+         * The service and api level circuit breakers, which are never modified.
+         */
+        private final CircuitBreaker[] circuitBreakers;
 
+        /**
+         * The instance level policies, or null if there is none.
+         */
         private final List<CircuitBreakPolicy> policies;
 
-        private final int index;
+        /**
+         * The instance level circuit breakers acquired for the elected endpoints.
+         */
+        private List<CircuitBreaker> instanceBreakers;
 
         CircuitBreakerListener(CircuitBreakerFactory factory,
                                Map<String, ErrorParser> errorParsers,
-                               List<CircuitBreaker> circuitBreakers,
+                               CircuitBreaker[] circuitBreakers,
                                List<CircuitBreakPolicy> policies) {
             this.factory = factory;
             this.errorParsers = errorParsers;
             this.circuitBreakers = circuitBreakers;
             this.policies = policies;
-            this.index = circuitBreakers.size();
+        }
+
+        /**
+         * Checks if any of the circuit breakers is closed.
+         *
+         * @return true if any circuit breaker is closed
+         */
+        boolean isClosed() {
+            for (CircuitBreaker breaker : circuitBreakers) {
+                if (breaker.isClosed()) {
+                    return true;
+                }
+            }
+            return false;
         }
 
         @Override
         public boolean onElect(Endpoint endpoint, OutboundInvocation<?> invocation) {
             if (endpoint != null && policies != null && !policies.isEmpty()) {
+                CircuitBreaker[] breakers = new CircuitBreaker[policies.size()];
+                int size = 0;
                 for (CircuitBreakPolicy policy : policies) {
                     URI uri = policy.getUri().parameter(PolicyId.KEY_SERVICE_ENDPOINT, endpoint.getId());
                     // The circuit breaker, if in a healthy state and not accessed for 1 minute, will be recycled.
                     CircuitBreaker breaker = factory.get(policy, uri);
                     if (breaker != null) {
-                        // append instance circuit breaker
-                        circuitBreakers.add(breaker);
+                        breakers[size++] = breaker;
                     }
                 }
-                int size = circuitBreakers.size();
-                if (size > index) {
+                if (size > 0) {
                     int instances = invocation.getRouteTarget().size();
                     Predicate<CircuitBreaker> predicate = breaker -> breaker.acquireWhen(instances);
                     // acquire from instance circuit breaker
-                    if (!acquire(invocation.getRequest(), circuitBreakers.subList(index, size), predicate, null)) {
-                        // failed to acquire, rollback circuit breakers
-                        circuitBreakers.subList(index, size).clear();
+                    if (!acquire(invocation.getRequest(), breakers, size, predicate, null)) {
                         return false;
                     }
+                    // append instance circuit breaker
+                    if (instanceBreakers == null) {
+                        instanceBreakers = new ArrayList<>(size);
+                    }
+                    for (int i = 0; i < size; i++) {
+                        instanceBreakers.add(breakers[i]);
+                    }
                 }
             }
             return true;
@@ -399,10 +515,11 @@ public class CircuitBreakerFilter implements RouteFilter, ExtensionInitializer {
             OutboundRequest request = invocation.getRequest();
             long duration = request.getDuration();
             for (CircuitBreaker circuitBreaker : circuitBreakers) {
-                if (response != null && isError(circuitBreaker.getPolicy(), request, response, null, errorParsers::get)) {
-                    circuitBreaker.onError(duration, invocation.getRouteTarget().size(), new CircuitBreakException("Exception of fuse response code"));
-                } else {
-                    circuitBreaker.onSuccess(duration);
+                onSuccess(circuitBreaker, invocation, response, duration);
+            }
+            if (instanceBreakers != null) {
+                for (CircuitBreaker circuitBreaker : instanceBreakers) {
+                    onSuccess(circuitBreaker, invocation, response, duration);
                 }
             }
         }
@@ -414,14 +531,31 @@ public class CircuitBreakerFilter implements RouteFilter, ExtensionInitializer {
                 long duration = request.getDuration();
                 ErrorCause cause = cause(throwable, request.getErrorFunction(), null);
                 for (CircuitBreaker circuitBreaker : circuitBreakers) {
-                    if (cause != null && cause.match(circuitBreaker.getPolicy())) {
-                        circuitBreaker.onError(duration, invocation.getRouteTarget().size(), cause.getCause());
-                    } else {
-                        circuitBreaker.onSuccess(duration);
+                    onFailure(circuitBreaker, invocation, cause, duration);
+                }
+                if (instanceBreakers != null) {
+                    for (CircuitBreaker circuitBreaker : instanceBreakers) {
+                        onFailure(circuitBreaker, invocation, cause, duration);
                     }
                 }
             }
         }
+
+        private void onSuccess(CircuitBreaker circuitBreaker, OutboundInvocation<?> invocation, ServiceResponse response, long duration) {
+            if (response != null && isError(circuitBreaker.getPolicy(), invocation.getRequest(), response, null, errorParsers::get)) {
+                circuitBreaker.onError(duration, invocation.getRouteTarget().size(), new CircuitBreakException("Exception of fuse response code"));
+            } else {
+                circuitBreaker.onSuccess(duration);
+            }
+        }
+
+        private void onFailure(CircuitBreaker circuitBreaker, OutboundInvocation<?> invocation, ErrorCause cause, long duration) {
+            if (cause != null && cause.match(circuitBreaker.getPolicy())) {
+                circuitBreaker.onError(duration, invocation.getRouteTarget().size(), cause.getCause());
+            } else {
+                circuitBreaker.onSuccess(duration);
+            }
+        }
     }
 
 }
@@ -56,6 +56,16 @@ public interface LoadBalancer {
      */
     int ORDER_LEAST_ACTIVE = ORDER_WEIGHT_RESPONSE + 1;
 
+    /**
+     * Order value for power of two choices strategy.
+     */
+    int ORDER_P2C = ORDER_LEAST_ACTIVE + 1;
+
+    /**
+     * Order value for peak ewma strategy.
+     */
+    int ORDER_PEAK_EWMA = ORDER_P2C + 1;
+
 
     /**
      * Elects a candidate endpoint from the list based on the invocation context and the specified load balancing policy.
@@ -16,10 +16,8 @@
 package com.jd.live.agent.governance.invoke.loadbalance.active;
 
 import com.jd.live.agent.core.extension.annotation.Extension;
-import com.jd.live.agent.core.util.URI;
 import com.jd.live.agent.governance.counter.Counter;
-import com.jd.live.agent.governance.counter.CounterManager;
-import com.jd.live.agent.governance.counter.ServiceCounter;
+import com.jd.live.agent.governance.counter.CounterIndex;
 import com.jd.live.agent.governance.instance.Endpoint;
 import com.jd.live.agent.governance.invoke.Invocation;
 import com.jd.live.agent.governance.invoke.loadbalance.AbstractLoadBalancer;
@@ -56,9 +54,7 @@ public class LeastActiveLoadBalancer extends AbstractLoadBalancer {
         int firstWeight = 0;
         boolean sameWeight = true;
 
-        URI uri = invocation.getServiceMetadata().getUri();
-        CounterManager counterManager = invocation.getContext().getCounterManager();
-        ServiceCounter serviceCounter = counterManager.getOrCreateCounter(request.getService(), request.getGroup());
+        CounterIndex counterIndex = invocation.getCounterIndex();
         long accessTime = System.currentTimeMillis();
         T endpoint;
         Counter counter;
@@ -67,7 +63,7 @@ public class LeastActiveLoadBalancer extends AbstractLoadBalancer {
         // Filter out all the least active endpoints
         for (int i = 0; i < length; i++) {
             endpoint = endpoints.get(i);
-            counter = endpoint.getCounter(serviceCounter, uri, accessTime);
+            counter = counterIndex.getCounter(endpoint, accessTime);
             active = counter.getActive();
             weight = endpoint.reweight(request);
             candidates[i] = new Candidate<>(endpoint, i, counter, weight);
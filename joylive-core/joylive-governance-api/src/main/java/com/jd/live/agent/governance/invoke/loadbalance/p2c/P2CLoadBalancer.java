@@ -0,0 +1,117 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.loadbalance.p2c;
+
+import com.jd.live.agent.core.extension.annotation.Extension;
+import com.jd.live.agent.governance.counter.Counter;
+import com.jd.live.agent.governance.counter.CounterIndex;
+import com.jd.live.agent.governance.instance.Endpoint;
+import com.jd.live.agent.governance.invoke.Invocation;
+import com.jd.live.agent.governance.invoke.loadbalance.AbstractLoadBalancer;
+import com.jd.live.agent.governance.invoke.loadbalance.Candidate;
+import com.jd.live.agent.governance.invoke.loadbalance.LoadBalancer;
+import com.jd.live.agent.governance.policy.service.loadbalance.LoadBalancePolicy;
+import com.jd.live.agent.governance.request.ServiceRequest;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A load balancer that randomly picks two endpoints and selects the one with the lower load.
+ * The load is the number of active requests divided by the weight of the endpoint.
+ * <p>
+ * It only inspects two endpoints per request, so the cost of an election is constant regardless of the
+ * cluster size, and it avoids the herd behavior of always selecting the least loaded endpoint.
+ * </p>
+ */
+@Extension(value = P2CLoadBalancer.LOAD_BALANCER_NAME, order = LoadBalancer.ORDER_P2C)
+public class P2CLoadBalancer extends AbstractLoadBalancer {
+
+    /**
+     * The name assigned to this load balancer.
+     */
+    public static final String LOAD_BALANCER_NAME = "P2C";
+
+    @Override
+    protected <T extends Endpoint> Candidate<T> doElect(List<T> endpoints, LoadBalancePolicy policy, Invocation<?> invocation) {
+        return elect(endpoints, invocation.getCounterIndex(), invocation.getRequest(), invocation.getRandom());
+    }
+
+    /**
+     * Elects the less loaded one of two random endpoints.
+     *
+     * @param <T>          the type of the endpoint
+     * @param endpoints    the endpoints, which may be reduced to one by the max candidates of the policy
+     * @param counterIndex the counters of the request
+     * @param request      the service request
+     * @param random       the random
+     * @return the elected candidate, or null if there is no endpoint
+     */
+    protected <T extends Endpoint> Candidate<T> elect(List<T> endpoints,
+                                                      CounterIndex counterIndex,
+                                                      ServiceRequest request,
+                                                      Random random) {
+        int length = endpoints.size();
+        if (length < 2) {
+            return length == 0 ? null : new Candidate<>(endpoints.get(0), 0);
+        }
+        int first = random.nextInt(length);
+        int second = random.nextInt(length - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        long accessTime = System.currentTimeMillis();
+
+        T endpoint1 = endpoints.get(first);
+        T endpoint2 = endpoints.get(second);
+        Counter counter1 = counterIndex.getCounter(endpoint1, accessTime);
+        Counter counter2 = counterIndex.getCounter(endpoint2, accessTime);
+        int weight1 = endpoint1.reweight(request);
+        int weight2 = endpoint2.reweight(request);
+        double cost1 = getCost(counter1, weight1);
+        double cost2 = getCost(counter2, weight2);
+        if (cost1 < cost2 || cost1 == cost2 && random.nextBoolean()) {
+            return new Candidate<>(endpoint1, first, counter1, weight1);
+        }
+        return new Candidate<>(endpoint2, second, counter2, weight2);
+    }
+
+    /**
+     * Calculates the cost of the endpoint, the endpoint with lower cost is preferred.
+     *
+     * @param counter the counter of the endpoint, maybe null
+     * @param weight  the weight of the endpoint
+     * @return the cost
+     */
+    protected double getCost(Counter counter, int weight) {
+        if (weight <= 0) {
+            return Double.MAX_VALUE;
+        }
+        return getLoad(counter) / weight;
+    }
+
+    /**
+     * Gets the load of the endpoint.
+     *
+     * @param counter the counter of the endpoint, maybe null
+     * @return the load
+     */
+    protected double getLoad(Counter counter) {
+        return counter == null ? 1 : counter.getActive() + 1;
+    }
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.loadbalance.p2c;
+
+import com.jd.live.agent.core.extension.annotation.Extension;
+import com.jd.live.agent.governance.counter.Counter;
+import com.jd.live.agent.governance.invoke.loadbalance.LoadBalancer;
+
+/**
+ * A load balancer that randomly picks two endpoints and selects the one with the lower peak EWMA cost.
+ * <p>
+ * The cost is the peak exponentially weighted moving average of the response time multiplied by the number
+ * of active requests. The average is sensitive to the latency peaks and decays over time, so the slow
+ * endpoints are quickly avoided and probed again after they become idle.
+ * It is from Finagle's PeakEwma load balancer.
+ * </p>
+ */
+@Extension(value = PeakEwmaLoadBalancer.LOAD_BALANCER_NAME, order = LoadBalancer.ORDER_PEAK_EWMA)
+public class PeakEwmaLoadBalancer extends P2CLoadBalancer {
+
+    /**
+     * The name assigned to this load balancer.
+     */
+    public static final String LOAD_BALANCER_NAME = "PEAK_EWMA";
+
+    @Override
+    protected double getLoad(Counter counter) {
+        return counter == null ? 1 : (counter.getPeakEwma() + 1) * (counter.getActive() + 1);
+    }
+
+}
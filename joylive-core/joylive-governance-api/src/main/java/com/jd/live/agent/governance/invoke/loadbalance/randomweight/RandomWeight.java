@@ -20,6 +20,7 @@ import com.jd.live.agent.governance.invoke.loadbalance.Candidate;
 import java.util.List;
 import java.util.Random;
 import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
 /**
  * A utility class for random selection based on weighted probabilities.
@@ -43,6 +44,8 @@ public class RandomWeight {
 
     /**
      * Randomly selects an element from a list based on weights determined by a weight function.
+     * The cumulative weights are built into the {@link WeightTable} of the current thread,
+     * so that no candidate array is allocated and the selection is a binary search.
      *
      * @param <T>        The generic type of the elements in the list.
      * @param targets    The list of elements to select from.
@@ -50,17 +53,35 @@ public class RandomWeight {
      * @param random     A random number generator used for the weighted selection process.
      * @return The elected candidate, or {@code null} if the list is empty or {@code null}.
      */
-    @SuppressWarnings("unchecked")
     public static <T> Candidate<T> elect(List<T> targets, Function<T, Integer> weightFunc, Random random) {
-        Candidate<T>[] candidates = new Candidate[targets == null ? 0 : targets.size()];
-        if (targets != null) {
-            int index = 0;
-            for (T target : targets) {
-                candidates[index] = new Candidate<>(target, index, weightFunc.apply(target));
-                index++;
-            }
+        return electInt(targets, target -> {
+            Integer weight = weightFunc.apply(target);
+            return weight == null ? 0 : weight;
+        }, random);
+    }
+
+    /**
+     * Randomly selects an element from a list based on weights determined by a weight function.
+     *
+     * @param <T>        The generic type of the elements in the list.
+     * @param targets    The list of elements to select from.
+     * @param weightFunc A function that provides the primitive weight for each element in the list.
+     * @param random     A random number generator used for the weighted selection process.
+     * @return The elected candidate, or {@code null} if the list is empty or {@code null}.
+     */
+    public static <T> Candidate<T> electInt(List<T> targets, ToIntFunction<T> weightFunc, Random random) {
+        int size = targets == null ? 0 : targets.size();
+        switch (size) {
+            case 0:
+                return null;
+            case 1:
+                T target = targets.get(0);
+                return new Candidate<>(target, 0, weightFunc.applyAsInt(target));
+            default:
+                WeightTable table = WeightTable.current().build(targets, weightFunc);
+                int index = table.select(random);
+                return new Candidate<>(targets.get(index), index, table.getWeight(index));
         }
-        return elect(candidates, random);
     }
 
     /**
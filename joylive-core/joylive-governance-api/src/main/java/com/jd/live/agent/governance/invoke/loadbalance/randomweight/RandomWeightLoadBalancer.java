@@ -50,8 +50,10 @@ public class RandomWeightLoadBalancer extends AbstractLoadBalancer {
     @Override
     protected <T extends Endpoint> Candidate<T> doElect(List<T> endpoints, LoadBalancePolicy policy, Invocation<?> invocation) {
         ServiceRequest request = invocation.getRequest();
-        // Use the RandomWeight utility to select an endpoint based on the weights.
-        return RandomWeight.elect(endpoints, e -> e.reweight(request), invocation.getRandom());
+        // The table is reused while the endpoints are unchanged, the endpoints cache their weights for the same time.
+        WeightTable table = WeightTable.current().build(endpoints, e -> e.reweight(request), System.currentTimeMillis());
+        int index = table.select(invocation.getRandom());
+        return new Candidate<>(endpoints.get(index), index, table.getWeight(index));
     }
 }
 
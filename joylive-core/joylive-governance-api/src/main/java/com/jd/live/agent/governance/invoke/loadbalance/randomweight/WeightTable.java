@@ -0,0 +1,281 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.loadbalance.randomweight;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToIntFunction;
+
+/**
+ * A reusable cumulative weight table for weighted random selection.
+ * <p>
+ * The table keeps the prefix sums of the weights in a primitive array, which is reused across the elections
+ * of the same thread. The array grows when a larger candidate list arrives, and is shrunk back to
+ * {@link #MAX_RETAINED_CAPACITY} once a smaller list follows, so a thread does not hold the largest list forever.
+ * The selection is a binary search over the prefix sums, so an election does not allocate any per-candidate objects.
+ * It supports both the random selection and the interleaved weighted round-robin selection.
+ * </p>
+ * <p>
+ * The table built by {@link #build(List, ToIntFunction, long)} is reused for the same targets in the same order
+ * within {@link #CACHE_TIME} milliseconds, which is also how long an endpoint caches its own weight.
+ * </p>
+ * The table is not thread-safe, use {@link #current()} to get the table bound to the current thread.
+ */
+public final class WeightTable {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final int MAX_RETAINED_CAPACITY = 1024;
+
+    private static final long CACHE_TIME = 50;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private static final ThreadLocal<WeightTable> TABLES = ThreadLocal.withInitial(WeightTable::new);
+
+    private long[] sums = new long[INITIAL_CAPACITY];
+
+    private int size;
+
+    private long total;
+
+    private boolean uniform;
+
+    /**
+     * The targets of the cached table, which are compared by identity.
+     */
+    private Object[] keys = new Object[INITIAL_CAPACITY];
+
+    /**
+     * The number of the cached targets, or -1 if the table is not cached.
+     */
+    private int keySize = -1;
+
+    private long buildTime;
+
+    /**
+     * Gets the weight table bound to the current thread.
+     *
+     * @return the weight table
+     */
+    public static WeightTable current() {
+        return TABLES.get();
+    }
+
+    /**
+     * Builds the cumulative weights of the targets. Non-positive weights are treated as zero.
+     *
+     * @param <T>        the type of the targets
+     * @param targets    the targets
+     * @param weightFunc the function to get the weight of the target
+     * @return this table
+     */
+    public <T> WeightTable build(List<T> targets, ToIntFunction<T> weightFunc) {
+        release();
+        return fill(targets, weightFunc);
+    }
+
+    /**
+     * Builds the cumulative weights of the targets, or reuses the table if it was built for the same targets
+     * in the same order within {@link #CACHE_TIME} milliseconds.
+     * It is only applicable when the weights do not depend on the request.
+     *
+     * @param <T>        the type of the targets
+     * @param targets    the targets
+     * @param weightFunc the function to get the weight of the target
+     * @param now        the current time in milliseconds
+     * @return this table
+     */
+    public <T> WeightTable build(List<T> targets, ToIntFunction<T> weightFunc, long now) {
+        if (now >= buildTime && now - buildTime < CACHE_TIME && isCached(targets)) {
+            return this;
+        }
+        fill(targets, weightFunc);
+        int length = size;
+        int capacity = capacity(keys.length, length);
+        if (capacity != keys.length) {
+            keys = new Object[capacity];
+        } else if (keySize > length) {
+            Arrays.fill(keys, length, keySize, null);
+        }
+        for (int i = 0; i < length; i++) {
+            keys[i] = targets.get(i);
+        }
+        keySize = length;
+        buildTime = now;
+        return this;
+    }
+
+    /**
+     * Randomly selects an index whose probability is proportional to its weight.
+     * If all weights are equal or the total weight is zero, the index is uniformly selected.
+     *
+     * @param random the random number generator
+     * @return the selected index, or -1 if the table is empty
+     */
+    public int select(Random random) {
+        switch (size) {
+            case 0:
+                return -1;
+            case 1:
+                return 0;
+            default:
+                if (uniform || total <= 0) {
+                    return random.nextInt(size);
+                }
+                long value = total <= Integer.MAX_VALUE ? random.nextInt((int) total) : (long) (random.nextDouble() * total);
+                return search(value);
+        }
+    }
+
+    /**
+     * Deterministically selects an index by the sequence, the share of each index is proportional to its weight.
+     * <p>
+     * The sequence is mapped into the total weight by the golden ratio, so that the consecutive sequences are
+     * interleaved over the indices instead of hitting the same index weight times in a row.
+     * If all weights are equal or the total weight is zero, the index is selected in plain round-robin order.
+     * </p>
+     *
+     * @param sequence the non-negative sequence
+     * @return the selected index, or -1 if the table is empty
+     */
+    public int select(long sequence) {
+        switch (size) {
+            case 0:
+                return -1;
+            case 1:
+                return 0;
+            default:
+                if (uniform || total <= 0) {
+                    return (int) (sequence % size);
+                }
+                long value;
+                if (total <= Integer.MAX_VALUE) {
+                    long fraction = (sequence * GOLDEN_GAMMA) >>> 32;
+                    value = (fraction * total) >>> 32;
+                } else {
+                    value = sequence % total;
+                }
+                return search(value);
+        }
+    }
+
+    /**
+     * Gets the weight of the specified index.
+     *
+     * @param index the index
+     * @return the weight
+     */
+    public int getWeight(int index) {
+        return (int) (index == 0 ? sums[0] : sums[index] - sums[index - 1]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    private <T> WeightTable fill(List<T> targets, ToIntFunction<T> weightFunc) {
+        int length = targets == null ? 0 : targets.size();
+        int capacity = capacity(sums.length, length);
+        if (capacity != sums.length) {
+            sums = new long[capacity];
+        }
+        long sum = 0;
+        long first = 0;
+        boolean same = true;
+        int weight;
+        for (int i = 0; i < length; i++) {
+            weight = Math.max(weightFunc.applyAsInt(targets.get(i)), 0);
+            if (i == 0) {
+                first = weight;
+            } else if (same && weight != first) {
+                same = false;
+            }
+            sum += weight;
+            sums[i] = sum;
+        }
+        this.size = length;
+        this.total = sum;
+        this.uniform = same;
+        return this;
+    }
+
+    private <T> boolean isCached(List<T> targets) {
+        int length = targets == null ? 0 : targets.size();
+        if (length != keySize) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (keys[i] != targets.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Discards the cached targets, so that the table does not keep them alive.
+     */
+    private void release() {
+        if (keySize > 0) {
+            Arrays.fill(keys, 0, keySize, null);
+        }
+        keySize = -1;
+    }
+
+    /**
+     * Gets the capacity of the array for the length, which grows for a larger length and shrinks back to
+     * {@link #MAX_RETAINED_CAPACITY} for a smaller one.
+     *
+     * @param capacity the current capacity
+     * @param length   the required length
+     * @return the capacity
+     */
+    private static int capacity(int capacity, int length) {
+        if (capacity < length) {
+            return Math.max(length, capacity << 1);
+        } else if (capacity > MAX_RETAINED_CAPACITY && length <= MAX_RETAINED_CAPACITY) {
+            return MAX_RETAINED_CAPACITY;
+        }
+        return capacity;
+    }
+
+    /**
+     * Finds the first index whose cumulative weight is greater than the value.
+     *
+     * @param value the random value in the range [0, total)
+     * @return the index
+     */
+    private int search(long value) {
+        int low = 0;
+        int high = size - 1;
+        int mid;
+        while (low < high) {
+            mid = (low + high) >>> 1;
+            if (sums[mid] > value) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+}
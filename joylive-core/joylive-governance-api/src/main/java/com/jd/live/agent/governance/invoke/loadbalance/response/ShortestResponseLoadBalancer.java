@@ -16,10 +16,9 @@
 package com.jd.live.agent.governance.invoke.loadbalance.response;
 
 import com.jd.live.agent.core.extension.annotation.Extension;
-import com.jd.live.agent.core.util.URI;
 import com.jd.live.agent.governance.counter.Counter;
-import com.jd.live.agent.governance.counter.CounterManager;
-import com.jd.live.agent.governance.counter.ServiceCounter;
+import com.jd.live.agent.governance.counter.CounterIndex;
+import com.jd.live.agent.governance.counter.CounterSnapshot;
 import com.jd.live.agent.governance.instance.Endpoint;
 import com.jd.live.agent.governance.invoke.Invocation;
 import com.jd.live.agent.governance.invoke.loadbalance.AbstractLoadBalancer;
@@ -33,7 +32,9 @@ import java.util.Random;
 
 /**
  * A load balancer that selects the endpoint with the shortest response time for an outbound request.
- * It is from org.apache.dubbo.rpc.cluster.loadbalance.ShortestResponseLoadBalance
+ * It is from org.apache.dubbo.rpc.cluster.loadbalance.ShortestResponseLoadBalance, and estimates the response
+ * by the 99th percentile of the elapsed time, so the endpoints with a long tail are avoided when the counter
+ * records the latency distribution.
  */
 @Extension(value = ShortestResponseLoadBalancer.LOAD_BALANCER_NAME, order = LoadBalancer.ORDER_SHORTEST_RESPONSE)
 public class ShortestResponseLoadBalancer extends AbstractLoadBalancer {
@@ -56,20 +57,20 @@ public class ShortestResponseLoadBalancer extends AbstractLoadBalancer {
         int firstWeight = 0;
         boolean sameWeight = true;
 
-        URI uri = invocation.getServiceMetadata().getUri();
-        CounterManager counterManager = invocation.getContext().getCounterManager();
-        ServiceCounter serviceCounter = counterManager.getOrCreateCounter(request.getService(), request.getGroup());
+        CounterIndex counterIndex = invocation.getCounterIndex();
         long accessTime = System.currentTimeMillis();
         T endpoint;
         Counter counter;
+        CounterSnapshot snapshot;
         long estimateResponse;
         int weight;
         // Filter out all the shortest response endpoints
         for (int i = 0; i < length; i++) {
             endpoint = endpoints.get(i);
-            counter = endpoint.getCounter(serviceCounter, uri, accessTime);
+            counter = counterIndex.getCounter(endpoint, accessTime);
 
-            estimateResponse = counter.getSnapshot().getEstimateResponse();
+            snapshot = counter.getSnapshot();
+            estimateResponse = snapshot.getP99() * (counter.getActive() + 1);
             weight = endpoint.reweight(request);
             candidates[i] = new Candidate<>(endpoint, i, counter, weight);
             // Same as LeastActiveLoadBalance
@@ -16,11 +16,9 @@
 package com.jd.live.agent.governance.invoke.loadbalance.response;
 
 import com.jd.live.agent.core.extension.annotation.Extension;
-import com.jd.live.agent.core.util.URI;
 import com.jd.live.agent.governance.counter.Counter;
-import com.jd.live.agent.governance.counter.CounterManager;
+import com.jd.live.agent.governance.counter.CounterIndex;
 import com.jd.live.agent.governance.counter.CounterSnapshot;
-import com.jd.live.agent.governance.counter.ServiceCounter;
 import com.jd.live.agent.governance.instance.Endpoint;
 import com.jd.live.agent.governance.invoke.Invocation;
 import com.jd.live.agent.governance.invoke.loadbalance.AbstractLoadBalancer;
@@ -35,8 +33,9 @@ import java.util.List;
 
 /**
  * A load balancer implementation that selects endpoints based on their weighted response times.
- * This load balancer calculates the average response time of endpoints and assigns weights
- * accordingly to improve load distribution and performance.
+ * This load balancer calculates the median response time of endpoints and assigns weights
+ * accordingly to improve load distribution and performance. The median is not skewed by the outliers,
+ * and it falls back to the average when the counter does not record the latency distribution.
  */
 @Extension(value = WeightResponseLoadBalancer.LOAD_BALANCER_NAME, order = LoadBalancer.ORDER_WEIGHT_RESPONSE)
 public class WeightResponseLoadBalancer extends AbstractLoadBalancer {
@@ -50,9 +49,7 @@ public class WeightResponseLoadBalancer extends AbstractLoadBalancer {
     @Override
     protected <T extends Endpoint> Candidate<T> doElect(List<T> endpoints, LoadBalancePolicy policy, Invocation<?> invocation) {
         ServiceRequest request = invocation.getRequest();
-        URI uri = invocation.getServiceMetadata().getUri();
-        CounterManager counterManager = invocation.getContext().getCounterManager();
-        ServiceCounter serviceCounter = counterManager.getOrCreateCounter(request.getService(), request.getGroup());
+        CounterIndex counterIndex = invocation.getCounterIndex();
         long accessTime = System.currentTimeMillis();
 
         long response = 0;
@@ -65,7 +62,7 @@ public class WeightResponseLoadBalancer extends AbstractLoadBalancer {
         int success = 0;
         for (int i = 0; i < length; i++) {
             endpoint = endpoints.get(i);
-            counter = endpoint.getCounter(serviceCounter, uri, accessTime);
+            counter = counterIndex.getCounter(endpoint, accessTime);
             snapshot = counter.getSnapshot();
             candidate = new ReponseCandidate<>(endpoint, i, counter, snapshot, endpoint.reweight(request));
             candidates[i] = candidate;
@@ -94,7 +91,7 @@ public class WeightResponseLoadBalancer extends AbstractLoadBalancer {
         ReponseCandidate(T target, int index, Counter counter, CounterSnapshot snapshot, Integer weight) {
             super(target, index, counter, weight);
             this.snapshot = snapshot;
-            this.response = snapshot.getSucceededAverageElapsed();
+            this.response = snapshot.getP50();
         }
 
         public void reweight(double avgResponse) {
@@ -16,29 +16,35 @@
 package com.jd.live.agent.governance.invoke.loadbalance.roundrobin;
 
 import com.jd.live.agent.core.extension.annotation.Extension;
+import com.jd.live.agent.core.util.StripedSequence;
 import com.jd.live.agent.governance.instance.Endpoint;
 import com.jd.live.agent.governance.invoke.Invocation;
 import com.jd.live.agent.governance.invoke.loadbalance.AbstractLoadBalancer;
 import com.jd.live.agent.governance.invoke.loadbalance.Candidate;
 import com.jd.live.agent.governance.invoke.loadbalance.LoadBalancer;
+import com.jd.live.agent.governance.invoke.loadbalance.randomweight.WeightTable;
 import com.jd.live.agent.governance.invoke.metadata.ServiceMetadata;
 import com.jd.live.agent.governance.policy.service.ServicePolicy;
 import com.jd.live.agent.governance.policy.service.loadbalance.LoadBalancePolicy;
+import com.jd.live.agent.governance.request.ServiceRequest;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
 /**
  * RoundRobinLoadBalancer is an implementation of the {@link LoadBalancer} interface that
- * provides a simple round-robin load balancing strategy. It iterates through a list of
- * available endpoints and selects the next one in sequence for handling a request.
+ * provides a weighted round-robin load balancing strategy. If all the endpoints have the same weight,
+ * it iterates through the available endpoints and selects the next one in sequence, otherwise
+ * the sequence is interleaved over the endpoints in proportion to their weights.
  * If a service policy with a specific load balance policy is associated with the request,
- * the round-robin counter is scoped to that policy, ensuring that balancing is consistent
+ * the round-robin sequence is scoped to that policy, ensuring that balancing is consistent
  * within the context of the policy.
+ * <p>
+ * The sequences are striped by thread, so that concurrent callers do not contend on a single counter.
+ * </p>
  */
 @Extension(value = RoundRobinLoadBalancer.LOAD_BALANCER_NAME, order = LoadBalancer.ORDER_ROUND_ROBIN)
 public class RoundRobinLoadBalancer extends AbstractLoadBalancer {
@@ -48,41 +54,75 @@ public class RoundRobinLoadBalancer extends AbstractLoadBalancer {
      */
     public static final String LOAD_BALANCER_NAME = "ROUND_ROBIN";
 
-    private static final Function<Long, AtomicLong> POLICY_COUNTER_FUNC = s -> new AtomicLong(0L);
+    private static final Function<String, ServiceSequence> SERVICE_SEQUENCE_FUNC = s -> new ServiceSequence();
 
-    private static final Function<String, AtomicLong> SERVICE_COUNTER_FUNC = s -> new AtomicLong(0L);
+    private static final Function<String, StripedSequence> GROUP_SEQUENCE_FUNC = s -> new StripedSequence();
 
-    private final Map<Long, AtomicLong> policyCounters = new ConcurrentHashMap<>();
+    // sequences of the services without policy, which have no long-lived object to hold them
+    private final Map<String, ServiceSequence> serviceSequences = new ConcurrentHashMap<>();
 
-    private final Map<String, AtomicLong> serviceCounters = new ConcurrentHashMap<>();
-
-    private final AtomicLong globalCounter = new AtomicLong(0);
+    private final StripedSequence globalSequence = new StripedSequence();
 
     @Override
     public <T extends Endpoint> Candidate<T> doElect(List<T> endpoints, LoadBalancePolicy policy, Invocation<?> invocation) {
-        AtomicLong counter = globalCounter;
-        ServiceMetadata metadata = invocation.getServiceMetadata();
+        long sequence = getSequence(invocation.getServiceMetadata());
+        ServiceRequest request = invocation.getRequest();
+        WeightTable table = WeightTable.current().build(endpoints, e -> e.reweight(request), System.currentTimeMillis());
+        int index = table.select(sequence);
+        return new Candidate<>(endpoints.get(index), index, table.getWeight(index));
+    }
+
+    @Override
+    protected <T extends Endpoint> void random(List<T> endpoints, LoadBalancePolicy policy, Random random) {
+        // This method is not used in the RoundRobinLoadBalancer.
+    }
+
+    /**
+     * Gets the next sequence, which is scoped to the load balance policy or the service.
+     * <p>
+     * The load balance policy is always present on a supplemented service policy, so the governed services
+     * reach their sequence without any lookup. Only the services without policy look up their sequence
+     * by name, and by group if the group is specified.
+     * </p>
+     *
+     * @param metadata the service metadata
+     * @return the non-negative sequence
+     */
+    private long getSequence(ServiceMetadata metadata) {
         ServicePolicy servicePolicy = metadata.getServicePolicy();
         LoadBalancePolicy loadBalancePolicy = servicePolicy == null ? null : servicePolicy.getLoadBalancePolicy();
-        String uniqueName = loadBalancePolicy != null ? null : metadata.getUniqueName();
         if (loadBalancePolicy != null) {
-            counter = policyCounters.computeIfAbsent(loadBalancePolicy.getId(), POLICY_COUNTER_FUNC);
-        } else if (uniqueName != null && !uniqueName.isEmpty()) {
-            counter = serviceCounters.computeIfAbsent(uniqueName, SERVICE_COUNTER_FUNC);
+            return loadBalancePolicy.nextSequence();
+        }
+        String serviceName = metadata.getServiceName();
+        if (serviceName == null || serviceName.isEmpty()) {
+            return globalSequence.next();
         }
-        long count = counter.getAndIncrement();
-        if (count < 0) {
-            counter.set(0);
-            count = counter.getAndIncrement();
+        ServiceSequence sequence = serviceSequences.get(serviceName);
+        if (sequence == null) {
+            sequence = serviceSequences.computeIfAbsent(serviceName, SERVICE_SEQUENCE_FUNC);
         }
-        // Ensure the index is within the bounds of the endpoints list.
-        int index = (int) (count % endpoints.size());
-        return new Candidate<>(endpoints.get(index), index);
+        return sequence.next(metadata.getServiceGroup());
     }
 
-    @Override
-    protected <T extends Endpoint> void random(List<T> endpoints, LoadBalancePolicy policy, Random random) {
-        // This method is not used in the RoundRobinLoadBalancer.
+    /**
+     * The sequences of a service without policy.
+     */
+    private static class ServiceSequence {
+
+        private final StripedSequence sequence = new StripedSequence();
+
+        private final Map<String, StripedSequence> groups = new ConcurrentHashMap<>(4);
+
+        public long next(String group) {
+            if (group == null || group.isEmpty()) {
+                return sequence.next();
+            }
+            StripedSequence result = groups.get(group);
+            if (result == null) {
+                result = groups.computeIfAbsent(group, GROUP_SEQUENCE_FUNC);
+            }
+            return result.next();
+        }
     }
 }
-
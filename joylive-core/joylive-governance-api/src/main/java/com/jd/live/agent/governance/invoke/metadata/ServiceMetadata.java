@@ -3,6 +3,9 @@ package com.jd.live.agent.governance.invoke.metadata;
 import com.jd.live.agent.core.util.URI;
 import com.jd.live.agent.core.util.cache.LazyObject;
 import com.jd.live.agent.governance.config.ServiceConfig;
+import com.jd.live.agent.governance.counter.CounterIndex;
+import com.jd.live.agent.governance.counter.CounterManager;
+import com.jd.live.agent.governance.counter.ServiceCounter;
 import com.jd.live.agent.governance.event.TrafficEvent;
 import com.jd.live.agent.governance.policy.PolicyId;
 import com.jd.live.agent.governance.policy.PolicyURI;
@@ -76,6 +79,11 @@ public class ServiceMetadata implements Cloneable {
 
     private LazyObject<URI> uri;
 
+    /**
+     * The resolved counters of this service request.
+     */
+    private CounterIndex counterIndex;
+
     public boolean isService() {
         return serviceName != null && !serviceName.isEmpty();
     }
@@ -93,6 +101,25 @@ public class ServiceMetadata implements Cloneable {
         return uri == null ? null : uri.get();
     }
 
+    /**
+     * Gets the counters of this service request, which are resolved once and shared by the load balancers
+     * and retries of this request.
+     *
+     * @param counterManager the counter manager
+     * @param service        the service name
+     * @param group          the service group
+     * @return the counter index, never {@code null}
+     */
+    public CounterIndex getCounterIndex(CounterManager counterManager, String service, String group) {
+        CounterIndex result = counterIndex;
+        if (result == null) {
+            ServiceCounter counter = counterManager == null ? null : counterManager.getOrCreateCounter(service, group);
+            result = new CounterIndex(counter, counter == null ? CounterIndex.NONE : counter.getIndex(path, method));
+            counterIndex = result;
+        }
+        return result;
+    }
+
     /**
      * Retrieves the default unit policy. If no specific policy is defined, {@link UnitPolicy#NONE} is returned.
      *
@@ -171,7 +198,7 @@ public class ServiceMetadata implements Cloneable {
             return (ServiceMetadata) super.clone();
         } catch (CloneNotSupportedException e) {
             return new ServiceMetadata(serviceConfig, serviceName, serviceGroup, path,
-                    method, service, servicePolicy, consumer, writeProtect, uri);
+                    method, service, servicePolicy, consumer, writeProtect, uri, counterIndex);
         }
     }
 
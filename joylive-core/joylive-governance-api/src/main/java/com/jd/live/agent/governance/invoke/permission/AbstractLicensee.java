@@ -54,6 +54,11 @@ public abstract class AbstractLicensee<P extends PolicyVersion> implements Licen
         }
     }
 
+    @Override
+    public boolean isClosed() {
+        return !started.get();
+    }
+
     /**
      * Closes the limiter.
      */
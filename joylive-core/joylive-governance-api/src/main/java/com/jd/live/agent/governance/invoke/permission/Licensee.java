@@ -50,6 +50,16 @@ public interface Licensee<P extends PolicyVersion> extends PolicyVersion, AutoCl
         return System.currentTimeMillis() - getLastAccessTime() > timeout;
     }
 
+    /**
+     * Checks if this licensee has been closed, e.g. recycled by its factory or replaced by a newer version.
+     * A closed licensee should not be reused and must be retrieved from its factory again.
+     *
+     * @return true if the licensee is closed, false otherwise
+     */
+    default boolean isClosed() {
+        return false;
+    }
+
     /**
      * Retrieves the policy that governs the behavior of the circuit breaker.
      *
@@ -20,6 +20,8 @@ import com.jd.live.agent.core.util.option.Option;
 import com.jd.live.agent.governance.invoke.permission.AbstractLicensee;
 import com.jd.live.agent.governance.policy.service.limit.RateLimitPolicy;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -34,6 +36,16 @@ public abstract class AbstractRateLimiter extends AbstractLicensee<RateLimitPoli
 
     protected static final Long MICROSECOND_OF_ONE_SECOND = 1000 * 1000L;
 
+    /**
+     * The completed stage of the acquired result.
+     */
+    protected static final CompletionStage<Boolean> ACQUIRED = CompletableFuture.completedFuture(true);
+
+    /**
+     * The completed stage of the rejected result.
+     */
+    protected static final CompletionStage<Boolean> REJECTED = CompletableFuture.completedFuture(false);
+
     /**
      * The default time unit.
      */
@@ -66,7 +78,7 @@ public abstract class AbstractRateLimiter extends AbstractLicensee<RateLimitPoli
         if (!started.get()) {
             return true;
         }
-        this.lastAccessTime = System.currentTimeMillis();
+        touch();
         return doAcquire(1, timeout, timeUnit);
     }
 
@@ -75,7 +87,7 @@ public abstract class AbstractRateLimiter extends AbstractLicensee<RateLimitPoli
         if (!started.get()) {
             return true;
         }
-        this.lastAccessTime = System.currentTimeMillis();
+        touch();
         return permits <= 0 || doAcquire(permits, timeout, timeUnit);
     }
 
@@ -84,10 +96,39 @@ public abstract class AbstractRateLimiter extends AbstractLicensee<RateLimitPoli
         if (!started.get()) {
             return true;
         }
-        this.lastAccessTime = System.currentTimeMillis();
+        touch();
         return permits <= 0 || doAcquire(permits, timeout, timeUnit);
     }
 
+    @Override
+    public CompletionStage<Boolean> acquireAsync() {
+        if (!started.get()) {
+            return ACQUIRED;
+        }
+        touch();
+        return doAcquireAsync(1, timeout, timeUnit);
+    }
+
+    @Override
+    public CompletionStage<Boolean> acquireAsync(int permits, long timeout, TimeUnit timeUnit) {
+        if (!started.get()) {
+            return ACQUIRED;
+        }
+        touch();
+        return permits <= 0 ? ACQUIRED : doAcquireAsync(permits, timeout, timeUnit);
+    }
+
+    /**
+     * Updates the last access time. The volatile write is skipped within the same millisecond,
+     * so that the concurrent callers do not keep invalidating the shared cache line.
+     */
+    protected void touch() {
+        long now = System.currentTimeMillis();
+        if (now != lastAccessTime) {
+            lastAccessTime = now;
+        }
+    }
+
     /**
      * Try to get some permits within a duration and return the result
      *
@@ -98,5 +139,18 @@ public abstract class AbstractRateLimiter extends AbstractLicensee<RateLimitPoli
      */
     protected abstract boolean doAcquire(int permits, long timeout, TimeUnit timeUnit);
 
+    /**
+     * Try to get some permits within a duration without blocking the caller thread.
+     * This default implementation falls back to the blocking {@link #doAcquire(int, long, TimeUnit)}.
+     *
+     * @param permits  Permits
+     * @param timeout  Wait time
+     * @param timeUnit Time unit
+     * @return a stage completed with the result
+     */
+    protected CompletionStage<Boolean> doAcquireAsync(int permits, long timeout, TimeUnit timeUnit) {
+        return doAcquire(permits, timeout, timeUnit) ? ACQUIRED : REJECTED;
+    }
+
 }
 
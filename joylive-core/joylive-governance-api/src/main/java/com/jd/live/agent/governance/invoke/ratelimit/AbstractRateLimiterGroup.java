@@ -20,6 +20,7 @@ import com.jd.live.agent.governance.policy.service.limit.SlidingWindow;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 
@@ -79,5 +80,28 @@ public abstract class AbstractRateLimiterGroup extends AbstractRateLimiter {
         }
         return true;
     }
-}
 
+    @Override
+    protected CompletionStage<Boolean> doAcquireAsync(int permits, long timeout, TimeUnit timeUnit) {
+        long startTime = System.nanoTime();
+        return doAcquireAsync(0, permits, startTime, timeout <= 0 ? 0 : timeUnit.toNanos(timeout));
+    }
+
+    /**
+     * Acquires the permits from the limiters one by one, the next limiter is acquired after the previous one is done.
+     *
+     * @param index     the index of the limiter
+     * @param permits   the number of permits
+     * @param startTime the start time in nanoseconds
+     * @param timeout   the timeout in nanoseconds
+     * @return a stage completed with the result
+     */
+    private CompletionStage<Boolean> doAcquireAsync(int index, int permits, long startTime, long timeout) {
+        if (index >= limiters.size()) {
+            return ACQUIRED;
+        }
+        long expire = Long.max(0, timeout - (System.nanoTime() - startTime));
+        return limiters.get(index).acquireAsync(permits, expire, TimeUnit.NANOSECONDS).thenCompose(acquired ->
+                acquired ? doAcquireAsync(index + 1, permits, startTime, timeout) : REJECTED);
+    }
+}
@@ -18,6 +18,8 @@ package com.jd.live.agent.governance.invoke.ratelimit;
 import com.jd.live.agent.governance.invoke.permission.Licensee;
 import com.jd.live.agent.governance.policy.service.limit.RateLimitPolicy;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -63,4 +65,30 @@ public interface RateLimiter extends Licensee<RateLimitPolicy> {
      */
     boolean acquire(int permits, long timeout, TimeUnit timeUnit);
 
+    /**
+     * Try to get a permit within the default duration without blocking the caller thread.
+     *
+     * @return a stage completed with the result when the permit is acquired or rejected
+     */
+    default CompletionStage<Boolean> acquireAsync() {
+        return acquireAsync(1, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Try to get some permits within a duration without blocking the caller thread.
+     * <p>
+     * It's designed for the reactive event loops, the implementation should schedule the wake-up
+     * instead of sleeping when the permits are reserved in the future. This default implementation
+     * falls back to the blocking {@link #acquire(int, long, TimeUnit)}.
+     * </p>
+     *
+     * @param permits  Permits
+     * @param timeout  Wait time
+     * @param timeUnit Time unit
+     * @return a stage completed with the result when the permits are acquired or rejected
+     */
+    default CompletionStage<Boolean> acquireAsync(int permits, long timeout, TimeUnit timeUnit) {
+        return CompletableFuture.completedFuture(acquire(permits, timeout, timeUnit));
+    }
+
 }
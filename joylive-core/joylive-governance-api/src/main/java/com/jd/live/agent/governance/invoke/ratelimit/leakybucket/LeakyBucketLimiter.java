@@ -13,10 +13,12 @@
  */
 package com.jd.live.agent.governance.invoke.ratelimit.leakybucket;
 
+import com.jd.live.agent.core.util.time.Timer;
 import com.jd.live.agent.governance.invoke.ratelimit.tokenbucket.TokenBucketLimiter;
 import com.jd.live.agent.governance.policy.service.limit.RateLimitPolicy;
 import com.jd.live.agent.governance.policy.service.limit.SlidingWindow;
 
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -39,7 +41,11 @@ public class LeakyBucketLimiter extends TokenBucketLimiter {
     private final AtomicLong requests = new AtomicLong(0);
 
     public LeakyBucketLimiter(RateLimitPolicy limitPolicy, SlidingWindow slidingWindow) {
-        super(limitPolicy, slidingWindow);
+        this(limitPolicy, slidingWindow, null);
+    }
+
+    public LeakyBucketLimiter(RateLimitPolicy limitPolicy, SlidingWindow slidingWindow, Timer timer) {
+        super(limitPolicy, slidingWindow, timer);
         this.capacity = option.getLong(KEY_CAPACITY, 0L);
     }
 
@@ -68,4 +74,16 @@ public class LeakyBucketLimiter extends TokenBucketLimiter {
             requests.decrementAndGet();
         }
     }
+
+    @Override
+    protected CompletionStage<Boolean> doAcquireAsync(int permits, long startTimeMicros, long timeoutMicros) {
+        requests.incrementAndGet();
+        try {
+            // the waiting request is kept in the bucket until it's woken up
+            return super.doAcquireAsync(permits, startTimeMicros, timeoutMicros).whenComplete((r, e) -> requests.decrementAndGet());
+        } catch (Throwable e) {
+            requests.decrementAndGet();
+            throw e;
+        }
+    }
 }
@@ -37,8 +37,8 @@ public class LeakyBucketLimiterFactory extends AbstractRateLimiterFactory {
     protected RateLimiter create(RateLimitPolicy policy) {
         List<SlidingWindow> windows = policy.getSlidingWindows();
         if (windows.size() == 1) {
-            return new LeakyBucketLimiter(policy, windows.get(0));
+            return new LeakyBucketLimiter(policy, windows.get(0), timer);
         }
-        return new LeakyBucketLimiterGroup(policy);
+        return new LeakyBucketLimiterGroup(policy, timer);
     }
 }
@@ -15,6 +15,7 @@
  */
 package com.jd.live.agent.governance.invoke.ratelimit.leakybucket;
 
+import com.jd.live.agent.core.util.time.Timer;
 import com.jd.live.agent.governance.invoke.ratelimit.AbstractRateLimiterGroup;
 import com.jd.live.agent.governance.policy.service.limit.RateLimitPolicy;
 
@@ -26,7 +27,11 @@ import com.jd.live.agent.governance.policy.service.limit.RateLimitPolicy;
 public class LeakyBucketLimiterGroup extends AbstractRateLimiterGroup {
 
     public LeakyBucketLimiterGroup(RateLimitPolicy policy) {
-        super(policy, (window, name) -> new LeakyBucketLimiter(policy, window));
+        this(policy, null);
+    }
+
+    public LeakyBucketLimiterGroup(RateLimitPolicy policy, Timer timer) {
+        super(policy, (window, name) -> new LeakyBucketLimiter(policy, window, timer));
     }
 
 }
@@ -13,6 +13,7 @@
  */
 package com.jd.live.agent.governance.invoke.ratelimit.tokenbucket;
 
+import com.jd.live.agent.core.util.time.Timer;
 import com.jd.live.agent.governance.policy.service.limit.RateLimitPolicy;
 import com.jd.live.agent.governance.policy.service.limit.SlidingWindow;
 
@@ -44,6 +45,10 @@ public class SmoothBurstyLimiter extends TokenBucketLimiter {
         super(limitPolicy, slidingWindow);
     }
 
+    public SmoothBurstyLimiter(RateLimitPolicy limitPolicy, SlidingWindow slidingWindow, Timer timer) {
+        super(limitPolicy, slidingWindow, timer);
+    }
+
     @Override
     protected double getMaxStoredPermits() {
         return getPermits(option.getPositive(KEY_MAX_BURST_SECONDS, DEFAULT_MAX_BURST_SECONDS));
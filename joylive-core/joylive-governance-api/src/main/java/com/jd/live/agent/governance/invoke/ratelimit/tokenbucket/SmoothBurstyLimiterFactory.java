@@ -37,8 +37,8 @@ public class SmoothBurstyLimiterFactory extends AbstractRateLimiterFactory {
     protected RateLimiter create(RateLimitPolicy policy) {
         List<SlidingWindow> windows = policy.getSlidingWindows();
         if (windows.size() == 1) {
-            return new SmoothBurstyLimiter(policy, windows.get(0));
+            return new SmoothBurstyLimiter(policy, windows.get(0), timer);
         }
-        return new SmoothBurstyLimiterGroup(policy);
+        return new SmoothBurstyLimiterGroup(policy, timer);
     }
 }
@@ -13,6 +13,7 @@
  */
 package com.jd.live.agent.governance.invoke.ratelimit.tokenbucket;
 
+import com.jd.live.agent.core.util.time.Timer;
 import com.jd.live.agent.governance.policy.service.limit.RateLimitPolicy;
 import com.jd.live.agent.governance.policy.service.limit.SlidingWindow;
 
@@ -69,6 +70,10 @@ public class SmoothWarmupLimiter extends TokenBucketLimiter {
         super(limitPolicy, slidingWindow);
     }
 
+    public SmoothWarmupLimiter(RateLimitPolicy limitPolicy, SlidingWindow slidingWindow, Timer timer) {
+        super(limitPolicy, slidingWindow, timer);
+    }
+
     @Override
     protected void initialize() {
         this.warmupMicros = option.getPositive(KEY_WARMUP_SECONDS, DEFAULT_WARMUP_SECONDS) * MICROSECOND_OF_ONE_SECOND;
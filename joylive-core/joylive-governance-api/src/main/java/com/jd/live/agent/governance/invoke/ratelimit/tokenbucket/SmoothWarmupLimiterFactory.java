@@ -37,8 +37,8 @@ public class SmoothWarmupLimiterFactory extends AbstractRateLimiterFactory {
     protected RateLimiter create(RateLimitPolicy policy) {
         List<SlidingWindow> windows = policy.getSlidingWindows();
         if (windows.size() == 1) {
-            return new SmoothWarmupLimiter(policy, windows.get(0));
+            return new SmoothWarmupLimiter(policy, windows.get(0), timer);
         }
-        return new SmoothWarmupLimiterGroup(policy);
+        return new SmoothWarmupLimiterGroup(policy, timer);
     }
 }
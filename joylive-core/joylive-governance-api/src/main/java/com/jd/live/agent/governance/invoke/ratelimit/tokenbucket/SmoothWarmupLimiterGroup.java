@@ -15,6 +15,7 @@
  */
 package com.jd.live.agent.governance.invoke.ratelimit.tokenbucket;
 
+import com.jd.live.agent.core.util.time.Timer;
 import com.jd.live.agent.governance.invoke.ratelimit.AbstractRateLimiterGroup;
 import com.jd.live.agent.governance.policy.service.limit.RateLimitPolicy;
 
@@ -26,6 +27,10 @@ import com.jd.live.agent.governance.policy.service.limit.RateLimitPolicy;
 public class SmoothWarmupLimiterGroup extends AbstractRateLimiterGroup {
 
     public SmoothWarmupLimiterGroup(RateLimitPolicy policy) {
-        super(policy, (window, name) -> new SmoothWarmupLimiter(policy, window));
+        this(policy, null);
+    }
+
+    public SmoothWarmupLimiterGroup(RateLimitPolicy policy, Timer timer) {
+        super(policy, (window, name) -> new SmoothWarmupLimiter(policy, window, timer));
     }
 }
@@ -14,11 +14,15 @@
 package com.jd.live.agent.governance.invoke.ratelimit.tokenbucket;
 
 import com.jd.live.agent.core.util.TimeUtils;
+import com.jd.live.agent.core.util.time.Timer;
 import com.jd.live.agent.governance.invoke.ratelimit.AbstractRateLimiter;
 import com.jd.live.agent.governance.policy.service.limit.RateLimitPolicy;
 import com.jd.live.agent.governance.policy.service.limit.SlidingWindow;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static java.lang.Math.max;
 import static java.lang.Math.min;
@@ -28,6 +32,10 @@ import static java.lang.Math.min;
  * <p>
  * Source code implementation borrows from Guava's com.google.common.util.concurrent.SmoothRateLimiter.SmoothBursty
  * </p>
+ * <p>
+ * The stored permits and the next permit time are kept in an immutable {@link PermitState}, which is replaced by
+ * compare-and-set instead of being guarded by a lock, so concurrent acquisitions do not serialize on a monitor.
+ * </p>
  *
  * @since 1.0.0
  */
@@ -37,6 +45,11 @@ public abstract class TokenBucketLimiter extends AbstractRateLimiter {
 
     protected final SleepingStopwatch stopwatch;
 
+    /**
+     * The timer to wake up the asynchronous acquisitions, the acquisitions which have to wait are rejected if it's null.
+     */
+    protected final Timer timer;
+
     /**
      * The maximum number of stored permits.
      */
@@ -48,21 +61,21 @@ public abstract class TokenBucketLimiter extends AbstractRateLimiter {
     protected double permitIntervalMicros;
 
     /**
-     * The currently stored permits.
+     * The currently stored permits and the next permit time.
      */
-    protected double storedPermits;
-
-    protected long nextPermitMicros;
-
-    protected final Object mutex = new Object();
+    protected final AtomicReference<PermitState> state = new AtomicReference<>();
 
     public TokenBucketLimiter(RateLimitPolicy limitPolicy, SlidingWindow slidingWindow) {
+        this(limitPolicy, slidingWindow, null);
+    }
+
+    public TokenBucketLimiter(RateLimitPolicy limitPolicy, SlidingWindow slidingWindow, Timer timer) {
         super(limitPolicy, TimeUnit.MILLISECONDS);
         this.stopwatch = SleepingStopwatch.createFromSystemTimer();
+        this.timer = timer;
         this.permitIntervalMicros = slidingWindow.getPermitIntervalMicros();
         initialize();
-        this.nextPermitMicros = stopwatch.readMicros();
-        this.storedPermits = maxStoredPermits;
+        this.state.set(new PermitState(maxStoredPermits, stopwatch.readMicros()));
     }
 
     @Override
@@ -75,6 +88,42 @@ public abstract class TokenBucketLimiter extends AbstractRateLimiter {
         return doAcquire(permits, startTimeMicros, timeoutMicros);
     }
 
+    @Override
+    protected CompletionStage<Boolean> doAcquireAsync(int permits, long timeout, TimeUnit timeUnit) {
+        long timeoutMicros = timeout <= 0 ? 0 : TimeUtils.toMicros(timeout, timeUnit);
+        long startTimeMicros = stopwatch.readMicros();
+        if (isTimeout(startTimeMicros, timeoutMicros) || isFull()) {
+            return REJECTED;
+        }
+        // without a timer, only the permits available now are acquired, so nothing is reserved for a rejection.
+        return doAcquireAsync(permits, startTimeMicros, timer == null ? 0 : timeoutMicros);
+    }
+
+    /**
+     * Attempts to acquire the specified number of permits without blocking the caller thread.
+     * If the permits are reserved in the future, the returned stage is completed by the timer when they are
+     * available. Without a timer, the acquisition which has to wait is rejected.
+     *
+     * @param permits         the number of permits to acquire
+     * @param startTimeMicros the request start time in microseconds.
+     * @param timeoutMicros   the maximum time to wait in microseconds
+     * @return a stage completed with true if the permits were acquired, false if the timeout expired
+     */
+    protected CompletionStage<Boolean> doAcquireAsync(int permits, long startTimeMicros, long timeoutMicros) {
+        long microsToWait = waitForRequiredPermits(permits, startTimeMicros, timeoutMicros);
+        if (microsToWait == TIMEOUT) {
+            return REJECTED;
+        } else if (microsToWait <= 0) {
+            return ACQUIRED;
+        } else if (timer == null) {
+            return REJECTED;
+        }
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        // rounds up to milliseconds, so the future is not completed before the permits are available.
+        timer.delay("rate-limit-wakeup", (microsToWait + 999) / 1000, () -> future.complete(true));
+        return future;
+    }
+
     /**
      * Attempts to acquire the specified number of permits,
      * waiting if necessary until the permits become available or the specified timeout expires.
@@ -85,14 +134,7 @@ public abstract class TokenBucketLimiter extends AbstractRateLimiter {
      * @return true if the permits were acquired, false if the timeout expired
      */
     protected boolean doAcquire(int permits, long startTimeMicros, long timeoutMicros) {
-        long microsToWait;
-        synchronized (mutex) {
-            // double check in lock
-            if (isTimeout(startTimeMicros, timeoutMicros) || isOver()) {
-                return false;
-            }
-            microsToWait = waitForRequiredPermits(permits, startTimeMicros, timeoutMicros);
-        }
+        long microsToWait = waitForRequiredPermits(permits, startTimeMicros, timeoutMicros);
         if (microsToWait == TIMEOUT) {
             return false;
         }
@@ -122,7 +164,7 @@ public abstract class TokenBucketLimiter extends AbstractRateLimiter {
      * @return true if the current time is before the timeout time, false otherwise
      */
     protected boolean isTimeout(long startTimeMicros, long timeoutMicros) {
-        return nextPermitMicros > startTimeMicros + timeoutMicros;
+        return state.get().nextPermitMicros > startTimeMicros + timeoutMicros;
     }
 
     /**
@@ -144,37 +186,56 @@ public abstract class TokenBucketLimiter extends AbstractRateLimiter {
     }
 
     /**
-     * Estimates the wait time required to acquire the specified number of permits.
+     * Reserves the specified number of permits and estimates the wait time required to acquire them.
+     * The state is updated by compare-and-set, and the estimation is retried if another thread wins the race.
      *
      * @param permits         The number of permits to acquire.
      * @param startTimeMicros The request start time in microseconds.
      * @param timeoutMicros   The timeout time in microseconds
-     * @return The estimated wait time in microseconds, or 0 if no wait is required.
+     * @return The estimated wait time in microseconds, 0 if no wait is required, or {@link #TIMEOUT} if the
+     * permits can not be acquired in time.
      */
     protected long waitForRequiredPermits(long permits, long startTimeMicros, long timeoutMicros) {
-        long nowMicros = stopwatch.readMicros();
-        refresh(nowMicros);
-
-        // 1. First, calculate the time needed to wait for the current request itself.
-        //    If the current time has already exceeded nextPermitMicros, there is no need to wait (wait = 0).
-        //    If the current time has not yet reached nextPermitMicros (which is a hole left by the previous request), then a wait is required.
-        long microsToSleep = max(0L, this.nextPermitMicros - nowMicros);
-
-        // 2. Check if there is a timeout
-        //    Only when the "debt of the ancestors" is too heavy, and the time I need to wait exceeds my Timeout, do I give up.
-        if (microsToSleep > timeoutMicros) {
-            return TIMEOUT;
-        }
+        PermitState current;
+        PermitState next;
+        long nowMicros;
+        long nextPermitMicros;
+        double storedPermits;
+        long microsToSleep;
+        do {
+            current = state.get();
+            // double check before reserving
+            if (current.nextPermitMicros > startTimeMicros + timeoutMicros || isOver()) {
+                return TIMEOUT;
+            }
+            nowMicros = stopwatch.readMicros();
+            nextPermitMicros = current.nextPermitMicros;
+            storedPermits = current.storedPermits;
+            if (nowMicros > nextPermitMicros) {
+                // refresh permits if nextPermitMicros is in the past.
+                storedPermits = refresh(storedPermits, nowMicros - nextPermitMicros);
+                nextPermitMicros = nowMicros;
+            }
 
-        // 3. Calculate the additional time cost of consuming the token for this request (this is the pit I'm leaving for posterity)
-        double available = min(permits, storedPermits);
-        double lack = permits - available;
-        long waitTimeMicros = waitForStorePermits(storedPermits, available) + (long) (lack * permitIntervalMicros);
+            // 1. First, calculate the time needed to wait for the current request itself.
+            //    If the current time has already exceeded nextPermitMicros, there is no need to wait (wait = 0).
+            //    If the current time has not yet reached nextPermitMicros (which is a hole left by the previous request), then a wait is required.
+            microsToSleep = max(0L, nextPermitMicros - nowMicros);
+
+            // 2. Check if there is a timeout
+            //    Only when the "debt of the ancestors" is too heavy, and the time I need to wait exceeds my Timeout, do I give up.
+            if (microsToSleep > timeoutMicros) {
+                return TIMEOUT;
+            }
 
-        // 4.Time to update next token available = current next time + cost incurred this time
-        this.nextPermitMicros = saturatedAdd(this.nextPermitMicros, waitTimeMicros);
+            // 3. Calculate the additional time cost of consuming the token for this request (this is the pit I'm leaving for posterity)
+            double available = min(permits, storedPermits);
+            double lack = permits - available;
+            long waitTimeMicros = waitForStorePermits(storedPermits, available) + (long) (lack * permitIntervalMicros);
 
-        storedPermits -= available;
+            // 4.Time to update next token available = current next time + cost incurred this time
+            next = new PermitState(storedPermits - available, saturatedAdd(nextPermitMicros, waitTimeMicros));
+        } while (!state.compareAndSet(current, next));
         return microsToSleep;
     }
 
@@ -197,18 +258,15 @@ public abstract class TokenBucketLimiter extends AbstractRateLimiter {
     }
 
     /**
-     * Refresh permits based on the current time.
+     * Refresh permits based on the elapsed time since the next permit time.
      *
-     * @param nowMicros the current time in microseconds
-     */
-    protected void refresh(long nowMicros) {
-        if (nowMicros > nextPermitMicros) {
-            // if nextTokenMicros is in the past.
-            double permits = (nowMicros - nextPermitMicros) / coolDownIntervalMicros();
-            permits = storedPermits + permits;
-            storedPermits = maxStoredPermits <= 0 ? permits : min(maxStoredPermits, permits);
-            nextPermitMicros = nowMicros;
-        }
+     * @param storedPermits the currently stored permits
+     * @param elapsedMicros the elapsed time in microseconds
+     * @return the refreshed stored permits
+     */
+    protected double refresh(double storedPermits, long elapsedMicros) {
+        double permits = storedPermits + elapsedMicros / coolDownIntervalMicros();
+        return maxStoredPermits <= 0 ? permits : min(maxStoredPermits, permits);
     }
 
     /**
@@ -238,4 +296,25 @@ public abstract class TokenBucketLimiter extends AbstractRateLimiter {
         // we did over/under flow, if the sign is negative we should return MAX otherwise MIN
         return Long.MAX_VALUE + ((naiveSum >>> (Long.SIZE - 1)) ^ 1);
     }
+
+    /**
+     * An immutable snapshot of the stored permits and the next permit time.
+     */
+    protected static final class PermitState {
+
+        /**
+         * The currently stored permits.
+         */
+        protected final double storedPermits;
+
+        /**
+         * The time in microseconds when the next permit is available.
+         */
+        protected final long nextPermitMicros;
+
+        protected PermitState(double storedPermits, long nextPermitMicros) {
+            this.storedPermits = storedPermits;
+            this.nextPermitMicros = nextPermitMicros;
+        }
+    }
 }
@@ -20,7 +20,6 @@ import com.jd.live.agent.core.instance.Application;
 import com.jd.live.agent.core.instance.Location;
 import com.jd.live.agent.core.util.CollectionUtils.Delta;
 import com.jd.live.agent.core.util.URI;
-import com.jd.live.agent.core.util.cache.Cache;
 import com.jd.live.agent.core.util.cache.MapCache;
 import com.jd.live.agent.core.util.cache.UnsafeLazyObject;
 import com.jd.live.agent.core.util.map.CaseInsensitiveMap;
@@ -90,13 +89,13 @@ public class GovernancePolicy implements LiveDatabaseSupervisor {
         return null;
     });
 
-    private final transient Cache<String, LiveSpace> liveSpaceCache = new MapCache<>(new ListBuilder<>(() -> liveSpaces, LiveSpace::getId));
+    private final transient MapCache<String, LiveSpace> liveSpaceCache = new MapCache<>(new ListBuilder<>(() -> liveSpaces, LiveSpace::getId));
 
-    private final transient Cache<String, LiveDatabaseSpec> databaseCache = new MapCache<>(new ListBuilder<>(() -> databaseSpecs, LiveDatabaseSpec::getId));
+    private final transient MapCache<String, LiveDatabaseSpec> databaseCache = new MapCache<>(new ListBuilder<>(() -> databaseSpecs, LiveDatabaseSpec::getId));
 
-    private final transient Cache<String, LaneSpace> laneSpaceCache = new MapCache<>(new ListBuilder<>(() -> laneSpaces, LaneSpace::getId));
+    private final transient MapCache<String, LaneSpace> laneSpaceCache = new MapCache<>(new ListBuilder<>(() -> laneSpaces, LaneSpace::getId));
 
-    private final transient Cache<String, Domain> domainCache = new MapCache<>(() -> {
+    private final transient MapCache<String, Domain> domainCache = new MapCache<>(() -> {
         // CaseInsensitiveMap
         Map<String, Domain> laneDomains = getLaneDomains();
         Map<String, Domain> liveDomains = getLiveDomains();
@@ -121,7 +120,7 @@ public class GovernancePolicy implements LiveDatabaseSupervisor {
         }
     });
 
-    private final transient Cache<String, Service> serviceCache = new MapCache<>(() -> {
+    private final transient MapCache<String, Service> serviceCache = new MapCache<>(() -> {
         int size = services == null ? 0 : services.size();
         Map<String, Service> result = new CaseInsensitiveMap<>(size);
         if (services != null) {
@@ -133,6 +132,13 @@ public class GovernancePolicy implements LiveDatabaseSupervisor {
         return result;
     });
 
+    /**
+     * The cached policy which this policy is copied from. The caches of its unchanged parts are reused by {@link #cache()}.
+     */
+    private transient GovernancePolicy origin;
+
+    private transient volatile boolean cached;
+
     /**
      * Default constructor for GovernancePolicy.
      */
@@ -331,9 +337,33 @@ public class GovernancePolicy implements LiveDatabaseSupervisor {
      * Populates the caches with initial values.
      * <p>
      * This method should be called to populate the caches after initialization or when the underlying data changes.
+     * If this policy is copied from a cached policy, the caches of the lists which are not replaced are shared,
+     * and only the services which are merged since their last caching are cached again.
      * </p>
      */
     public void cache() {
+        GovernancePolicy last = origin;
+        origin = null;
+        boolean liveSpaceReused = last != null && last.liveSpaces == liveSpaces;
+        boolean databaseReused = last != null && last.databaseSpecs == databaseSpecs;
+        boolean laneSpaceReused = last != null && last.laneSpaces == laneSpaces;
+        if (last != null) {
+            if (liveSpaceReused) {
+                liveSpaceCache.share(last.liveSpaceCache);
+            }
+            if (databaseReused) {
+                databaseCache.share(last.databaseCache);
+            }
+            if (laneSpaceReused) {
+                laneSpaceCache.share(last.laneSpaceCache);
+            }
+            if (liveSpaceReused && laneSpaceReused) {
+                domainCache.share(last.domainCache);
+            }
+            if (last.services == services) {
+                serviceCache.share(last.serviceCache);
+            }
+        }
         getLiveSpace("");
         getLiveDatabaseSpec("");
         getLaneSpace("");
@@ -341,18 +371,23 @@ public class GovernancePolicy implements LiveDatabaseSupervisor {
         getService("");
         getDefaultLaneSpace();
 
-        if (liveSpaces != null) {
+        if (liveSpaces != null && !liveSpaceReused) {
             liveSpaces.forEach(LiveSpace::cache);
         }
-        if (databaseSpecs != null) {
+        if (databaseSpecs != null && !databaseReused) {
             databaseSpecs.forEach(LiveDatabaseSpec::cache);
         }
-        if (laneSpaces != null) {
+        if (laneSpaces != null && !laneSpaceReused) {
             laneSpaces.forEach(LaneSpace::cache);
         }
         if (services != null) {
-            services.forEach(Service::cache);
+            for (Service service : services) {
+                if (!service.isCached()) {
+                    service.cache();
+                }
+            }
         }
+        cached = true;
     }
 
     /**
@@ -409,6 +444,7 @@ public class GovernancePolicy implements LiveDatabaseSupervisor {
      * Creates a copy of this {@link GovernancePolicy} instance.
      * <p>
      * This method is used for synchronization purposes, where the caches are not copied as they are considered transient.
+     * If this policy is cached, the copy remembers it to reuse the caches of the unchanged parts in {@link #cache()}.
      * </p>
      *
      * @return A shallow copy of this {@link GovernancePolicy} instance.
@@ -420,6 +456,7 @@ public class GovernancePolicy implements LiveDatabaseSupervisor {
         result.laneSpaces = laneSpaces;
         result.services = services;
         result.databaseSpecs = databaseSpecs;
+        result.origin = cached ? this : null;
         return result;
     }
 
@@ -404,7 +404,7 @@ public class PolicyManager implements PolicySupervisor, InjectSourceSupplier, Ex
         subdomainEnabled = (laneEnabled || liveEnabled) && governanceConfig.isSubdomainEnabled();
         microserviceTransformEnabled = governanceConfig.getRegistryConfig().getHostConfig().isEnabled() && flowControlEnabled;
 
-        counterManager = new InternalCounterManager(timer);
+        counterManager = new InternalCounterManager(timer, governanceConfig.getServiceConfig().getCounter());
         propagation = buildPropagation();
         dbConnectionSupervisor = new DbConnectionManager(this, application.getLocation(), timer);
         systemPublisher.addHandler(events -> {
@@ -92,6 +92,12 @@ public class Service extends PolicyOwner implements ServiceName {
 
     private transient final Cache<String, AuthPolicy> authPolicyCache = new MapCache<>(new ListBuilder<>(() -> authPolicies, AuthPolicy::getApplication));
 
+    /**
+     * Whether the service is cached and not merged since then.
+     */
+    @Getter
+    private transient volatile boolean cached;
+
     public Service() {
     }
 
@@ -251,6 +257,7 @@ public class Service extends PolicyOwner implements ServiceName {
             authPolicies.forEach(AuthPolicy::cache);
         }
         authPolicyCache.get("");
+        cached = true;
     }
 
     /**
@@ -296,12 +303,14 @@ public class Service extends PolicyOwner implements ServiceName {
 
     @Override
     protected void onAdd(PolicyMerger merger, String owner) {
+        cached = false;
         merger.onAdd(this);
         super.onAdd(merger, owner);
     }
 
     @Override
     protected boolean onDelete(PolicyMerger merger, String owner) {
+        cached = false;
         merger.onDelete(this);
         return super.onDelete(merger, owner);
     }
@@ -313,6 +322,7 @@ public class Service extends PolicyOwner implements ServiceName {
      * @param owner Owner of the service
      */
     protected void onUpdate(Service newService, PolicyMerger merger, String owner) {
+        cached = false;
         merger.onUpdate(this, newService);
         owners.addOwner(owner);
         List<ServiceGroup> newGroups = new ArrayList<>();
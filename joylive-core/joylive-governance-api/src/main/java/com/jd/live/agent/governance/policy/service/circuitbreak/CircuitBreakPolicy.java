@@ -16,6 +16,7 @@
 package com.jd.live.agent.governance.policy.service.circuitbreak;
 
 import com.jd.live.agent.governance.exception.ErrorPolicy;
+import com.jd.live.agent.governance.invoke.circuitbreak.CircuitBreaker;
 import com.jd.live.agent.governance.policy.PolicyId;
 import com.jd.live.agent.governance.policy.PolicyInherit;
 import com.jd.live.agent.governance.policy.PolicyVersion;
@@ -51,6 +52,16 @@ public class CircuitBreakPolicy extends PolicyId
     public static final int DEFAULT_MAX_WAIT_DURATION_IN_HALF_OPEN_STATE = 0;
     public static final int DEFAULT_RECOVER_PHASE = 10;
 
+    /**
+     * Maximum number of apis whose circuit breakers are cached by the policy
+     */
+    private static final int MAX_API_BREAKERS = 1024;
+
+    /**
+     * Cache key of the api without method, which is distinguished from an empty method
+     */
+    private static final String NULL_METHOD = "\u0000";
+
     /**
      * Name of this policy
      */
@@ -207,6 +218,16 @@ public class CircuitBreakPolicy extends PolicyId
      */
     private transient Map<String, CircuitBreakInspector> inspectors = new ConcurrentHashMap<>();
 
+    /**
+     * Circuit breaker resolved for the service level
+     */
+    private transient volatile CircuitBreaker breaker;
+
+    /**
+     * Circuit breakers resolved for the api level, keyed by path and method
+     */
+    private transient Map<String, Map<String, CircuitBreaker>> apiBreakers = new ConcurrentHashMap<>();
+
     public CircuitBreakPolicy() {
     }
 
@@ -445,6 +466,72 @@ public class CircuitBreakPolicy extends PolicyId
         }
     }
 
+    /**
+     * Returns the cached service level circuit breaker of this policy.
+     *
+     * @return the circuit breaker, or null if it is not cached, closed or bound to another policy
+     */
+    public CircuitBreaker getBreaker() {
+        CircuitBreaker result = breaker;
+        return isAvailable(result) ? result : null;
+    }
+
+    /**
+     * Caches the service level circuit breaker of this policy.
+     *
+     * @param breaker the circuit breaker resolved for this policy
+     */
+    public void putBreaker(CircuitBreaker breaker) {
+        if (breaker != null) {
+            this.breaker = breaker;
+        }
+    }
+
+    /**
+     * Returns the cached api level circuit breaker of this policy.
+     *
+     * @param path   the api path
+     * @param method the api method
+     * @return the circuit breaker, or null if it is not cached, closed or bound to another policy
+     */
+    public CircuitBreaker getBreaker(String path, String method) {
+        Map<String, CircuitBreaker> breakers = apiBreakers.get(path == null ? "" : path);
+        CircuitBreaker result = breakers == null ? null : breakers.get(method == null ? NULL_METHOD : method);
+        return isAvailable(result) ? result : null;
+    }
+
+    /**
+     * Caches the api level circuit breaker of this policy.
+     * The number of cached apis is bounded, apis beyond the limit are resolved on every call.
+     *
+     * @param path    the api path
+     * @param method  the api method
+     * @param breaker the circuit breaker resolved for this policy
+     */
+    public void putBreaker(String path, String method, CircuitBreaker breaker) {
+        if (breaker != null) {
+            path = path == null ? "" : path;
+            Map<String, CircuitBreaker> breakers = apiBreakers.get(path);
+            if (breakers == null) {
+                if (apiBreakers.size() >= MAX_API_BREAKERS) {
+                    return;
+                }
+                breakers = apiBreakers.computeIfAbsent(path, k -> new ConcurrentHashMap<>());
+            }
+            breakers.put(method == null ? NULL_METHOD : method, breaker);
+        }
+    }
+
+    /**
+     * Checks if the cached circuit breaker can still be used by this policy.
+     *
+     * @param breaker the cached circuit breaker
+     * @return true if the breaker is neither recycled nor exchanged to another policy
+     */
+    private boolean isAvailable(CircuitBreaker breaker) {
+        return breaker != null && !breaker.isClosed() && breaker.getPolicy() == this;
+    }
+
     /**
      * Exchanges the current policy of the circuit breaker with the specified policy
      * if the new policy is not null, not the same as the current policy, and has the same version.
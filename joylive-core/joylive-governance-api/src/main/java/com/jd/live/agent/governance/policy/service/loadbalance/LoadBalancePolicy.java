@@ -15,11 +15,14 @@
  */
 package com.jd.live.agent.governance.policy.service.loadbalance;
 
+import com.jd.live.agent.core.util.StripedSequence;
+import com.jd.live.agent.core.util.cache.LazyObject;
 import com.jd.live.agent.governance.policy.PolicyInherit.PolicyInheritWithId;
 import com.jd.live.agent.governance.policy.service.annotation.Consumer;
 import com.jd.live.agent.governance.request.ServiceRequest;
 import com.jd.live.agent.governance.request.StickySession;
 import com.jd.live.agent.governance.request.StickySessionFactory;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -67,6 +70,13 @@ public class LoadBalancePolicy implements PolicyInheritWithId<LoadBalancePolicy>
 
     private transient String stickyId;
 
+    /**
+     * The round-robin sequence scoped to this policy.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final transient LazyObject<StripedSequence> sequence = new LazyObject<>(StripedSequence::new);
+
     /**
      * Constructs a new, empty {@code LoadBalancePolicy}.
      */
@@ -108,5 +118,14 @@ public class LoadBalancePolicy implements PolicyInheritWithId<LoadBalancePolicy>
     public StickySession getStickySession(ServiceRequest request) {
         return this;
     }
+
+    /**
+     * Gets the next round-robin sequence of this policy.
+     *
+     * @return the non-negative sequence
+     */
+    public long nextSequence() {
+        return sequence.get().next();
+    }
 }
 
@@ -0,0 +1,494 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.registry;
+
+import lombok.Getter;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * An immutable set of endpoints keyed by address.
+ * <p>
+ * The set is a persistent hash array mapped trie, {@link #put(ServiceEndpoint)} and {@link #remove(String)}
+ * copy only the path to the changed entry and share the rest with the original set. Each modification
+ * increases the version, and {@link #diff(EndpointSet, EndpointSet)} skips the shared sub-tries,
+ * so applying a delta and computing its changes costs O(log n) instead of copying all endpoints.
+ * Endpoints are compared by {@link Object#equals(Object)}, an equal endpoint does not replace the existing one.
+ */
+public final class EndpointSet implements Iterable<ServiceEndpoint> {
+
+    /**
+     * An empty endpoint set.
+     */
+    public static final EndpointSet EMPTY = new EndpointSet(null, 0, 0);
+
+    private static final int BITS = 5;
+
+    private static final int MASK = (1 << BITS) - 1;
+
+    private final Node root;
+
+    private final int size;
+
+    @Getter
+    private final long version;
+
+    private volatile List<ServiceEndpoint> list;
+
+    private EndpointSet(Node root, int size, long version) {
+        this.root = root;
+        this.size = size;
+        this.version = version;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the endpoint with the specified address.
+     *
+     * @param address the endpoint address
+     * @return the endpoint, or null if it does not exist
+     */
+    public ServiceEndpoint get(String address) {
+        return root == null || address == null ? null : root.get(hash(address), address, 0);
+    }
+
+    /**
+     * Returns a set which contains the specified endpoint, replacing the endpoint with the same address.
+     *
+     * @param endpoint the endpoint to add
+     * @return the new set, or this set if the endpoint or an equal one is already in it
+     */
+    public EndpointSet put(ServiceEndpoint endpoint) {
+        String address = endpoint == null ? null : endpoint.getAddress();
+        if (address == null) {
+            return this;
+        }
+        Entry entry = new Entry(hash(address), address, endpoint);
+        if (root == null) {
+            return new EndpointSet(new BitmapNode(bit(entry.hash, 0), new Object[]{entry}), 1, version + 1);
+        }
+        Change change = new Change();
+        Node node = root.put(entry, 0, change);
+        return node == root ? this : new EndpointSet(node, change.added ? size + 1 : size, version + 1);
+    }
+
+    /**
+     * Returns a set without the endpoint of the specified address.
+     *
+     * @param address the endpoint address
+     * @return the new set, or this set if the address does not exist
+     */
+    public EndpointSet remove(String address) {
+        if (root == null || address == null) {
+            return this;
+        }
+        Node node = root.remove(hash(address), address, 0);
+        return node == root ? this : new EndpointSet(node, size - 1, version + 1);
+    }
+
+    /**
+     * Returns a set with exactly the specified endpoints, the first endpoint wins for duplicated addresses.
+     * The set is built by applying the changes to this set, so the unchanged endpoints and sub-tries are shared.
+     *
+     * @param endpoints the endpoints
+     * @return the new set, or this set if the endpoints are not changed
+     */
+    public EndpointSet update(Collection<ServiceEndpoint> endpoints) {
+        if (endpoints == null || endpoints.isEmpty()) {
+            return root == null ? this : new EndpointSet(null, 0, version + 1);
+        }
+        Set<String> addresses = new HashSet<>(endpoints.size());
+        EndpointSet result = this;
+        for (ServiceEndpoint endpoint : endpoints) {
+            if (endpoint != null && endpoint.getAddress() != null && addresses.add(endpoint.getAddress())) {
+                result = result.put(endpoint);
+            }
+        }
+        if (result.size > addresses.size() && root != null) {
+            List<String> removes = new ArrayList<>(result.size - addresses.size());
+            root.entries(e -> {
+                if (!addresses.contains(e.key)) {
+                    removes.add(e.key);
+                }
+            });
+            for (String address : removes) {
+                result = result.remove(address);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the endpoints as a list. The list is created once per set and shared by the callers.
+     *
+     * @return the list of endpoints
+     */
+    public List<ServiceEndpoint> toList() {
+        List<ServiceEndpoint> result = list;
+        if (result == null) {
+            result = new ArrayList<>(size);
+            if (root != null) {
+                root.collect(result);
+            }
+            list = result;
+        }
+        return result;
+    }
+
+    @Override
+    public Iterator<ServiceEndpoint> iterator() {
+        return toList().iterator();
+    }
+
+    @Override
+    public void forEach(Consumer<? super ServiceEndpoint> action) {
+        if (root != null) {
+            root.forEach(action);
+        }
+    }
+
+    /**
+     * Computes the changes between two sets, sub-tries shared by both sets are skipped.
+     *
+     * @param older the older set, null is treated as empty
+     * @param newer the newer set, null is treated as empty
+     * @return the changes from the older set to the newer set
+     */
+    public static EndpointDiff diff(EndpointSet older, EndpointSet newer) {
+        EndpointDiff result = new EndpointDiff();
+        Node oldRoot = older == null ? null : older.root;
+        Node newRoot = newer == null ? null : newer.root;
+        diff(oldRoot, newRoot, result);
+        return result;
+    }
+
+    /**
+     * Creates a set with the specified endpoints, the first endpoint wins for duplicated addresses.
+     *
+     * @param endpoints the endpoints
+     * @return the endpoint set
+     */
+    public static EndpointSet of(Collection<ServiceEndpoint> endpoints) {
+        return EMPTY.update(endpoints);
+    }
+
+    private static void diff(Object older, Object newer, EndpointDiff diff) {
+        if (older == newer) {
+            return;
+        }
+        if (older instanceof BitmapNode && newer instanceof BitmapNode) {
+            BitmapNode o = (BitmapNode) older;
+            BitmapNode n = (BitmapNode) newer;
+            int bitmap = o.bitmap | n.bitmap;
+            while (bitmap != 0) {
+                int bit = Integer.lowestOneBit(bitmap);
+                bitmap &= ~bit;
+                diff(o.slot(bit), n.slot(bit), diff);
+            }
+        } else if (older instanceof Entry && newer instanceof Entry && ((Entry) older).key.equals(((Entry) newer).key)) {
+            if (!isSame(((Entry) older).endpoint, ((Entry) newer).endpoint)) {
+                diff.getUpdated().add(((Entry) newer).endpoint);
+            }
+        } else {
+            Map<String, ServiceEndpoint> olds = new HashMap<>();
+            visit(older, e -> olds.put(e.key, e.endpoint));
+            visit(newer, e -> {
+                ServiceEndpoint old = olds.remove(e.key);
+                if (old == null) {
+                    diff.getAdded().add(e.endpoint);
+                } else if (!isSame(old, e.endpoint)) {
+                    diff.getUpdated().add(e.endpoint);
+                }
+            });
+            diff.getRemoved().addAll(olds.values());
+        }
+    }
+
+    private static void visit(Object slot, Consumer<Entry> consumer) {
+        if (slot instanceof Entry) {
+            consumer.accept((Entry) slot);
+        } else if (slot instanceof Node) {
+            ((Node) slot).entries(consumer);
+        }
+    }
+
+    private static boolean isSame(ServiceEndpoint older, ServiceEndpoint newer) {
+        return older == newer || older != null && older.equals(newer);
+    }
+
+    private static int hash(String address) {
+        int h = address.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private static Node merge(Entry a, Entry b, int shift) {
+        if (shift >= Integer.SIZE) {
+            return new CollisionNode(a.hash, new Entry[]{a, b});
+        }
+        int bitA = bit(a.hash, shift);
+        int bitB = bit(b.hash, shift);
+        if (bitA == bitB) {
+            return new BitmapNode(bitA, new Object[]{merge(a, b, shift + BITS)});
+        }
+        return new BitmapNode(bitA | bitB, Integer.compareUnsigned(bitA, bitB) < 0 ? new Object[]{a, b} : new Object[]{b, a});
+    }
+
+    /**
+     * The changes between two endpoint sets.
+     */
+    @Getter
+    public static class EndpointDiff {
+
+        private final List<ServiceEndpoint> added = new ArrayList<>();
+
+        private final List<ServiceEndpoint> updated = new ArrayList<>();
+
+        private final List<ServiceEndpoint> removed = new ArrayList<>();
+
+        public boolean isEmpty() {
+            return added.isEmpty() && updated.isEmpty() && removed.isEmpty();
+        }
+    }
+
+    private static class Change {
+
+        private boolean added;
+    }
+
+    private static class Entry {
+
+        private final int hash;
+
+        private final String key;
+
+        private final ServiceEndpoint endpoint;
+
+        Entry(int hash, String key, ServiceEndpoint endpoint) {
+            this.hash = hash;
+            this.key = key;
+            this.endpoint = endpoint;
+        }
+    }
+
+    private abstract static class Node {
+
+        abstract ServiceEndpoint get(int hash, String key, int shift);
+
+        abstract Node put(Entry entry, int shift, Change change);
+
+        /**
+         * Removes the entry of the key.
+         *
+         * @return the new node, this node if the key does not exist, or null if the node becomes empty
+         */
+        abstract Node remove(int hash, String key, int shift);
+
+        abstract void entries(Consumer<Entry> consumer);
+
+        void collect(List<ServiceEndpoint> endpoints) {
+            entries(e -> endpoints.add(e.endpoint));
+        }
+
+        void forEach(Consumer<? super ServiceEndpoint> action) {
+            entries(e -> action.accept(e.endpoint));
+        }
+    }
+
+    private static class BitmapNode extends Node {
+
+        private final int bitmap;
+
+        private final Object[] slots;
+
+        BitmapNode(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        Object slot(int bit) {
+            return (bitmap & bit) == 0 ? null : slots[index(bit)];
+        }
+
+        @Override
+        ServiceEndpoint get(int hash, String key, int shift) {
+            Object slot = slot(bit(hash, shift));
+            if (slot instanceof Entry) {
+                Entry entry = (Entry) slot;
+                return entry.key.equals(key) ? entry.endpoint : null;
+            }
+            return slot == null ? null : ((Node) slot).get(hash, key, shift + BITS);
+        }
+
+        @Override
+        Node put(Entry entry, int shift, Change change) {
+            int bit = bit(entry.hash, shift);
+            int index = index(bit);
+            if ((bitmap & bit) == 0) {
+                change.added = true;
+                Object[] values = new Object[slots.length + 1];
+                System.arraycopy(slots, 0, values, 0, index);
+                values[index] = entry;
+                System.arraycopy(slots, index, values, index + 1, slots.length - index);
+                return new BitmapNode(bitmap | bit, values);
+            }
+            Object slot = slots[index];
+            Object value;
+            if (slot instanceof Entry) {
+                Entry old = (Entry) slot;
+                if (!old.key.equals(entry.key)) {
+                    change.added = true;
+                    value = merge(old, entry, shift + BITS);
+                } else if (isSame(old.endpoint, entry.endpoint)) {
+                    return this;
+                } else {
+                    value = entry;
+                }
+            } else {
+                Node node = (Node) slot;
+                value = node.put(entry, shift + BITS, change);
+                if (value == node) {
+                    return this;
+                }
+            }
+            return replace(index, value);
+        }
+
+        @Override
+        Node remove(int hash, String key, int shift) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int index = index(bit);
+            Object slot = slots[index];
+            Object value;
+            if (slot instanceof Entry) {
+                if (!((Entry) slot).key.equals(key)) {
+                    return this;
+                }
+                value = null;
+            } else {
+                Node node = (Node) slot;
+                value = node.remove(hash, key, shift + BITS);
+                if (value == node) {
+                    return this;
+                }
+            }
+            if (value != null) {
+                return replace(index, value);
+            } else if (slots.length == 1) {
+                return null;
+            }
+            Object[] values = new Object[slots.length - 1];
+            System.arraycopy(slots, 0, values, 0, index);
+            System.arraycopy(slots, index + 1, values, index, values.length - index);
+            return new BitmapNode(bitmap & ~bit, values);
+        }
+
+        @Override
+        void entries(Consumer<Entry> consumer) {
+            for (Object slot : slots) {
+                visit(slot, consumer);
+            }
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        private BitmapNode replace(int index, Object value) {
+            Object[] values = slots.clone();
+            values[index] = value;
+            return new BitmapNode(bitmap, values);
+        }
+    }
+
+    private static class CollisionNode extends Node {
+
+        private final int hash;
+
+        private final Entry[] entries;
+
+        CollisionNode(int hash, Entry[] entries) {
+            this.hash = hash;
+            this.entries = entries;
+        }
+
+        @Override
+        ServiceEndpoint get(int hash, String key, int shift) {
+            int index = indexOf(key);
+            return index < 0 ? null : entries[index].endpoint;
+        }
+
+        @Override
+        Node put(Entry entry, int shift, Change change) {
+            int index = indexOf(entry.key);
+            if (index < 0) {
+                change.added = true;
+                Entry[] values = Arrays.copyOf(entries, entries.length + 1);
+                values[entries.length] = entry;
+                return new CollisionNode(hash, values);
+            } else if (isSame(entries[index].endpoint, entry.endpoint)) {
+                return this;
+            }
+            Entry[] values = entries.clone();
+            values[index] = entry;
+            return new CollisionNode(hash, values);
+        }
+
+        @Override
+        Node remove(int hash, String key, int shift) {
+            int index = indexOf(key);
+            if (index < 0) {
+                return this;
+            } else if (entries.length == 1) {
+                return null;
+            }
+            Entry[] values = new Entry[entries.length - 1];
+            System.arraycopy(entries, 0, values, 0, index);
+            System.arraycopy(entries, index + 1, values, index, values.length - index);
+            return new CollisionNode(hash, values);
+        }
+
+        @Override
+        void entries(Consumer<Entry> consumer) {
+            for (Entry entry : entries) {
+                consumer.accept(entry);
+            }
+        }
+
+        private int indexOf(String key) {
+            for (int i = 0; i < entries.length; i++) {
+                if (entries[i].key.equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
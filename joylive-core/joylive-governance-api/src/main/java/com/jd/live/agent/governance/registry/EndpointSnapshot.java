@@ -0,0 +1,234 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.registry;
+
+import com.jd.live.agent.governance.instance.EndpointState;
+
+import java.io.*;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * A compact binary snapshot of the subscribed endpoints, keyed by the unique name of the service.
+ * <p>
+ * The file starts with a header of magic, format version, timestamp, payload length and the CRC32
+ * of the payload. It is written to a temporary file and moved into place, and read into a heap buffer,
+ * so the file is not held by a mapping when it is replaced. A snapshot with an unknown format, a wrong
+ * length or checksum is ignored.
+ * Each service carries the time when its endpoints were last live, so the endpoints which are carried over
+ * from an earlier snapshot can expire on their own.
+ */
+public class EndpointSnapshot {
+
+    private static final int MAGIC = 0x4A4C5253;
+
+    private static final short VERSION = 2;
+
+    private static final int HEADER_SIZE = 4 + 2 + 8 + 4 + 4;
+
+    private static final int NULL = -1;
+
+    private final long timestamp;
+
+    private final Map<String, EndpointSet> services;
+
+    private final Map<String, Long> timestamps;
+
+    public EndpointSnapshot(long timestamp, Map<String, EndpointSet> services) {
+        this(timestamp, services, null);
+    }
+
+    public EndpointSnapshot(long timestamp, Map<String, EndpointSet> services, Map<String, Long> timestamps) {
+        this.timestamp = timestamp;
+        this.services = services;
+        this.timestamps = timestamps;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Map<String, EndpointSet> getServices() {
+        return services;
+    }
+
+    /**
+     * Returns the time when the endpoints of the service were last live.
+     *
+     * @param service the unique name of the service
+     * @return the timestamp of the service, or the timestamp of the snapshot if it is unknown
+     */
+    public long getTimestamp(String service) {
+        Long result = timestamps == null ? null : timestamps.get(service);
+        return result == null ? timestamp : result;
+    }
+
+    /**
+     * Writes the snapshot to the file atomically.
+     *
+     * @param file the snapshot file
+     * @throws IOException if an I/O error occurs
+     */
+    public void write(File file) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(4096);
+        DataOutputStream out = new DataOutputStream(bos);
+        out.writeInt(services.size());
+        for (Map.Entry<String, EndpointSet> entry : services.entrySet()) {
+            writeString(out, entry.getKey());
+            out.writeLong(getTimestamp(entry.getKey()));
+            out.writeInt(entry.getValue().size());
+            for (ServiceEndpoint endpoint : entry.getValue()) {
+                writeEndpoint(out, endpoint);
+            }
+        }
+        out.flush();
+        byte[] payload = bos.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putShort(VERSION).putLong(timestamp).putInt(payload.length).putInt((int) crc.getValue());
+
+        File dir = file.getParentFile();
+        if (dir != null && !dir.exists()) {
+            dir.mkdirs();
+        }
+        File temp = new File(dir, file.getName() + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(temp)) {
+            fos.write(header.array());
+            fos.write(payload);
+            fos.getFD().sync();
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the snapshot from the file.
+     *
+     * @param file the snapshot file
+     * @return the snapshot, or null if the file does not exist or is not a valid snapshot
+     * @throws IOException if an I/O error occurs
+     */
+    public static EndpointSnapshot read(File file) throws IOException {
+        if (file == null || !file.isFile() || file.length() < HEADER_SIZE) {
+            return null;
+        }
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            if (buffer.getInt() != MAGIC) {
+                return null;
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                return null;
+            }
+            long timestamp = buffer.getLong();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length != buffer.remaining()) {
+                return null;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(bytes, HEADER_SIZE, length);
+            if ((int) crc.getValue() != checksum) {
+                return null;
+            }
+            int count = buffer.getInt();
+            Map<String, EndpointSet> services = new HashMap<>(count * 4 / 3 + 1);
+            Map<String, Long> timestamps = new HashMap<>(count * 4 / 3 + 1);
+            for (int i = 0; i < count; i++) {
+                String name = readString(buffer);
+                timestamps.put(name, buffer.getLong());
+                int size = buffer.getInt();
+                EndpointSet endpoints = EndpointSet.EMPTY;
+                for (int j = 0; j < size; j++) {
+                    endpoints = endpoints.put(readEndpoint(buffer));
+                }
+                services.put(name, endpoints);
+            }
+            return new EndpointSnapshot(timestamp, services, timestamps);
+        } catch (RuntimeException e) {
+            throw new IOException("Failed to read snapshot " + file.getPath() + ", caused by " + e.getMessage(), e);
+        }
+    }
+
+    private static void writeEndpoint(DataOutputStream out, ServiceEndpoint endpoint) throws IOException {
+        URI uri = endpoint.getUri();
+        EndpointState state = endpoint.getState();
+        Map<String, String> metadata = endpoint.getMetadata();
+        writeString(out, endpoint.getService());
+        writeString(out, endpoint.getGroup());
+        out.writeBoolean(endpoint.isSecure());
+        writeString(out, endpoint.getHost());
+        out.writeInt(endpoint.getPort());
+        writeString(out, uri == null ? null : uri.toString());
+        writeString(out, state == null ? null : state.name());
+        out.writeInt(metadata == null ? NULL : metadata.size());
+        if (metadata != null) {
+            for (Map.Entry<String, String> entry : metadata.entrySet()) {
+                writeString(out, entry.getKey());
+                writeString(out, entry.getValue());
+            }
+        }
+    }
+
+    private static ServiceEndpoint readEndpoint(ByteBuffer buffer) {
+        String service = readString(buffer);
+        String group = readString(buffer);
+        boolean secure = buffer.get() != 0;
+        String host = readString(buffer);
+        int port = buffer.getInt();
+        String uri = readString(buffer);
+        String state = readString(buffer);
+        int size = buffer.getInt();
+        Map<String, String> metadata = null;
+        if (size >= 0) {
+            metadata = new HashMap<>(size * 4 / 3 + 1);
+            for (int i = 0; i < size; i++) {
+                metadata.put(readString(buffer), readString(buffer));
+            }
+        }
+        return new SnapshotEndpoint(service, group, secure, host, port,
+                uri == null ? null : URI.create(uri), metadata, state == null ? null : EndpointState.valueOf(state));
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -19,6 +19,7 @@ import com.jd.live.agent.bootstrap.logger.Logger;
 import com.jd.live.agent.bootstrap.logger.LoggerFactory;
 import com.jd.live.agent.core.bootstrap.*;
 import com.jd.live.agent.core.bootstrap.AppListener.AppListenerAdapter;
+import com.jd.live.agent.core.config.AgentPath;
 import com.jd.live.agent.core.event.AgentEvent;
 import com.jd.live.agent.core.event.Publisher;
 import com.jd.live.agent.core.extension.ExtensionInitializer;
@@ -30,6 +31,7 @@ import com.jd.live.agent.core.inject.annotation.Injectable;
 import com.jd.live.agent.core.instance.AppService;
 import com.jd.live.agent.core.instance.Application;
 import com.jd.live.agent.core.service.AbstractService;
+import com.jd.live.agent.core.thread.NamedThreadFactory;
 import com.jd.live.agent.core.util.Close;
 import com.jd.live.agent.core.util.map.CaseInsensitiveConcurrentMap;
 import com.jd.live.agent.core.util.option.AppEnvironmentOption;
@@ -41,14 +43,16 @@ import com.jd.live.agent.governance.config.*;
 import com.jd.live.agent.governance.counter.FlyingCounter;
 import com.jd.live.agent.governance.exception.RegistryException;
 import com.jd.live.agent.governance.policy.PolicySupplier;
+import com.jd.live.agent.governance.registry.EndpointSet.EndpointDiff;
 import com.jd.live.agent.governance.registry.RegistryService.AbstractSystemRegistryService;
 import lombok.Getter;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 import static com.jd.live.agent.core.Constants.SAME_GROUP_PREDICATE;
@@ -89,6 +93,9 @@ public class LiveRegistry extends AbstractService
     @Inject(PolicySupplier.COMPONENT_POLICY_SUPPLIER)
     private PolicySupplier policySupplier;
 
+    @Inject(value = AgentPath.COMPONENT_AGENT_PATH, nullable = true)
+    private AgentPath agentPath;
+
     @Inject
     private Map<String, RegistryFactory> factories;
 
@@ -121,11 +128,25 @@ public class LiveRegistry extends AbstractService
 
     private final AtomicBoolean ready = new AtomicBoolean(false);
 
+    // endpoints restored from the local snapshot, which are not subscribed yet
+    private final Map<String, EndpointSet> snapshots = new ConcurrentHashMap<>();
+
+    // the time when the restored endpoints were last live
+    private final Map<String, Long> snapshotTimes = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean snapshotting = new AtomicBoolean(false);
+
+    private File snapshotFile;
+
+    // writes the snapshot file, so that the fsync does not block the shared timer
+    private ExecutorService snapshotExecutor;
+
     @Override
     public void initialize() {
         flyingCounter = policySupplier.getCounterManager().getFlyingCounter();
         serviceConfig = governanceConfig.getServiceConfig();
         registryConfig = governanceConfig.getRegistryConfig();
+        loadSnapshot();
     }
 
     @Override
@@ -154,6 +175,9 @@ public class LiveRegistry extends AbstractService
             // stop registries
             Close.instance().closeAndClear(registrations).closeAndClear(subscriptions).close(registries);
             registries = null;
+            if (snapshotExecutor != null) {
+                snapshotExecutor.shutdown();
+            }
             future.complete(null);
         });
 
@@ -569,7 +593,102 @@ public class LiveRegistry extends AbstractService
             systems.forEach(registry -> values.add(new ClusterSubscription(registry, serviceId)));
         }
         sort(values);
-        return new Subscription(serviceId, values, timer);
+        Subscription subscription = new Subscription(serviceId, values, timer, registryConfig, this::addSnapshotTask);
+        snapshotTimes.remove(serviceId.getUniqueName());
+        EndpointSet snapshot = snapshots.remove(serviceId.getUniqueName());
+        if (snapshot != null) {
+            subscription.restore(snapshot);
+        }
+        return subscription;
+    }
+
+    /**
+     * Loads the endpoints of the local snapshot, they are served as stale endpoints until the live data arrives.
+     */
+    private void loadSnapshot() {
+        if (registryConfig == null || !registryConfig.isSnapshotEnabled() || agentPath == null) {
+            return;
+        }
+        String name = application == null ? null : application.getName();
+        name = isEmpty(name) ? "application" : name.replaceAll("[^a-zA-Z0-9._-]", "_");
+        snapshotFile = new File(new File(agentPath.getOutputPath(), AgentPath.DIR_REGISTRY), name + ".snapshot");
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new NamedThreadFactory("LiveAgent-registry-snapshot", true));
+        executor.allowCoreThreadTimeOut(true);
+        snapshotExecutor = executor;
+        try {
+            EndpointSnapshot snapshot = EndpointSnapshot.read(snapshotFile);
+            if (snapshot == null) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            if (now - snapshot.getTimestamp() > registryConfig.getSnapshotExpireTime()) {
+                logger.info("Ignore expired registry snapshot {}", snapshotFile.getPath());
+                return;
+            }
+            snapshot.getServices().forEach((service, endpoints) -> {
+                long timestamp = snapshot.getTimestamp(service);
+                if (now - timestamp <= registryConfig.getSnapshotExpireTime()) {
+                    snapshotTimes.put(service, timestamp);
+                    snapshots.put(service, endpoints);
+                }
+            });
+            logger.info("Load {} services from registry snapshot {}", snapshots.size(), snapshotFile.getPath());
+        } catch (IOException e) {
+            logger.warn("Failed to load registry snapshot {}, caused by {}", snapshotFile.getPath(), e.getMessage());
+        }
+    }
+
+    /**
+     * Schedules a snapshot task, the endpoint changes within the delay are written at once.
+     */
+    private void addSnapshotTask() {
+        if (snapshotFile != null && snapshotting.compareAndSet(false, true)) {
+            timer.delay("registry-snapshot", registryConfig.getSnapshotDelay(), () -> {
+                try {
+                    snapshotExecutor.execute(() -> {
+                        snapshotting.set(false);
+                        saveSnapshot();
+                    });
+                } catch (RejectedExecutionException e) {
+                    // the registry is stopped
+                    snapshotting.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Writes the live endpoints of the subscriptions to the local snapshot.
+     * The restored endpoints of the services which are not subscribed in this run are carried over
+     * with their original timestamps, until they expire.
+     */
+    private synchronized void saveSnapshot() {
+        long now = System.currentTimeMillis();
+        Map<String, EndpointSet> services = new HashMap<>(subscriptions.size() + snapshots.size());
+        Map<String, Long> timestamps = new HashMap<>(subscriptions.size() + snapshots.size());
+        subscriptions.forEach((name, subscription) -> {
+            EndpointSet endpoints = subscription.getSnapshot();
+            if (endpoints != null) {
+                String service = subscription.getServiceId().getUniqueName();
+                services.put(service, endpoints);
+                timestamps.put(service, now);
+            }
+        });
+        snapshotTimes.forEach((service, timestamp) -> {
+            EndpointSet endpoints = snapshots.get(service);
+            if (endpoints == null || now - timestamp > registryConfig.getSnapshotExpireTime()) {
+                snapshots.remove(service);
+                snapshotTimes.remove(service);
+            } else if (services.putIfAbsent(service, endpoints) == null) {
+                timestamps.put(service, timestamp);
+            }
+        });
+        try {
+            new EndpointSnapshot(now, services, timestamps).write(snapshotFile);
+        } catch (Throwable e) {
+            logger.warn("Failed to save registry snapshot {}, caused by {}", snapshotFile.getPath(), e.getMessage());
+        }
     }
 
     /**
@@ -688,9 +807,9 @@ public class LiveRegistry extends AbstractService
     }
 
     /**
-     * A private static class that represents a subscription to endpoint events for a specific service group.
+     * A static class that represents a subscription to endpoint events for a specific service group.
      */
-    private static class Subscription implements ServiceRegistry, AutoCloseable {
+    static class Subscription implements ServiceRegistry, AutoCloseable {
 
         private static final int UNSUBSCRIBE = 0;
 
@@ -711,6 +830,13 @@ public class LiveRegistry extends AbstractService
          */
         private final Timer timer;
 
+        private final RegistryConfig config;
+
+        /**
+         * Called when the live endpoints are changed.
+         */
+        private final Runnable onUpdate;
+
         /**
          * An atomic boolean indicating whether the registration has been started.
          */
@@ -722,25 +848,62 @@ public class LiveRegistry extends AbstractService
         private final AtomicInteger subscribed = new AtomicInteger(UNSUBSCRIBE);
 
         /**
-         * The consumer that will receive endpoint events.
+         * The consumers that will receive endpoint events.
          */
-        private final List<Consumer<RegistryEvent>> consumers = new CopyOnWriteArrayList<>();
+        private final List<EndpointListener> consumers = new CopyOnWriteArrayList<>();
+
+        private final Map<String, EndpointSet> clustersEndpoints = new ConcurrentHashMap<>();
 
-        private final Map<String, List<ServiceEndpoint>> clustersEndpoints = new ConcurrentHashMap<>();
+        /**
+         * The merged endpoints of all clusters, keyed by their addresses.
+         */
+        private volatile EndpointSet endpoints;
 
         /**
-         * A map of endpoints for the service group, keyed by their addresses.
+         * The clusters which the merged endpoints are built from.
          */
-        private volatile RegistryEvent event;
+        private List<ClusterSubscription> mergedClusters;
+
+        /**
+         * Whether the endpoints are restored from the local snapshot and the live data has not arrived yet.
+         */
+        private volatile boolean stale;
 
         private final AtomicBoolean notified = new AtomicBoolean(false);
 
+        private volatile long notifyTime;
+
         private final Object mutex = new Object();
 
-        Subscription(ServiceId service, List<ClusterSubscription> clusters, Timer timer) {
+        Subscription(ServiceId service, List<ClusterSubscription> clusters, Timer timer, RegistryConfig config, Runnable onUpdate) {
             this.serviceId = service;
             this.clusters = clusters;
             this.timer = timer;
+            this.config = config == null ? new RegistryConfig() : config;
+            this.onUpdate = onUpdate;
+        }
+
+        /**
+         * Serves the endpoints restored from the local snapshot until the live data arrives.
+         *
+         * @param endpoints the restored endpoints
+         */
+        public void restore(EndpointSet endpoints) {
+            synchronized (mutex) {
+                if (this.endpoints == null) {
+                    this.endpoints = endpoints;
+                    this.stale = true;
+                }
+            }
+        }
+
+        /**
+         * Returns the live endpoints to be saved in the local snapshot.
+         *
+         * @return the live endpoints, or null if the live data has not arrived yet
+         */
+        public EndpointSet getSnapshot() {
+            return stale ? null : endpoints;
         }
 
         @Override
@@ -750,8 +913,8 @@ public class LiveRegistry extends AbstractService
 
         @Override
         public CompletableFuture<List<ServiceEndpoint>> getEndpoints() {
-            RegistryEvent event = this.event;
-            return CompletableFuture.completedFuture(event == null ? null : event.getInstances());
+            EndpointSet endpoints = this.endpoints;
+            return CompletableFuture.completedFuture(endpoints == null ? null : endpoints.toList());
         }
 
         public void addCluster(RegistryService cluster, String service) {
@@ -789,11 +952,12 @@ public class LiveRegistry extends AbstractService
         public void addConsumer(Consumer<RegistryEvent> consumer) {
             if (consumer != null) {
                 synchronized (mutex) {
-                    if (!consumers.contains(consumer)) {
-                        consumers.add(consumer);
-                        RegistryEvent event = this.event;
-                        if (event != null) {
-                            consumer.accept(event);
+                    if (!anyMatch(consumers, listener -> listener.consumer.equals(consumer))) {
+                        EndpointListener listener = new EndpointListener(consumer);
+                        consumers.add(listener);
+                        EndpointSet endpoints = this.endpoints;
+                        if (endpoints != null) {
+                            listener.accept(serviceId, endpoints, stale);
                         }
                     }
                 }
@@ -808,7 +972,7 @@ public class LiveRegistry extends AbstractService
         public void removeConsumer(Consumer<RegistryEvent> consumer) {
             if (consumer != null) {
                 synchronized (mutex) {
-                    consumers.remove(consumer);
+                    consumers.removeIf(listener -> listener.consumer.equals(consumer));
                 }
             }
         }
@@ -850,67 +1014,84 @@ public class LiveRegistry extends AbstractService
             if (!started.get() || event == null || !match(event)) {
                 return;
             }
+            // parse the labels once when the instances arrive, instead of on the route path.
+            List<ServiceEndpoint> instances = event.getInstances();
+            if (instances != null) {
+                instances.forEach(ServiceEndpoint::getProfile);
+            }
             synchronized (mutex) {
                 if (!started.get()) {
                     return;
                 }
-                event = delta(clusterName, event);
-                int newSize = event.size();
-
-                List<ServiceEndpoint> olds = newSize == 0 ? clustersEndpoints.remove(clusterName) : clustersEndpoints.put(clusterName, event.getInstances());
-                int oldSize = olds == null ? 0 : olds.size();
-                if (newSize == 0 && oldSize == 0 && olds != null) {
-                    // ignore duplicated empty event
+                EndpointSet olds = clustersEndpoints.get(clusterName);
+                EndpointSet news = delta(olds == null ? EndpointSet.EMPTY : olds, event);
+                EndpointSet lasts = this.endpoints;
+                if (news == olds && lasts != null) {
+                    // ignore duplicated event
                     return;
                 }
-
-                // merge endpoints by order
-                RegistryEvent oldsEvent = this.event;
-                int capacity = oldsEvent == null ? 0 : oldsEvent.size();
-                capacity = capacity + newSize - oldSize;
-                capacity = capacity < 0 ? newSize : capacity;
-                Map<String, ServiceEndpoint> merged = new HashMap<>(capacity);
-                for (ClusterSubscription cluster : clusters) {
-                    olds = clustersEndpoints.get(cluster.getClusterName());
-                    if (olds != null) {
-                        olds.forEach(endpoint -> merged.putIfAbsent(endpoint.getAddress(), endpoint));
+                clustersEndpoints.put(clusterName, news);
+
+                // merge endpoints by order, only the changed addresses are resolved unless the clusters are changed.
+                List<ClusterSubscription> clusters = this.clusters;
+                EndpointSet merged = lasts == null ? EndpointSet.EMPTY : lasts;
+                if (clusters != mergedClusters) {
+                    Set<String> addresses = new HashSet<>(merged.size() + news.size());
+                    merged.forEach(endpoint -> addresses.add(endpoint.getAddress()));
+                    clustersEndpoints.values().forEach(set -> set.forEach(endpoint -> addresses.add(endpoint.getAddress())));
+                    for (String address : addresses) {
+                        merged = merge(merged, clusters, address);
                     }
+                    mergedClusters = clusters;
+                } else {
+                    EndpointDiff diff = EndpointSet.diff(olds, news);
+                    merged = merge(merged, clusters, diff.getAdded());
+                    merged = merge(merged, clusters, diff.getUpdated());
+                    merged = merge(merged, clusters, diff.getRemoved());
                 }
-                List<ServiceEndpoint> newEndpoints = new ArrayList<>(merged.values());
-
-                // log
-                StringBuilder builder = new StringBuilder("Merge instances to ").append(newEndpoints.size()).append(" [")
-                        .append(oldSize).append("->").append(newSize).append(" in ").append(clusterName);
-                clustersEndpoints.forEach((name, endpoints) -> {
-                    if (!name.equals(clusterName)) {
-                        builder.append(", ").append(endpoints.size()).append(" in ").append(name);
+                if (stale) {
+                    if (merged.isEmpty() && count(clusters, c -> clustersEndpoints.containsKey(c.getClusterName())) < clusters.size()) {
+                        // keep serving the snapshot until the live endpoints arrive, and rebuild from the clusters next time.
+                        mergedClusters = null;
+                        return;
                     }
-                });
-                builder.append("], ").append(serviceId.getUniqueName());
-                logger.info(builder.toString());
-
-                this.event = new RegistryEvent(event.getVersion(), serviceId.getService(), serviceId.group, newEndpoints, event.getDefaultGroup());
+                    stale = false;
+                } else if (merged == lasts) {
+                    return;
+                }
+                logger.info("Merge instances to {} [{}->{} in {}], {}", merged.size(), olds == null ? 0 : olds.size(),
+                        news.size(), clusterName, serviceId.getUniqueName());
+                this.endpoints = merged;
                 addNotifier();
+                if (onUpdate != null) {
+                    onUpdate.run();
+                }
             }
         }
 
         /**
          * Schedules a delayed notification to all consumers if no notification is currently active.
-         * Uses atomic check to prevent duplicate notifications. If the event changes during processing,
-         * automatically re-triggers notification.
+         * A change after a quiet period is notified after {@link RegistryConfig#getNotifyMinDelay()},
+         * the following changes are coalesced within {@link RegistryConfig#getNotifyDelay()}.
+         * If the endpoints change during processing, automatically re-triggers notification.
          */
         private void addNotifier() {
             if (notified.compareAndSet(false, true)) {
-                timer.delay("instance-notifier", 1000, () -> {
-                    RegistryEvent e = event;
+                long window = Math.max(config.getNotifyDelay(), 0);
+                long delay = System.currentTimeMillis() - notifyTime >= window
+                        ? Math.max(Math.min(config.getNotifyMinDelay(), window), 0)
+                        : window;
+                timer.delay("instance-notifier", delay, () -> {
+                    EndpointSet e = endpoints;
+                    boolean s = stale;
                     try {
-                        // TODO duplicated consumers
-                        for (Consumer<RegistryEvent> consumer : consumers) {
-                            consumer.accept(new RegistryEvent(serviceId.getService(), serviceId.group, e.getInstances()));
+                        for (EndpointListener consumer : consumers) {
+                            consumer.accept(serviceId, e, s);
                         }
                     } finally {
+                        notifyTime = System.currentTimeMillis();
                         notified.set(false);
-                        if (event != e) {
+                        if (endpoints != e) {
                             addNotifier();
                         }
                     }
@@ -919,46 +1100,75 @@ public class LiveRegistry extends AbstractService
         }
 
         /**
-         * Applies delta changes to service endpoints for a cluster.
-         * Handles FULL/ADD/UPDATE/REMOVE operations from delta events.
+         * Applies delta changes to the endpoints of a cluster.
+         * Handles FULL/ADD/UPDATE/REMOVE operations from delta events, a full event is applied as the changes
+         * to the current endpoints, so the unchanged endpoints are not notified.
          *
-         * @param clusterName target cluster name
+         * @param olds  the current endpoints of the cluster
          * @param event registry change event
-         * @return updated registry event
+         * @return the new endpoints of the cluster, sharing the unchanged entries with the current endpoints
          */
-        private RegistryEvent delta(String clusterName, RegistryEvent event) {
+        private EndpointSet delta(EndpointSet olds, RegistryEvent event) {
+            List<ServiceEndpoint> instances = event.getInstances();
             if (event instanceof RegistryDeltaEvent) {
                 RegistryDeltaEvent deltaEvent = (RegistryDeltaEvent) event;
+                EndpointSet result = olds;
                 switch (deltaEvent.getType()) {
                     case FULL:
                         break;
                     case REMOVE:
-                        return delta(clusterName, deltaEvent, (map, instance) -> map.remove(instance.getAddress()));
+                        if (instances != null) {
+                            for (ServiceEndpoint instance : instances) {
+                                result = result.remove(instance.getAddress());
+                            }
+                        }
+                        return result;
                     case ADD:
                     case UPDATE:
                     default:
-                        return delta(clusterName, deltaEvent, (map, instance) -> map.put(instance.getAddress(), instance));
+                        if (instances != null) {
+                            for (ServiceEndpoint instance : instances) {
+                                result = result.put(instance);
+                            }
+                        }
+                        return result;
                 }
             }
-            return event;
+            return olds.update(instances);
         }
 
         /**
-         * Merges endpoint changes using the provided update operation.
+         * Resolves the merged endpoints of the specified addresses.
          *
-         * @param clusterName target cluster name
-         * @param event registry change event
-         * @param consumer operation to apply (add/remove endpoints)
-         * @return new registry event with merged endpoints
+         * @param merged    the merged endpoints
+         * @param clusters  the clusters in order
+         * @param endpoints the changed endpoints
+         * @return the new merged endpoints
+         */
+        private EndpointSet merge(EndpointSet merged, List<ClusterSubscription> clusters, List<ServiceEndpoint> endpoints) {
+            for (ServiceEndpoint endpoint : endpoints) {
+                merged = merge(merged, clusters, endpoint.getAddress());
+            }
+            return merged;
+        }
+
+        /**
+         * Resolves the merged endpoint of the address, the endpoint of the first cluster wins.
+         *
+         * @param merged   the merged endpoints
+         * @param clusters the clusters in order
+         * @param address  the endpoint address
+         * @return the new merged endpoints
          */
-        private RegistryEvent delta(String clusterName, RegistryEvent event, BiConsumer<Map<String, ServiceEndpoint>, ServiceEndpoint> consumer) {
-            List<ServiceEndpoint> oldEndpoints = clustersEndpoints.get(clusterName);
-            Map<String, ServiceEndpoint> merged = new HashMap<>(oldEndpoints == null ? 0 : oldEndpoints.size());
-            if (oldEndpoints != null) {
-                oldEndpoints.forEach(endpoint -> merged.putIfAbsent(endpoint.getAddress(), endpoint));
+        private EndpointSet merge(EndpointSet merged, List<ClusterSubscription> clusters, String address) {
+            for (ClusterSubscription cluster : clusters) {
+                EndpointSet endpoints = clustersEndpoints.get(cluster.getClusterName());
+                ServiceEndpoint endpoint = endpoints == null ? null : endpoints.get(address);
+                if (endpoint != null) {
+                    return merged.put(endpoint);
+                }
             }
-            event.getInstances().forEach(instance -> consumer.accept(merged, instance));
-            return new RegistryEvent(event.getServiceId(), new ArrayList<>(merged.values()), event.getDefaultGroup());
+            return merged.remove(address);
         }
 
         /**
@@ -1001,6 +1211,35 @@ public class LiveRegistry extends AbstractService
         }
     }
 
+    /**
+     * A consumer of endpoint events, which remembers the endpoints it has received.
+     */
+    private static class EndpointListener {
+
+        private final Consumer<RegistryEvent> consumer;
+
+        private EndpointSet endpoints;
+
+        EndpointListener(Consumer<RegistryEvent> consumer) {
+            this.consumer = consumer;
+        }
+
+        /**
+         * Notifies the consumer of the endpoints with the changes since its last notification.
+         *
+         * @param serviceId the service id
+         * @param endpoints the current endpoints
+         * @param stale     whether the endpoints are restored from the local snapshot
+         */
+        synchronized void accept(ServiceId serviceId, EndpointSet endpoints, boolean stale) {
+            EndpointSet previous = this.endpoints;
+            if (previous != endpoints) {
+                this.endpoints = endpoints;
+                consumer.accept(new RegistryChangeEvent(serviceId.getService(), serviceId.group, previous, endpoints, stale));
+            }
+        }
+    }
+
     /**
      * Abstract base class for cluster operations. Provides common functionality for managing
      * operations on a {@link RegistryService} cluster.
@@ -1110,7 +1349,7 @@ public class LiveRegistry extends AbstractService
      * Handles subscription and unsubscription to endpoint events for a {@link RegistryService} cluster.
      * Extends {@link ClusterOperation} to manage event listening for specific services.
      */
-    private static class ClusterSubscription extends ClusterOperation<ServiceId> {
+    static class ClusterSubscription extends ClusterOperation<ServiceId> {
 
         ClusterSubscription(RegistryService cluster, ServiceId service) {
             super(cluster, service);
@@ -0,0 +1,63 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.registry;
+
+import com.jd.live.agent.governance.registry.EndpointSet.EndpointDiff;
+import lombok.Getter;
+
+/**
+ * A registry event which carries the endpoint sets before and after the change,
+ * so that a consumer can apply the difference instead of rebuilding the full view.
+ */
+public class RegistryChangeEvent extends RegistryEvent {
+
+    @Getter
+    private final EndpointSet previous;
+
+    @Getter
+    private final EndpointSet endpoints;
+
+    /**
+     * Whether the endpoints are restored from the local snapshot and the live data has not arrived yet.
+     */
+    @Getter
+    private final boolean stale;
+
+    private EndpointDiff diff;
+
+    public RegistryChangeEvent(String service, String group, EndpointSet previous, EndpointSet endpoints) {
+        this(service, group, previous, endpoints, false);
+    }
+
+    public RegistryChangeEvent(String service, String group, EndpointSet previous, EndpointSet endpoints, boolean stale) {
+        super(service, group, endpoints.toList());
+        this.previous = previous;
+        this.endpoints = endpoints;
+        this.stale = stale;
+    }
+
+    /**
+     * Returns the changes from the previously notified endpoints to the current endpoints.
+     *
+     * @return the endpoint changes
+     */
+    public EndpointDiff getDiff() {
+        if (diff == null) {
+            diff = EndpointSet.diff(previous, endpoints);
+        }
+        return diff;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.registry;
+
+import com.jd.live.agent.governance.instance.EndpointState;
+
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * An endpoint restored from the local registry snapshot. It is served until the live data arrives.
+ */
+public class SnapshotEndpoint extends AbstractServiceEndpoint {
+
+    private final String host;
+
+    private final int port;
+
+    private final URI uri;
+
+    private final Map<String, String> metadata;
+
+    private final EndpointState state;
+
+    public SnapshotEndpoint(String service,
+                            String group,
+                            Boolean secure,
+                            String host,
+                            int port,
+                            URI uri,
+                            Map<String, String> metadata,
+                            EndpointState state) {
+        super(service, group, secure);
+        this.host = host;
+        this.port = port;
+        this.uri = uri;
+        this.metadata = metadata;
+        this.state = state;
+    }
+
+    @Override
+    public String getHost() {
+        return host;
+    }
+
+    @Override
+    public int getPort() {
+        return port;
+    }
+
+    @Override
+    public URI getUri() {
+        return uri;
+    }
+
+    @Override
+    public Map<String, String> getMetadata() {
+        return metadata;
+    }
+
+    @Override
+    public EndpointState getState() {
+        return state;
+    }
+}
@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 
 /**
@@ -181,6 +182,19 @@ public interface ServiceRequest extends Request {
         return false;
     }
 
+    /**
+     * Returns the executor to resume the asynchronous invocation after it has waited, such as for rate limit permits.
+     * <p>
+     * This default implementation returns {@code null}, and the invocation is resumed by the default asynchronous
+     * execution facility of {@link java.util.concurrent.CompletableFuture}.
+     * </p>
+     *
+     * @return the executor to resume the invocation, or {@code null} by default.
+     */
+    default Executor getExecutor() {
+        return null;
+    }
+
     /**
      * Determines if the request is a system message.
      *
@@ -68,6 +68,16 @@ public interface SyncAddress {
          * @return The URL of the HTTP service.
          */
         String getServiceUrl();
+
+        /**
+         * Returns the URL to synchronize all the subscribed services in one batched request.
+         * The batched mode is disabled if it returns null.
+         *
+         * @return The URL of the batched HTTP service, or null if it's not supported.
+         */
+        default String getServicesUrl() {
+            return null;
+        }
     }
 
     /**
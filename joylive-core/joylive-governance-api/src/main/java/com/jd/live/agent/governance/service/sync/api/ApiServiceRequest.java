@@ -0,0 +1,42 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.service.sync.api;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * The batched service request, which carries all the subscribed services and their local versions.
+ */
+@Getter
+@Setter
+public class ApiServiceRequest {
+
+    private String application;
+
+    private List<ApiServiceVersion> services;
+
+    public ApiServiceRequest() {
+    }
+
+    public ApiServiceRequest(String application, List<ApiServiceVersion> services) {
+        this.application = application;
+        this.services = services;
+    }
+
+}
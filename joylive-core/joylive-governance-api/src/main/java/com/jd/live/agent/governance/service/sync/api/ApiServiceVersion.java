@@ -0,0 +1,49 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.service.sync.api;
+
+import com.jd.live.agent.governance.policy.service.Service;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * An item of the batched service request and response.
+ * <p>
+ * In the request, it carries the local version of the service. In the response, it carries the changed service,
+ * and a null service means the service is not found.
+ */
+@Getter
+@Setter
+public class ApiServiceVersion {
+
+    private String space;
+
+    private String name;
+
+    private long version;
+
+    private Service service;
+
+    public ApiServiceVersion() {
+    }
+
+    public ApiServiceVersion(String space, String name, long version) {
+        this.space = space;
+        this.name = name;
+        this.version = version;
+    }
+
+}
@@ -15,27 +15,46 @@
  */
 package com.jd.live.agent.governance.service.sync.http;
 
+import com.jd.live.agent.bootstrap.logger.Logger;
+import com.jd.live.agent.bootstrap.logger.LoggerFactory;
 import com.jd.live.agent.core.inject.annotation.Inject;
 import com.jd.live.agent.core.parser.ObjectParser;
 import com.jd.live.agent.core.parser.TypeReference;
+import com.jd.live.agent.core.util.Close;
+import com.jd.live.agent.core.util.Daemon;
+import com.jd.live.agent.core.util.Waiter;
+import com.jd.live.agent.core.util.Waiter.Waiting;
+import com.jd.live.agent.core.util.http.HttpHeader;
 import com.jd.live.agent.core.util.http.HttpResponse;
 import com.jd.live.agent.core.util.http.HttpUtils;
 import com.jd.live.agent.core.util.time.Timer;
 import com.jd.live.agent.governance.config.SyncConfig;
 import com.jd.live.agent.governance.policy.service.Service;
 import com.jd.live.agent.governance.service.sync.*;
+import com.jd.live.agent.governance.service.sync.SyncAddress.ServiceAddress;
 import com.jd.live.agent.governance.service.sync.SyncKey.ServiceKey;
 import com.jd.live.agent.governance.service.sync.api.ApiResponse;
+import com.jd.live.agent.governance.service.sync.api.ApiServiceRequest;
+import com.jd.live.agent.governance.service.sync.api.ApiServiceVersion;
 import lombok.Setter;
 
 import java.io.IOException;
 import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
 /**
  * An abstract class that provides a base implementation for synchronizing data with an HTTP service.
+ * <p>
+ * If the sync config provides a {@link ServiceAddress#getServicesUrl() services url}, all the subscribed services
+ * are synchronized by one conditional request per interval, and the server only returns the changed services.
+ * Otherwise, each service is polled by its own request.
  */
 @Setter
 public abstract class AbstractServiceHttpSyncer<K extends ServiceKey> extends AbstractServiceSyncer<K> {
@@ -48,11 +67,54 @@ public abstract class AbstractServiceHttpSyncer<K extends ServiceKey> extends Ab
 
     protected static final String SERVICE_VERSION = "service_version";
 
+    private static final Logger logger = LoggerFactory.getLogger(AbstractServiceHttpSyncer.class);
+
     @Inject(Timer.COMPONENT_TIMER)
     protected Timer timer;
 
+    protected final Waiter.MutexWaiter batchWaiter = new Waiter.MutexWaiter();
+
+    protected final AtomicBoolean batchDirty = new AtomicBoolean();
+
+    protected volatile String batchTag;
+
+    protected Daemon batchDaemon;
+
+    @Override
+    protected void startSync() {
+        super.startSync();
+        SyncConfig config = getSyncConfig();
+        if (getServicesUrl(config) != null) {
+            batchDaemon = Daemon.builder()
+                    .name(getName() + "-batch")
+                    .delay(0)
+                    .fault(config.getFault())
+                    .waiter(batchWaiter)
+                    .condition(this::isStarted)
+                    .callable(this::syncBatch)
+                    .error(e -> logger.error("Failed to synchronize services from " + getName() + ", caused by " + e.getMessage(), e))
+                    .build();
+            batchDaemon.start();
+        }
+    }
+
+    @Override
+    protected void stopSync() {
+        super.stopSync();
+        Close.instance().close(batchDaemon);
+        batchDaemon = null;
+        batchTag = null;
+    }
+
     @Override
     protected Syncer<K, Service> createSyncer() {
+        if (getServicesUrl(getSyncConfig()) != null) {
+            // the new subscription is synchronized by the next batched request.
+            return subscription -> {
+                batchDirty.set(true);
+                batchWaiter.wakeup();
+            };
+        }
         return subscription -> {
             SyncConfig config = getSyncConfig();
             K key = subscription.getKey();
@@ -69,6 +131,166 @@ public abstract class AbstractServiceHttpSyncer<K extends ServiceKey> extends Ab
         };
     }
 
+    /**
+     * Synchronizes all the subscribed services by one batched request.
+     * <p>
+     * The request carries the local version of each service and the entity tag of the last response.
+     * If nothing is changed, the server responds with 304, otherwise it only returns the changed services.
+     * The entity tag is not sent if new services are subscribed since the last request.
+     *
+     * @return The waiting time before the next request.
+     */
+    protected Waiting syncBatch() {
+        SyncConfig config = getSyncConfig();
+        boolean dirty = batchDirty.getAndSet(false);
+        List<Subscription<K, Service>> values = new ArrayList<>(subscriptions.values());
+        if (!values.isEmpty()) {
+            try {
+                HttpResponse<ApiResponse<List<ApiServiceVersion>>> response = getServices(config,
+                        getServicesUrl(config), createRequest(values), dirty ? null : batchTag);
+                if (onBatchResponse(values, response)) {
+                    batchTag = response.getHeader(HttpHeader.ETAG);
+                }
+            } catch (IOException e) {
+                batchTag = null;
+                onBatchResponse(values, key -> new SyncResponse<>(e));
+            }
+        }
+        long delay = config.getInterval() + ThreadLocalRandom.current().nextLong(2000);
+        return new Waiting(delay, () -> !batchDirty.get());
+    }
+
+    /**
+     * Creates the batched request for the given subscriptions.
+     *
+     * @param values The subscriptions to synchronize.
+     * @return The batched request.
+     */
+    protected ApiServiceRequest createRequest(List<Subscription<K, Service>> values) {
+        List<ApiServiceVersion> services = new ArrayList<>(values.size());
+        for (Subscription<K, Service> subscription : values) {
+            K key = subscription.getKey();
+            services.add(new ApiServiceVersion(key.getNamespace(), key.getName(), subscription.getVersion()));
+        }
+        return new ApiServiceRequest(application.getName(), services);
+    }
+
+    /**
+     * Sends the batched request to the services url.
+     *
+     * @param config  The sync configuration used to configure the HTTP connection.
+     * @param uri     The services url.
+     * @param request The batched request.
+     * @param tag     The entity tag of the last response, or null.
+     * @return The HTTP response.
+     * @throws IOException If an I/O error occurs during the request.
+     */
+    protected HttpResponse<ApiResponse<List<ApiServiceVersion>>> getServices(SyncConfig config,
+                                                                             String uri,
+                                                                             ApiServiceRequest request,
+                                                                             String tag) throws IOException {
+        byte[] body = parser.write(request).getBytes(StandardCharsets.UTF_8);
+        return HttpUtils.post(uri, conn -> {
+            configure(config, conn);
+            conn.setRequestProperty(HttpHeader.CONTENT_TYPE, "application/json");
+            conn.setReadTimeout((int) config.getTimeout());
+            if (tag != null && !tag.isEmpty()) {
+                conn.setRequestProperty(HttpHeader.IF_NONE_MATCH, tag);
+            }
+        }, body, reader -> parser.read(reader, new TypeReference<ApiResponse<List<ApiServiceVersion>>>() {
+        }));
+    }
+
+    /**
+     * Dispatches the batched response to the subscriptions.
+     *
+     * @param values   The subscriptions in the request.
+     * @param response The HTTP response.
+     * @return true if the response is applied to all the subscriptions, false otherwise.
+     */
+    protected boolean onBatchResponse(List<Subscription<K, Service>> values,
+                                      HttpResponse<ApiResponse<List<ApiServiceVersion>>> response) {
+        SyncResponse<List<ApiServiceVersion>> result = ApiResponse.from(response).asSyncResponse();
+        switch (result.getStatus()) {
+            case SUCCESS:
+                break;
+            case NOT_MODIFIED:
+                return onBatchResponse(values, key -> new SyncResponse<>(SyncStatus.NOT_MODIFIED, null));
+            case NOT_FOUND:
+                // the services url is not supported by the server, don't treat all the services as deleted.
+                onBatchResponse(values, key -> new SyncResponse<>("services url is not found."));
+                return false;
+            default:
+                onBatchResponse(values, key -> new SyncResponse<>(result.getError()));
+                return false;
+        }
+        Map<String, ApiServiceVersion> changes = new HashMap<>();
+        List<ApiServiceVersion> services = result.getData();
+        if (services != null) {
+            services.forEach(v -> changes.put(getBatchKey(v.getSpace(), v.getName()), v));
+        }
+        boolean applied = onBatchResponse(values, key -> {
+            ApiServiceVersion change = changes.get(getBatchKey(key.getNamespace(), key.getName()));
+            if (change == null) {
+                return new SyncResponse<>(SyncStatus.NOT_MODIFIED, null);
+            } else if (change.getService() == null) {
+                return new SyncResponse<>(SyncStatus.NOT_FOUND, null);
+            }
+            SyncResponse<Service> success = new SyncResponse<>(SyncStatus.SUCCESS, change.getService());
+            saveConfig(success, parser, getFileName(key.getName()));
+            return success;
+        });
+        // the entity tag is only kept when all the changes are applied, otherwise they are requested again.
+        for (Subscription<K, Service> subscription : values) {
+            K key = subscription.getKey();
+            ApiServiceVersion change = changes.get(getBatchKey(key.getNamespace(), key.getName()));
+            if (change != null && change.getService() != null && change.getService().getVersion() != subscription.getVersion()) {
+                applied = false;
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Dispatches the response created by the function to each subscription.
+     *
+     * @param values   The subscriptions in the request.
+     * @param function The function to create the response for the subscription key.
+     * @return true if the response is dispatched to all the subscriptions, false if some subscriptions are locked.
+     */
+    protected boolean onBatchResponse(List<Subscription<K, Service>> values, Function<K, SyncResponse<Service>> function) {
+        boolean result = true;
+        for (Subscription<K, Service> subscription : values) {
+            if (!subscription.lock()) {
+                result = false;
+            } else {
+                try {
+                    subscription.addCounter();
+                    subscription.onUpdate(function.apply(subscription.getKey()));
+                } catch (Throwable e) {
+                    logger.error(e.getMessage(), e);
+                } finally {
+                    subscription.unlock();
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the url of the batched services request.
+     *
+     * @param config The sync configuration.
+     * @return The url, or null if the batched mode is disabled.
+     */
+    protected String getServicesUrl(SyncConfig config) {
+        return config instanceof ServiceAddress ? ((ServiceAddress) config).getServicesUrl() : null;
+    }
+
+    private static String getBatchKey(String space, String name) {
+        return space == null || space.isEmpty() ? name : space + "/" + name;
+    }
+
     /**
      * Get the filename for service policy.
      */
@@ -54,11 +54,13 @@ public class LaneSpaceListener extends AbstractListener<LaneSpace> {
         if (event.getName() == null) {
             return;
         }
+        // copy on write
         List<LaneSpace> spaces = policy.getLaneSpaces();
         if (spaces != null) {
+            spaces = new ArrayList<>(spaces);
             filter(spaces, space -> !space.getId().equals(event.getName()));
+            policy.setLaneSpaces(spaces);
         }
-
     }
 
 }
@@ -54,9 +54,12 @@ public class LiveSpaceListener extends AbstractListener<LiveSpace> {
         if (event.getName() == null) {
             return;
         }
+        // copy on write
         List<LiveSpace> spaces = policy.getLiveSpaces();
         if (spaces != null) {
+            spaces = new ArrayList<>(spaces);
             filter(spaces, space -> !space.getId().equals(event.getName()));
+            policy.setLiveSpaces(spaces);
         }
     }
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.context;
+
+import com.jd.live.agent.governance.context.bag.Carrier;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class RequestContextTest {
+
+    @Test
+    void testInheritableByDefault() throws InterruptedException {
+        Assertions.assertTrue(RequestContext.isInheritable());
+        Carrier carrier = RequestContext.create();
+        try {
+            AtomicReference<Carrier> inherited = new AtomicReference<>();
+            Thread thread = new Thread(() -> inherited.set(RequestContext.get()));
+            thread.start();
+            thread.join();
+            Assertions.assertSame(carrier, inherited.get());
+        } finally {
+            RequestContext.remove();
+        }
+    }
+
+    @Test
+    void testNotInheritable() throws Exception {
+        // make sure the context of this class loader is initialized with the default value.
+        Assertions.assertTrue(RequestContext.isInheritable());
+        System.setProperty(RequestContext.CONFIG_INHERITABLE, "false");
+        try (URLClassLoader loader = new URLClassLoader(getClassPath(), null)) {
+            Class<?> type = loader.loadClass(RequestContext.class.getName());
+            Method isInheritable = type.getMethod("isInheritable");
+            Method create = type.getMethod("create");
+            Method get = type.getMethod("get");
+            Assertions.assertEquals(Boolean.FALSE, isInheritable.invoke(null));
+            Object carrier = create.invoke(null);
+            Assertions.assertSame(carrier, get.invoke(null));
+            AtomicReference<Object> inherited = new AtomicReference<>(carrier);
+            Thread thread = new Thread(() -> {
+                try {
+                    inherited.set(get.invoke(null));
+                } catch (Exception ignored) {
+                }
+            });
+            thread.start();
+            thread.join();
+            Assertions.assertNull(inherited.get());
+        } finally {
+            System.clearProperty(RequestContext.CONFIG_INHERITABLE);
+        }
+    }
+
+    private static URL[] getClassPath() throws Exception {
+        String[] paths = System.getProperty("java.class.path").split(File.pathSeparator);
+        URL[] urls = new URL[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            urls[i] = new File(paths[i]).toURI().toURL();
+        }
+        return urls;
+    }
+}
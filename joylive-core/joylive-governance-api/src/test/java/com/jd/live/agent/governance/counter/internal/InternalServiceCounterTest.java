@@ -0,0 +1,59 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.counter.internal;
+
+import com.jd.live.agent.core.util.time.TimeScheduler;
+import com.jd.live.agent.governance.counter.Counter;
+import com.jd.live.agent.governance.counter.EndpointCounter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class InternalServiceCounterTest {
+
+    private static final TimeScheduler timer = new TimeScheduler("counter-test", 200, 300, 1);
+
+    @AfterAll
+    static void close() {
+        timer.close();
+    }
+
+    @Test
+    void testIndex() {
+        InternalServiceCounter counter = new InternalServiceCounter("service", timer);
+        int index = counter.getIndex("/users", "GET");
+        Assertions.assertEquals(index, counter.getIndex("/users/", "GET"));
+        Assertions.assertNotEquals(index, counter.getIndex("/users", "POST"));
+        EndpointCounter endpoint = counter.getOrCreateCounter("127.0.0.1:8080");
+        Counter uriCounter = endpoint.getOrCreateCounter(index);
+        Assertions.assertSame(uriCounter, endpoint.getOrCreateCounter(index));
+    }
+
+    @Test
+    void testOverflow() {
+        InternalServiceCounter counter = new InternalServiceCounter("service", timer);
+        Set<Integer> indexes = new HashSet<>();
+        for (int i = 0; i < 5000; i++) {
+            indexes.add(counter.getIndex("/users/" + i, "GET"));
+        }
+        // the paths beyond the limit share one index.
+        Assertions.assertTrue(indexes.size() <= 1025);
+        Assertions.assertEquals(counter.getIndex("/users/4998", "GET"), counter.getIndex("/users/4999", "GET"));
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.counter.internal;
+
+import com.jd.live.agent.governance.counter.internal.LatencyHistogram.Percentiles;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    void testBucketBoundaries() {
+        // the small values have their own buckets.
+        for (int i = 0; i < 8; i++) {
+            Assertions.assertEquals(i, LatencyHistogram.index(i));
+            Assertions.assertEquals(i, LatencyHistogram.upper(i));
+        }
+        Assertions.assertEquals(0, LatencyHistogram.index(-1));
+        // each power of two range is divided into 8 buckets.
+        Assertions.assertEquals(8, LatencyHistogram.index(8));
+        Assertions.assertEquals(15, LatencyHistogram.index(15));
+        Assertions.assertEquals(16, LatencyHistogram.index(16));
+        Assertions.assertEquals(16, LatencyHistogram.index(17));
+        Assertions.assertEquals(17, LatencyHistogram.index(18));
+        Assertions.assertEquals(17, LatencyHistogram.upper(16));
+        // the values beyond the range fall into the last bucket.
+        Assertions.assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.index(LatencyHistogram.MAX_VALUE));
+        Assertions.assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.index(Long.MAX_VALUE));
+        Assertions.assertEquals(LatencyHistogram.MAX_VALUE, LatencyHistogram.upper(LatencyHistogram.BUCKETS - 1));
+
+        int last = 0;
+        for (long value = 0; value <= LatencyHistogram.MAX_VALUE; value += 1 + value / 64) {
+            int index = LatencyHistogram.index(value);
+            long upper = LatencyHistogram.upper(index);
+            Assertions.assertTrue(index >= last);
+            Assertions.assertTrue(upper >= value);
+            Assertions.assertTrue(index == 0 || LatencyHistogram.upper(index - 1) < value);
+            Assertions.assertTrue(upper - value <= value / 8);
+            last = index;
+        }
+    }
+
+    @Test
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Assertions.assertNull(histogram.percentiles());
+        for (int i = 1; i <= 10000; i++) {
+            histogram.record(i);
+        }
+        Percentiles percentiles = histogram.percentiles();
+        Assertions.assertNotNull(percentiles);
+        Assertions.assertEquals(10000, percentiles.getCount());
+        assertPercentile(5000, percentiles.getP50());
+        assertPercentile(9000, percentiles.getP90());
+        assertPercentile(9900, percentiles.getP99());
+        assertPercentile(9990, percentiles.getP999());
+        // the histogram is drained.
+        Assertions.assertNull(histogram.percentiles());
+
+        histogram.record(100);
+        percentiles = histogram.percentiles();
+        Assertions.assertEquals(1, percentiles.getCount());
+        assertPercentile(100, percentiles.getP50());
+        assertPercentile(100, percentiles.getP999());
+    }
+
+    private static void assertPercentile(long expected, long actual) {
+        Assertions.assertTrue(actual >= expected && actual <= expected + expected / 8,
+                "expected " + expected + " but was " + actual);
+    }
+}
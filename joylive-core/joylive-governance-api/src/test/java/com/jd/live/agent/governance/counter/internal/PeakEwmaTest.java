@@ -0,0 +1,56 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.counter.internal;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class PeakEwmaTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void testPeak() {
+        PeakEwma ewma = new PeakEwma();
+        long now = System.nanoTime();
+        ewma.observe(1000, now);
+        Assertions.assertEquals(1000, ewma.get(now), 0.001);
+        // a slower observation jumps to the peak immediately.
+        ewma.observe(5000, now + 1);
+        Assertions.assertEquals(5000, ewma.get(now + 1), 0.001);
+    }
+
+    @Test
+    void testDecay() {
+        PeakEwma ewma = new PeakEwma();
+        long now = System.nanoTime();
+        ewma.observe(1000, now);
+        // decays to zero while idle, by e^-1 per 10 seconds.
+        Assertions.assertEquals(1000 * Math.exp(-1), ewma.get(now + 10 * SECOND), 0.001);
+        Assertions.assertEquals(1000 * Math.exp(-2), ewma.get(now + 20 * SECOND), 0.001);
+
+        // a faster observation moves the average towards it by the elapsed time.
+        ewma.observe(100, now + 10 * SECOND);
+        double expected = 1000 * Math.exp(-1) + 100 * (1 - Math.exp(-1));
+        Assertions.assertEquals(expected, ewma.get(now + 10 * SECOND), 0.001);
+
+        // the observations in the same instant keep the average.
+        ewma.observe(100, now + 10 * SECOND);
+        Assertions.assertEquals(expected, ewma.get(now + 10 * SECOND), 0.001);
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.loadbalance.p2c;
+
+import com.jd.live.agent.governance.counter.Counter;
+import com.jd.live.agent.governance.counter.CounterIndex;
+import com.jd.live.agent.governance.counter.ServiceCounter;
+import com.jd.live.agent.governance.counter.internal.InternalCounter;
+import com.jd.live.agent.governance.instance.Endpoint;
+import com.jd.live.agent.governance.invoke.loadbalance.Candidate;
+import com.jd.live.agent.governance.request.ServiceRequest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class P2CLoadBalancerTest {
+
+    private final ServiceCounter serviceCounter = mock(ServiceCounter.class);
+
+    private final CounterIndex counterIndex = new CounterIndex(serviceCounter, 0);
+
+    private final ServiceRequest request = mock(ServiceRequest.class);
+
+    private final Random random = new Random();
+
+    @Test
+    void testSingleCandidate() {
+        P2CLoadBalancer balancer = new P2CLoadBalancer();
+        Endpoint endpoint = createEndpoint(100, new InternalCounter(null));
+        Candidate<Endpoint> candidate = balancer.elect(Collections.singletonList(endpoint), counterIndex, request, random);
+        Assertions.assertNotNull(candidate);
+        Assertions.assertSame(endpoint, candidate.getTarget());
+        Assertions.assertNull(balancer.elect(Collections.emptyList(), counterIndex, request, random));
+    }
+
+    @Test
+    void testLessActive() {
+        P2CLoadBalancer balancer = new P2CLoadBalancer();
+        Counter busy = new InternalCounter(null);
+        for (int i = 0; i < 5; i++) {
+            busy.begin(0);
+        }
+        Endpoint endpoint1 = createEndpoint(100, busy);
+        Endpoint endpoint2 = createEndpoint(100, new InternalCounter(null));
+        for (int i = 0; i < 1000; i++) {
+            Candidate<Endpoint> candidate = balancer.elect(Arrays.asList(endpoint1, endpoint2), counterIndex, request, random);
+            Assertions.assertSame(endpoint2, candidate.getTarget());
+            Assertions.assertEquals(1, candidate.getIndex());
+        }
+    }
+
+    @Test
+    void testWeight() {
+        P2CLoadBalancer balancer = new P2CLoadBalancer();
+        Endpoint endpoint1 = createEndpoint(0, new InternalCounter(null));
+        Endpoint endpoint2 = createEndpoint(100, new InternalCounter(null));
+        Endpoint endpoint3 = createEndpoint(100, new InternalCounter(null));
+        int[] counts = new int[3];
+        for (int i = 0; i < 10000; i++) {
+            counts[balancer.elect(Arrays.asList(endpoint1, endpoint2, endpoint3), counterIndex, request, random).getIndex()]++;
+        }
+        // the endpoint without weight is only elected when it is compared with itself, which never happens.
+        Assertions.assertEquals(0, counts[0]);
+        Assertions.assertTrue(counts[1] > 4000 && counts[2] > 4000);
+    }
+
+    @Test
+    void testPeakEwma() {
+        PeakEwmaLoadBalancer balancer = new PeakEwmaLoadBalancer();
+        Counter slow = new InternalCounter(null);
+        slow.begin(0);
+        slow.success(1000_000_000L);
+        Counter fast = new InternalCounter(null);
+        fast.begin(0);
+        fast.success(1000_000L);
+        Endpoint endpoint1 = createEndpoint(100, slow);
+        Endpoint endpoint2 = createEndpoint(100, fast);
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertSame(endpoint2, balancer.elect(Arrays.asList(endpoint1, endpoint2), counterIndex, request, random).getTarget());
+        }
+    }
+
+    private Endpoint createEndpoint(int weight, Counter counter) {
+        Endpoint endpoint = mock(Endpoint.class);
+        when(endpoint.reweight(any())).thenReturn(weight);
+        when(endpoint.getCounter(same(serviceCounter), eq(0), anyLong())).thenReturn(counter);
+        return endpoint;
+    }
+}
@@ -19,9 +19,12 @@ import lombok.Getter;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
 
 public class RandomWeightTest {
 
@@ -47,6 +50,49 @@ public class RandomWeightTest {
         Assertions.assertTrue(ratio > 0.95 && ratio < 1.05);
     }
 
+    @Test
+    void testWeightTable() {
+        List<Food> foods = Arrays.asList(new Food("apple", 0), new Food("banana", 3), new Food("orange", 0), new Food("watermelon", 1));
+        WeightTable table = WeightTable.current().build(foods, Food::getWeight);
+        Assertions.assertEquals(4, table.getTotal());
+        Assertions.assertEquals(3, table.getWeight(1));
+        Random random = new Random();
+        int[] counts = new int[foods.size()];
+        for (int i = 0; i < 100000; i++) {
+            counts[table.select(random)]++;
+        }
+        Assertions.assertEquals(0, counts[0]);
+        Assertions.assertEquals(0, counts[2]);
+        double ratio = counts[1] / (counts[3] * 3.0);
+        Assertions.assertTrue(ratio > 0.95 && ratio < 1.05);
+    }
+
+    @Test
+    void testCachedWeightTable() {
+        List<Food> foods = new ArrayList<>(Arrays.asList(new Food("apple", 1), new Food("banana", 3)));
+        AtomicInteger builds = new AtomicInteger();
+        ToIntFunction<Food> weightFunc = food -> {
+            builds.incrementAndGet();
+            return food.getWeight();
+        };
+        WeightTable table = WeightTable.current();
+        table.build(foods, weightFunc, 1000);
+        table.build(foods, weightFunc, 1010);
+        Assertions.assertEquals(2, builds.get());
+        Assertions.assertEquals(4, table.getTotal());
+        // the table is rebuilt when it expires.
+        table.build(foods, weightFunc, 1060);
+        Assertions.assertEquals(4, builds.get());
+        // the table is rebuilt when the targets are changed in place.
+        foods.set(0, new Food("orange", 2));
+        table.build(foods, weightFunc, 1070);
+        Assertions.assertEquals(6, builds.get());
+        Assertions.assertEquals(5, table.getTotal());
+        // the table is rebuilt after it is built without cache.
+        table.build(foods, Food::getWeight);
+        table.build(foods, weightFunc, 1080);
+        Assertions.assertEquals(8, builds.get());
+    }
 
     @Getter
     private static class Food {
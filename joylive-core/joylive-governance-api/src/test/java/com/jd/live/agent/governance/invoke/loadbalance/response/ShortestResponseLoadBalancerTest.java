@@ -0,0 +1,83 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.loadbalance.response;
+
+import com.jd.live.agent.governance.counter.Counter;
+import com.jd.live.agent.governance.counter.CounterIndex;
+import com.jd.live.agent.governance.counter.ServiceCounter;
+import com.jd.live.agent.governance.counter.internal.StripedCounter;
+import com.jd.live.agent.governance.instance.Endpoint;
+import com.jd.live.agent.governance.invoke.Invocation;
+import com.jd.live.agent.governance.policy.service.loadbalance.LoadBalancePolicy;
+import com.jd.live.agent.governance.request.ServiceRequest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ShortestResponseLoadBalancerTest {
+
+    private final ServiceCounter serviceCounter = mock(ServiceCounter.class);
+
+    private final CounterIndex counterIndex = new CounterIndex(serviceCounter, 0);
+
+    @Test
+    void testLongTail() {
+        // the average of the long tail endpoint is lower, but its 99th percentile is much higher.
+        Counter tail = new StripedCounter(null);
+        for (int i = 0; i < 100; i++) {
+            tail.begin(0);
+            tail.success(i < 95 ? 1 : 200);
+        }
+        Counter stable = new StripedCounter(null);
+        for (int i = 0; i < 100; i++) {
+            stable.begin(0);
+            stable.success(12);
+        }
+        tail.snapshot();
+        stable.snapshot();
+        Assertions.assertTrue(tail.getSnapshot().getSucceededAverageElapsed() < stable.getSnapshot().getSucceededAverageElapsed());
+
+        Endpoint endpoint1 = createEndpoint(tail);
+        Endpoint endpoint2 = createEndpoint(stable);
+        List<Endpoint> endpoints = Arrays.asList(endpoint1, endpoint2);
+        Invocation<?> invocation = createInvocation();
+        ShortestResponseLoadBalancer balancer = new ShortestResponseLoadBalancer();
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertSame(endpoint2, balancer.doElect(endpoints, new LoadBalancePolicy(), invocation).getTarget());
+        }
+    }
+
+    private Invocation<?> createInvocation() {
+        Invocation<?> invocation = mock(Invocation.class);
+        ServiceRequest request = mock(ServiceRequest.class);
+        when(invocation.getRequest()).thenAnswer(i -> request);
+        when(invocation.getCounterIndex()).thenReturn(counterIndex);
+        return invocation;
+    }
+
+    private Endpoint createEndpoint(Counter counter) {
+        Endpoint endpoint = mock(Endpoint.class);
+        when(endpoint.reweight(any())).thenReturn(100);
+        when(endpoint.getCounter(same(serviceCounter), eq(0), anyLong())).thenReturn(counter);
+        return endpoint;
+    }
+}
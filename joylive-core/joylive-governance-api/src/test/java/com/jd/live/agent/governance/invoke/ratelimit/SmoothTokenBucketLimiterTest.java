@@ -15,6 +15,7 @@
  */
 package com.jd.live.agent.governance.invoke.ratelimit;
 
+import com.jd.live.agent.core.util.time.TimeScheduler;
 import com.jd.live.agent.governance.invoke.ratelimit.tokenbucket.SmoothBurstyLimiter;
 import com.jd.live.agent.governance.invoke.ratelimit.tokenbucket.SmoothWarmupLimiter;
 import com.jd.live.agent.governance.policy.service.limit.RateLimitPolicy;
@@ -25,6 +26,13 @@ import org.junit.jupiter.api.Test;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * SmoothTokenBucketLimiterTest
@@ -95,6 +103,78 @@ public class SmoothTokenBucketLimiterTest {
             // Since maxWaitMs is 0, it should fail immediately without waiting.
             Assertions.assertFalse(limiter.acquire(51));
         }
+
+        @Test
+        void testAcquireAsync() {
+            RateLimitPolicy policy = createPolicy(0L, 5);
+            SmoothBurstyLimiter limiter = new SmoothBurstyLimiter(policy, new SlidingWindow(10, 1000L));
+            // Bucket has 50 permits, the first acquisition borrows the missing one from the future.
+            Assertions.assertTrue(limiter.acquireAsync(51, 0, TimeUnit.MILLISECONDS).toCompletableFuture().join());
+            // The next acquisition has to wait for the borrowed permit, which exceeds the timeout.
+            Assertions.assertFalse(limiter.acquireAsync(1, 0, TimeUnit.MILLISECONDS).toCompletableFuture().join());
+            // Without a timer, the acquisition which has to wait is rejected instead of blocking the caller.
+            Assertions.assertFalse(limiter.acquireAsync(1, 500, TimeUnit.MILLISECONDS).toCompletableFuture().join());
+        }
+
+        @Test
+        void testAcquireAsync_shouldWaitForPermits() {
+            RateLimitPolicy policy = createPolicy(500L, 1);
+            TimeScheduler timer = new TimeScheduler("rate-limit-test", 10, 100, 1);
+            timer.start();
+            try {
+                SmoothBurstyLimiter limiter = new SmoothBurstyLimiter(policy, new SlidingWindow(10, 1000L), timer);
+                // Bucket has 10 permits, the first acquisition borrows the missing one from the future.
+                Assertions.assertTrue(limiter.acquireAsync(11, 500, TimeUnit.MILLISECONDS).toCompletableFuture().join());
+
+                long startTime = System.nanoTime();
+                AtomicReference<String> thread = new AtomicReference<>();
+                CompletableFuture<Boolean> future = limiter.acquireAsync(1, 500, TimeUnit.MILLISECONDS).toCompletableFuture()
+                        .whenComplete((r, e) -> thread.set(Thread.currentThread().getName()));
+                // The borrowed permit is available after 100ms, the caller thread must not sleep until then.
+                Assertions.assertFalse(future.isDone());
+                Assertions.assertTrue(future.join());
+                long cost = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+                Assertions.assertTrue(cost >= 90 && cost < 250, "Actual cost: " + cost);
+                Assertions.assertTrue(thread.get().startsWith("rate-limit-test"), "Actual thread: " + thread.get());
+            } finally {
+                timer.close();
+            }
+        }
+
+        @Test
+        void testConcurrentAcquire_shouldNotOverIssue() throws InterruptedException {
+            RateLimitPolicy policy = createPolicy(0L, 1);
+            SmoothBurstyLimiter limiter = new SmoothBurstyLimiter(policy, new SlidingWindow(10, 1000L));
+            int threads = 8;
+            AtomicInteger granted = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(threads);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            long startTime = System.currentTimeMillis();
+            for (int i = 0; i < threads; i++) {
+                executor.submit(() -> {
+                    try {
+                        start.await();
+                        for (int j = 0; j < 100; j++) {
+                            if (limiter.acquire(1, 0, TimeUnit.MILLISECONDS)) {
+                                granted.incrementAndGet();
+                            }
+                        }
+                    } catch (InterruptedException ignored) {
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            start.countDown();
+            done.await();
+            executor.shutdown();
+            long cost = System.currentTimeMillis() - startTime;
+            // 10 stored permits, plus the one borrowed from the future, plus the permits refilled during the test.
+            int expected = 11 + (int) (cost / 100);
+            Assertions.assertTrue(granted.get() >= 10 && granted.get() <= expected,
+                    "Concurrent acquires should not issue more permits than the rate. Granted: " + granted.get());
+        }
     }
 
     @Nested
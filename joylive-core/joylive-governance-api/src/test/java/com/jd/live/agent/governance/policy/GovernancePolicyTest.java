@@ -18,12 +18,15 @@ package com.jd.live.agent.governance.policy;
 import com.jd.live.agent.governance.policy.live.LiveDomain;
 import com.jd.live.agent.governance.policy.live.LiveSpace;
 import com.jd.live.agent.governance.policy.live.LiveSpec;
+import com.jd.live.agent.governance.policy.service.MergePolicy;
 import com.jd.live.agent.governance.policy.service.Service;
 import com.jd.live.agent.governance.policy.service.ServiceGroup;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 public class GovernancePolicyTest {
@@ -52,4 +55,43 @@ public class GovernancePolicyTest {
 
     }
 
+    @Test
+    void testIncrementalCache() {
+        LiveSpace liveSpace = new LiveSpace();
+        LiveSpec liveSpec = new LiveSpec();
+        liveSpace.setSpec(liveSpec);
+        liveSpec.setUnits(new ArrayList<>());
+        LiveDomain domain = new LiveDomain();
+        domain.setHost("www.github.com");
+        liveSpec.setDomains(Arrays.asList(domain));
+
+        List<Service> services = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Service service = new Service("service-" + i);
+            service.setGroups(new ArrayList<>(Collections.singletonList(new ServiceGroup("group1"))));
+            services.add(service);
+        }
+        GovernancePolicy policy = new GovernancePolicy(Arrays.asList(liveSpace), null, null);
+        policy.setServices(policy.onUpdate(services, null, MergePolicy.ALL, "test"));
+        policy.cache();
+        Service service1 = policy.getService("service-1");
+        Assertions.assertTrue(service1.isCached());
+
+        Service update = new Service("service-2");
+        update.setVersion(2);
+        update.setGroups(new ArrayList<>(Collections.singletonList(new ServiceGroup("group2"))));
+        GovernancePolicy copy = policy.copy();
+        copy.setServices(copy.onUpdate(Collections.singletonList(update), null, MergePolicy.ALL, "test"));
+        Service service2 = copy.getServices().stream().filter(s -> s.getName().equals("service-2")).findFirst().orElse(null);
+        Assertions.assertNotNull(service2);
+        Assertions.assertFalse(service2.isCached());
+        copy.cache();
+
+        Assertions.assertTrue(service2.isCached());
+        Assertions.assertSame(service1, copy.getService("service-1"));
+        Assertions.assertNotNull(copy.getService("SERVICE-2").getGroup("group2"));
+        Assertions.assertEquals(10, copy.getServices().size());
+        Assertions.assertSame(policy.getDomain("www.github.com"), copy.getDomain("www.github.com"));
+    }
+
 }
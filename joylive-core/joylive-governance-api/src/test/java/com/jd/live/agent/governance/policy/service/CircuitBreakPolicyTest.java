@@ -15,6 +15,10 @@
  */
 package com.jd.live.agent.governance.policy.service;
 
+import com.jd.live.agent.core.util.URI;
+import com.jd.live.agent.governance.invoke.circuitbreak.AbstractCircuitBreaker;
+import com.jd.live.agent.governance.invoke.circuitbreak.CircuitBreaker;
+import com.jd.live.agent.governance.invoke.circuitbreak.CircuitBreakerStateListener;
 import com.jd.live.agent.governance.policy.service.circuitbreak.CircuitBreakLevel;
 import com.jd.live.agent.governance.policy.service.circuitbreak.CircuitBreakPolicy;
 import org.junit.jupiter.api.Assertions;
@@ -75,4 +79,63 @@ public class CircuitBreakPolicyTest {
         // outlierMaxPercent=50%, 1 broken instance, 1 total → 1/1=100% over 50% limit → protected
         Assertions.assertTrue(policy.isProtected(1));
     }
+
+    @Test
+    void testBreakerCache() {
+        CircuitBreakPolicy policy = new CircuitBreakPolicy();
+        policy.setVersion(1);
+        Assertions.assertNull(policy.getBreaker());
+        Assertions.assertNull(policy.getBreaker("/echo", "GET"));
+
+        CircuitBreaker service = new MockCircuitBreaker(policy);
+        CircuitBreaker get = new MockCircuitBreaker(policy);
+        CircuitBreaker none = new MockCircuitBreaker(policy);
+        policy.putBreaker(service);
+        policy.putBreaker("/echo", "GET", get);
+        policy.putBreaker("/echo", null, none);
+        Assertions.assertSame(service, policy.getBreaker());
+        Assertions.assertSame(get, policy.getBreaker("/echo", "GET"));
+        Assertions.assertSame(none, policy.getBreaker("/echo", null));
+        Assertions.assertNull(policy.getBreaker("/echo", "POST"));
+        Assertions.assertNull(policy.getBreaker("/echo", ""));
+
+        // recycled breaker is not reused
+        service.close();
+        Assertions.assertNull(policy.getBreaker());
+
+        // breaker exchanged to another policy of the same version is not reused
+        CircuitBreakPolicy other = new CircuitBreakPolicy();
+        other.setVersion(1);
+        get.exchange(other);
+        Assertions.assertNull(policy.getBreaker("/echo", "GET"));
+        Assertions.assertSame(none, policy.getBreaker("/echo", null));
+    }
+
+    private static class MockCircuitBreaker extends AbstractCircuitBreaker {
+
+        MockCircuitBreaker(CircuitBreakPolicy policy) {
+            super(policy, URI.parse("service://test"));
+        }
+
+        @Override
+        protected boolean doAcquire() {
+            return true;
+        }
+
+        @Override
+        protected void doRelease() {
+        }
+
+        @Override
+        protected void doOnError(long durationInMs, Throwable throwable) {
+        }
+
+        @Override
+        protected void doOnSuccess(long durationInMs) {
+        }
+
+        @Override
+        public void addListener(CircuitBreakerStateListener listener) {
+        }
+    }
 }
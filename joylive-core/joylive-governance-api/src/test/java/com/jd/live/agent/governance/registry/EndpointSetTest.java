@@ -0,0 +1,201 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.registry;
+
+import com.jd.live.agent.governance.instance.EndpointState;
+import com.jd.live.agent.governance.registry.EndpointSet.EndpointDiff;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+public class EndpointSetTest {
+
+    @Test
+    void testPutAndRemove() {
+        Random random = new Random(1);
+        Map<String, ServiceEndpoint> expected = new HashMap<>();
+        EndpointSet set = EndpointSet.EMPTY;
+        for (int i = 0; i < 20000; i++) {
+            Instance instance = new Instance("10.0." + random.nextInt(16) + "." + random.nextInt(256), 8080);
+            if (random.nextInt(3) == 0) {
+                expected.remove(instance.getAddress());
+                set = set.remove(instance.getAddress());
+            } else {
+                expected.put(instance.getAddress(), instance);
+                set = set.put(instance);
+            }
+            Assertions.assertEquals(expected.size(), set.size());
+        }
+        for (Map.Entry<String, ServiceEndpoint> entry : expected.entrySet()) {
+            Assertions.assertSame(entry.getValue(), set.get(entry.getKey()));
+        }
+        Assertions.assertEquals(expected.size(), set.toList().size());
+        Assertions.assertEquals(new HashSet<>(expected.values()), new HashSet<>(set.toList()));
+    }
+
+    @Test
+    void testStructuralSharing() {
+        Instance a = new Instance("10.0.0.1", 8080);
+        Instance b = new Instance("10.0.0.2", 8080);
+        EndpointSet set = EndpointSet.of(Arrays.asList(a, b));
+        Assertions.assertSame(set, set.put(a));
+        Assertions.assertSame(set, set.remove("10.0.0.3:8080"));
+        EndpointSet removed = set.remove(a.getAddress());
+        Assertions.assertEquals(1, removed.size());
+        Assertions.assertEquals(set.getVersion() + 1, removed.getVersion());
+        Assertions.assertEquals(2, set.size());
+        Assertions.assertTrue(removed.remove(b.getAddress()).isEmpty());
+    }
+
+    @Test
+    void testDiff() {
+        List<ServiceEndpoint> instances = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            instances.add(new Instance("10.0." + (i / 256) + "." + (i % 256), 8080));
+        }
+        EndpointSet older = EndpointSet.of(instances);
+        Instance added = new Instance("10.1.0.1", 8080);
+        Instance updated = new Instance("10.0.0.1", 8080);
+        EndpointSet newer = older.put(added).put(updated).remove("10.0.0.2:8080");
+
+        EndpointDiff diff = EndpointSet.diff(older, newer);
+        Assertions.assertEquals(Collections.singletonList(added), diff.getAdded());
+        Assertions.assertEquals(Collections.singletonList(updated), diff.getUpdated());
+        Assertions.assertEquals(1, diff.getRemoved().size());
+        Assertions.assertEquals("10.0.0.2:8080", diff.getRemoved().get(0).getAddress());
+        Assertions.assertTrue(EndpointSet.diff(newer, newer).isEmpty());
+        Assertions.assertEquals(3000, EndpointSet.diff(null, newer).getAdded().size());
+        Assertions.assertEquals(3000, EndpointSet.diff(newer, EndpointSet.EMPTY).getRemoved().size());
+    }
+
+    @Test
+    void testUpdate() {
+        List<ServiceEndpoint> instances = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            instances.add(new Instance("10.0." + (i / 256) + "." + (i % 256), 8080));
+        }
+        EndpointSet older = EndpointSet.of(instances);
+        Assertions.assertSame(older, older.update(new ArrayList<>(instances)));
+
+        // a full list with one added, one updated and one removed endpoint
+        List<ServiceEndpoint> fulls = new ArrayList<>(instances);
+        Instance added = new Instance("10.1.0.1", 8080);
+        Instance updated = new Instance("10.0.0.1", 8080);
+        fulls.add(added);
+        fulls.set(1, updated);
+        fulls.remove(2);
+        EndpointSet newer = older.update(fulls);
+        Assertions.assertEquals(3000, newer.size());
+        Assertions.assertSame(instances.get(0), newer.get(instances.get(0).getAddress()));
+        Assertions.assertSame(updated, newer.get(updated.getAddress()));
+        Assertions.assertNull(newer.get("10.0.0.2:8080"));
+
+        EndpointDiff diff = EndpointSet.diff(older, newer);
+        Assertions.assertEquals(Collections.singletonList(added), diff.getAdded());
+        Assertions.assertEquals(Collections.singletonList(updated), diff.getUpdated());
+        Assertions.assertEquals(Collections.singletonList(instances.get(2)), diff.getRemoved());
+        Assertions.assertTrue(newer.update(Collections.emptyList()).isEmpty());
+    }
+
+    @Test
+    void testEqualEndpoints() {
+        List<ServiceEndpoint> instances = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            instances.add(new MetadataInstance("10.0." + (i / 256) + "." + (i % 256), 8080, "v1"));
+        }
+        EndpointSet older = EndpointSet.of(instances);
+        // the registry creates new objects on every full event, the equal endpoints are kept.
+        List<ServiceEndpoint> fulls = new ArrayList<>();
+        for (ServiceEndpoint instance : instances) {
+            fulls.add(new MetadataInstance(instance.getHost(), instance.getPort(), "v1"));
+        }
+        MetadataInstance updated = new MetadataInstance("10.0.0.1", 8080, "v2");
+        fulls.set(1, updated);
+        EndpointSet newer = older.update(fulls);
+        Assertions.assertSame(instances.get(0), newer.get(instances.get(0).getAddress()));
+        Assertions.assertSame(updated, newer.get(updated.getAddress()));
+
+        EndpointDiff diff = EndpointSet.diff(older, newer);
+        Assertions.assertTrue(diff.getAdded().isEmpty());
+        Assertions.assertTrue(diff.getRemoved().isEmpty());
+        Assertions.assertEquals(Collections.singletonList(updated), diff.getUpdated());
+        Assertions.assertSame(newer, newer.put(new MetadataInstance("10.0.0.1", 8080, "v2")));
+    }
+
+    private static class Instance extends AbstractServiceEndpoint {
+
+        private final String host;
+
+        private final int port;
+
+        Instance(String host, int port) {
+            this.host = host;
+            this.port = port;
+        }
+
+        @Override
+        public String getHost() {
+            return host;
+        }
+
+        @Override
+        public int getPort() {
+            return port;
+        }
+
+        @Override
+        public Map<String, String> getMetadata() {
+            return null;
+        }
+
+        @Override
+        public EndpointState getState() {
+            return EndpointState.HEALTHY;
+        }
+    }
+
+    private static class MetadataInstance extends Instance {
+
+        private final Map<String, String> metadata;
+
+        MetadataInstance(String host, int port, String version) {
+            super(host, port);
+            this.metadata = Collections.singletonMap("version", version);
+        }
+
+        @Override
+        public Map<String, String> getMetadata() {
+            return metadata;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            } else if (!(o instanceof MetadataInstance)) {
+                return false;
+            }
+            MetadataInstance that = (MetadataInstance) o;
+            return getAddress().equals(that.getAddress()) && metadata.equals(that.metadata);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(getAddress(), metadata);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.registry;
+
+import com.jd.live.agent.governance.instance.EndpointState;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class EndpointSnapshotTest {
+
+    @Test
+    void testReadAndWrite() throws IOException {
+        File file = Files.createTempFile("registry", ".snapshot").toFile();
+        try {
+            Map<String, String> metadata = new HashMap<>();
+            metadata.put("unit", "unit1");
+            Map<String, EndpointSet> services = new HashMap<>();
+            services.put("service-a@@group", EndpointSet.of(Arrays.asList(
+                    new SnapshotEndpoint("service-a", "group", true, "10.0.0.1", 8080, null, metadata, EndpointState.HEALTHY),
+                    new SnapshotEndpoint("service-a", "group", false, "10.0.0.2", 8080, null, null, null))));
+            services.put("service-b", EndpointSet.EMPTY);
+            new EndpointSnapshot(1000L, services).write(file);
+
+            EndpointSnapshot snapshot = EndpointSnapshot.read(file);
+            Assertions.assertNotNull(snapshot);
+            Assertions.assertEquals(1000L, snapshot.getTimestamp());
+            Assertions.assertEquals(2, snapshot.getServices().size());
+            Assertions.assertTrue(snapshot.getServices().get("service-b").isEmpty());
+            EndpointSet endpoints = snapshot.getServices().get("service-a@@group");
+            Assertions.assertEquals(2, endpoints.size());
+            ServiceEndpoint endpoint = endpoints.get("10.0.0.1:8080");
+            Assertions.assertEquals("service-a", endpoint.getService());
+            Assertions.assertEquals("group", endpoint.getGroup());
+            Assertions.assertTrue(endpoint.isSecure());
+            Assertions.assertEquals("unit1", endpoint.getLabel("unit"));
+            Assertions.assertEquals(EndpointState.HEALTHY, endpoint.getState());
+            Assertions.assertNull(endpoints.get("10.0.0.2:8080").getMetadata());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    void testServiceTimestamps() throws IOException {
+        File file = Files.createTempFile("registry", ".snapshot").toFile();
+        try {
+            Map<String, EndpointSet> services = new HashMap<>();
+            services.put("service-a", EndpointSet.EMPTY);
+            services.put("service-b", EndpointSet.EMPTY);
+            Map<String, Long> timestamps = new HashMap<>();
+            timestamps.put("service-a", 500L);
+            new EndpointSnapshot(1000L, services, timestamps).write(file);
+
+            EndpointSnapshot snapshot = EndpointSnapshot.read(file);
+            Assertions.assertNotNull(snapshot);
+            Assertions.assertEquals(500L, snapshot.getTimestamp("service-a"));
+            // the services without their own timestamps are written with the timestamp of the snapshot
+            Assertions.assertEquals(1000L, snapshot.getTimestamp("service-b"));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    void testCorrupted() throws IOException {
+        File file = Files.createTempFile("registry", ".snapshot").toFile();
+        try {
+            Map<String, EndpointSet> services = new HashMap<>();
+            services.put("service-a", EndpointSet.of(Arrays.asList(
+                    new SnapshotEndpoint("service-a", null, false, "10.0.0.1", 8080, null, null, null))));
+            new EndpointSnapshot(1000L, services).write(file);
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.seek(raf.length() - 1);
+                int value = raf.read();
+                raf.seek(raf.length() - 1);
+                raf.write(value ^ 0xFF);
+            }
+            Assertions.assertNull(EndpointSnapshot.read(file));
+            Assertions.assertNull(EndpointSnapshot.read(new File(file.getPath() + ".none")));
+        } finally {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.registry;
+
+import com.jd.live.agent.core.util.time.Timer;
+import com.jd.live.agent.governance.registry.LiveRegistry.ClusterSubscription;
+import com.jd.live.agent.governance.registry.LiveRegistry.Subscription;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LiveRegistryTest {
+
+    private static final ServiceId SERVICE = new ServiceId("service-a");
+
+    @Test
+    void testStaleToLive() throws Exception {
+        Map<String, Consumer<RegistryEvent>> subscribers = new HashMap<>();
+        Subscription subscription = subscription(subscribers, "c1");
+        subscription.restore(endpoints("10.0.0.1"));
+        Assertions.assertNull(subscription.getSnapshot());
+
+        List<RegistryChangeEvent> events = new ArrayList<>();
+        subscription.addConsumer(e -> events.add((RegistryChangeEvent) e));
+        Assertions.assertEquals(1, events.size());
+        Assertions.assertTrue(events.get(0).isStale());
+        Assertions.assertEquals(1, events.get(0).getEndpoints().size());
+
+        subscription.subscribe();
+        subscribers.get("c1").accept(new RegistryEvent(SERVICE, Arrays.asList(endpoint("10.0.0.2"), endpoint("10.0.0.3"))));
+        Assertions.assertEquals(2, events.size());
+        RegistryChangeEvent event = events.get(1);
+        Assertions.assertFalse(event.isStale());
+        Assertions.assertNull(event.getEndpoints().get("10.0.0.1:8080"));
+        Assertions.assertNotNull(event.getEndpoints().get("10.0.0.2:8080"));
+        Assertions.assertEquals(2, event.getEndpoints().size());
+        Assertions.assertSame(event.getEndpoints(), subscription.getSnapshot());
+    }
+
+    @Test
+    void testStaleUntilAllClustersArrive() throws Exception {
+        Map<String, Consumer<RegistryEvent>> subscribers = new HashMap<>();
+        Subscription subscription = subscription(subscribers, "c1", "c2");
+        EndpointSet snapshot = endpoints("10.0.0.1");
+        subscription.restore(snapshot);
+
+        List<RegistryChangeEvent> events = new ArrayList<>();
+        subscription.addConsumer(e -> events.add((RegistryChangeEvent) e));
+        subscription.subscribe();
+        // the first cluster has no endpoints, the snapshot is still served before the second cluster arrives.
+        subscribers.get("c1").accept(new RegistryEvent(SERVICE, Collections.emptyList()));
+        Assertions.assertEquals(1, events.size());
+        Assertions.assertNull(subscription.getSnapshot());
+        Assertions.assertEquals(1, subscription.getEndpoints().get().size());
+
+        subscribers.get("c2").accept(new RegistryEvent(SERVICE, Collections.singletonList(endpoint("10.0.0.2"))));
+        Assertions.assertEquals(2, events.size());
+        Assertions.assertFalse(events.get(1).isStale());
+        Assertions.assertEquals(1, events.get(1).getEndpoints().size());
+        Assertions.assertNotNull(events.get(1).getEndpoints().get("10.0.0.2:8080"));
+        Assertions.assertNotNull(subscription.getSnapshot());
+    }
+
+    private static Subscription subscription(Map<String, Consumer<RegistryEvent>> subscribers, String... clusters) throws Exception {
+        List<ClusterSubscription> subscriptions = new ArrayList<>();
+        for (String name : clusters) {
+            RegistryService cluster = mock(RegistryService.class);
+            when(cluster.getName()).thenReturn(name);
+            doAnswer(invocation -> {
+                subscribers.put(name, invocation.getArgument(1));
+                return null;
+            }).when(cluster).subscribe(any(ServiceId.class), any());
+            subscriptions.add(new ClusterSubscription(cluster, SERVICE));
+        }
+        Timer timer = mock(Timer.class);
+        when(timer.delay(anyString(), anyLong(), any())).thenAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(2)).run();
+            return null;
+        });
+        return new Subscription(SERVICE, subscriptions, timer, null, null);
+    }
+
+    private static EndpointSet endpoints(String... hosts) {
+        List<ServiceEndpoint> endpoints = new ArrayList<>();
+        for (String host : hosts) {
+            endpoints.add(endpoint(host));
+        }
+        return EndpointSet.of(endpoints);
+    }
+
+    private static ServiceEndpoint endpoint(String host) {
+        return new SnapshotEndpoint(SERVICE.getService(), null, false, host, 8080, null, null, null);
+    }
+}
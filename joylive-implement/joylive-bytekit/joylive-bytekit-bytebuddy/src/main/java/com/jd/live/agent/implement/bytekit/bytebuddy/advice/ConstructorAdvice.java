@@ -36,10 +36,11 @@ public class ConstructorAdvice {
     @Advice.OnMethodEnter
     public static void onEnter(@Advice.Origin Constructor<?> constructor,
                                @Advice.Origin("#t\\##m#s") String methodDesc,
+                               @AdviceIndex int adviceIndex,
                                @Advice.AllArguments(readOnly = false, typing = Assigner.Typing.DYNAMIC) Object[] arguments,
                                @Advice.Local(value = "_EXECUTABLE_CONTEXT_$JOYLIVE_LOCAL") Object context
     ) throws Throwable {
-        ConstructorContext mc = new ConstructorContext(constructor, arguments, methodDesc);
+        ConstructorContext mc = new ConstructorContext(constructor, arguments, methodDesc, adviceIndex);
         context = mc;
         AdviceHandler.onEnter(mc);
         arguments = mc.getArguments();
@@ -40,6 +40,8 @@ public class MemberMethodAdvice {
     public static boolean onEnter(@Advice.This(typing = Assigner.Typing.DYNAMIC) Object target,
                                   @Advice.Origin Method method,
                                   @Advice.Origin("#t\\##m#s") String methodDesc,
+                                  @AdviceIndex int adviceIndex,
+                                  @AdviceDescription String adviceDesc,
                                   @Advice.AllArguments(readOnly = false, typing = Assigner.Typing.DYNAMIC) Object[] arguments,
                                   @Advice.Local(value = "_EXECUTABLE_CONTEXT_$JOYLIVE_LOCAL") Object context
     ) throws Throwable {
@@ -48,7 +50,7 @@ public class MemberMethodAdvice {
             context = ORIGIN_METHOD_CONTEXT;
             return false;
         }
-        MethodContext mc = new MethodContext(target, method, arguments, methodDesc);
+        MethodContext mc = new MethodContext(target, method, arguments, methodDesc, adviceIndex, adviceDesc);
         context = mc;
         AdviceHandler.onEnter(mc);
         arguments = mc.getArguments();
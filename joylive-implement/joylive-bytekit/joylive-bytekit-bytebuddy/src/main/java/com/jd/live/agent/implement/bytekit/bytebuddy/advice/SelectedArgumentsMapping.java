@@ -0,0 +1,71 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.implement.bytekit.bytebuddy.advice;
+
+import com.jd.live.agent.core.plugin.definition.ArgumentSelector;
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.method.ParameterDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.implementation.bytecode.StackManipulation;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
+import net.bytebuddy.implementation.bytecode.constant.NullConstant;
+import net.bytebuddy.implementation.bytecode.member.MethodVariableAccess;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps the {@link SelectedArguments} parameter of the advice to the arguments selected by the interceptors.
+ * Only the selected arguments are loaded and boxed, the others are null in the array.
+ *
+ * @since 1.0.0
+ */
+public class SelectedArgumentsMapping implements Advice.OffsetMapping {
+
+    private static final TypeDescription.Generic OBJECT = TypeDescription.Generic.OfNonGenericType.ForLoadedType.of(Object.class);
+
+    private final ArgumentSelector selector;
+
+    public SelectedArgumentsMapping(ArgumentSelector selector) {
+        this.selector = selector;
+    }
+
+    @Override
+    public Target resolve(TypeDescription instrumentedType,
+                          MethodDescription instrumentedMethod,
+                          Assigner assigner,
+                          Advice.ArgumentHandler argumentHandler,
+                          Sort sort) {
+        if (selector.isNone() || instrumentedMethod.getParameters().isEmpty()) {
+            return new Target.ForStackManipulation(NullConstant.INSTANCE);
+        }
+        List<StackManipulation> reads = new ArrayList<>(instrumentedMethod.getParameters().size());
+        for (ParameterDescription parameter : instrumentedMethod.getParameters()) {
+            if (selector.isSelected(parameter.getIndex())) {
+                StackManipulation assignment = assigner.assign(parameter.getType(), OBJECT, Assigner.Typing.DYNAMIC);
+                if (!assignment.isValid()) {
+                    throw new IllegalStateException("Cannot assign " + parameter + " to " + OBJECT);
+                }
+                reads.add(new StackManipulation.Compound(MethodVariableAccess.of(parameter.getType())
+                        .loadFrom(argumentHandler.argument(parameter.getOffset())), assignment));
+            } else {
+                reads.add(NullConstant.INSTANCE);
+            }
+        }
+        return new Target.ForArray.ReadOnly(OBJECT, reads);
+    }
+}
@@ -39,6 +39,8 @@ public class StaticMethodAdvice {
     @Advice.OnMethodEnter(skipOn = Advice.OnNonDefaultValue.class)
     public static boolean onEnter(@Advice.Origin Method method,
                                   @Advice.Origin("#t\\##m#s") String methodDesc,
+                                  @AdviceIndex int adviceIndex,
+                                  @AdviceDescription String adviceDesc,
                                   @Advice.AllArguments(readOnly = false, typing = Assigner.Typing.DYNAMIC) Object[] arguments,
                                   @Advice.Local(value = "_EXECUTABLE_CONTEXT_$JOYLIVE_LOCAL") Object context
     ) throws Throwable {
@@ -48,7 +50,7 @@ public class StaticMethodAdvice {
             return false;
         }
 
-        MethodContext mc = new MethodContext(null, method, arguments, methodDesc);
+        MethodContext mc = new MethodContext(null, method, arguments, methodDesc, adviceIndex, adviceDesc);
         context = mc;
         AdviceHandler.onEnter(mc);
         arguments = mc.getArguments();
@@ -21,13 +21,12 @@ import com.jd.live.agent.bootstrap.bytekit.advice.AdviceKey;
 import com.jd.live.agent.bootstrap.logger.Logger;
 import com.jd.live.agent.bootstrap.logger.LoggerFactory;
 import com.jd.live.agent.bootstrap.plugin.definition.Interceptor;
+import com.jd.live.agent.core.plugin.definition.ArgumentSelector;
 import com.jd.live.agent.core.plugin.definition.InterceptorDefinition;
 import com.jd.live.agent.core.plugin.definition.PluginDeclare;
 import com.jd.live.agent.core.plugin.definition.PluginDefinition;
 import com.jd.live.agent.core.plugin.definition.PluginImporter;
-import com.jd.live.agent.implement.bytekit.bytebuddy.advice.ConstructorAdvice;
-import com.jd.live.agent.implement.bytekit.bytebuddy.advice.MemberMethodAdvice;
-import com.jd.live.agent.implement.bytekit.bytebuddy.advice.StaticMethodAdvice;
+import com.jd.live.agent.implement.bytekit.bytebuddy.advice.*;
 import com.jd.live.agent.implement.bytekit.bytebuddy.type.BuddyMethodDesc;
 import com.jd.live.agent.implement.bytekit.bytebuddy.type.BuddyTypeDesc;
 import com.jd.live.agent.implement.bytekit.bytebuddy.util.ModuleUtil;
@@ -163,22 +162,26 @@ public class PluginTransformer implements AgentBuilder.RawMatcher, AgentBuilder.
         }
 
         DynamicType.Builder<?> newBuilder = builder;
-        List<Interceptor> interceptors;
+        List<InterceptorDefinition> definitions;
         for (InDefinedShape methodDesc : description.getDeclaredMethods()) {
             if (methodDesc.isNative() || methodDesc.isAbstract()) {
                 continue;
             }
-            interceptors = getInterceptors(methodDesc, classLoader, interceptorDefinitions);
-            if (!interceptors.isEmpty()) {
+            definitions = getDefinitions(methodDesc, classLoader, interceptorDefinitions);
+            if (!definitions.isEmpty()) {
                 String desc = BuddyMethodDesc.getDescription(methodDesc);
                 try {
-                    Object methodKey = new AdviceKey(desc, classLoader);
+                    AdviceKey methodKey = new AdviceKey(desc, classLoader);
+                    List<Interceptor> interceptors = toList(definitions, InterceptorDefinition::getInterceptor);
+                    ArgumentSelector arguments = getArguments(methodDesc, definitions);
                     if (methodDesc.isStatic()) {
-                        newBuilder = enhanceMethod(newBuilder, methodDesc, interceptors, StaticMethodAdvice.class, methodKey);
+                        newBuilder = enhanceMethod(newBuilder, methodDesc, interceptors, arguments,
+                                arguments.isAll() ? StaticMethodAdvice.class : StaticMethodSelectiveAdvice.class, methodKey);
                     } else if (methodDesc.isConstructor()) {
-                        newBuilder = enhanceMethod(newBuilder, methodDesc, interceptors, ConstructorAdvice.class, methodKey);
+                        newBuilder = enhanceMethod(newBuilder, methodDesc, interceptors, ArgumentSelector.ALL, ConstructorAdvice.class, methodKey);
                     } else {
-                        newBuilder = enhanceMethod(newBuilder, methodDesc, interceptors, MemberMethodAdvice.class, methodKey);
+                        newBuilder = enhanceMethod(newBuilder, methodDesc, interceptors, arguments,
+                                arguments.isAll() ? MemberMethodAdvice.class : MemberMethodSelectiveAdvice.class, methodKey);
                     }
                 } catch (NoSuchFieldException | NoSuchMethodException | IllegalAccessException |
                          InvocationTargetException e) {
@@ -190,29 +193,61 @@ public class PluginTransformer implements AgentBuilder.RawMatcher, AgentBuilder.
     }
 
     /**
-     * Retrieves a list of interceptor instances applicable to a given method, based on a set of interceptor definitions.
+     * Retrieves a list of interceptor definitions applicable to a given method.
      * Each interceptor definition includes a matcher that determines whether the interceptor should be applied to the method.
      *
      * @param methodDesc   The description of the method for which interceptors are being retrieved.
      * @param classLoader  The class loader associated with the method.
      * @param interceptors A list of interceptor definitions to evaluate against the method.
-     * @return A list of {@link Interceptor} instances that match the method according to their respective definitions.
+     * @return A list of {@link InterceptorDefinition} instances that match the method.
      */
-    private List<Interceptor> getInterceptors(InDefinedShape methodDesc,
-                                              ClassLoader classLoader,
-                                              List<InterceptorDefinition> interceptors) {
+    private List<InterceptorDefinition> getDefinitions(InDefinedShape methodDesc,
+                                                       ClassLoader classLoader,
+                                                       List<InterceptorDefinition> interceptors) {
         BuddyMethodDesc desc = new BuddyMethodDesc(methodDesc, classLoader);
-        return toList(interceptors, v -> v.getMatcher().match(desc), InterceptorDefinition::getInterceptor);
+        return toList(interceptors, v -> v.getMatcher().match(desc), v -> v);
+    }
+
+    /**
+     * Merges the arguments read by the interceptor definitions of a method.
+     * The arguments are all selected if the selection covers all the parameters of the method.
+     *
+     * @param methodDesc  The description of the method.
+     * @param definitions The interceptor definitions of the method.
+     * @return The arguments to bind in the advice.
+     */
+    private ArgumentSelector getArguments(InDefinedShape methodDesc, List<InterceptorDefinition> definitions) {
+        ArgumentSelector result = ArgumentSelector.NONE;
+        for (InterceptorDefinition definition : definitions) {
+            result = result.merge(definition.getArguments());
+            if (result.isAll()) {
+                return result;
+            }
+        }
+        int size = methodDesc.getParameters().size();
+        for (int i = 0; i < size; i++) {
+            if (!result.isSelected(i)) {
+                return result;
+            }
+        }
+        return size == 0 ? ArgumentSelector.NONE : ArgumentSelector.ALL;
     }
 
     /**
      * Enhances a method by applying a list of interceptors to it. This is achieved by using bytecode manipulation
      * to insert advice around the method execution. The advice is defined in a specified class and is selected
-     * based on a unique key.
+     * based on a unique key, whose constant index is bound to the {@link AdviceIndex} parameter of the advice,
+     * and whose description is bound to the {@link AdviceDescription} parameter.
+     * <p>
+     * If the method is already woven by another plugin without the arguments read by the interceptors,
+     * a dedicated advice of this plugin is woven to bind them, which is looked up by its own key when its
+     * index no longer matches.
+     * </p>
      *
      * @param builder      The builder used to create or modify the class that contains the method.
      * @param methodDesc   The description of the method to be enhanced.
      * @param interceptors A list of interceptors to apply to the method.
+     * @param arguments    The arguments read by the interceptors.
      * @param templateCls  The class that contains the advice to be applied to the method.
      * @param adviceKey    A unique key identifying the specific advice to use.
      * @return A {@link DynamicType.Builder} instance representing the modified class.
@@ -224,16 +259,34 @@ public class PluginTransformer implements AgentBuilder.RawMatcher, AgentBuilder.
     protected DynamicType.Builder<?> enhanceMethod(DynamicType.Builder<?> builder,
                                                    InDefinedShape methodDesc,
                                                    List<Interceptor> interceptors,
+                                                   ArgumentSelector arguments,
                                                    Class<?> templateCls,
-                                                   Object adviceKey)
+                                                   AdviceKey adviceKey)
             throws InvocationTargetException, IllegalAccessException, NoSuchMethodException, NoSuchFieldException {
         AdviceInterceptor adviceDesc = AdviceHandler.getOrCreate(adviceKey);
-        for (Interceptor interceptor : interceptors) {
-            adviceDesc.add(interceptor);
-        }
         if (adviceDesc.lock(plugin)) {
-            return builder.visit(Advice.to(templateCls).on(ElementMatchers.is(methodDesc)));
+            for (Interceptor interceptor : interceptors) {
+                adviceDesc.add(interceptor);
+            }
+            // the bound arguments are attached to the advice, so they are released with it.
+            adviceDesc.setAttachment(arguments);
+            // bake the constant index of the advice into the woven code.
+            return builder.visit(Advice.withCustomMapping()
+                    .bind(AdviceIndex.class, adviceDesc.getIndex())
+                    .bind(AdviceDescription.class, adviceKey.getDescription())
+                    .bind(SelectedArguments.class, new SelectedArgumentsMapping(arguments))
+                    .to(templateCls)
+                    .on(ElementMatchers.is(methodDesc)));
+        }
+        Object attachment = adviceDesc.getAttachment();
+        ArgumentSelector woven = attachment instanceof ArgumentSelector ? (ArgumentSelector) attachment : ArgumentSelector.ALL;
+        if (woven.contains(arguments)) {
+            for (Interceptor interceptor : interceptors) {
+                adviceDesc.add(interceptor);
+            }
+            return builder;
         }
-        return builder;
+        AdviceKey pluginKey = new AdviceKey(adviceKey.getDescription() + "@" + plugin.getName(), adviceKey.getClassLoader());
+        return enhanceMethod(builder, methodDesc, interceptors, arguments, templateCls, pluginKey);
     }
 }
@@ -0,0 +1,151 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.implement.bytekit.bytebuddy.plugin;
+
+import com.jd.live.agent.bootstrap.bytekit.context.ExecutableContext;
+import com.jd.live.agent.bootstrap.plugin.PluginListener;
+import com.jd.live.agent.core.bytekit.matcher.MatcherBuilder;
+import com.jd.live.agent.core.bytekit.type.TypeDesc;
+import com.jd.live.agent.core.plugin.definition.ArgumentSelector;
+import com.jd.live.agent.core.plugin.definition.InterceptorAdaptor;
+import com.jd.live.agent.core.plugin.definition.InterceptorDefinitionAdapter;
+import com.jd.live.agent.core.plugin.definition.PluginDeclare;
+import com.jd.live.agent.core.plugin.definition.PluginDefinition;
+import com.jd.live.agent.core.plugin.definition.PluginDefinitionAdapter;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+
+public class PluginTransformerTest {
+
+    private static final Object CALLBACK = new Object();
+
+    @Test
+    void testWeaveSelectedArguments() throws Exception {
+        ArgumentsInterceptor interceptor = new ArgumentsInterceptor();
+        Class<?> type = weave(new ClassLoader() {
+        }, new TestPlugin("record", ArgumentSelector.of(0), interceptor));
+        Assertions.assertEquals("record", send(type));
+        // only the selected argument is bound, the others are neither boxed nor copied
+        Assertions.assertArrayEquals(new Object[]{"record", null, null}, interceptor.arguments);
+    }
+
+    @Test
+    void testWeaveNoArguments() throws Exception {
+        ArgumentsInterceptor interceptor = new ArgumentsInterceptor();
+        Class<?> type = weave(new ClassLoader() {
+        }, new TestPlugin("none", ArgumentSelector.NONE, interceptor));
+        Assertions.assertEquals("record", send(type));
+        Assertions.assertNull(interceptor.arguments);
+    }
+
+    @Test
+    void testWeaveDedicatedAdviceForMoreArguments() throws Exception {
+        ArgumentsInterceptor selective = new ArgumentsInterceptor();
+        ArgumentsInterceptor all = new ArgumentsInterceptor();
+        Class<?> type = weave(new ClassLoader() {
+                              },
+                new TestPlugin("selective", ArgumentSelector.of(0), selective),
+                new TestPlugin("all", ArgumentSelector.ALL, all));
+        Assertions.assertEquals("record", send(type));
+        Assertions.assertArrayEquals(new Object[]{"record", null, null}, selective.arguments);
+        // the arguments are not bound by the advice of the first plugin, so the second plugin has its own advice.
+        Assertions.assertArrayEquals(new Object[]{"record", 5L, CALLBACK}, all.arguments);
+        // the dedicated advice is woven with its own key, so it is still found when its index misses.
+        String description = Producer.class.getName() + "#send(java.lang.String,long,java.lang.Object)";
+        Assertions.assertEquals(description, selective.key);
+        Assertions.assertEquals(description + "@all", all.key);
+    }
+
+    private static Class<?> weave(ClassLoader loader, TestPlugin... plugins) {
+        TypeDescription description = TypeDescription.ForLoadedType.of(Producer.class);
+        DynamicType.Builder<?> builder = new ByteBuddy().redefine(Producer.class);
+        for (TestPlugin plugin : plugins) {
+            PluginTransformer transformer = new PluginTransformer(null, plugin);
+            Assertions.assertTrue(transformer.matches(description, loader, null, null, null));
+            builder = transformer.transform(builder, description, loader, null, null);
+        }
+        return builder.make()
+                .load(PluginTransformerTest.class.getClassLoader(), ClassLoadingStrategy.Default.CHILD_FIRST)
+                .getLoaded();
+    }
+
+    private static Object send(Class<?> type) throws Exception {
+        Method method = type.getMethod("send", String.class, long.class, Object.class);
+        return method.invoke(type.getConstructor().newInstance(), "record", 5L, CALLBACK);
+    }
+
+    public static class Producer {
+
+        public String send(String record, long offset, Object callback) {
+            return record;
+        }
+    }
+
+    private static class ArgumentsInterceptor extends InterceptorAdaptor {
+
+        private Object[] arguments;
+
+        private String key;
+
+        @Override
+        public void onEnter(ExecutableContext ctx) {
+            Object[] args = ctx.getArguments();
+            arguments = args == null ? null : args.clone();
+            key = ctx.getKey().getDescription();
+        }
+    }
+
+    private static class TestPlugin implements PluginDeclare {
+
+        private final String name;
+
+        private final List<PluginDefinition> definitions;
+
+        TestPlugin(String name, ArgumentSelector arguments, ArgumentsInterceptor interceptor) {
+            this.name = name;
+            this.definitions = Collections.singletonList(new PluginDefinitionAdapter(
+                    Producer.class.getName(),
+                    new InterceptorDefinitionAdapter(MatcherBuilder.named("send"), arguments, () -> interceptor)));
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public List<PluginDefinition> getDefinitions() {
+            return definitions;
+        }
+
+        @Override
+        public List<PluginDefinition> match(TypeDesc typeDesc, ClassLoader classLoader) {
+            return typeDesc.getActualName().equals(Producer.class.getName()) ? definitions : Collections.emptyList();
+        }
+
+        @Override
+        public void addListener(PluginListener listener) {
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.implement.event.opentelemetry.metric;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A compact key of the metric attribute values.
+ * <p>
+ * The key is mutable so that a single probe can be refilled for each event without allocation,
+ * call {@link #copy()} before storing it in a map.
+ * </p>
+ */
+final class MetricKey {
+
+    private final Object[] values;
+
+    private int hash;
+
+    MetricKey(int size) {
+        this.values = new Object[size];
+    }
+
+    private MetricKey(Object[] values, int hash) {
+        this.values = values;
+        this.hash = hash;
+    }
+
+    /**
+     * Sets the value at the specified position.
+     *
+     * @param index the position
+     * @param value the value
+     * @return this key
+     */
+    MetricKey set(int index, Object value) {
+        values[index] = value;
+        return this;
+    }
+
+    /**
+     * Clears the values.
+     *
+     * @return this key
+     */
+    MetricKey reset() {
+        Arrays.fill(values, null);
+        hash = 0;
+        return this;
+    }
+
+    /**
+     * Recalculates the hash code after the values are set.
+     *
+     * @return this key
+     */
+    MetricKey rehash() {
+        hash = Arrays.hashCode(values);
+        return this;
+    }
+
+    /**
+     * Creates an immutable copy of this key, the map values are copied as well.
+     *
+     * @return the copy
+     */
+    @SuppressWarnings("unchecked")
+    MetricKey copy() {
+        Object[] copies = values.clone();
+        for (int i = 0; i < copies.length; i++) {
+            if (copies[i] instanceof Map) {
+                copies[i] = new HashMap<>((Map<String, String>) copies[i]);
+            }
+        }
+        return new MetricKey(copies, hash);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        } else if (!(o instanceof MetricKey)) {
+            return false;
+        }
+        MetricKey that = (MetricKey) o;
+        return hash == that.hash && Arrays.equals(values, that.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
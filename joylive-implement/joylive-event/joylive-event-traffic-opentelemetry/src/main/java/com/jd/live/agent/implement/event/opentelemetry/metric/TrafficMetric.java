@@ -23,14 +23,30 @@ import com.jd.live.agent.governance.config.ExporterConfig.TrafficConfig;
 import com.jd.live.agent.governance.event.TrafficEvent;
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
-import io.opentelemetry.api.metrics.LongCounter;
 import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.ObservableLongCounter;
+import io.opentelemetry.api.metrics.ObservableLongMeasurement;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import static com.jd.live.agent.governance.event.TrafficEvent.ActionType;
 import static com.jd.live.agent.governance.event.TrafficEvent.ComponentType;
 
+/**
+ * Traffic metrics, which are pre-aggregated in process and reported to the meter on each collection.
+ * <p>
+ * The events with the same attribute values share the cached attributes and the accumulated counts,
+ * so the attributes are built once for an attribute set instead of once for each event.
+ * </p>
+ * <p>
+ * The attribute sets without any request in the last {@link #IDLE_COLLECTIONS} collections are evicted, so they
+ * are no longer exported and make room for the new attribute sets.
+ * </p>
+ */
 public class TrafficMetric implements Subscription<TrafficEvent> {
 
     private static final String KEY_COMPONENT_TYPE = "component_type";
@@ -94,37 +110,64 @@ public class TrafficMetric implements Subscription<TrafficEvent> {
     private static final AttributeKey<String> ATTRIBUTE_SERVICE_METHOD = AttributeKey.stringKey(KEY_SERVICE_METHOD);
     private static final AttributeKey<String> ATTRIBUTE_REJECT_TYPE = AttributeKey.stringKey(KEY_REJECT_TYPE);
 
+    private static final AttributeKey<Boolean> ATTRIBUTE_OVERFLOW = AttributeKey.booleanKey("otel.metric.overflow");
+
+    private static final int GATEWAY_INBOUNDS = 0;
+    private static final int GATEWAY_INBOUND_FORWARDS = 1;
+    private static final int GATEWAY_INBOUND_REJECTS = 2;
+    private static final int GATEWAY_OUTBOUNDS = 3;
+    private static final int GATEWAY_OUTBOUND_FORWARDS = 4;
+    private static final int GATEWAY_OUTBOUND_REJECTS = 5;
+    private static final int SERVICE_INBOUNDS = 6;
+    private static final int SERVICE_INBOUND_FORWARDS = 7;
+    private static final int SERVICE_INBOUND_REJECTS = 8;
+    private static final int SERVICE_OUTBOUNDS = 9;
+    private static final int SERVICE_OUTBOUND_FORWARDS = 10;
+    private static final int SERVICE_OUTBOUND_REJECTS = 11;
+    private static final int COUNTERS = 12;
+
+    private static final int KEY_SIZE = 22;
+
+    /**
+     * Same as the default cardinality limit of the sdk, the exceeded attribute sets are merged into the overflow cells.
+     */
+    private static final int MAX_CELLS = 2000;
+
+    /**
+     * The number of collections without any request, after which the cells of an attribute set are evicted.
+     */
+    private static final long IDLE_COLLECTIONS = 60;
+
     private final TrafficConfig config;
     private final Application application;
 
-    private final LongCounter gatewayInbounds;
-    private final LongCounter gatewayInboundForwards;
-    private final LongCounter gatewayInboundRejects;
-    private final LongCounter gatewayOutboundForwards;
-    private final LongCounter gatewayOutbounds;
-    private final LongCounter gatewayOutboundRejects;
-    private final LongCounter serviceInbounds;
-    private final LongCounter serviceInboundForwards;
-    private final LongCounter serviceInboundRejects;
-    private final LongCounter serviceOutbounds;
-    private final LongCounter serviceOutboundForwards;
-    private final LongCounter serviceOutboundRejects;
+    private final Map<MetricKey, MetricCells> cells = new ConcurrentHashMap<>(256);
+
+    private final MetricCells overflow = new MetricCells(Attributes.of(ATTRIBUTE_OVERFLOW, true), 0);
+
+    /**
+     * The number of collections, it's increased by the callback of the first counter.
+     */
+    private final AtomicLong collections = new AtomicLong();
+
+    // keep the registered counters reachable
+    private final ObservableLongCounter[] counters = new ObservableLongCounter[COUNTERS];
 
     public TrafficMetric(TrafficConfig config, Application application, Meter meter) {
         this.config = config;
         this.application = application;
-        this.gatewayInbounds = meter.counterBuilder(COUNTER_GATEWAY_INBOUND_REQUESTS_TOTAL).setUnit(REQUESTS).build();
-        this.gatewayInboundForwards = meter.counterBuilder(COUNTER_GATEWAY_INBOUND_FORWARD_REQUESTS_TOTAL).setUnit(REQUESTS).build();
-        this.gatewayInboundRejects = meter.counterBuilder(COUNTER_GATEWAY_INBOUND_REJECT_REQUESTS_TOTAL).setUnit(REQUESTS).build();
-        this.gatewayOutbounds = meter.counterBuilder(COUNTER_GATEWAY_OUTBOUND_REQUESTS_TOTAL).setUnit(REQUESTS).build();
-        this.gatewayOutboundForwards = meter.counterBuilder(COUNTER_GATEWAY_OUTBOUND_FORWARD_REQUESTS_TOTAL).setUnit(REQUESTS).build();
-        this.gatewayOutboundRejects = meter.counterBuilder(COUNTER_GATEWAY_OUTBOUND_REJECT_REQUESTS_TOTAL).setUnit(REQUESTS).build();
-        this.serviceInbounds = meter.counterBuilder(COUNTER_SERVICE_INBOUND_REQUESTS_TOTAL).setUnit(REQUESTS).build();
-        this.serviceInboundForwards = meter.counterBuilder(COUNTER_SERVICE_INBOUND_FORWARD_REQUESTS_TOTAL).setUnit(REQUESTS).build();
-        this.serviceInboundRejects = meter.counterBuilder(COUNTER_SERVICE_INBOUND_REJECT_REQUESTS_TOTAL).setUnit(REQUESTS).build();
-        this.serviceOutbounds = meter.counterBuilder(COUNTER_SERVICE_OUTBOUND_REQUESTS_TOTAL).setUnit(REQUESTS).build();
-        this.serviceOutboundForwards = meter.counterBuilder(COUNTER_SERVICE_OUTBOUND_FORWARD_REQUESTS_TOTAL).setUnit(REQUESTS).build();
-        this.serviceOutboundRejects = meter.counterBuilder(COUNTER_SERVICE_OUTBOUND_REJECT_REQUESTS_TOTAL).setUnit(REQUESTS).build();
+        counters[GATEWAY_INBOUNDS] = register(meter, COUNTER_GATEWAY_INBOUND_REQUESTS_TOTAL, GATEWAY_INBOUNDS);
+        counters[GATEWAY_INBOUND_FORWARDS] = register(meter, COUNTER_GATEWAY_INBOUND_FORWARD_REQUESTS_TOTAL, GATEWAY_INBOUND_FORWARDS);
+        counters[GATEWAY_INBOUND_REJECTS] = register(meter, COUNTER_GATEWAY_INBOUND_REJECT_REQUESTS_TOTAL, GATEWAY_INBOUND_REJECTS);
+        counters[GATEWAY_OUTBOUNDS] = register(meter, COUNTER_GATEWAY_OUTBOUND_REQUESTS_TOTAL, GATEWAY_OUTBOUNDS);
+        counters[GATEWAY_OUTBOUND_FORWARDS] = register(meter, COUNTER_GATEWAY_OUTBOUND_FORWARD_REQUESTS_TOTAL, GATEWAY_OUTBOUND_FORWARDS);
+        counters[GATEWAY_OUTBOUND_REJECTS] = register(meter, COUNTER_GATEWAY_OUTBOUND_REJECT_REQUESTS_TOTAL, GATEWAY_OUTBOUND_REJECTS);
+        counters[SERVICE_INBOUNDS] = register(meter, COUNTER_SERVICE_INBOUND_REQUESTS_TOTAL, SERVICE_INBOUNDS);
+        counters[SERVICE_INBOUND_FORWARDS] = register(meter, COUNTER_SERVICE_INBOUND_FORWARD_REQUESTS_TOTAL, SERVICE_INBOUND_FORWARDS);
+        counters[SERVICE_INBOUND_REJECTS] = register(meter, COUNTER_SERVICE_INBOUND_REJECT_REQUESTS_TOTAL, SERVICE_INBOUND_REJECTS);
+        counters[SERVICE_OUTBOUNDS] = register(meter, COUNTER_SERVICE_OUTBOUND_REQUESTS_TOTAL, SERVICE_OUTBOUNDS);
+        counters[SERVICE_OUTBOUND_FORWARDS] = register(meter, COUNTER_SERVICE_OUTBOUND_FORWARD_REQUESTS_TOTAL, SERVICE_OUTBOUND_FORWARDS);
+        counters[SERVICE_OUTBOUND_REJECTS] = register(meter, COUNTER_SERVICE_OUTBOUND_REJECT_REQUESTS_TOTAL, SERVICE_OUTBOUND_REJECTS);
     }
 
     @Override
@@ -132,32 +175,21 @@ public class TrafficMetric implements Subscription<TrafficEvent> {
         if (events == null) {
             return;
         }
+        // the probe is reused for the events of this batch
+        MetricKey probe = new MetricKey(KEY_SIZE);
         TrafficEvent event;
-        LongCounter counter;
-        Attributes attributes;
+        int offset;
         for (Event<TrafficEvent> e : events) {
             event = e.getData();
-            attributes = attributes(e);
             if (config.isGatewayEnabled() && event.getComponentType().isGateway()) {
-                if (event.inbound()) {
-                    gatewayInbounds.add(event.getRequests(), attributes);
-                    counter = event.getActionType() == ActionType.FORWARD ? gatewayInboundForwards : gatewayInboundRejects;
-                    counter.add(event.getRequests(), attributes);
-                } else if (event.outbound()) {
-                    gatewayOutbounds.add(event.getRequests(), attributes);
-                    counter = event.getActionType() == ActionType.FORWARD ? gatewayOutboundForwards : gatewayOutboundRejects;
-                    counter.add(event.getRequests(), attributes);
-                }
+                offset = event.inbound() ? GATEWAY_INBOUNDS : (event.outbound() ? GATEWAY_OUTBOUNDS : -1);
             } else if (config.isServiceEnabled() && event.getComponentType() == ComponentType.SERVICE) {
-                if (event.inbound()) {
-                    serviceInbounds.add(event.getRequests(), attributes);
-                    counter = event.getActionType() == ActionType.FORWARD ? serviceInboundForwards : serviceInboundRejects;
-                    counter.add(event.getRequests(), attributes);
-                } else if (event.outbound()) {
-                    serviceOutbounds.add(event.getRequests(), attributes);
-                    counter = event.getActionType() == ActionType.FORWARD ? serviceOutboundForwards : serviceOutboundRejects;
-                    counter.add(event.getRequests(), attributes);
-                }
+                offset = event.inbound() ? SERVICE_INBOUNDS : (event.outbound() ? SERVICE_OUTBOUNDS : -1);
+            } else {
+                offset = -1;
+            }
+            if (offset >= 0) {
+                getCells(e, probe).add(offset, event.getActionType() == ActionType.FORWARD, event.getRequests());
             }
         }
     }
@@ -167,6 +199,92 @@ public class TrafficMetric implements Subscription<TrafficEvent> {
         return Publisher.TRAFFIC;
     }
 
+    /**
+     * Registers an asynchronous counter, which reports the accumulated requests on each collection.
+     *
+     * @param meter the meter
+     * @param name  the counter name
+     * @param index the index of the counter in the cells
+     * @return the counter
+     */
+    private ObservableLongCounter register(Meter meter, String name, int index) {
+        return meter.counterBuilder(name).setUnit(REQUESTS).buildWithCallback(m -> observe(index, m));
+    }
+
+    private void observe(int index, ObservableLongMeasurement measurement) {
+        long collection = index == 0 ? collections.incrementAndGet() : collections.get();
+        MetricCells cell;
+        for (Map.Entry<MetricKey, MetricCells> entry : cells.entrySet()) {
+            cell = entry.getValue();
+            if (cell.evict(collection)) {
+                // the latest counts are exported by the previous collections.
+                cells.remove(entry.getKey(), cell);
+            } else {
+                cell.observe(index, measurement);
+            }
+        }
+        overflow.observe(index, measurement);
+    }
+
+    /**
+     * Gets the cells of the attribute set of the event, the attributes are only built for the first event of the set.
+     *
+     * @param e     the event
+     * @param probe the reusable key
+     * @return the cells
+     */
+    private MetricCells getCells(Event<TrafficEvent> e, MetricKey probe) {
+        MetricKey key = key(e, probe);
+        long collection = collections.get();
+        MetricCells result;
+        while (true) {
+            result = cells.get(key);
+            if (result == null) {
+                if (cells.size() >= MAX_CELLS) {
+                    return overflow;
+                }
+                result = cells.computeIfAbsent(key.copy(), k -> new MetricCells(attributes(e), collection));
+            }
+            if (result.touch(collection)) {
+                return result;
+            }
+            // the cells are evicted by a concurrent collection
+            cells.remove(key, result);
+        }
+    }
+
+    private MetricKey key(Event<TrafficEvent> e, MetricKey probe) {
+        TrafficEvent event = e.getData();
+        probe.reset().
+                set(0, event.getPolicyTags()).
+                set(1, event.getComponentType()).
+                set(2, event.getPolicyId()).
+                set(3, event.getService()).
+                set(4, event.getGroup()).
+                set(5, event.getPath()).
+                set(6, event.getMethod()).
+                set(7, event.getRejectType()).
+                set(8, e.getIp());
+        if (config.isLiveEnabled()) {
+            probe.set(9, event.getLiveSpaceId()).
+                    set(10, event.getUnitRuleId()).
+                    set(11, event.getLocalUnit()).
+                    set(12, event.getLocalCell()).
+                    set(13, event.getTargetUnit()).
+                    set(14, event.getTargetCell()).
+                    set(15, event.getLiveDomain()).
+                    set(16, event.getLivePath()).
+                    set(17, event.getLiveBizVariable());
+        }
+        if (config.isLaneEnabled()) {
+            probe.set(18, event.getLaneSpaceId()).
+                    set(19, event.getLaneRuleId()).
+                    set(20, event.getLocalLane()).
+                    set(21, event.getTargetLane());
+        }
+        return probe.rehash();
+    }
+
     private Attributes attributes(Event<TrafficEvent> e) {
         TrafficEvent event = e.getData();
         // use array attributes builder to improve performance
@@ -203,4 +321,74 @@ public class TrafficMetric implements Subscription<TrafficEvent> {
 
         return builder.create();
     }
+
+    /**
+     * The accumulated requests of an attribute set, one cell for each counter.
+     */
+    private static class MetricCells {
+
+        private static final long EVICTED = -1;
+
+        private final Attributes attributes;
+
+        private final AtomicLongArray counts = new AtomicLongArray(COUNTERS);
+
+        /**
+         * The collection of the last requests, or {@link #EVICTED} if the cells are evicted.
+         */
+        private final AtomicLong collection;
+
+        MetricCells(Attributes attributes, long collection) {
+            this.attributes = attributes;
+            this.collection = new AtomicLong(collection);
+        }
+
+        /**
+         * Marks the cells as active in the collection before adding the requests.
+         *
+         * @param current the current collection
+         * @return true if the cells are active, false if they are evicted
+         */
+        boolean touch(long current) {
+            long last;
+            while ((last = collection.get()) != current) {
+                if (last == EVICTED) {
+                    return false;
+                } else if (collection.compareAndSet(last, current)) {
+                    return true;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Evicts the cells if there is no request in the last {@link #IDLE_COLLECTIONS} collections.
+         *
+         * @param current the current collection
+         * @return true if the cells are evicted
+         */
+        boolean evict(long current) {
+            long last = collection.get();
+            return last != EVICTED && current - last > IDLE_COLLECTIONS && collection.compareAndSet(last, EVICTED);
+        }
+
+        /**
+         * Adds the requests to the total counter and the forward or reject counter.
+         *
+         * @param offset   the index of the total counter
+         * @param forward  true if the requests are forwarded
+         * @param requests the requests
+         */
+        void add(int offset, boolean forward, int requests) {
+            counts.addAndGet(offset, requests);
+            counts.addAndGet(offset + (forward ? 1 : 2), requests);
+        }
+
+        void observe(int index, ObservableLongMeasurement measurement) {
+            long count = counts.get(index);
+            if (count > 0) {
+                measurement.record(count, attributes);
+            }
+        }
+    }
 }
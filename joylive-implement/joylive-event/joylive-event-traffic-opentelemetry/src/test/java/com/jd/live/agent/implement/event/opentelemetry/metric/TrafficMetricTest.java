@@ -0,0 +1,198 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.implement.event.opentelemetry.metric;
+
+import com.jd.live.agent.core.event.Event;
+import com.jd.live.agent.core.instance.Application;
+import com.jd.live.agent.governance.config.ExporterConfig.TrafficConfig;
+import com.jd.live.agent.governance.event.TrafficEvent;
+import com.jd.live.agent.governance.event.TrafficEvent.ActionType;
+import com.jd.live.agent.governance.event.TrafficEvent.ComponentType;
+import com.jd.live.agent.governance.event.TrafficEvent.Direction;
+import com.jd.live.agent.governance.event.TrafficEvent.RejectType;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.metrics.InstrumentType;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.export.CollectionRegistration;
+import io.opentelemetry.sdk.metrics.export.MetricReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TrafficMetricTest {
+
+    private static final String INBOUNDS = "joylive_service_inbound_requests_total";
+
+    private static final String INBOUND_FORWARDS = "joylive_service_inbound_forward_requests_total";
+
+    private static final String INBOUND_REJECTS = "joylive_service_inbound_reject_requests_total";
+
+    private static final AttributeKey<String> SERVICE_NAME = AttributeKey.stringKey("service_name");
+
+    private static final AttributeKey<Boolean> OVERFLOW = AttributeKey.booleanKey("otel.metric.overflow");
+
+    private TestReader reader;
+
+    private SdkMeterProvider provider;
+
+    private TrafficMetric metric;
+
+    @BeforeEach
+    void setUp() {
+        reader = new TestReader();
+        // raise the cardinality limit of the sdk, so only the metric merges the exceeded attribute sets.
+        provider = SdkMeterProvider.builder().registerMetricReader(reader, type -> 10000).build();
+        metric = new TrafficMetric(new TrafficConfig(), new Application("test"), provider.get("test"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        provider.close();
+    }
+
+    @Test
+    void testCount() {
+        metric.handle(events(
+                event("a", ActionType.FORWARD, 2),
+                event("a", ActionType.REJECT, 1),
+                event("b", ActionType.FORWARD, 3)));
+        Map<String, Map<String, Long>> metrics = collect();
+        Assertions.assertEquals(3L, metrics.get(INBOUNDS).get("a"));
+        Assertions.assertEquals(2L, metrics.get(INBOUND_FORWARDS).get("a"));
+        Assertions.assertEquals(1L, metrics.get(INBOUND_REJECTS).get("a"));
+        Assertions.assertEquals(3L, metrics.get(INBOUNDS).get("b"));
+        Assertions.assertNull(metrics.get(INBOUND_REJECTS).get("b"));
+
+        // the counts are cumulative
+        metric.handle(events(event("a", ActionType.FORWARD, 4)));
+        metrics = collect();
+        Assertions.assertEquals(7L, metrics.get(INBOUNDS).get("a"));
+        Assertions.assertEquals(6L, metrics.get(INBOUND_FORWARDS).get("a"));
+        Assertions.assertEquals(3L, metrics.get(INBOUNDS).get("b"));
+    }
+
+    @Test
+    void testOverflowAndEviction() {
+        List<Event<TrafficEvent>> events = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            events.add(event("s" + i, ActionType.FORWARD, 1));
+        }
+        metric.handle(events);
+        // the attribute sets exceeding the limit are merged into the overflow cells
+        metric.handle(events(event("x", ActionType.FORWARD, 1), event("y", ActionType.FORWARD, 2)));
+        Map<String, Long> inbounds = collect().get(INBOUNDS);
+        Assertions.assertEquals(2001, inbounds.size());
+        Assertions.assertEquals(3L, inbounds.get(null));
+        Assertions.assertNull(inbounds.get("x"));
+
+        // keep one attribute set active, the idle ones are evicted and no longer exported
+        for (int i = 0; i < 62; i++) {
+            metric.handle(events(event("s0", ActionType.FORWARD, 1)));
+            inbounds = collect().get(INBOUNDS);
+        }
+        Assertions.assertEquals(2, inbounds.size());
+        Assertions.assertEquals(63L, inbounds.get("s0"));
+        Assertions.assertEquals(3L, inbounds.get(null));
+
+        // the evicted cells make room for the new attribute sets
+        metric.handle(events(event("x", ActionType.FORWARD, 5)));
+        inbounds = collect().get(INBOUNDS);
+        Assertions.assertEquals(5L, inbounds.get("x"));
+        Assertions.assertEquals(3L, inbounds.get(null));
+    }
+
+    /**
+     * Collects the metrics, the points are summed up by the metric name and the service name,
+     * the point of the overflow attribute set is indexed by null.
+     */
+    private Map<String, Map<String, Long>> collect() {
+        Map<String, Map<String, Long>> result = new HashMap<>();
+        for (MetricData data : reader.collect()) {
+            Map<String, Long> points = result.computeIfAbsent(data.getName(), k -> new HashMap<>());
+            for (LongPointData point : data.getLongSumData().getPoints()) {
+                String service = Boolean.TRUE.equals(point.getAttributes().get(OVERFLOW))
+                        ? null
+                        : point.getAttributes().get(SERVICE_NAME);
+                points.merge(service, point.getValue(), Long::sum);
+            }
+        }
+        result.computeIfAbsent(INBOUNDS, k -> new HashMap<>());
+        result.computeIfAbsent(INBOUND_FORWARDS, k -> new HashMap<>());
+        result.computeIfAbsent(INBOUND_REJECTS, k -> new HashMap<>());
+        return result;
+    }
+
+    @SafeVarargs
+    private static List<Event<TrafficEvent>> events(Event<TrafficEvent>... events) {
+        List<Event<TrafficEvent>> result = new ArrayList<>(events.length);
+        Collections.addAll(result, events);
+        return result;
+    }
+
+    private static Event<TrafficEvent> event(String service, ActionType actionType, int requests) {
+        TrafficEvent event = TrafficEvent.build()
+                .componentType(ComponentType.SERVICE)
+                .direction(Direction.INBOUND)
+                .service(service)
+                .actionType(actionType)
+                .rejectType(actionType == ActionType.REJECT ? RejectType.REJECT_UNIT_UNAVAILABLE : null)
+                .requests(requests);
+        Event<TrafficEvent> result = new Event<>(event);
+        result.setIp("127.0.0.1");
+        return result;
+    }
+
+    private static class TestReader implements MetricReader {
+
+        private CollectionRegistration registration;
+
+        @Override
+        public void register(CollectionRegistration registration) {
+            this.registration = registration;
+        }
+
+        @Override
+        public AggregationTemporality getAggregationTemporality(InstrumentType instrumentType) {
+            return AggregationTemporality.CUMULATIVE;
+        }
+
+        @Override
+        public CompletableResultCode forceFlush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        Collection<MetricData> collect() {
+            return registration.collectAllMetrics();
+        }
+    }
+}
@@ -0,0 +1,414 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.implement.event.ring;
+
+import com.jd.live.agent.bootstrap.logger.Logger;
+import com.jd.live.agent.bootstrap.logger.LoggerFactory;
+import com.jd.live.agent.core.event.Event;
+import com.jd.live.agent.core.event.EventHandler;
+import com.jd.live.agent.core.event.Publisher;
+import com.jd.live.agent.core.event.config.OverflowPolicy;
+import com.jd.live.agent.core.event.config.PublisherConfig;
+import com.jd.live.agent.core.instance.Application;
+import com.jd.live.agent.core.util.network.Ipv4;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A publisher backed by a bounded lock-free ring buffer with preallocated event slots.
+ * <p>
+ * The producers claim a slot by compare-and-set on the tail and publish it by the slot sequence, the single
+ * consumer thread drains the slots in batches and releases them after the handlers are done. The slots are
+ * reused, so an offer allocates nothing, and the topic, instance and ip of the slots are stamped only once.
+ * When the buffer is under pressure, the events are dropped according to the {@link OverflowPolicy}, and the
+ * number of dropped events is counted.
+ * </p>
+ * <p>
+ * Because the slots are reused, the events and the list passed to the handlers are only valid until
+ * {@link EventHandler#handle(List)} returns. The handlers must not keep them, and should copy the data
+ * they need to process later.
+ * </p>
+ *
+ * @param <E> The type of event to be published.
+ */
+public class RingPublisher<E> implements Publisher<E> {
+
+    private static final Logger logger = LoggerFactory.getLogger(RingPublisher.class);
+
+    /**
+     * Number of longs between the positions, 128 bytes covers the adjacent cache line prefetch.
+     */
+    private static final int PADDING = 16;
+
+    private static final int TAIL = PADDING;
+
+    private static final int HEAD = PADDING * 2;
+
+    private static final int DROP_RETRIES = 16;
+
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final long REPORT_INTERVAL = 60000L;
+
+    private final String topic;
+
+    private final PublisherConfig config;
+
+    private final Set<EventHandler<E>> handlers = new CopyOnWriteArraySet<>();
+
+    private final Event<E>[] slots;
+
+    private final AtomicLongArray sequences;
+
+    private final AtomicLongArray positions = new AtomicLongArray(PADDING * 3);
+
+    private final int capacity;
+
+    private final int mask;
+
+    private final OverflowPolicy overflow;
+
+    private final int sampleRate;
+
+    private final AtomicLong samples = new AtomicLong();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final Thread thread;
+
+    private final AtomicBoolean started;
+
+    private volatile boolean waiting;
+
+    /**
+     * The number of producers waiting for the free slots with a timeout.
+     */
+    private final AtomicInteger producers = new AtomicInteger();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notFull = lock.newCondition();
+
+    public RingPublisher(String topic, Application application, PublisherConfig config) {
+        this(topic, application, config, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    public RingPublisher(String topic, Application application, PublisherConfig config, boolean autoStart) {
+        this.topic = topic;
+        this.config = config;
+        this.capacity = ceilingPowerOfTwo(config.getCapacity());
+        this.mask = capacity - 1;
+        this.overflow = config.getOverflow() == null ? OverflowPolicy.DROP_NEWEST : config.getOverflow();
+        this.sampleRate = config.getSampleRate() <= 0 ? PublisherConfig.DEFAULT_SAMPLE_RATE : config.getSampleRate();
+        this.slots = new Event[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        String instanceId = application.getInstance();
+        String ip = Ipv4.getLocalIp();
+        for (int i = 0; i < capacity; i++) {
+            Event<E> event = new Event<>();
+            event.setTopic(topic);
+            event.setInstanceId(instanceId);
+            event.setIp(ip);
+            slots[i] = event;
+            sequences.set(i, i);
+        }
+        this.started = new AtomicBoolean(autoStart);
+        this.thread = new Thread(this::run, "LiveAgent-publisher-" + topic);
+        this.thread.setDaemon(true);
+        if (autoStart) {
+            thread.start();
+        }
+    }
+
+    @Override
+    public String getTopic() {
+        return topic;
+    }
+
+    @Override
+    public boolean addHandler(EventHandler<E> handler) {
+        return handler != null && handlers.add(handler);
+    }
+
+    @Override
+    public boolean removeHandler(EventHandler<E> handler) {
+        return handler != null && handlers.remove(handler);
+    }
+
+    @Override
+    public boolean offer(E event) {
+        return offer(event, config.getTimeout());
+    }
+
+    @Override
+    public boolean tryOffer(E event) {
+        return offer(event, 0);
+    }
+
+    /**
+     * Returns the number of events dropped by the overflow policy.
+     *
+     * @return the number of dropped events
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Returns the number of buffered events.
+     *
+     * @return the number of buffered events
+     */
+    public int size() {
+        long size = positions.get(TAIL) - positions.get(HEAD);
+        return size <= 0 ? 0 : (int) Math.min(size, capacity);
+    }
+
+    public void stop() {
+        if (started.compareAndSet(true, false)) {
+            thread.interrupt();
+            signal();
+        }
+    }
+
+    public boolean isStarted() {
+        return started.get();
+    }
+
+    private boolean offer(E event, long timeout) {
+        if (event == null || !started.get()) {
+            return false;
+        } else if (handlers.isEmpty()) {
+            return true;
+        } else if (overflow == OverflowPolicy.SAMPLE && size() >= capacity >> 1
+                && samples.getAndIncrement() % sampleRate != 0) {
+            dropped.increment();
+            return false;
+        } else if (doOffer(event)) {
+            return true;
+        }
+        if (overflow == OverflowPolicy.DROP_OLDEST) {
+            long position;
+            for (int i = 0; i < DROP_RETRIES; i++) {
+                position = claim();
+                if (position >= 0) {
+                    release(position);
+                    dropped.increment();
+                }
+                if (doOffer(event)) {
+                    return true;
+                }
+            }
+        } else if (timeout > 0 && await(event, timeout)) {
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    /**
+     * Waits until a slot is released by the consumer and publishes the event into it.
+     *
+     * @param event   the event data
+     * @param timeout the maximum time to wait in milliseconds
+     * @return true if the event is published, false if the timeout elapses or the thread is interrupted
+     */
+    private boolean await(E event, long timeout) {
+        long nanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+        lock.lock();
+        // register before retrying, so the consumer either sees the waiter or releases the slot before the retry.
+        producers.incrementAndGet();
+        try {
+            while (!doOffer(event)) {
+                if (nanos <= 0 || !started.get()) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            producers.decrementAndGet();
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wakes up the producers waiting for the free slots.
+     */
+    private void signal() {
+        if (producers.get() > 0) {
+            lock.lock();
+            try {
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Claims the tail slot and publishes the event into it.
+     *
+     * @param data the event data
+     * @return true if the event is published, false if the buffer is full
+     */
+    private boolean doOffer(E data) {
+        long position;
+        int index;
+        long diff;
+        while (true) {
+            position = positions.get(TAIL);
+            index = (int) (position & mask);
+            diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (positions.compareAndSet(TAIL, position, position + 1)) {
+                    break;
+                }
+            } else if (diff < 0) {
+                // the slot is not released by the consumer yet
+                return false;
+            }
+        }
+        Event<E> event = slots[index];
+        event.setTime(System.currentTimeMillis());
+        event.setData(data);
+        sequences.set(index, position + 1);
+        if (waiting) {
+            LockSupport.unpark(thread);
+        }
+        return true;
+    }
+
+    /**
+     * Claims the head slot.
+     *
+     * @return the position of the claimed slot, or -1 if the buffer is empty
+     */
+    private long claim() {
+        long position;
+        long diff;
+        while (true) {
+            position = positions.get(HEAD);
+            diff = sequences.get((int) (position & mask)) - (position + 1);
+            if (diff == 0) {
+                if (positions.compareAndSet(HEAD, position, position + 1)) {
+                    return position;
+                }
+            } else if (diff < 0) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Releases the claimed slot for the producers.
+     *
+     * @param position the position of the slot
+     */
+    private void release(long position) {
+        int index = (int) (position & mask);
+        slots[index].setData(null);
+        sequences.set(index, position + capacity);
+    }
+
+    protected void run() {
+        int batchSize = config.getBatchSize() <= 0 ? PublisherConfig.BATCH_SIZE : config.getBatchSize();
+        List<Event<E>> events = new ArrayList<>(batchSize);
+        long[] claims = new long[batchSize];
+        long reportTime = System.currentTimeMillis();
+        long reported = 0;
+        long position;
+        int count;
+        while (isStarted() && !Thread.currentThread().isInterrupted()) {
+            events.clear();
+            count = 0;
+            while (count < batchSize && (position = claim()) >= 0) {
+                events.add(slots[(int) (position & mask)]);
+                claims[count++] = position;
+            }
+            if (count == 0) {
+                idle();
+            } else {
+                if (isStarted()) {
+                    for (EventHandler<E> handler : handlers) {
+                        try {
+                            handler.handle(events);
+                        } catch (Throwable e) {
+                            logger.error("Failed to handle event of " + topic + ", caused by " + e.getMessage(), e);
+                        }
+                    }
+                }
+                // the slots are reused, so release them after the handlers are done.
+                for (int i = 0; i < count; i++) {
+                    release(claims[i]);
+                }
+                signal();
+            }
+            if (System.currentTimeMillis() - reportTime >= REPORT_INTERVAL) {
+                reportTime = System.currentTimeMillis();
+                long total = dropped.sum();
+                if (total > reported) {
+                    logger.warn("{} events of {} are dropped by {} policy in the last period.", total - reported, topic, overflow);
+                    reported = total;
+                }
+            }
+        }
+    }
+
+    /**
+     * Parks the consumer thread until an event is published or the park time elapses.
+     */
+    private void idle() {
+        waiting = true;
+        try {
+            if (positions.get(HEAD) >= positions.get(TAIL)) {
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+        } finally {
+            waiting = false;
+        }
+    }
+
+    /**
+     * Returns the smallest power of two that is greater than or equal to the capacity.
+     *
+     * @param capacity the capacity
+     * @return the power of two
+     */
+    private static int ceilingPowerOfTwo(int capacity) {
+        if (capacity <= 0) {
+            return PublisherConfig.DEFAULT_CAPACITY;
+        }
+        int result = Integer.highestOneBit(capacity);
+        return result == capacity ? result : Math.min(result << 1, 1 << 30);
+    }
+}
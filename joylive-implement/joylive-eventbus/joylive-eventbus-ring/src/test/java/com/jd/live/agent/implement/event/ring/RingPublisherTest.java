@@ -0,0 +1,216 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.implement.event.ring;
+
+import com.jd.live.agent.core.event.Event;
+import com.jd.live.agent.core.event.config.OverflowPolicy;
+import com.jd.live.agent.core.event.config.PublisherConfig;
+import com.jd.live.agent.core.instance.Application;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RingPublisherTest {
+
+    private static final int PRODUCERS = 4;
+
+    private static final int EVENTS = 20000;
+
+    @Test
+    void testDropNewestWithTimeout_shouldDeliverAll() throws Exception {
+        RingPublisher<Long> publisher = create(OverflowPolicy.DROP_NEWEST, 1000L);
+        Map<Integer, AtomicLong> lasts = new ConcurrentHashMap<>();
+        AtomicLong received = new AtomicLong();
+        AtomicBoolean ordered = new AtomicBoolean(true);
+        publisher.addHandler(events -> {
+            for (Event<Long> event : events) {
+                received.incrementAndGet();
+                check(lasts, event.getData(), ordered);
+            }
+        });
+        try {
+            Assertions.assertEquals(PRODUCERS * EVENTS, produce(publisher));
+            await(() -> received.get() == PRODUCERS * EVENTS);
+            Assertions.assertEquals(PRODUCERS * EVENTS, received.get());
+            Assertions.assertEquals(0, publisher.getDropped());
+            Assertions.assertTrue(ordered.get(), "The events of a producer are delivered out of order.");
+        } finally {
+            publisher.stop();
+        }
+    }
+
+    @Test
+    void testDropOldest_shouldCountDropped() throws Exception {
+        RingPublisher<Long> publisher = create(OverflowPolicy.DROP_OLDEST, 0L);
+        Map<Integer, AtomicLong> lasts = new ConcurrentHashMap<>();
+        AtomicLong received = new AtomicLong();
+        AtomicBoolean ordered = new AtomicBoolean(true);
+        publisher.addHandler(events -> {
+            for (Event<Long> event : events) {
+                received.incrementAndGet();
+                check(lasts, event.getData(), ordered);
+            }
+            // slow consumer, so the producers overrun the ring.
+            sleep(1);
+        });
+        try {
+            produce(publisher);
+            await(() -> publisher.size() == 0);
+            Assertions.assertTrue(publisher.getDropped() > 0);
+            Assertions.assertEquals(PRODUCERS * EVENTS, received.get() + publisher.getDropped());
+            Assertions.assertTrue(ordered.get(), "The events of a producer are delivered out of order or twice.");
+        } finally {
+            publisher.stop();
+        }
+    }
+
+    @Test
+    void testOfferWithTimeout_shouldWaitForConsumer() throws Exception {
+        RingPublisher<Long> publisher = create(OverflowPolicy.DROP_NEWEST, 2000L);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        publisher.addHandler(events -> {
+            blocked.countDown();
+            try {
+                resume.await();
+            } catch (InterruptedException ignored) {
+            }
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Assertions.assertTrue(publisher.tryOffer(0L));
+            Assertions.assertTrue(blocked.await(1, TimeUnit.SECONDS));
+            // fill the ring while the consumer is blocked in the handler.
+            long count = 1;
+            while (publisher.tryOffer(count)) {
+                count++;
+            }
+            Future<Boolean> future = executor.submit(() -> publisher.offer(-1L));
+            sleep(100);
+            Assertions.assertFalse(future.isDone());
+            resume.countDown();
+            Assertions.assertTrue(future.get(1, TimeUnit.SECONDS));
+        } finally {
+            resume.countDown();
+            executor.shutdownNow();
+            publisher.stop();
+        }
+    }
+
+    @Test
+    void testSlotsAreReused() throws Exception {
+        RingPublisher<Long> publisher = create(OverflowPolicy.DROP_NEWEST, 1000L);
+        Set<Event<Long>> events = Collections.newSetFromMap(new IdentityHashMap<>());
+        AtomicLong received = new AtomicLong();
+        publisher.addHandler(list -> {
+            synchronized (events) {
+                events.addAll(list);
+            }
+            received.addAndGet(list.size());
+        });
+        try {
+            for (long i = 0; i < 1000; i++) {
+                Assertions.assertTrue(publisher.offer(i));
+            }
+            await(() -> received.get() == 1000);
+            synchronized (events) {
+                Assertions.assertTrue(events.size() <= 64, "Allocated " + events.size() + " events.");
+                // the released slots do not keep the data.
+                for (Event<Long> event : events) {
+                    Assertions.assertNull(event.getData());
+                }
+            }
+        } finally {
+            publisher.stop();
+        }
+    }
+
+    private static RingPublisher<Long> create(OverflowPolicy overflow, long timeout) {
+        PublisherConfig config = new PublisherConfig(64, timeout);
+        config.setBatchSize(16);
+        config.setOverflow(overflow);
+        return new RingPublisher<>("test", new Application("test"), config);
+    }
+
+    /**
+     * Offers the events concurrently, the data is encoded as producer * EVENTS + sequence.
+     */
+    private static long produce(RingPublisher<Long> publisher) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(PRODUCERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicLong offered = new AtomicLong();
+        try {
+            Future<?>[] futures = new Future[PRODUCERS];
+            for (int i = 0; i < PRODUCERS; i++) {
+                long base = (long) i * EVENTS;
+                futures[i] = executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < EVENTS; j++) {
+                        if (publisher.offer(base + j)) {
+                            offered.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return offered.get();
+    }
+
+    private static void check(Map<Integer, AtomicLong> lasts, Long data, AtomicBoolean ordered) {
+        AtomicLong last = lasts.computeIfAbsent((int) (data / EVENTS), k -> new AtomicLong(-1));
+        if (data <= last.get()) {
+            ordered.set(false);
+        }
+        last.set(data);
+    }
+
+    private static void await(Condition condition) {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.test() && System.currentTimeMillis() < deadline) {
+            sleep(1);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ignored) {
+        }
+    }
+
+    private interface Condition {
+        boolean test();
+    }
+}
@@ -31,4 +31,6 @@ public class MicroServiceConfig {
 
     protected String serviceUrl;
 
+    protected String servicesUrl;
+
 }
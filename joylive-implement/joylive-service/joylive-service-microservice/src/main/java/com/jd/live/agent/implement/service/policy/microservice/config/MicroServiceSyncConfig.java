@@ -20,6 +20,8 @@ import com.jd.live.agent.governance.service.sync.SyncAddress.LaneSpaceAddress;
 import com.jd.live.agent.governance.service.sync.SyncAddress.ServiceAddress;
 import lombok.Setter;
 
+import static com.jd.live.agent.core.util.StringUtils.isEmpty;
+
 /**
  * MicroServiceSyncConfig
  *
@@ -44,4 +46,9 @@ public class MicroServiceSyncConfig extends SyncConfig implements ServiceAddress
     public String getServiceUrl() {
         return getPath(jmsf.serviceUrl, "/space/${space}/service/${service_name}/version/${service_version}?application=${application}");
     }
+
+    @Override
+    public String getServicesUrl() {
+        return isEmpty(jmsf.servicesUrl) ? null : getPath(jmsf.servicesUrl, null);
+    }
 }
@@ -31,5 +31,7 @@ public class LiveConfig {
 
     protected String serviceUrl;
 
+    protected String servicesUrl;
+
     protected String databaseUrl;
 }
@@ -21,6 +21,8 @@ import com.jd.live.agent.governance.service.sync.SyncAddress.LiveSpaceAddress;
 import com.jd.live.agent.governance.service.sync.SyncAddress.ServiceAddress;
 import lombok.Setter;
 
+import static com.jd.live.agent.core.util.StringUtils.isEmpty;
+
 /**
  * LiveSyncConfig
  *
@@ -46,6 +48,11 @@ public class LiveSyncConfig extends SyncConfig implements ServiceAddress, LiveSp
         return getPath(multilive.serviceUrl, "/services/${service_name}/version/${service_version}");
     }
 
+    @Override
+    public String getServicesUrl() {
+        return isEmpty(multilive.servicesUrl) ? null : getPath(multilive.servicesUrl, null);
+    }
+
     public String getDatabaseUrl() {
         return getPath(multilive.databaseUrl, "/workspaces/${space_id}/databases/${database_version}");
     }
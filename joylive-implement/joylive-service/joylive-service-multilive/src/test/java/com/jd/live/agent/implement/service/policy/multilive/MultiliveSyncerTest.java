@@ -23,6 +23,7 @@ import com.jd.live.agent.core.instance.Application;
 import com.jd.live.agent.core.instance.Location;
 import com.jd.live.agent.core.parser.TypeReference;
 import com.jd.live.agent.core.util.CollectionUtils;
+import com.jd.live.agent.core.util.http.HttpHeader;
 import com.jd.live.agent.core.util.http.HttpResponse;
 import com.jd.live.agent.core.util.http.HttpStatus;
 import com.jd.live.agent.core.util.time.TimeScheduler;
@@ -37,24 +38,33 @@ import com.jd.live.agent.governance.service.sync.Subscription;
 import com.jd.live.agent.governance.service.sync.SyncKey.ServiceKey;
 import com.jd.live.agent.governance.service.sync.SyncResponse;
 import com.jd.live.agent.governance.service.sync.SyncStatus;
+import com.jd.live.agent.governance.service.sync.api.ApiResponse;
+import com.jd.live.agent.governance.service.sync.api.ApiServiceRequest;
+import com.jd.live.agent.governance.service.sync.api.ApiServiceVersion;
 import com.jd.live.agent.governance.service.sync.http.HttpResource;
 import com.jd.live.agent.governance.service.sync.http.HttpWatcher;
 import com.jd.live.agent.governance.subscription.policy.PolicyWatcher;
 import com.jd.live.agent.implement.event.jbus.JEventBus;
 import com.jd.live.agent.implement.parser.jackson.JacksonJsonParser;
+import com.jd.live.agent.implement.service.policy.multilive.config.LiveConfig;
 import com.jd.live.agent.implement.service.policy.multilive.config.LiveSyncConfig;
+import com.sun.net.httpserver.HttpServer;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.StringReader;
+import java.io.*;
+import java.lang.reflect.Field;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
 
 public class MultiliveSyncerTest {
 
@@ -124,9 +134,9 @@ public class MultiliveSyncerTest {
     }
 
     @Test
-    public void testServiceSyncer() throws InterruptedException {
+    public void testServiceSyncer() throws Exception {
         Publisher<PolicySubscription> policyPublisher = eventBus.getPublisher(Publisher.POLICY_SUBSCRIBER);
-        PolicyManager policyManager = PolicyManager.builder().policyPublisher(policyPublisher).application(application).build();
+        PolicyManager policyManager = createPolicyManager(policyPublisher);
         TimerConfig config = new TimerConfig();
         Timer timer = new TimeScheduler("LiveAgent-timer", config.getTickTime(), config.getTicks(), config.getWorkerThreads(), config.getMaxTasks());
 
@@ -157,4 +167,88 @@ public class MultiliveSyncerTest {
         syncer.stop().join();
     }
 
+    @Test
+    public void testBatchServiceSyncer() throws Exception {
+        String etag = "\"v1\"";
+        AtomicInteger requests = new AtomicInteger();
+        CountDownLatch notModified = new CountDownLatch(1);
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/services", exchange -> {
+            requests.incrementAndGet();
+            ApiServiceRequest request = parser.read(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8), ApiServiceRequest.class);
+            if (etag.equals(exchange.getRequestHeaders().getFirst(HttpHeader.IF_NONE_MATCH))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                notModified.countDown();
+                return;
+            }
+            List<ApiServiceVersion> changes = new ArrayList<>();
+            for (ApiServiceVersion version : request.getServices()) {
+                String value = services.get(version.getName());
+                version.setService(value == null ? null : parser.read(new StringReader(value), Service.class));
+                changes.add(version);
+            }
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(bos), StandardCharsets.UTF_8)) {
+                parser.write(writer, new ApiResponse<>("1", changes));
+            }
+            exchange.getResponseHeaders().add(HttpHeader.ETAG, etag);
+            exchange.getResponseHeaders().add(HttpHeader.CONTENT_ENCODING, "gzip");
+            exchange.sendResponseHeaders(200, bos.size());
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bos.toByteArray());
+            }
+        });
+        server.start();
+
+        LiveConfig liveConfig = new LiveConfig();
+        liveConfig.setServicesUrl("/services");
+        LiveSyncConfig batchConfig = new LiveSyncConfig();
+        batchConfig.setUrl("http://127.0.0.1:" + server.getAddress().getPort());
+        batchConfig.setMultilive(liveConfig);
+        batchConfig.setInterval(100);
+
+        Publisher<PolicySubscription> policyPublisher = eventBus.getPublisher(Publisher.POLICY_SUBSCRIBER);
+        PolicyManager policyManager = createPolicyManager(policyPublisher);
+        LiveServiceHttpSyncer syncer = new LiveServiceHttpSyncer();
+        syncer.setSyncConfig(batchConfig);
+        syncer.setApplication(application);
+        syncer.setPolicySupervisor(policyManager);
+        syncer.setPublisher(policyPublisher);
+        syncer.setParser(parser);
+        CountDownLatch latch = new CountDownLatch(1);
+        syncer.addListener(PolicyWatcher.TYPE_SERVICE_POLICY, event -> {
+            boolean result = policyManager.update(null, new GovernancePolicy(null, CollectionUtils.singletonList((Service) event.getValue()), null));
+            latch.countDown();
+            return result;
+        });
+        try {
+            policyManager.subscribe("service-consumer");
+            syncer.start().join();
+            Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+            Assertions.assertNotNull(policyManager.getPolicy().getService("service-consumer"));
+            Assertions.assertTrue(notModified.await(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(requests.get() >= 2);
+        } finally {
+            syncer.stop().join();
+            server.stop(0);
+        }
+    }
+
+    /**
+     * Creates the policy manager with the components, which are injected into its fields by the agent.
+     */
+    private static PolicyManager createPolicyManager(Publisher<PolicySubscription> policyPublisher) throws ReflectiveOperationException {
+        PolicyManager result = new PolicyManager();
+        inject(result, "policyPublisher", policyPublisher);
+        inject(result, "application", application);
+        return result;
+    }
+
+    private static void inject(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
 }
@@ -15,6 +15,9 @@
  */
 package com.jd.live.agent.plugin.router.springcloud.v4.instance;
 
+import com.jd.live.agent.governance.counter.EndpointCounter;
+import com.jd.live.agent.governance.counter.ServiceCounter;
+import com.jd.live.agent.governance.instance.EndpointProfile;
 import com.jd.live.agent.governance.instance.EndpointState;
 import com.jd.live.agent.governance.registry.ServiceEndpoint;
 import com.jd.live.agent.governance.request.ServiceRequest;
@@ -89,6 +92,26 @@ public class EndpointInstance implements ServiceEndpoint, ServiceInstance {
         return endpoint.getMetadata();
     }
 
+    @Override
+    public EndpointProfile getProfile() {
+        return endpoint.getProfile();
+    }
+
+    @Override
+    public EndpointCounter getCounter(ServiceCounter serviceCounter) {
+        return endpoint.getCounter(serviceCounter);
+    }
+
+    @Override
+    public long getTimestamp() {
+        return endpoint.getTimestamp();
+    }
+
+    @Override
+    public int getWarmup() {
+        return endpoint.getWarmup();
+    }
+
     @Override
     public Double getWeightRatio() {
         return endpoint.getWeightRatio();
@@ -144,11 +167,21 @@ public class EndpointInstance implements ServiceEndpoint, ServiceInstance {
         return endpoint.getLaneSpaceId();
     }
 
+    @Override
+    public String getLaneSpaceId(String defaultValue) {
+        return endpoint.getLaneSpaceId(defaultValue);
+    }
+
     @Override
     public String getLane() {
         return endpoint.getLane();
     }
 
+    @Override
+    public String getLane(String defaultValue) {
+        return endpoint.getLane(defaultValue);
+    }
+
     @Override
     public String getGroup() {
         return endpoint.getGroup();
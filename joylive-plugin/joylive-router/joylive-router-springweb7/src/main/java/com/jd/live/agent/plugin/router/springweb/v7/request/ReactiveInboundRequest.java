@@ -33,10 +33,12 @@ import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.function.Predicate;
 
 import static com.jd.live.agent.plugin.router.springweb.v7.exception.SpringInboundThrower.THROWER;
@@ -53,6 +55,8 @@ public class ReactiveInboundRequest extends AbstractHttpInboundRequest<ServerHtt
 
     public static final String KEY_LIVE_EXCEPTION_HANDLED = "x-live-exception-handled";
 
+    private static final Executor EXECUTOR = task -> Schedulers.parallel().schedule(task);
+
     private final ServerWebExchange exchange;
     private final Object handler;
     private final Predicate<Class<?>> systemHanderPredicate;
@@ -74,6 +78,16 @@ public class ReactiveInboundRequest extends AbstractHttpInboundRequest<ServerHtt
         return ClientIp.getIp(this::getHeader, () -> Ipv4.toIp(request.getRemoteAddress()));
     }
 
+    @Override
+    public boolean isAsync() {
+        return true;
+    }
+
+    @Override
+    public Executor getExecutor() {
+        return EXECUTOR;
+    }
+
     @Override
     public boolean isSystem() {
         if (handler != null && systemHanderPredicate != null && systemHanderPredicate.test(handler.getClass())) {
@@ -20,6 +20,7 @@ import com.jd.live.agent.core.extension.annotation.ConditionalOnClass;
 import com.jd.live.agent.core.extension.annotation.Extension;
 import com.jd.live.agent.core.inject.annotation.Inject;
 import com.jd.live.agent.core.inject.annotation.Injectable;
+import com.jd.live.agent.core.plugin.definition.ArgumentSelector;
 import com.jd.live.agent.core.plugin.definition.InterceptorDefinition;
 import com.jd.live.agent.core.plugin.definition.InterceptorDefinitionAdapter;
 import com.jd.live.agent.core.plugin.definition.PluginDefinition;
@@ -51,6 +52,7 @@ public class KafkaProducerDefinition extends PluginDefinitionAdapter {
                 new InterceptorDefinitionAdapter(
                         MatcherBuilder.named(METHOD_DO_SEND).
                                 and(MatcherBuilder.arguments(ARGUMENT_DO_SEND)),
+                        ArgumentSelector.of(0),
                         () -> new KafkaProducerInterceptor(context))};
     }
 }
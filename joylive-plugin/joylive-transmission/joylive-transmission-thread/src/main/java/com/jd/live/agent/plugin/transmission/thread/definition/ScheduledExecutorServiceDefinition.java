@@ -22,6 +22,7 @@ import com.jd.live.agent.core.inject.annotation.Inject;
 import com.jd.live.agent.core.inject.annotation.Injectable;
 import com.jd.live.agent.core.plugin.definition.*;
 import com.jd.live.agent.core.thread.Camera;
+import com.jd.live.agent.core.util.time.Timer;
 import com.jd.live.agent.governance.annotation.ConditionalOnTransmissionEnabled;
 import com.jd.live.agent.governance.config.GovernanceConfig;
 import com.jd.live.agent.plugin.transmission.thread.interceptor.ExecutorInterceptor;
@@ -52,12 +53,15 @@ public class ScheduledExecutorServiceDefinition extends PluginDefinitionAdapter
     @Inject(GovernanceConfig.COMPONENT_GOVERNANCE_CONFIG)
     private GovernanceConfig governanceConfig;
 
+    @Inject(Timer.COMPONENT_TIMER)
+    private Timer timer;
+
     public ScheduledExecutorServiceDefinition() {
         this.matcher = () -> MatcherBuilder.isImplement(TYPE_SCHEDULED_EXECUTOR_SERVICE).
                 and(MatcherBuilder.not(MatcherBuilder.in(governanceConfig.getTransmitConfig().getThreadConfig().getExcludeExecutors())));
         this.interceptors = new InterceptorDefinition[]{
                 new InterceptorDefinitionAdapter(MatcherBuilder.in(METHODS).and(MatcherBuilder.isPublic()),
-                        () -> new ExecutorInterceptor(handlers, governanceConfig.getTransmitConfig().getThreadConfig()))};
+                        () -> new ExecutorInterceptor(handlers, governanceConfig.getTransmitConfig().getThreadConfig(), timer))};
     }
 
     @Override
@@ -0,0 +1,101 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.plugin.transmission.thread.interceptor;
+
+import com.jd.live.agent.core.plugin.definition.InterceptorAdaptor;
+import com.jd.live.agent.core.thread.Camera;
+import com.jd.live.agent.core.thread.Snapshot;
+import com.jd.live.agent.core.util.time.Timer;
+import com.jd.live.agent.plugin.transmission.thread.metric.ExecutorMetric;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+
+/**
+ * The base interceptor which captures the snapshots of the cameras for the tasks running in other threads.
+ */
+public abstract class AbstractThreadInterceptor extends InterceptorAdaptor {
+
+    /**
+     * The last snapshots captured by the thread, which are reused while the photos are unchanged.
+     * They are weakly referenced, so the pooled threads do not retain the context of a finished request
+     * once its tasks are done.
+     */
+    private static final ThreadLocal<WeakReference<Snapshot[]>> SNAPSHOTS = new ThreadLocal<>();
+
+    protected final Camera[] cameras;
+
+    protected final ExecutorMetric metric = ExecutorMetric.INSTANCE;
+
+    public AbstractThreadInterceptor(List<Camera> cameras, Timer timer) {
+        this.cameras = cameras == null ? new Camera[0] : cameras.toArray(new Camera[0]);
+        metric.start(timer);
+    }
+
+    /**
+     * Captures the snapshots of the cameras.
+     * <p>
+     * The cameras are asked whether they have state before taking any snapshot, and the last snapshots of the
+     * thread are forgotten if none of them has. The snapshots are immutable, so the last snapshots of the thread
+     * are reused if all the photos are the same.
+     * </p>
+     *
+     * @return the snapshots, or null if none of the cameras has state
+     */
+    protected Snapshot[] capture() {
+        boolean state = false;
+        for (Camera camera : cameras) {
+            if (camera.hasState()) {
+                state = true;
+                break;
+            }
+        }
+        WeakReference<Snapshot[]> reference = SNAPSHOTS.get();
+        if (!state) {
+            if (reference != null) {
+                SNAPSHOTS.remove();
+            }
+            return null;
+        }
+        Snapshot[] last = reference == null ? null : reference.get();
+        Snapshot[] result = last != null && last.length == cameras.length ? last : null;
+        boolean reused = result != null;
+        int allocated = 0;
+        Camera camera;
+        Object photo;
+        for (int i = 0; i < cameras.length; i++) {
+            camera = cameras[i];
+            photo = camera.snapshot();
+            if (reused) {
+                if (result[i].getCamera() == camera && result[i].getPhoto() == photo) {
+                    continue;
+                }
+                reused = false;
+                result = new Snapshot[cameras.length];
+                System.arraycopy(last, 0, result, 0, i);
+            } else if (result == null) {
+                result = new Snapshot[cameras.length];
+            }
+            result[i] = new Snapshot(camera, photo);
+            allocated++;
+        }
+        if (allocated > 0) {
+            SNAPSHOTS.set(new WeakReference<>(result));
+        }
+        metric.onSnapshot(allocated);
+        return result;
+    }
+}
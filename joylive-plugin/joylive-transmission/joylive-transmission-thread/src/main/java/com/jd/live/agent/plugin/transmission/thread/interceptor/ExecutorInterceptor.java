@@ -19,9 +19,9 @@ import com.jd.live.agent.bootstrap.bytekit.context.ExecutableContext;
 import com.jd.live.agent.bootstrap.classloader.Resourcer;
 import com.jd.live.agent.bootstrap.logger.Logger;
 import com.jd.live.agent.bootstrap.logger.LoggerFactory;
-import com.jd.live.agent.core.plugin.definition.InterceptorAdaptor;
 import com.jd.live.agent.core.thread.Camera;
 import com.jd.live.agent.core.thread.Snapshot;
+import com.jd.live.agent.core.util.time.Timer;
 import com.jd.live.agent.governance.config.TransmitConfig.ThreadConfig;
 import com.jd.live.agent.plugin.transmission.thread.adapter.AbstractThreadAdapter;
 import com.jd.live.agent.plugin.transmission.thread.adapter.CallableAdapter;
@@ -36,7 +36,7 @@ import java.util.concurrent.*;
 /**
  * ExecutorInterceptor
  */
-public class ExecutorInterceptor extends InterceptorAdaptor {
+public class ExecutorInterceptor extends AbstractThreadInterceptor {
 
     private static final Logger logger = LoggerFactory.getLogger(ExecutorInterceptor.class);
 
@@ -44,14 +44,12 @@ public class ExecutorInterceptor extends InterceptorAdaptor {
 
     private final Field callableField;
 
-    private final Camera[] cameras;
-
     private final ThreadConfig threadConfig;
 
     private final Map<Class<?>, Boolean> excludes = new ConcurrentHashMap<>(128);
 
-    public ExecutorInterceptor(List<Camera> cameras, ThreadConfig threadConfig) {
-        this.cameras = cameras == null ? new Camera[0] : cameras.toArray(new Camera[0]);
+    public ExecutorInterceptor(List<Camera> cameras, ThreadConfig threadConfig, Timer timer) {
+        super(cameras, timer);
         this.threadConfig = threadConfig;
         this.callableField = getCallableField();
     }
@@ -84,10 +82,13 @@ public class ExecutorInterceptor extends InterceptorAdaptor {
             return;
         }
 
-        Snapshot[] snapshots = new Snapshot[cameras.length];
-        for (int i = 0; i < cameras.length; i++) {
-            snapshots[i] = new Snapshot(cameras[i], cameras[i].snapshot());
+        metric.onTask();
+        Snapshot[] snapshots = capture();
+        if (snapshots == null) {
+            // nothing to propagate, keep the task as it is.
+            return;
         }
+        metric.onWrap();
         if (argument instanceof Runnable && argument instanceof Callable) {
             arguments[0] = new RunnableAndCallableAdapter<>(name, (Runnable) argument, (Callable<?>) argument, snapshots);
         } else if (argument instanceof Runnable) {
@@ -0,0 +1,64 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.plugin.transmission.thread.interceptor;
+
+import com.jd.live.agent.bootstrap.bytekit.context.ExecutableContext;
+import com.jd.live.agent.bootstrap.classloader.Resourcer;
+import com.jd.live.agent.core.thread.Camera;
+import com.jd.live.agent.core.thread.Snapshot;
+import com.jd.live.agent.core.util.time.Timer;
+import com.jd.live.agent.plugin.transmission.thread.adapter.AbstractThreadAdapter;
+import com.jd.live.agent.plugin.transmission.thread.adapter.RunnableAdapter;
+
+import java.util.List;
+
+/**
+ * VirtualThreadInterceptor
+ * <p>
+ * Wraps the task of a new virtual thread with the snapshots of the creating thread, so the context
+ * is propagated without the inheritable thread local.
+ * </p>
+ */
+public class VirtualThreadInterceptor extends AbstractThreadInterceptor {
+
+    private static final String NAME = "VirtualThread";
+
+    public VirtualThreadInterceptor(List<Camera> cameras, Timer timer) {
+        super(cameras, timer);
+    }
+
+    @Override
+    public void onEnter(ExecutableContext ctx) {
+        Object[] arguments = ctx.getArguments();
+        if (arguments == null || cameras.length == 0) {
+            return;
+        }
+        // the task is the last argument of ThreadBuilders.newVirtualThread
+        int index = arguments.length - 1;
+        Object argument = index < 0 ? null : arguments[index];
+        if (!(argument instanceof Runnable)
+                || argument instanceof AbstractThreadAdapter
+                || argument.getClass().getClassLoader() instanceof Resourcer) {
+            return;
+        }
+        metric.onTask();
+        Snapshot[] snapshots = capture();
+        if (snapshots != null) {
+            metric.onWrap();
+            arguments[index] = new RunnableAdapter<>(NAME, (Runnable) argument, snapshots);
+        }
+    }
+}
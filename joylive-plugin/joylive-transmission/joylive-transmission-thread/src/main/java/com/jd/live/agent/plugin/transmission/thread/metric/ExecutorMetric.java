@@ -0,0 +1,131 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.plugin.transmission.thread.metric;
+
+import com.jd.live.agent.bootstrap.logger.Logger;
+import com.jd.live.agent.bootstrap.logger.LoggerFactory;
+import com.jd.live.agent.core.util.time.Timer;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the tasks submitted to the executors, the task wrappers and the snapshots allocated for them.
+ * The counts are logged periodically with their rates when the debug level is enabled.
+ */
+public class ExecutorMetric {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutorMetric.class);
+
+    private static final long INTERVAL = 60000L;
+
+    public static final ExecutorMetric INSTANCE = new ExecutorMetric();
+
+    private final LongAdder tasks = new LongAdder();
+
+    private final LongAdder wrappers = new LongAdder();
+
+    private final LongAdder snapshots = new LongAdder();
+
+    private final LongAdder reuses = new LongAdder();
+
+    private final AtomicBoolean started = new AtomicBoolean(false);
+
+    private long lastTasks;
+
+    private long lastWrappers;
+
+    private long lastSnapshots;
+
+    private long lastReuses;
+
+    private ExecutorMetric() {
+    }
+
+    /**
+     * Starts logging the counts periodically at the debug level, it only takes effect once.
+     *
+     * @param timer the timer
+     */
+    public void start(Timer timer) {
+        if (timer != null && started.compareAndSet(false, true)) {
+            timer.schedule("executor-metric", INTERVAL, this::log);
+        }
+    }
+
+    /**
+     * Called when a task is submitted and its context is checked.
+     */
+    public void onTask() {
+        tasks.increment();
+    }
+
+    /**
+     * Called when a task is wrapped.
+     */
+    public void onWrap() {
+        wrappers.increment();
+    }
+
+    /**
+     * Called when the snapshots of a task are captured.
+     *
+     * @param allocated the number of allocated snapshots, zero means the last snapshots are reused
+     */
+    public void onSnapshot(int allocated) {
+        if (allocated == 0) {
+            reuses.increment();
+        } else {
+            snapshots.add(allocated);
+        }
+    }
+
+    public long getTasks() {
+        return tasks.sum();
+    }
+
+    public long getWrappers() {
+        return wrappers.sum();
+    }
+
+    public long getSnapshots() {
+        return snapshots.sum();
+    }
+
+    public long getReuses() {
+        return reuses.sum();
+    }
+
+    private void log() {
+        long task = tasks.sum();
+        long wrapper = wrappers.sum();
+        long snapshot = snapshots.sum();
+        long reuse = reuses.sum();
+        if (task != lastTasks && logger.isDebugEnabled()) {
+            double seconds = INTERVAL / 1000.0;
+            logger.debug("Executor transmission in the last {}s, tasks: {}/s, wrappers: {}/s, snapshots: {}/s, reused snapshots: {}/s",
+                    (long) seconds,
+                    (long) ((task - lastTasks) / seconds),
+                    (long) ((wrapper - lastWrappers) / seconds),
+                    (long) ((snapshot - lastSnapshots) / seconds),
+                    (long) ((reuse - lastReuses) / seconds));
+        }
+        lastTasks = task;
+        lastWrappers = wrapper;
+        lastSnapshots = snapshot;
+        lastReuses = reuse;
+    }
+}
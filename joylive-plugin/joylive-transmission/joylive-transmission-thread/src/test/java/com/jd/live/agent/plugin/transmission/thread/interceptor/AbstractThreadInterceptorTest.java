@@ -0,0 +1,119 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.plugin.transmission.thread.interceptor;
+
+import com.jd.live.agent.core.thread.Camera;
+import com.jd.live.agent.core.thread.Snapshot;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+public class AbstractThreadInterceptorTest {
+
+    @Test
+    void testCaptureWithoutState() {
+        TestCamera camera = new TestCamera();
+        TestInterceptor interceptor = new TestInterceptor(camera);
+        Assertions.assertNull(interceptor.capture());
+    }
+
+    @Test
+    void testCaptureReusesUnchangedSnapshots() {
+        TestCamera camera1 = new TestCamera();
+        TestCamera camera2 = new TestCamera();
+        TestInterceptor interceptor = new TestInterceptor(camera1, camera2);
+        camera1.photo = "a";
+        camera2.photo = "b";
+        Snapshot[] first = interceptor.capture();
+        Assertions.assertNotNull(first);
+        Assertions.assertEquals("a", first[0].getPhoto());
+        Assertions.assertEquals("b", first[1].getPhoto());
+        // the photos are unchanged, so the snapshots are reused
+        Assertions.assertSame(first, interceptor.capture());
+
+        // only the changed photo is taken again
+        camera2.photo = "c";
+        Snapshot[] second = interceptor.capture();
+        Assertions.assertNotSame(first, second);
+        Assertions.assertSame(first[0], second[0]);
+        Assertions.assertEquals("c", second[1].getPhoto());
+        Assertions.assertSame(second, interceptor.capture());
+    }
+
+    @Test
+    void testCaptureForgetsSnapshotsWithoutState() {
+        TestCamera camera = new TestCamera();
+        TestInterceptor interceptor = new TestInterceptor(camera);
+        camera.photo = "a";
+        Snapshot[] first = interceptor.capture();
+        Assertions.assertNotNull(first);
+        // the request is done, the last snapshots are no longer kept by the thread
+        camera.photo = null;
+        Assertions.assertNull(interceptor.capture());
+        camera.photo = "a";
+        Snapshot[] second = interceptor.capture();
+        Assertions.assertNotSame(first, second);
+        Assertions.assertEquals("a", second[0].getPhoto());
+    }
+
+    @Test
+    void testCaptureIsPerThread() throws InterruptedException {
+        TestCamera camera = new TestCamera();
+        TestInterceptor interceptor = new TestInterceptor(camera);
+        camera.photo = "a";
+        Snapshot[] first = interceptor.capture();
+        Snapshot[][] other = new Snapshot[1][];
+        Thread thread = new Thread(() -> other[0] = interceptor.capture());
+        thread.start();
+        thread.join();
+        Assertions.assertNotNull(other[0]);
+        Assertions.assertNotSame(first, other[0]);
+        Assertions.assertSame(first, interceptor.capture());
+    }
+
+    private static class TestInterceptor extends AbstractThreadInterceptor {
+
+        TestInterceptor(Camera... cameras) {
+            super(Arrays.asList(cameras), null);
+        }
+    }
+
+    private static class TestCamera implements Camera {
+
+        private volatile Object photo;
+
+        @Override
+        public boolean hasState() {
+            return photo != null;
+        }
+
+        @Override
+        public Object snapshot() {
+            return photo;
+        }
+
+        @Override
+        public void restore(Object snapshot) {
+            photo = snapshot;
+        }
+
+        @Override
+        public void remove() {
+            photo = null;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.plugin.transmission.thread.interceptor;
+
+import com.jd.live.agent.bootstrap.bytekit.context.MethodContext;
+import com.jd.live.agent.core.thread.Camera;
+import com.jd.live.agent.plugin.transmission.thread.adapter.RunnableAdapter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class VirtualThreadInterceptorTest {
+
+    private final TestCamera camera = new TestCamera();
+
+    private final VirtualThreadInterceptor interceptor = new VirtualThreadInterceptor(Collections.singletonList(camera), null);
+
+    @AfterEach
+    void tearDown() {
+        camera.remove();
+    }
+
+    @Test
+    void testWrapTaskWithContext() throws Exception {
+        camera.restore("request");
+        AtomicReference<Object> context = new AtomicReference<>();
+        Runnable task = () -> context.set(camera.snapshot());
+        MethodContext ctx = newVirtualThread(task);
+        interceptor.onEnter(ctx);
+
+        Object wrapped = ctx.getArguments()[2];
+        Assertions.assertInstanceOf(RunnableAdapter.class, wrapped);
+        // the task runs in a new thread with the context of the creating thread, which is removed afterwards.
+        AtomicReference<Object> after = new AtomicReference<>("unset");
+        Thread thread = new Thread(() -> {
+            ((Runnable) wrapped).run();
+            after.set(camera.snapshot());
+        });
+        thread.start();
+        thread.join();
+        Assertions.assertEquals("request", context.get());
+        Assertions.assertNull(after.get());
+    }
+
+    @Test
+    void testKeepTaskWithoutContext() throws Exception {
+        Runnable task = () -> {
+        };
+        MethodContext ctx = newVirtualThread(task);
+        interceptor.onEnter(ctx);
+        Assertions.assertSame(task, ctx.getArguments()[2]);
+    }
+
+    @Test
+    void testKeepWrappedTask() throws Exception {
+        camera.restore("request");
+        MethodContext ctx = newVirtualThread(() -> {
+        });
+        interceptor.onEnter(ctx);
+        Object wrapped = ctx.getArguments()[2];
+        interceptor.onEnter(ctx);
+        Assertions.assertSame(wrapped, ctx.getArguments()[2]);
+    }
+
+    private static MethodContext newVirtualThread(Runnable task) throws NoSuchMethodException {
+        Method method = VirtualThreadInterceptorTest.class.getDeclaredMethod("newVirtualThread", String.class, int.class, Runnable.class);
+        return new MethodContext(null, method, new Object[]{"virtual", 0, task}, "test");
+    }
+
+    /**
+     * Has the same arguments as ThreadBuilders#newVirtualThread.
+     */
+    private static Thread newVirtualThread(String name, int characteristics, Runnable task) {
+        return null;
+    }
+
+    private static class TestCamera implements Camera {
+
+        private final ThreadLocal<Object> photo = new ThreadLocal<>();
+
+        @Override
+        public boolean hasState() {
+            return photo.get() != null;
+        }
+
+        @Override
+        public Object snapshot() {
+            return photo.get();
+        }
+
+        @Override
+        public void restore(Object snapshot) {
+            photo.set(snapshot);
+        }
+
+        @Override
+        public void remove() {
+            photo.remove();
+        }
+    }
+}
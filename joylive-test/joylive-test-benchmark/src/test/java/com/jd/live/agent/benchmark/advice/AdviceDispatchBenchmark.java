@@ -0,0 +1,181 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.benchmark.advice;
+
+import com.jd.live.agent.bootstrap.bytekit.advice.AdviceHandler;
+import com.jd.live.agent.bootstrap.bytekit.advice.AdviceKey;
+import com.jd.live.agent.bootstrap.bytekit.context.ExecutableContext;
+import com.jd.live.agent.bootstrap.plugin.PluginListener;
+import com.jd.live.agent.bootstrap.plugin.definition.Interceptor;
+import com.jd.live.agent.core.bytekit.ByteBuilder;
+import com.jd.live.agent.core.bytekit.matcher.MatcherBuilder;
+import com.jd.live.agent.core.bytekit.type.TypeDesc;
+import com.jd.live.agent.core.plugin.definition.InterceptorDefinitionAdapter;
+import com.jd.live.agent.core.plugin.definition.PluginDeclare;
+import com.jd.live.agent.core.plugin.definition.PluginDefinition;
+import com.jd.live.agent.core.plugin.definition.PluginDefinitionAdapter;
+import com.jd.live.agent.implement.bytekit.bytebuddy.BuddyBuilder;
+import net.bytebuddy.agent.ByteBuddyAgent;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the dispatch of a no-op method woven by the byte buddy agent, whose interceptor does nothing.
+ * <ul>
+ * <li>indexed: the advice is loaded from the registry by the constant index baked into the woven code.</li>
+ * <li>keyed: the advice is re-registered after weaving, so the baked index misses and the advice is looked up
+ * by its description and class loader, which is the dispatch before the constant advice index.</li>
+ * </ul>
+ * It is run by the main method with the test classpath of this module.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdviceDispatchBenchmark {
+
+    private static final String PACKAGE = AdviceDispatchBenchmark.class.getPackage().getName();
+
+    // the targets are referred by name, a class literal would load them before the agent is installed.
+    private static final String INDEXED_TARGET = AdviceDispatchBenchmark.class.getName() + "$IndexedTarget";
+
+    private static final String KEYED_TARGET = AdviceDispatchBenchmark.class.getName() + "$KeyedTarget";
+
+    /**
+     * The number of the other advised methods in the registry.
+     */
+    @Param({"1000"})
+    private int advices;
+
+    private Target indexed;
+
+    private Target keyed;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        ClassLoader loader = AdviceDispatchBenchmark.class.getClassLoader();
+        for (int i = 0; i < advices; i++) {
+            AdviceHandler.getOrCreate(new AdviceKey(PACKAGE + ".Other#invoke" + i + "()", loader)).add(new NoopInterceptor());
+        }
+        ByteBuilder builder = new BuddyBuilder(null).append(new NoopPlugin());
+        builder.install(ByteBuddyAgent.install());
+        // the targets are loaded after the agent is installed, so that they are woven.
+        indexed = (Target) Class.forName(INDEXED_TARGET, true, loader).getConstructor().newInstance();
+        keyed = (Target) Class.forName(KEYED_TARGET, true, loader).getConstructor().newInstance();
+        // re-register the advice of the keyed target with the next generation of its slot.
+        AdviceKey key = new AdviceKey(KEYED_TARGET + "#invoke()", loader);
+        AdviceHandler.remove(key);
+        AdviceHandler.getOrCreate(key).add(new NoopInterceptor());
+    }
+
+    @Benchmark
+    public Object indexed() {
+        return indexed.invoke();
+    }
+
+    @Benchmark
+    public Object keyed() {
+        return keyed.invoke();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(AdviceDispatchBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    public interface Target {
+
+        Object invoke();
+    }
+
+    public static class IndexedTarget implements Target {
+
+        @Override
+        public Object invoke() {
+            return null;
+        }
+    }
+
+    public static class KeyedTarget implements Target {
+
+        @Override
+        public Object invoke() {
+            return null;
+        }
+    }
+
+    private static class NoopInterceptor implements Interceptor {
+
+        @Override
+        public void onEnter(ExecutableContext ctx) {
+        }
+
+        @Override
+        public void onExit(ExecutableContext ctx) {
+        }
+    }
+
+    private static class NoopPlugin implements PluginDeclare {
+
+        private final List<PluginDefinition> indexed = Collections.singletonList(definition(INDEXED_TARGET));
+
+        private final List<PluginDefinition> keyed = Collections.singletonList(definition(KEYED_TARGET));
+
+        @Override
+        public String getName() {
+            return "noop";
+        }
+
+        @Override
+        public List<PluginDefinition> getDefinitions() {
+            List<PluginDefinition> result = new ArrayList<>(indexed);
+            result.addAll(keyed);
+            return result;
+        }
+
+        @Override
+        public List<PluginDefinition> match(TypeDesc typeDesc, ClassLoader classLoader) {
+            String name = typeDesc.getActualName();
+            if (name.equals(INDEXED_TARGET)) {
+                return indexed;
+            } else if (name.equals(KEYED_TARGET)) {
+                return keyed;
+            }
+            return Collections.emptyList();
+        }
+
+        @Override
+        public void addListener(PluginListener listener) {
+        }
+
+        private static PluginDefinition definition(String type) {
+            return new PluginDefinitionAdapter(type,
+                    new InterceptorDefinitionAdapter(MatcherBuilder.named("invoke"), NoopInterceptor::new));
+        }
+    }
+}
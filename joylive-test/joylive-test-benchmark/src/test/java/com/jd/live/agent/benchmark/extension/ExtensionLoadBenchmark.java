@@ -0,0 +1,105 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.benchmark.extension;
+
+import com.jd.live.agent.core.bootstrap.AppListener;
+import com.jd.live.agent.core.bootstrap.EnvSupplier;
+import com.jd.live.agent.core.bootstrap.resource.BootResourceLoader;
+import com.jd.live.agent.core.extension.condition.ConditionManager;
+import com.jd.live.agent.core.extension.condition.ConditionMatcher;
+import com.jd.live.agent.core.extension.jplug.JExtensionManager;
+import com.jd.live.agent.core.inject.jbind.ArrayBuilder;
+import com.jd.live.agent.core.inject.jbind.Converter.FundamentalConverter;
+import com.jd.live.agent.core.inject.jbind.ConverterSupplier;
+import com.jd.live.agent.core.inject.jbind.InjectionSupplier;
+import com.jd.live.agent.core.security.CipherAlgorithmFactory;
+import com.jd.live.agent.core.security.StringCodec;
+import com.jd.live.agent.core.util.pool.ObjectPool;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the loading of the core extensible types by a fresh extension manager, as the agent does at startup.
+ * <ul>
+ * <li>scan: the service files are read and the {@code @Extension} annotations are reflected.</li>
+ * <li>index: the build-time extension indexes of the core modules are read instead, and the conditions of the
+ * unconditional extensions are not evaluated.</li>
+ * </ul>
+ * The core modules must be built with the extension index processor for the index mode to differ.
+ * <pre>
+ * mvn -pl joylive-test/joylive-test-benchmark -am -Dmaven.test.skip=false test-compile
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExtensionLoadBenchmark {
+
+    private static final Class<?>[] EXTENSIBLES = new Class<?>[]{
+            AppListener.class,
+            EnvSupplier.class,
+            BootResourceLoader.class,
+            ArrayBuilder.class,
+            FundamentalConverter.class,
+            ConverterSupplier.class,
+            InjectionSupplier.class,
+            CipherAlgorithmFactory.class,
+            StringCodec.class,
+            ObjectPool.class
+    };
+
+    private ClassLoader classLoader;
+
+    private ConditionMatcher matcher;
+
+    @Setup
+    public void setup() {
+        classLoader = ExtensionLoadBenchmark.class.getClassLoader();
+        matcher = new ConditionManager(classLoader, key -> null, null);
+    }
+
+    @Benchmark
+    public void scan(Blackhole blackhole) {
+        load(new JExtensionManager(matcher, false), blackhole);
+    }
+
+    @Benchmark
+    public void index(Blackhole blackhole) {
+        load(new JExtensionManager(matcher, true), blackhole);
+    }
+
+    private void load(JExtensionManager manager, Blackhole blackhole) {
+        for (Class<?> extensible : EXTENSIBLES) {
+            blackhole.consume(manager.loadExtensible(extensible, classLoader));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ExtensionLoadBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
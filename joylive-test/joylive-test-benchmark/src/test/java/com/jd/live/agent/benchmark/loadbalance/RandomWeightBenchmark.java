@@ -0,0 +1,81 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.benchmark.loadbalance;
+
+import com.jd.live.agent.governance.invoke.loadbalance.Candidate;
+import com.jd.live.agent.governance.invoke.loadbalance.randomweight.RandomWeight;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the candidate array based weighted random selection with the cumulative weight table.
+ * <pre>
+ * mvn -pl joylive-test/joylive-test-benchmark -am -Dmaven.test.skip=false test-compile
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomWeightBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int size;
+
+    private List<Integer> weights;
+
+    private Random random;
+
+    @Setup
+    public void setup() {
+        random = ThreadLocalRandom.current();
+        weights = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            weights.add(50 + random.nextInt(100));
+        }
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Candidate<Integer> candidates() {
+        Candidate<Integer>[] candidates = new Candidate[size];
+        for (int i = 0; i < size; i++) {
+            candidates[i] = new Candidate<>(weights.get(i), i, weights.get(i));
+        }
+        return RandomWeight.elect(candidates, random);
+    }
+
+    @Benchmark
+    public Candidate<Integer> table() {
+        return RandomWeight.electInt(weights, Integer::intValue, random);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(RandomWeightBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+}
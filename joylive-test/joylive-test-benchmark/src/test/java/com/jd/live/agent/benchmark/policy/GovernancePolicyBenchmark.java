@@ -0,0 +1,123 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.benchmark.policy;
+
+import com.jd.live.agent.governance.policy.GovernancePolicy;
+import com.jd.live.agent.governance.policy.service.MergePolicy;
+import com.jd.live.agent.governance.policy.service.Service;
+import com.jd.live.agent.governance.policy.service.ServiceGroup;
+import com.jd.live.agent.governance.policy.service.ServicePath;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.jd.live.agent.core.util.CollectionUtils.singletonList;
+
+/**
+ * Measures installing a new governance policy when one of the services is updated.
+ * <p>
+ * The {@code full} benchmark caches every service like a policy without an origin, while the
+ * {@code incremental} benchmark caches the copied policy, which only caches the updated service and
+ * shares the indexes of the unchanged lists.
+ * </p>
+ * <pre>
+ * mvn -pl joylive-test/joylive-test-benchmark -am -Dmaven.test.skip=false test-compile
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GovernancePolicyBenchmark {
+
+    private static final String OWNER = "benchmark";
+
+    @Param({"5000"})
+    private int size;
+
+    private GovernancePolicy policy;
+
+    private long version;
+
+    private int index;
+
+    @Setup
+    public void setup() {
+        List<Service> services = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            services.add(service(i, 1));
+        }
+        policy = new GovernancePolicy();
+        policy.setServices(policy.onUpdate(services, null, MergePolicy.ALL, OWNER));
+        policy.cache();
+        version = 1;
+    }
+
+    @Benchmark
+    public GovernancePolicy incremental() {
+        GovernancePolicy result = update();
+        result.cache();
+        policy = result;
+        return result;
+    }
+
+    @Benchmark
+    public GovernancePolicy full() {
+        GovernancePolicy result = update();
+        GovernancePolicy rebuild = new GovernancePolicy(result.getLiveSpaces(), result.getServices(), result.getLaneSpaces());
+        rebuild.getServices().forEach(Service::cache);
+        rebuild.cache();
+        policy = rebuild;
+        return rebuild;
+    }
+
+    private GovernancePolicy update() {
+        GovernancePolicy result = policy.copy();
+        Service service = service(index++ % size, ++version);
+        result.setServices(result.onUpdate(singletonList(service), null, MergePolicy.ALL, OWNER));
+        return result;
+    }
+
+    private static Service service(int i, long version) {
+        Service service = new Service("service-" + i);
+        service.setVersion(version);
+        List<ServiceGroup> groups = new ArrayList<>(2);
+        for (int j = 0; j < 2; j++) {
+            ServiceGroup group = new ServiceGroup("group-" + j);
+            List<ServicePath> paths = new ArrayList<>(4);
+            for (int k = 0; k < 4; k++) {
+                paths.add(new ServicePath("/api/v1/resource" + k + "/{id}"));
+            }
+            group.setPaths(paths);
+            groups.add(group);
+        }
+        service.setGroups(groups);
+        return service;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(GovernancePolicyBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.benchmark.ratelimit;
+
+import com.jd.live.agent.governance.invoke.ratelimit.RateLimiter;
+import com.jd.live.agent.governance.invoke.ratelimit.leakybucket.LeakyBucketLimiter;
+import com.jd.live.agent.governance.invoke.ratelimit.tokenbucket.SmoothBurstyLimiter;
+import com.jd.live.agent.governance.invoke.ratelimit.tokenbucket.SmoothWarmupLimiter;
+import com.jd.live.agent.governance.policy.service.limit.RateLimitPolicy;
+import com.jd.live.agent.governance.policy.service.limit.SlidingWindow;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the token bucket limiters shared by all the benchmark threads.
+ * <p>
+ * The permits are acquired without waiting, so the result reflects the cost of the state update
+ * under contention. Run the main method to measure the scaling from 1 to 64 threads.
+ * </p>
+ * <pre>
+ * mvn -pl joylive-test/joylive-test-benchmark -am -Dmaven.test.skip=false test-compile
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+
+    @Param({"SmoothBursty", "SmoothWarmup", "LeakyBucket"})
+    private String type;
+
+    private RateLimiter limiter;
+
+    @Setup
+    public void setup() {
+        RateLimitPolicy policy = new RateLimitPolicy();
+        policy.setRealizeType(type);
+        policy.setMaxWaitMs(0L);
+        // high enough rate to keep most of the acquisitions successful
+        SlidingWindow window = new SlidingWindow(10000000, 1000L);
+        switch (type) {
+            case "SmoothWarmup":
+                limiter = new SmoothWarmupLimiter(policy, window);
+                break;
+            case "LeakyBucket":
+                limiter = new LeakyBucketLimiter(policy, window);
+                break;
+            case "SmoothBursty":
+            default:
+                limiter = new SmoothBurstyLimiter(policy, window);
+        }
+    }
+
+    @Benchmark
+    public boolean acquire() {
+        return limiter.acquire(1, 0, TimeUnit.MILLISECONDS);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREADS) {
+            Options options = new OptionsBuilder()
+                    .include(RateLimiterBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.benchmark.time;
+
+import com.jd.live.agent.core.util.time.HashedWheelTimer;
+import com.jd.live.agent.core.util.time.TimeScheduler;
+import com.jd.live.agent.core.util.time.Timeout;
+import com.jd.live.agent.core.util.time.Timer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the delay queue based scheduler with the hashed wheel timer shared by all the benchmark threads.
+ * <ul>
+ * <li>addCancel: adds a request timeout and cancels it, which is the common case of a completed request.</li>
+ * <li>fire: adds a short timeout which is fired by the timer on the next tick. The outstanding timeouts are
+ * bounded by {@link #MAX_OUTSTANDING}, so the threads wait for the fired ones instead of queueing tasks without
+ * limit, and the result is the sustained firing throughput.</li>
+ * </ul>
+ * Run the main method to measure the scaling from 1 to 16 threads.
+ * <pre>
+ * mvn -pl joylive-test/joylive-test-benchmark -am -Dmaven.test.skip=false test-compile
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimerBenchmark {
+
+    private static final int[] THREADS = {1, 4, 16};
+
+    private static final int MAX_OUTSTANDING = 100000;
+
+    private static final Runnable NOOP = () -> {
+    };
+
+    @Param({"scheduler", "wheel"})
+    private String type;
+
+    private Timer timer;
+
+    private Semaphore outstanding;
+
+    @Setup
+    public void setup() {
+        outstanding = new Semaphore(MAX_OUTSTANDING);
+        if ("wheel".equals(type)) {
+            HashedWheelTimer wheel = new HashedWheelTimer("benchmark-timer", 100, 512, 4, 0);
+            wheel.start();
+            timer = wheel;
+        } else {
+            TimeScheduler scheduler = new TimeScheduler("benchmark-timer", 100, 512, 4, 0);
+            scheduler.start();
+            timer = scheduler;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        timer.close();
+    }
+
+    @Benchmark
+    public boolean addCancel() {
+        Timeout timeout = timer.delay("timeout", 3000, NOOP);
+        return timeout.cancel();
+    }
+
+    @Benchmark
+    public Timeout fire() {
+        outstanding.acquireUninterruptibly();
+        return timer.delay("fire", 1, outstanding::release);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREADS) {
+            Options options = new OptionsBuilder()
+                    .include(TimerBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
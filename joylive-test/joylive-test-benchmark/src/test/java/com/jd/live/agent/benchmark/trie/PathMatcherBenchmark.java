@@ -0,0 +1,118 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.benchmark.trie;
+
+import com.jd.live.agent.core.util.trie.CompiledPathMatcher;
+import com.jd.live.agent.core.util.trie.PathMatchType;
+import com.jd.live.agent.core.util.trie.PathMatcher;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the substring based path matcher with the compiled path matcher on REST route sets.
+ * <p>
+ * Each resource has a collection, an item, a sub collection and a sub item route, such as
+ * {@code /api/v1/orders}, {@code /api/v1/orders/{id}}, {@code /api/v1/orders/{id}/items}
+ * and {@code /api/v1/orders/{id}/items/{itemId}}. The requests hit the routes randomly,
+ * and some of them have an extra segment to be matched by prefix.
+ * </p>
+ * <pre>
+ * mvn -pl joylive-test/joylive-test-benchmark -am -Dmaven.test.skip=false test-compile
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathMatcherBenchmark {
+
+    private static final int REQUESTS = 1024;
+
+    @Param({"10", "1000", "10000"})
+    private int size;
+
+    private PathMatcher<String> matcher;
+
+    private CompiledPathMatcher<String> compiled;
+
+    private String[] requests;
+
+    private int index;
+
+    @Setup
+    public void setup() {
+        matcher = new PathMatcher<>();
+        for (int i = 0; i < size; i++) {
+            String path = route(i);
+            matcher.addPath(path, path);
+        }
+        compiled = matcher.compile();
+        Random random = new Random(0);
+        requests = new String[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            requests[i] = request(random.nextInt(size), random);
+        }
+    }
+
+    @Benchmark
+    public String matcher() {
+        PathMatcher.MatchResult<String> result = matcher.match(next());
+        return result == null ? null : result.getValue();
+    }
+
+    @Benchmark
+    public String compiled() {
+        return compiled.match(next(), PathMatchType.PREFIX);
+    }
+
+    private String next() {
+        return requests[index++ & (REQUESTS - 1)];
+    }
+
+    private static String route(int i) {
+        String resource = "/api/v" + (i % 3 + 1) + "/resource" + (i / 4);
+        switch (i % 4) {
+            case 0:
+                return resource;
+            case 1:
+                return resource + "/{id}";
+            case 2:
+                return resource + "/{id}/items";
+            default:
+                return resource + "/{id}/items/{itemId}";
+        }
+    }
+
+    private static String request(int i, Random random) {
+        String path = route(i)
+                .replace("{id}", String.valueOf(random.nextInt(100000)))
+                .replace("{itemId}", String.valueOf(random.nextInt(1000)));
+        return random.nextInt(4) == 0 ? path + "/detail" : path;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(PathMatcherBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.core.extension.test;
+
+import com.jd.live.agent.core.extension.ExtensionDesc;
+import com.jd.live.agent.core.extension.api.Byter;
+import com.jd.live.agent.core.extension.index.ExtensionIndex;
+import com.jd.live.agent.core.extension.jplug.JExtensionIndex;
+import com.jd.live.agent.core.extension.jplug.JExtensionLoader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Loads the extensions through the index generated for the test classes.
+ */
+public class JExtensionLoaderTest {
+
+    private static final String RESOURCE = "META-INF/services/" + Byter.class.getName();
+
+    @Test
+    public void testLoadByIndex() throws IOException {
+        ClassLoader parent = JExtensionLoaderTest.class.getClassLoader();
+        try (URLClassLoader scanned = new URLClassLoader(new URL[0], parent);
+             URLClassLoader indexed = new URLClassLoader(new URL[0], parent)) {
+            List<ExtensionDesc<Byter>> scans = new JExtensionLoader(scanned, null, null, false).load(Byter.class);
+            // the index is not read when it is disabled.
+            Assertions.assertNull(JExtensionIndex.get(scanned).getIndex(scanned.getResource(RESOURCE), RESOURCE));
+
+            List<ExtensionDesc<Byter>> indexes = new JExtensionLoader(indexed, null, null, true).load(Byter.class);
+            // the service file of the test classes is served from its index.
+            ExtensionIndex index = JExtensionIndex.get(indexed).getIndex(indexed.getResource(RESOURCE), RESOURCE);
+            Assertions.assertNotNull(index);
+            Assertions.assertNotNull(index.getExtensions(Byter.class.getName()));
+            Assertions.assertEquals(2, indexes.size());
+            Assertions.assertEquals(describe(scans), describe(indexes));
+        }
+    }
+
+    private static List<String> describe(List<ExtensionDesc<Byter>> extensions) {
+        return extensions.stream()
+                .map(e -> e.getName() + "@" + e.getProvider() + ":" + e.getOrder() + ":" + e.isSingleton())
+                .collect(Collectors.toList());
+    }
+}